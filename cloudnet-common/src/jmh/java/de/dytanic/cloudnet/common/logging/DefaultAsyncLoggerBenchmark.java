@@ -0,0 +1,151 @@
+package de.dytanic.cloudnet.common.logging;
+
+import de.dytanic.cloudnet.common.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the ring buffer of the DefaultAsyncLogger with batched file writes against the previous logger, which
+ * passed every entry through a LinkedBlockingQueue and flushed the log file after every entry. Every invocation
+ * logs a batch of entries and waits until the file handler has written all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultAsyncLoggerBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"false", "true"})
+    public boolean ringBuffer;
+
+    private final AtomicLong handledEntries = new AtomicLong();
+
+    private File directory;
+
+    private ILogger logger;
+
+    private long loggedEntries;
+
+    @Setup
+    public void setup() throws Exception {
+        this.directory = Files.createTempDirectory("cloudnet-logger-benchmark").toFile();
+
+        DefaultFileLogHandler fileLogHandler = new DefaultFileLogHandler(this.directory, "benchmark.log", Long.MAX_VALUE);
+
+        if (this.ringBuffer) {
+            this.logger = new DefaultAsyncLogger();
+            this.logger.addLogHandler(new CountingLogHandler(fileLogHandler, false));
+        } else {
+            this.logger = new QueueLogger();
+            this.logger.addLogHandler(new CountingLogHandler(fileLogHandler, true));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.logger.close();
+        FileUtils.delete(this.directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void logBatch() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            this.logger.log(LogLevel.INFO, "[Lobby-1] Player joined the game: " + i);
+        }
+
+        this.loggedEntries += BATCH_SIZE;
+
+        while (this.handledEntries.get() < this.loggedEntries) {
+            Thread.yield();
+        }
+    }
+
+    private final class CountingLogHandler implements ILogHandler {
+
+        private final ILogHandler logHandler;
+
+        private final boolean flushEveryEntry;
+
+        private CountingLogHandler(ILogHandler logHandler, boolean flushEveryEntry) {
+            this.logHandler = logHandler;
+            this.flushEveryEntry = flushEveryEntry;
+        }
+
+        @Override
+        public void handle(LogEntry logEntry) {
+            this.logHandler.handle(logEntry);
+
+            if (this.flushEveryEntry) {
+                this.logHandler.flush();
+            }
+
+            DefaultAsyncLoggerBenchmark.this.handledEntries.incrementAndGet();
+        }
+
+        @Override
+        public void flush() {
+            this.logHandler.flush();
+        }
+
+        @Override
+        public void close() throws Exception {
+            this.logHandler.close();
+        }
+    }
+
+    /**
+     * The previous DefaultAsyncLogger, which allocated a runnable for every entry and passed it to the log thread
+     * through a LinkedBlockingQueue
+     */
+    private static final class QueueLogger extends DefaultAsyncLogger {
+
+        private final BlockingQueue<Runnable> entries = new LinkedBlockingQueue<>();
+
+        private final Thread logThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    this.entries.take().run();
+                } catch (InterruptedException exception) {
+                    break;
+                }
+            }
+        });
+
+        private QueueLogger() {
+            super(2, false);
+
+            this.logThread.setPriority(Thread.MIN_PRIORITY);
+            this.logThread.start();
+        }
+
+        @Override
+        public ILogger log(LogEntry logEntry) {
+            this.entries.offer(() -> {
+                for (ILogHandler logHandler : super.handlers) {
+                    logHandler.handle(logEntry);
+                }
+            });
+
+            return this;
+        }
+
+        @Override
+        public void close() throws Exception {
+            this.logThread.interrupt();
+            this.logThread.join();
+
+            super.close();
+        }
+    }
+}
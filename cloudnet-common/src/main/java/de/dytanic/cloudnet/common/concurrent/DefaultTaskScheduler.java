@@ -3,29 +3,42 @@ package de.dytanic.cloudnet.common.concurrent;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Queue;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * The workers of this scheduler are parked on a blocking queue until a task is offered, so that a task
+ * will be executed directly without any polling delay. Delayed and repeating tasks are held in a
+ * {@link DelayedTaskTimer} until they are due. Idle workers are stopped after the thread life time.
+ */
 public class DefaultTaskScheduler implements ITaskScheduler {
 
     protected static final long DEFAULT_THREAD_LIFE_MILLIS = 60000, DEFAULT_THREAD_PAUSE_MILLIS = 5;
 
     protected static final AtomicInteger GROUP_COUNT = new AtomicInteger();
 
-    protected final Deque<IScheduledTask<?>> taskEntries = new ConcurrentLinkedDeque<>();
+    protected final BlockingDeque<IScheduledTask<?>> taskEntries = new LinkedBlockingDeque<>();
 
     protected final Queue<IWorkableThread> workers = new ConcurrentLinkedQueue<>();
 
     protected final ThreadGroup threadGroup = new ThreadGroup("DefaultTaskScheduler-" + GROUP_COUNT.incrementAndGet());
 
+    protected final DelayedTaskTimer<IScheduledTask<?>> delayedTaskTimer = new DelayedTaskTimer<>(this.threadGroup, this::offerDueTask);
+
+    protected final AtomicInteger idleWorkerCount = new AtomicInteger();
+
     protected final AtomicLong THREAD_COUNT = new AtomicLong();
 
     protected volatile int maxThreadSize;
     protected volatile long threadLifeMillis;
+    /**
+     * Not used anymore, because the workers are waiting on the task queue instead of polling it
+     */
     protected volatile long threadPauseDelayMillis;
 
     public DefaultTaskScheduler() {
@@ -54,6 +67,10 @@ public class DefaultTaskScheduler implements ITaskScheduler {
         return GROUP_COUNT;
     }
 
+    public DelayedTaskTimer<IScheduledTask<?>> getDelayedTaskTimer() {
+        return delayedTaskTimer;
+    }
+
     public Deque<IScheduledTask<?>> getTaskEntries() {
         return taskEntries;
     }
@@ -82,10 +99,12 @@ public class DefaultTaskScheduler implements ITaskScheduler {
         this.threadLifeMillis = threadLifeMillis;
     }
 
+    @Deprecated
     public long getThreadPauseDelayMillis() {
         return threadPauseDelayMillis;
     }
 
+    @Deprecated
     public void setThreadPauseDelayMillis(long threadPauseDelayMillis) {
         this.threadPauseDelayMillis = threadPauseDelayMillis;
     }
@@ -189,13 +208,10 @@ public class DefaultTaskScheduler implements ITaskScheduler {
     @Override
     public void shutdown() {
         for (IWorkableThread worker : this.workers) {
-            try {
-                worker.stop();
-            } catch (ThreadDeath th) {
-                workers.remove(worker);
-            }
+            worker.interrupt();
         }
 
+        delayedTaskTimer.clear();
         taskEntries.clear();
         workers.clear();
     }
@@ -208,8 +224,11 @@ public class DefaultTaskScheduler implements ITaskScheduler {
     @Override
     public <V> IScheduledTask<V> offerTask(IScheduledTask<V> scheduledTask) {
         if (scheduledTask != null) {
-            this.taskEntries.offer(scheduledTask);
-            this.checkEnoughThreads();
+            if (scheduledTask.getDelayedTimeStamp() > System.currentTimeMillis()) {
+                this.delayedTaskTimer.offer(scheduledTask, scheduledTask.getDelayedTimeStamp());
+            } else {
+                this.offerDueTask(scheduledTask);
+            }
         }
 
         return scheduledTask;
@@ -218,23 +237,22 @@ public class DefaultTaskScheduler implements ITaskScheduler {
     @Override
     public ITaskScheduler cancelAll() {
         for (IWorkableThread worker : this.workers) {
-            try {
-                worker.interrupt();
-                worker.stop();
-            } catch (ThreadDeath th) {
-                workers.remove(worker);
-            }
+            worker.interrupt();
         }
 
+        delayedTaskTimer.clear();
         taskEntries.clear();
         workers.clear();
         return this;
     }
 
-    private void checkEnoughThreads() {
-        IWorkableThread workableThread = hasFreeWorker();
+    private void offerDueTask(IScheduledTask<?> scheduledTask) {
+        this.taskEntries.offer(scheduledTask);
+        this.checkEnoughThreads();
+    }
 
-        if (workableThread == null && this.getCurrentWorkerCount() < maxThreadSize) {
+    private void checkEnoughThreads() {
+        if (this.idleWorkerCount.get() < this.taskEntries.size() && this.getCurrentWorkerCount() < maxThreadSize) {
             this.createWorker();
         }
     }
@@ -259,8 +277,6 @@ public class DefaultTaskScheduler implements ITaskScheduler {
 
         protected volatile IScheduledTask<?> scheduledTask = null;
 
-        protected long lifeMillis = System.currentTimeMillis();
-
         public Worker() {
             super(threadGroup, threadGroup.getName() + "#" + THREAD_COUNT.incrementAndGet());
 
@@ -273,67 +289,55 @@ public class DefaultTaskScheduler implements ITaskScheduler {
 
         @Override
         public void run() {
-            while (!isInterrupted() && (lifeMillis + threadLifeMillis) > System.currentTimeMillis()) {
-                this.run0();
-                this.sleep0(threadPauseDelayMillis);
+            try {
+                while (!isInterrupted() && this.poll()) {
+                    this.run0();
+                }
+            } catch (InterruptedException ignored) {
             }
 
             workers.remove(this);
-        }
 
-        private synchronized void run0() {
-            while (!taskEntries.isEmpty() && !isInterrupted()) {
-                scheduledTask = taskEntries.poll();
-
-                if (scheduledTask == null) {
-                    continue;
-                }
-
-                lifeMillis = System.currentTimeMillis();
-
-                long difference = scheduledTask.getDelayedTimeStamp() - System.currentTimeMillis();
-
-                if (difference > threadPauseDelayMillis) {
-                    sleep0(threadPauseDelayMillis - 1);
-                    offerEntry(scheduledTask);
-                    continue;
-
-                } else if (difference > 0) {
-                    sleep0(difference);
-                }
-
-                try {
-                    scheduledTask.call();
-                } catch (Throwable throwable) {
-                    throwable.printStackTrace();
-                }
-
-                if (checkScheduledTask()) {
-                    scheduledTask = null;
-                }
+            //a task could be offered, while this worker is stopping
+            if (!taskEntries.isEmpty()) {
+                checkEnoughThreads();
             }
         }
 
-        private boolean checkScheduledTask() {
-            if (scheduledTask.isRepeatable()) {
-                this.offerEntry(scheduledTask);
-                return false;
+        private boolean poll() throws InterruptedException {
+            idleWorkerCount.incrementAndGet();
+
+            try {
+                scheduledTask = taskEntries.poll(threadLifeMillis, TimeUnit.MILLISECONDS);
+            } finally {
+                idleWorkerCount.decrementAndGet();
             }
 
-            return true;
+            return scheduledTask != null;
         }
 
-        private void sleep0(long value) {
+        private void run0() {
+            if (scheduledTask.getDelayedTimeStamp() > System.currentTimeMillis()) {
+                offerEntry(scheduledTask);
+                return;
+            }
+
             try {
-                Thread.sleep(value);
-            } catch (InterruptedException exception) {
-                exception.printStackTrace();
+                scheduledTask.call();
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+
+            if (scheduledTask.isRepeatable()) {
+                offerEntry(scheduledTask);
+            } else {
+                scheduledTask = null;
             }
         }
 
         private void offerEntry(IScheduledTask<?> scheduledTask) {
-            taskEntries.offer(scheduledTask);
             this.scheduledTask = null;
+            offerTask(scheduledTask);
         }
 
         @Override
@@ -0,0 +1,100 @@
+package de.dytanic.cloudnet.common.concurrent;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Holds the delayed tasks of a scheduler in a heap ordered by their execution time stamp.
+ * A single timer thread is parked until the next entry is due and hands it over to the dispatcher,
+ * so that the workers of the scheduler only have to wait for tasks, which can be executed directly.
+ * The timer thread will be started with the first delayed entry.
+ *
+ * @param <T> the type of the delayed tasks
+ */
+public final class DelayedTaskTimer<T> {
+
+    private static final AtomicLong SEQUENCE_COUNTER = new AtomicLong();
+
+    private final DelayQueue<Entry<T>> delayedEntries = new DelayQueue<>();
+
+    private final ThreadGroup threadGroup;
+
+    private final Consumer<T> dispatcher;
+
+    private volatile Thread timerThread;
+
+    public DelayedTaskTimer(ThreadGroup threadGroup, Consumer<T> dispatcher) {
+        this.threadGroup = threadGroup;
+        this.dispatcher = dispatcher;
+    }
+
+    public void offer(T task, long timeStampMillis) {
+        this.delayedEntries.offer(new Entry<>(task, timeStampMillis));
+        this.checkTimerThread();
+    }
+
+    public int size() {
+        return this.delayedEntries.size();
+    }
+
+    public synchronized void clear() {
+        if (this.timerThread != null) {
+            this.timerThread.interrupt();
+            this.timerThread = null;
+        }
+
+        this.delayedEntries.clear();
+    }
+
+    private void checkTimerThread() {
+        if (this.timerThread == null) {
+            synchronized (this) {
+                if (this.timerThread == null) {
+                    this.timerThread = new Thread(this.threadGroup, this::run, this.threadGroup.getName() + "#Timer");
+                    this.timerThread.setDaemon(true);
+                    this.timerThread.start();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                this.dispatcher.accept(this.delayedEntries.take().task);
+            } catch (InterruptedException exception) {
+                return;
+            } catch (Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        }
+    }
+
+    private static final class Entry<T> implements Delayed {
+
+        private final T task;
+
+        private final long timeStampMillis, sequence = SEQUENCE_COUNTER.incrementAndGet();
+
+        private Entry(T task, long timeStampMillis) {
+            this.task = task;
+            this.timeStampMillis = timeStampMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.timeStampMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Entry<?> entry = (Entry<?>) other;
+
+            int result = Long.compare(this.timeStampMillis, entry.timeStampMillis);
+            return result != 0 ? result : Long.compare(this.sequence, entry.sequence);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package de.dytanic.cloudnet.common.concurrent.scheduler;
 
 import de.dytanic.cloudnet.common.annotation.UnsafeClass;
+import de.dytanic.cloudnet.common.concurrent.DelayedTaskTimer;
 import de.dytanic.cloudnet.common.concurrent.IVoidCallback;
 
 import java.time.*;
@@ -8,10 +9,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Deque;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -33,6 +31,9 @@ public class TaskScheduler {
 
     protected final String name = threadGroup.getName();
 
+    /**
+     * Not used anymore, because the workers are waiting on the task queue instead of polling it
+     */
     protected final long sleepThreadSwitch;
 
     protected final boolean dynamicWorkerCount;
@@ -41,7 +42,9 @@ public class TaskScheduler {
 
     protected int maxThreads;
 
-    protected Deque<TaskEntry<?>> taskEntries = new ConcurrentLinkedDeque<>();
+    protected BlockingDeque<TaskEntry<?>> taskEntries = new LinkedBlockingDeque<>();
+
+    protected final DelayedTaskTimer<TaskEntry<?>> delayedTaskTimer = new DelayedTaskTimer<>(threadGroup, this::offerDueEntry);
 
     protected Collection<Worker> workers = new ConcurrentLinkedQueue<>();
 
@@ -370,16 +373,12 @@ public class TaskScheduler {
     public Collection<TaskEntry<?>> shutdown() {
 
         for (Worker worker : workers) {
-            try {
-                worker.interrupt();
-                worker.stop();
-            } catch (ThreadDeath th) {
-                workers.remove(worker);
-            }
+            worker.interrupt();
         }
 
         Collection<TaskEntry<?>> entries = new ArrayList<>(taskEntries);
 
+        delayedTaskTimer.clear();
         taskEntries.clear();
         workers.clear();
         threadId.set(0);
@@ -438,11 +437,24 @@ public class TaskScheduler {
     }
 
     private <V> TaskEntryFuture<V> offerEntry(TaskEntry<V> entry) {
-        this.taskEntries.offer(entry);
+        if (entry.delayTimeOut > System.currentTimeMillis()) {
+            this.delayedTaskTimer.offer(entry, entry.delayTimeOut);
+        } else {
+            this.taskEntries.offer(entry);
+        }
+
         checkEnoughThreads();
         return entry.drop();
     }
 
+    private void offerDueEntry(TaskEntry<?> entry) {
+        this.taskEntries.offer(entry);
+
+        if (hasFreeWorker() == null && getCurrentThreadSize() < maxThreads) {
+            newWorker();
+        }
+    }
+
     private static final class VoidTaskEntry extends TaskEntry<Void> {
 
         public VoidTaskEntry(Callable<Void> task, IVoidCallback<Void> complete, long delay, long repeat) {
@@ -466,8 +478,6 @@ public class TaskScheduler {
 
         volatile TaskEntry<?> taskEntry = null;
 
-        private long liveTimeStamp = System.currentTimeMillis();
-
         Worker() {
             super(threadGroup, threadGroup.getName() + "#" + threadId.incrementAndGet());
             setDaemon(true);
@@ -478,53 +488,37 @@ public class TaskScheduler {
         }
 
         @Override
-        public synchronized void run() {
-            while ((liveTimeStamp + threadLifeMillis) > System.currentTimeMillis()) {
-                execute();
-                sleepUninterruptedly(sleepThreadSwitch);
+        public void run() {
+            try {
+                while (!isInterrupted() && (taskEntry = taskEntries.poll(threadLifeMillis, TimeUnit.MILLISECONDS)) != null) {
+                    execute();
+                }
+            } catch (InterruptedException ignored) {
             }
 
+            taskEntry = null;
             workers.remove(this);
         }
 
         public synchronized void execute() {
-            while (!taskEntries.isEmpty() && !isInterrupted()) {
-                taskEntry = taskEntries.poll();
-
-                if (taskEntry == null || taskEntry.task == null) {
-                    continue;
-                }
+            if (taskEntry.task == null) {
+                taskEntry = null;
+                return;
+            }
 
-                liveTimeStamp = System.currentTimeMillis();
-
-                if (taskEntry.delayTimeOut != 0 && System.currentTimeMillis() < taskEntry.delayTimeOut) {
-                    if (maxThreads != 1) {
-                        long difference = taskEntry.delayTimeOut - System.currentTimeMillis();
-
-                        if (difference > sleepThreadSwitch) {
-                            sleepUninterruptedly(sleepThreadSwitch - 1);
-                            offerEntry(taskEntry);
-                            continue;
-
-                        } else {
-                            sleepUninterruptedly(difference);
-                        }
-                    } else {
-                        sleepUninterruptedly(sleepThreadSwitch);
-                        offerEntry(taskEntry);
-                        continue;
-                    }
-                }
+            if (taskEntry.delayTimeOut > System.currentTimeMillis()) {
+                offerEntry(taskEntry);
+                return;
+            }
 
-                try {
-                    taskEntry.invoke();
-                } catch (Exception exception) {
-                    exception.printStackTrace();
-                }
+            try {
+                taskEntry.invoke();
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            }
 
-                if (checkEntry()) {
-                    taskEntry = null;
-                }
+            if (checkEntry()) {
+                taskEntry = null;
             }
         }
 
@@ -534,8 +528,13 @@ public class TaskScheduler {
 
 
         private void offerEntry(TaskEntry<?> entry) {
-            taskEntries.offer(taskEntry);
             taskEntry = null;
+
+            if (entry.delayTimeOut > System.currentTimeMillis()) {
+                delayedTaskTimer.offer(entry, entry.delayTimeOut);
+            } else {
+                taskEntries.offer(entry);
+            }
         }
 
 
@@ -553,15 +552,6 @@ public class TaskScheduler {
             return true;
         }
 
-
-        private synchronized void sleepUninterruptedly(long millis) {
-            try {
-                Thread.sleep(millis);
-            } catch (InterruptedException exception) {
-                exception.printStackTrace();
-            }
-        }
-
     }
 
 }
\ No newline at end of file
@@ -119,13 +119,20 @@ public final class FileUtils {
             return;
         }
 
-        if (!Files.exists(to)) {
+        if (Files.exists(to)) {
+            if (Files.isSameFile(from, to)) {
+                return;
+            }
+
+            //the file is replaced instead of overwritten, so that hard links of the old file keep their content
+            Files.delete(to);
+        } else {
             to.toFile().getParentFile().mkdirs();
             to.toFile().delete();
-
-            Files.createFile(to);
         }
 
+        Files.createFile(to);
+
         try (InputStream inputStream = Files
                 .newInputStream(from); OutputStream outputStream = Files
                 .newOutputStream(to)) {
@@ -18,7 +18,11 @@ import java.util.concurrent.LinkedBlockingQueue;
  * <p>
  * The actual console output is still executed in a thread where its priority
  * is as low as possible to affect the program even less
+ *
+ * @deprecated the DefaultAsyncLogger passes the entries to its own log thread already, a PrintStream with a
+ * LogOutputStream doesn't need a second queue and thread
  */
+@Deprecated
 public class AsyncPrintStream extends PrintStream {
 
     static final BlockingQueue<Runnable> ASYNC_QUEUE = new LinkedBlockingQueue<>();
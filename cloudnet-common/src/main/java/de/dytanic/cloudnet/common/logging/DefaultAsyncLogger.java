@@ -1,44 +1,65 @@
 package de.dytanic.cloudnet.common.logging;
 
-import de.dytanic.cloudnet.common.collection.Iterables;
-
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The default implementation of the ILogger interface.
  * The the logger executes the registered logHandlers asynchronously by default or
  * synchronously if the LogLevel disallow async log handling
+ * <p>
+ * The asynchronous entries are passed to the log thread through a bounded ring buffer, which doesn't allocate
+ * anything per entry. The log thread handles the entries in batches and flushes the handlers, if the buffer is
+ * empty or the flush interval has passed. If the buffer is full, the logging thread waits for free space or the
+ * entry is dropped, if the logger is configured to drop entries on overflow.
  */
 public class DefaultAsyncLogger implements ILogger {
 
-    protected final Collection<ILogHandler> handlers = Iterables.newArrayList();
-    private final BlockingQueue<LogHandlerRunnable> entries = new LinkedBlockingQueue<>();
-    private final Thread logThread = new Thread() {
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("cloudnet.logging.flushInterval", 500));
 
-        @Override
-        public void run() {
-            while (!isInterrupted()) {
-                try {
-                    LogHandlerRunnable logHandlerRunnable = entries.take();
-                    logHandlerRunnable.call();
+    protected final Collection<ILogHandler> handlers = new CopyOnWriteArrayList<>();
 
-                } catch (Throwable e) {
-                    break;
-                }
-            }
+    private final AtomicReferenceArray<LogEntry> ringBuffer;
+
+    private final int mask;
+
+    private final boolean dropOnOverflow;
+
+    //the next sequence, which is claimed by a logging thread
+    private final AtomicLong producerSequence = new AtomicLong();
+
+    //the next sequence, which is handled by the log thread, only written by the log thread
+    private volatile long consumerSequence;
+
+    private final AtomicLong droppedEntries = new AtomicLong(), overflowCount = new AtomicLong();
+
+    private volatile boolean waiting, closed;
+
+    private final Thread logThread = new Thread(this::handleEntries, "AsyncLogger-Thread");
 
-            while (!entries.isEmpty()) {
-                entries.poll().call();
-            }
-        }
-    };
     protected int level = -1;
 
     public DefaultAsyncLogger() {
+        this(Integer.getInteger("cloudnet.logging.ringBufferSize", 8192), Boolean.getBoolean("cloudnet.logging.dropOnOverflow"));
+    }
+
+    /**
+     * @param ringBufferSize the count of entries, which can be queued for the log thread, rounded down to a power of two
+     * @param dropOnOverflow true, if entries should be dropped, if the ring buffer is full, instead of waiting for
+     *                       free space
+     */
+    public DefaultAsyncLogger(int ringBufferSize, boolean dropOnOverflow) {
+        int capacity = Integer.highestOneBit(Math.max(2, ringBufferSize));
+
+        this.ringBuffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.dropOnOverflow = dropOnOverflow;
+
         logThread.setPriority(Thread.MIN_PRIORITY);
         logThread.start();
     }
@@ -145,48 +166,168 @@ public class DefaultAsyncLogger implements ILogger {
         return true;
     }
 
+    /**
+     * @return the count of entries, which were dropped, because the ring buffer was full
+     */
+    public long getDroppedEntries() {
+        return this.droppedEntries.get();
+    }
+
+    /**
+     * @return the count of entries, which found the ring buffer full and had to wait or were dropped
+     */
+    public long getOverflowCount() {
+        return this.overflowCount.get();
+    }
+
+    /**
+     * @return the count of entries, which are queued for the log thread
+     */
+    public int getQueuedEntries() {
+        return (int) (this.producerSequence.get() - this.consumerSequence);
+    }
+
+    public int getRingBufferSize() {
+        return this.ringBuffer.length();
+    }
+
     @Override
     public void close() throws Exception {
+        this.closed = true;
+
+        LockSupport.unpark(this.logThread);
+        this.logThread.join();
+
         for (ILogHandler logHandler : this.handlers) {
             logHandler.close();
         }
 
-        this.logThread.interrupt();
-        this.logThread.join();
         this.handlers.clear();
     }
 
 
     private void handleLogEntry(LogEntry logEntry) {
         if (logEntry != null && (level == -1 || logEntry.getLogLevel().getLevel() <= level)) {
-            if (logEntry.getLogLevel().isAsync()) {
-                entries.offer(new LogHandlerRunnable(logEntry));
+            //the log thread would wait for itself, if the ring buffer is full
+            if (logEntry.getLogLevel().isAsync() && Thread.currentThread() != this.logThread && !this.closed) {
+                this.offer(logEntry);
             } else {
-                new LogHandlerRunnable(logEntry).call();
+                this.handle(logEntry);
+                this.flushHandlers();
             }
         }
     }
 
-    public class LogHandlerRunnable implements Callable<Void> {
+    private void offer(LogEntry logEntry) {
+        boolean overflowed = false;
+        long sequence;
+
+        while (true) {
+            sequence = this.producerSequence.get();
 
-        private final LogEntry logEntry;
+            if (sequence - this.consumerSequence >= this.ringBuffer.length()) {
+                if (!overflowed) {
+                    overflowed = true;
+                    this.overflowCount.incrementAndGet();
+                }
+
+                if (this.dropOnOverflow || this.closed || !this.logThread.isAlive()) {
+                    this.droppedEntries.incrementAndGet();
+                    return;
+                }
 
-        public LogHandlerRunnable(LogEntry logEntry) {
-            this.logEntry = logEntry;
+                LockSupport.unpark(this.logThread);
+                LockSupport.parkNanos(100000L);
+                continue;
+            }
+
+            if (this.producerSequence.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        this.ringBuffer.set((int) sequence & this.mask, logEntry);
+
+        if (this.waiting) {
+            LockSupport.unpark(this.logThread);
         }
+    }
+
+    private void handleEntries() {
+        long lastFlush = System.nanoTime(), reportedDroppedEntries = 0;
+        boolean unflushed = false;
+
+        while (true) {
+            int index = (int) this.consumerSequence & this.mask;
+            LogEntry logEntry = this.ringBuffer.get(index);
 
-        @Override
-        public Void call() {
+            if (logEntry != null) {
+                this.ringBuffer.set(index, null);
+                this.consumerSequence++;
 
-            for (ILogHandler iLogHandler : handlers) {
-                try {
-                    iLogHandler.handle(logEntry);
-                } catch (Exception exception) {
-                    exception.printStackTrace();
+                this.handle(logEntry);
+                unflushed = true;
+
+                if (System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                    this.flushHandlers();
+
+                    lastFlush = System.nanoTime();
+                    unflushed = false;
                 }
+
+                continue;
+            }
+
+            long droppedEntries = this.droppedEntries.get();
+
+            if (droppedEntries != reportedDroppedEntries) {
+                this.handle(new LogEntry(System.currentTimeMillis(), DefaultAsyncLogger.class, new String[]{
+                        (droppedEntries - reportedDroppedEntries) + " log entries were dropped, because the ring buffer of the logger was full"
+                }, LogLevel.WARNING, null, Thread.currentThread()));
+
+                reportedDroppedEntries = droppedEntries;
+                unflushed = true;
+            }
+
+            if (unflushed) {
+                this.flushHandlers();
+
+                lastFlush = System.nanoTime();
+                unflushed = false;
+            }
+
+            if (this.closed && this.producerSequence.get() == this.consumerSequence) {
+                break;
+            }
+
+            this.waiting = true;
+
+            if (this.ringBuffer.get(index) == null && !this.closed) {
+                LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+            }
+
+            this.waiting = false;
+        }
+    }
+
+    private void handle(LogEntry logEntry) {
+        for (ILogHandler iLogHandler : handlers) {
+            try {
+                iLogHandler.handle(logEntry);
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    private void flushHandlers() {
+        for (ILogHandler iLogHandler : handlers) {
+            try {
+                iLogHandler.flush();
+            } catch (Exception exception) {
+                exception.printStackTrace();
             }
-            return null;
         }
     }
 
-}
\ No newline at end of file
+}
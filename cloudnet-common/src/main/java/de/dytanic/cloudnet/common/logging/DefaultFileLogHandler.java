@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
 
 /**
  * A standard file logger for this LoggingAPI. All important configurations can be made in the constructor
@@ -74,33 +73,45 @@ public final class DefaultFileLogHandler extends AbstractLogHandler {
             setFormatter(new DefaultLogFormatter());
         }
 
-        if (entry == null || this.entry.length() > maxBytes) {
+        if (entry == null) {
             this.entry = this.initPrintWriter(selectLogFile(this.printWriter, this.writternBytes, this.pattern));
         }
 
         String formatted = getFormatter().format(logEntry);
-        byte[] formattedBytes = formatted.getBytes(StandardCharsets.UTF_8);
-        this.writternBytes = writternBytes + formattedBytes.length;
+        int formattedLength = utf8Length(formatted);
+        this.writternBytes = writternBytes + formattedLength;
 
         if (this.writternBytes > maxBytes) {
             this.entry = this.initPrintWriter(selectLogFile(this.printWriter, this.writternBytes, this.pattern));
         }
 
         printWriter.write(formatted);
-        printWriter.flush();
 
         if (this.errorWriter != null && logEntry.getLogLevel().getLevel() >= 126 && logEntry.getLogLevel().getLevel() <= 127) {
             if (this.errorFile == null || this.errorFile.length() > maxBytes) {
                 this.errorFile = this.initErrorWriter(selectLogFile(this.errorWriter, this.writtenErrorBytes, "error.log"));
             }
 
-            this.writtenErrorBytes += formattedBytes.length;
+            this.writtenErrorBytes += formattedLength;
 
             if (this.writtenErrorBytes > maxBytes) {
                 this.errorFile = this.initErrorWriter(selectLogFile(this.errorWriter, this.writtenErrorBytes, "error.log"));
             }
 
             this.errorWriter.write(formatted);
+        }
+    }
+
+    /**
+     * Writes the buffered entries into the log files, the entries aren't written one by one
+     */
+    @Override
+    public void flush() {
+        if (this.printWriter != null) {
+            this.printWriter.flush();
+        }
+
+        if (this.errorWriter != null) {
             this.errorWriter.flush();
         }
     }
@@ -109,6 +120,10 @@ public final class DefaultFileLogHandler extends AbstractLogHandler {
     public void close() {
         printWriter.flush();
         printWriter.close();
+
+        if (this.errorWriter != null) {
+            this.errorWriter.close();
+        }
     }
 
     public File getDirectory() {
@@ -135,6 +150,27 @@ public final class DefaultFileLogHandler extends AbstractLogHandler {
         return writternBytes;
     }
 
+    private static int utf8Length(String text) {
+        int length = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
     private File selectLogFile(PrintWriter printWriter, long writternBytes, String pattern) {
         if (printWriter != null) {
             printWriter.close();
@@ -172,6 +208,8 @@ public final class DefaultFileLogHandler extends AbstractLogHandler {
 
     private File initPrintWriter(File file) {
         try {
+            //the written bytes are counted instead of checking the length of the file for every entry
+            this.writternBytes = file.length();
             this.printWriter = new PrintWriter(new FileWriter(file, true));
         } catch (IOException exception) {
             exception.printStackTrace();
@@ -16,4 +16,11 @@ public interface ILogHandler extends AutoCloseable {
      */
     void handle(LogEntry logEntry);
 
+    /**
+     * Writes the buffered output of the handled entries. The logger calls this method after a batch of entries
+     * has been handled, so that a handler doesn't have to flush its output after every single entry.
+     */
+    default void flush() {
+    }
+
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ package de.dytanic.cloudnet.common.concurrent;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -55,6 +58,23 @@ public class DefaultTaskSchedulerTest implements Callable<String> {
         scheduler.cancelAll();
     }
 
+    @Test
+    public void testDelayedTaskOrder() throws Exception {
+        ITaskScheduler scheduler = new DefaultTaskScheduler(1);
+        Collection<Integer> executionOrder = new ConcurrentLinkedQueue<>();
+
+        scheduler.schedule(() -> executionOrder.add(3), 60);
+        scheduler.schedule(() -> executionOrder.add(1), 20);
+        IScheduledTask<Boolean> last = scheduler.schedule(() -> executionOrder.add(4), 80);
+        scheduler.schedule(() -> executionOrder.add(2), 40);
+        scheduler.schedule(() -> executionOrder.add(0));
+
+        last.get();
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), Arrays.asList(executionOrder.toArray()));
+
+        scheduler.shutdown();
+    }
+
     @Override
     public String call() throws Exception {
         for (int i = 0; i++ < 5; Thread.sleep(2)) {
@@ -3,9 +3,17 @@ package de.dytanic.cloudnet.common.logging;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class DefaultAsyncLoggerTest {
 
-    private String data;
+    private final CountDownLatch release = new CountDownLatch(1), handled = new CountDownLatch(1);
+
+    private volatile String data;
 
     private boolean closed = false;
 
@@ -20,25 +28,115 @@ public class DefaultAsyncLoggerTest {
         Assert.assertTrue(logger.getLogHandlers().iterator().hasNext());
         Assert.assertTrue(logger.hasAsyncSupport());
 
+        //the handler is blocked, so the entry can only be handled after log has returned
         logger.log(LogLevel.INFO, DefaultAsyncLoggerTest.class, "My log message!", "foo", "bar");
 
         Assert.assertNull(data);
 
-        Thread.sleep(100);
-        Assert.assertTrue(data != null && data.equals("My log message!"));
+        release.countDown();
+        Assert.assertTrue(handled.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals("My log message!", data);
 
         logger.close();
 
         Assert.assertTrue(closed);
     }
 
+    @Test
+    public void testBatchedHandling() throws Exception {
+        DefaultAsyncLogger logger = new DefaultAsyncLogger(64, false);
+
+        List<String> messages = new ArrayList<>();
+        AtomicInteger flushes = new AtomicInteger();
+
+        logger.addLogHandler(new ILogHandler() {
+            @Override
+            public void handle(LogEntry logEntry) {
+                messages.add(logEntry.getMessages()[0]);
+            }
+
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            logger.log(LogLevel.INFO, String.valueOf(i));
+        }
+
+        logger.close();
+
+        Assert.assertEquals(1000, messages.size());
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(String.valueOf(i), messages.get(i));
+        }
+
+        Assert.assertEquals(0, logger.getDroppedEntries());
+        Assert.assertTrue(flushes.get() > 0 && flushes.get() < 1000);
+    }
+
+    @Test
+    public void testDropOnOverflow() throws Exception {
+        DefaultAsyncLogger logger = new DefaultAsyncLogger(4, true);
+
+        CountDownLatch handling = new CountDownLatch(1), release = new CountDownLatch(1);
+        List<LogEntry> entries = new ArrayList<>();
+
+        logger.addLogHandler(new ILogHandler() {
+            @Override
+            public void handle(LogEntry logEntry) {
+                handling.countDown();
+
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    exception.printStackTrace();
+                }
+
+                entries.add(logEntry);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        logger.log(LogLevel.INFO, "first");
+        handling.await();
+
+        for (int i = 0; i < 20; i++) {
+            logger.log(LogLevel.INFO, String.valueOf(i));
+        }
+
+        Assert.assertEquals(16, logger.getDroppedEntries());
+        Assert.assertEquals(16, logger.getOverflowCount());
+
+        release.countDown();
+        logger.close();
+
+        //the first entry, the 4 queued entries and the report of the dropped entries
+        Assert.assertEquals(6, entries.size());
+        Assert.assertEquals(LogLevel.WARNING, entries.get(5).getLogLevel());
+    }
+
     private class LogHandler implements ILogHandler {
 
         @Override
         public void handle(LogEntry logEntry) {
-            data = logEntry.getMessages()[0];
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                exception.printStackTrace();
+            }
 
-            Assert.assertNotNull("data transfer", data);
+            data = logEntry.getMessages()[0];
+            handled.countDown();
         }
 
         @Override
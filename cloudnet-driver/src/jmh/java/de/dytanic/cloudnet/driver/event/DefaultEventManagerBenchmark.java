@@ -0,0 +1,134 @@
+package de.dytanic.cloudnet.driver.event;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a callEvent on the global channel with the compiled dispatch table of the
+ * DefaultEventManager against the previous dispatch, which collected and sorted all listeners and
+ * invoked them reflectively on every call
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultEventManagerBenchmark {
+
+    @Param({"4", "32"})
+    public int listenerCount;
+
+    private final IEventManager eventManager = new DefaultEventManager();
+
+    private final List<IRegisteredEventListener> reflectiveListeners = new ArrayList<>();
+
+    private final TickEvent tickEvent = new TickEvent();
+
+    @Setup
+    public void setup() throws Exception {
+        for (int i = 0; i < this.listenerCount; i++) {
+            TickListener tickListener = new TickListener();
+            this.eventManager.registerListener(tickListener);
+
+            for (Method method : TickListener.class.getDeclaredMethods()) {
+                EventListener eventListener = method.getAnnotation(EventListener.class);
+
+                if (eventListener != null) {
+                    this.reflectiveListeners.add(new ReflectiveRegisteredEventListener(eventListener, tickListener, method));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public TickEvent compiledDispatch() {
+        return this.eventManager.callEvent(this.tickEvent);
+    }
+
+    @Benchmark
+    public TickEvent reflectiveDispatch() {
+        List<IRegisteredEventListener> listeners = new ArrayList<>(this.reflectiveListeners);
+        Collections.sort(listeners);
+
+        for (IRegisteredEventListener listener : listeners) {
+            listener.fireEvent(this.tickEvent);
+        }
+
+        return this.tickEvent;
+    }
+
+    public static final class TickEvent extends Event {
+
+        private long ticks;
+    }
+
+    public static final class OtherEvent extends Event {
+    }
+
+    public static final class TickListener {
+
+        @EventListener(priority = EventPriority.HIGH)
+        public void handleTickHigh(TickEvent event) {
+            event.ticks++;
+        }
+
+        @EventListener
+        public void handleTick(TickEvent event) {
+            event.ticks++;
+        }
+
+        @EventListener
+        public void handleOther(OtherEvent event) {
+        }
+    }
+
+    /**
+     * Uses the reflective default fireEvent method of the IRegisteredEventListener
+     */
+    private static final class ReflectiveRegisteredEventListener implements IRegisteredEventListener {
+
+        private final EventListener eventListener;
+
+        private final Object instance;
+
+        private final Method handlerMethod;
+
+        private ReflectiveRegisteredEventListener(EventListener eventListener, Object instance, Method handlerMethod) {
+            this.eventListener = eventListener;
+            this.instance = instance;
+            this.handlerMethod = handlerMethod;
+        }
+
+        @Override
+        public EventListener getEventListener() {
+            return this.eventListener;
+        }
+
+        @Override
+        public EventPriority getPriority() {
+            return this.eventListener.priority();
+        }
+
+        @Override
+        public Object getInstance() {
+            return this.instance;
+        }
+
+        @Override
+        public Method getHandlerMethod() {
+            return this.handlerMethod;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<? extends Event> getEventClass() {
+            return (Class<? extends Event>) this.handlerMethod.getParameterTypes()[0];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy UUID-string + json header packet format with the binary packet framing
+ * on request and response packets, like they are handled by the PacketClientSyncAPIPacketListener
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NettyPacketFramingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean binaryFraming;
+
+    private final NettyPacketEncoder packetEncoder = new NettyPacketEncoder();
+
+    private final NettyPacketDecoder packetDecoder = new NettyPacketDecoder();
+
+    private final List<Object> out = new ArrayList<>(1);
+
+    private Packet requestPacket, responsePacket;
+
+    private ByteBuf byteBuf;
+
+    @Setup
+    public void setup() {
+        this.packetEncoder.setBinaryFraming(this.binaryFraming);
+        this.byteBuf = PooledByteBufAllocator.DEFAULT.buffer();
+
+        this.requestPacket = new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, UUID.randomUUID(), new JsonDocument()
+                .append(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY, "cloudnet_driver_sync_api")
+                .append(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloud_service_by_name")
+                .append("name", "Lobby-1"), new byte[0]);
+
+        this.responsePacket = new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, this.requestPacket.getUniqueId(), new JsonDocument()
+                .append("serviceInfoSnapshot", new JsonDocument()
+                        .append("creationTime", System.currentTimeMillis())
+                        .append("serviceId", new JsonDocument()
+                                .append("uniqueId", UUID.randomUUID().toString())
+                                .append("nodeUniqueId", "Node-1")
+                                .append("taskName", "Lobby")
+                                .append("taskServiceId", 1)
+                                .append("environment", "MINECRAFT_SERVER"))
+                        .append("address", new JsonDocument("host", "127.0.0.1").append("port", 44955))
+                        .append("connected", true)
+                        .append("lifeCycle", "RUNNING")
+                        .append("processSnapshot", new JsonDocument()
+                                .append("heapUsageMemory", 181436512L)
+                                .append("noHeapUsageMemory", 78352128L)
+                                .append("maxHeapMemory", 477626368L)
+                                .append("currentLoadedClassCount", 6012)
+                                .append("totalLoadedClassCount", 6012L)
+                                .append("unloadedClassCount", 0L)
+                                .append("cpuUsage", 3.4D)
+                                .append("pid", 2341))
+                        .append("configuration", new JsonDocument()
+                                .append("groups", Arrays.asList("Lobby", "Global"))
+                                .append("templates", Arrays.asList(
+                                        new JsonDocument("prefix", "Lobby").append("name", "default").append("storage", "local"),
+                                        new JsonDocument("prefix", "Global").append("name", "server").append("storage", "local")
+                                ))
+                                .append("processConfig", new JsonDocument("environment", "MINECRAFT_SERVER").append("maxHeapMemorySize", 512))
+                                .append("port", 44955))
+                        .append("properties", new JsonDocument("Online-Count", 12).append("Max-Players", 100).append("Motd", "A CloudNet Lobby"))
+                ), new byte[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.byteBuf.release();
+    }
+
+    @Benchmark
+    public void encodeDecodeRequest(Blackhole blackhole) throws Exception {
+        this.encodeDecode(this.requestPacket, blackhole);
+    }
+
+    @Benchmark
+    public void encodeDecodeResponse(Blackhole blackhole) throws Exception {
+        this.encodeDecode(this.responsePacket, blackhole);
+    }
+
+    private void encodeDecode(Packet packet, Blackhole blackhole) throws Exception {
+        this.byteBuf.clear();
+        this.packetEncoder.encode(null, packet, this.byteBuf);
+        this.packetDecoder.decode(null, this.byteBuf, this.out);
+
+        blackhole.consume(this.out.get(0));
+        this.out.clear();
+    }
+}
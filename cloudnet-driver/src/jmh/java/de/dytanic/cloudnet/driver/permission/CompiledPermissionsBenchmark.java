@@ -0,0 +1,124 @@
+package de.dytanic.cloudnet.driver.permission;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the check of a permission through the group hierarchy of the IPermissionManagement, as the cloudperms
+ * module did it for every permission check of a plugin, against the check in the cached CompiledPermissions of the
+ * user. The groups form a ladder from the default group up to the admin group, every group extends the group below
+ * and has a few hundred permissions of typical plugins, some of them wildcards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompiledPermissionsBenchmark {
+
+    private static final String[] PLUGINS = {"essentials", "worldedit", "worldguard", "luckperms", "citizens", "multiverse", "bungeecord", "cloudnet"};
+
+    private static final String[] GROUPS = {"Default", "Member", "Premium", "Builder", "Supporter", "Moderator", "Developer", "Admin"};
+
+    private static final String SERVICE_GROUP = "Lobby";
+
+    private static final String[] SERVICE_GROUPS = {SERVICE_GROUP};
+
+    private final String[] permissions = new String[64];
+
+    private IPermissionManagement permissionManagement;
+
+    private CompiledPermissionsCache compiledPermissionsCache;
+
+    private IPermissionUser permissionUser;
+
+    private File file;
+
+    private int index;
+
+    @Setup
+    public void setup() throws Exception {
+        this.file = Files.createTempFile("cloudnet-permissions-benchmark", ".json").toFile();
+        this.permissionManagement = new DefaultJsonFilePermissionManagement(this.file);
+        this.compiledPermissionsCache = new CompiledPermissionsCache();
+
+        Collection<IPermissionGroup> permissionGroups = new ArrayList<>();
+
+        for (int i = 0; i < GROUPS.length; i++) {
+            Collection<String> extendedGroups = new ArrayList<>();
+            if (i > 0) {
+                extendedGroups.add(GROUPS[i - 1]);
+            }
+
+            IPermissionGroup permissionGroup = new PermissionGroup(GROUPS[i], i * 10, extendedGroups, "", "", "", "", i, i == 0);
+
+            for (String plugin : PLUGINS) {
+                for (int command = 0; command < 40; command++) {
+                    permissionGroup.addPermission(plugin + ".command." + GROUPS[i].toLowerCase() + command);
+                }
+
+                permissionGroup.addPermission(SERVICE_GROUP, plugin + ".build." + GROUPS[i].toLowerCase());
+            }
+
+            permissionGroup.addPermission(PLUGINS[i] + ".admin.*");
+            permissionGroup.addPermission(PLUGINS[(i + 1) % PLUGINS.length] + ".command.secret", -1);
+            permissionGroups.add(permissionGroup);
+        }
+
+        this.permissionManagement.setGroups(permissionGroups);
+
+        this.permissionUser = new PermissionUser(UUID.randomUUID(), "Player", null, 0);
+        this.permissionUser.addGroup("Supporter");
+        this.permissionUser.addGroup("Premium");
+        this.permissionUser.addPermission("cloudnet.command.me");
+
+        for (int i = 0; i < this.permissions.length; i++) {
+            String plugin = PLUGINS[i % PLUGINS.length];
+
+            switch (i % 4) {
+                case 0:
+                    this.permissions[i] = plugin + ".command." + GROUPS[i % GROUPS.length].toLowerCase() + (i % 40);
+                    break;
+                case 1:
+                    this.permissions[i] = plugin + ".admin.reload";
+                    break;
+                case 2:
+                    this.permissions[i] = plugin + ".build." + GROUPS[i % GROUPS.length].toLowerCase();
+                    break;
+                default:
+                    this.permissions[i] = plugin + ".unknown.permission";
+                    break;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Benchmark
+    public boolean hierarchyWalk() {
+        Permission permission = new Permission(this.nextPermission(), 0);
+
+        return this.permissionManagement.hasPermission(this.permissionUser, SERVICE_GROUP, permission) ||
+                this.permissionManagement.hasPermission(this.permissionUser, permission);
+    }
+
+    @Benchmark
+    public boolean compiledPermissions() {
+        return this.compiledPermissionsCache.getPermissions(this.permissionManagement, this.permissionUser, SERVICE_GROUPS)
+                .hasPermission(this.nextPermission(), 0);
+    }
+
+    private String nextPermission() {
+        return this.permissions[this.index++ & (this.permissions.length - 1)];
+    }
+}
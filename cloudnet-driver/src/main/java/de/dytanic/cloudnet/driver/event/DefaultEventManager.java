@@ -4,18 +4,30 @@ import de.dytanic.cloudnet.common.Validate;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class DefaultEventManager implements IEventManager {
 
     //Map<Channel, Listeners>
     private final Map<String, List<IRegisteredEventListener>> registeredListeners = new HashMap<>();
 
+    /**
+     * The listeners of a channel for an event class, already sorted by the priority.
+     * The dispatch table will be cleared on every registration change
+     */
+    //Map<Channel, Map<EventClass, Listeners>>
+    private final Map<String, Map<Class<?>, IRegisteredEventListener[]>> dispatchTable = new ConcurrentHashMap<>();
+
+    private final AtomicLong modificationCount = new AtomicLong();
+
     @Override
     public IEventManager registerListener(Object listener) {
         Validate.checkNotNull(listener);
 
         this.registerListener0(listener);
+        this.invalidateDispatchTable();
         return this;
     }
 
@@ -31,6 +43,8 @@ public final class DefaultEventManager implements IEventManager {
             }
         }
 
+        this.invalidateDispatchTable();
+
         return this;
     }
 
@@ -46,6 +60,8 @@ public final class DefaultEventManager implements IEventManager {
             }
         }
 
+        this.invalidateDispatchTable();
+
         return this;
     }
 
@@ -61,6 +77,8 @@ public final class DefaultEventManager implements IEventManager {
             }
         }
 
+        this.invalidateDispatchTable();
+
         return this;
     }
 
@@ -89,6 +107,7 @@ public final class DefaultEventManager implements IEventManager {
     @Override
     public IEventManager unregisterAll() {
         this.registeredListeners.clear();
+        this.invalidateDispatchTable();
         return this;
     }
 
@@ -105,26 +124,49 @@ public final class DefaultEventManager implements IEventManager {
 
 
     private void fireEvent(String channel, Event event) {
-        if (channel.equals("*")) {
-            List<IRegisteredEventListener> listeners = new ArrayList<>();
+        for (IRegisteredEventListener listener : this.getDispatchedListeners(channel, event.getClass())) {
+            listener.fireEvent(event);
+        }
+    }
+
+    private IRegisteredEventListener[] getDispatchedListeners(String channel, Class<?> eventClass) {
+        Map<Class<?>, IRegisteredEventListener[]> channelTable = this.dispatchTable.computeIfAbsent(channel, key -> new ConcurrentHashMap<>());
+        IRegisteredEventListener[] listeners = channelTable.get(eventClass);
+
+        if (listeners == null) {
+            long modificationCount = this.modificationCount.get();
+            listeners = this.collectListeners(channel, eventClass);
+
+            //a registration change while collecting the listeners would leave an outdated entry
+            if (modificationCount == this.modificationCount.get()) {
+                channelTable.put(eventClass, listeners);
+            }
+        }
+
+        return listeners;
+    }
+
+    private IRegisteredEventListener[] collectListeners(String channel, Class<?> eventClass) {
+        List<IRegisteredEventListener> listeners = new ArrayList<>();
 
+        if (channel.equals("*")) {
             for (List<IRegisteredEventListener> entry : this.registeredListeners.values()) {
                 listeners.addAll(entry);
             }
 
-            fireEvent0(listeners, event);
-
         } else if (this.registeredListeners.containsKey(channel)) {
-            fireEvent0(this.registeredListeners.get(channel), event);
+            listeners.addAll(this.registeredListeners.get(channel));
         }
-    }
 
-    private void fireEvent0(List<IRegisteredEventListener> listeners, Event event) {
+        listeners.removeIf(listener -> !listener.getEventClass().isAssignableFrom(eventClass));
         Collections.sort(listeners);
 
-        for (IRegisteredEventListener listener : listeners) {
-            listener.fireEvent(event);
-        }
+        return listeners.toArray(new IRegisteredEventListener[0]);
+    }
+
+    private void invalidateDispatchTable() {
+        this.modificationCount.incrementAndGet();
+        this.dispatchTable.clear();
     }
 
     private void registerListener0(Object listener) {
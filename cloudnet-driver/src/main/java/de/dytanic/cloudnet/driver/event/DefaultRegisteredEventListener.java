@@ -1,6 +1,10 @@
 package de.dytanic.cloudnet.driver.event;
 
+import de.dytanic.cloudnet.common.Validate;
+
+import java.lang.invoke.*;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 public class DefaultRegisteredEventListener implements IRegisteredEventListener {
 
@@ -14,12 +18,79 @@ public class DefaultRegisteredEventListener implements IRegisteredEventListener
 
     protected Class<? extends Event> eventClass;
 
+    protected EventListenerInvoker invoker;
+
     public DefaultRegisteredEventListener(EventListener eventListener, EventPriority priority, Object instance, Method handlerMethod, Class<? extends Event> eventClass) {
         this.eventListener = eventListener;
         this.priority = priority;
         this.instance = instance;
         this.handlerMethod = handlerMethod;
         this.eventClass = eventClass;
+        this.invoker = createInvoker(handlerMethod);
+    }
+
+    /**
+     * Compiles the call of the listener method into a lambda, if the method and the class are public and visible
+     * from the class loader of the driver. Otherwise, like for listeners of modules, the method is called through
+     * a method handle, which is faster than the reflective invocation.
+     */
+    private static EventListenerInvoker createInvoker(Method handlerMethod) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            if (Modifier.isPublic(handlerMethod.getModifiers()) && Modifier.isPublic(handlerMethod.getDeclaringClass().getModifiers()) &&
+                    isVisible(handlerMethod.getDeclaringClass()) && isVisible(handlerMethod.getParameterTypes()[0])) {
+                try {
+                    MethodHandle methodHandle = lookup.unreflect(handlerMethod);
+
+                    return (EventListenerInvoker) LambdaMetafactory.metafactory(
+                            lookup,
+                            "invoke",
+                            MethodType.methodType(EventListenerInvoker.class),
+                            MethodType.methodType(void.class, Object.class, Event.class),
+                            methodHandle,
+                            MethodType.methodType(void.class, handlerMethod.getDeclaringClass(), handlerMethod.getParameterTypes()[0])
+                    ).getTarget().invokeExact();
+                } catch (Throwable ignored) {
+                    //the class is not visible for the lambda, so the method handle has to be used
+                }
+            }
+
+            handlerMethod.setAccessible(true);
+            MethodHandle methodHandle = lookup.unreflect(handlerMethod).asType(MethodType.methodType(void.class, Object.class, Event.class));
+
+            return (instance, event) -> {
+                methodHandle.invokeExact(instance, event);
+            };
+        } catch (Exception exception) {
+            return (instance, event) -> {
+                handlerMethod.setAccessible(true);
+                handlerMethod.invoke(instance, event);
+            };
+        }
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, DefaultRegisteredEventListener.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException exception) {
+            return false;
+        }
+    }
+
+    @Override
+    public <T extends Event> T fireEvent(T event) {
+        Validate.checkNotNull(event);
+
+        if (this.eventClass.isInstance(event)) {
+            try {
+                this.invoker.invoke(this.instance, event);
+            } catch (Throwable throwable) {
+                throw new EventListenerException("An error on offerTask method " + this.handlerMethod.getName() + " in class " + this.instance.getClass(), throwable);
+            }
+        }
+
+        return event;
     }
 
     public EventListener getEventListener() {
@@ -0,0 +1,12 @@
+package de.dytanic.cloudnet.driver.event;
+
+/**
+ * The compiled call of an event listener method, which is generated for each registered listener method
+ *
+ * @see DefaultRegisteredEventListener
+ */
+interface EventListenerInvoker {
+
+    void invoke(Object instance, Event event) throws Throwable;
+
+}
@@ -19,6 +19,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DefaultModuleWrapper implements IModuleWrapper {
 
@@ -32,6 +37,11 @@ public class DefaultModuleWrapper implements IModuleWrapper {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     private static final String MODULE_CONFIG_PATH = "module.json";
+
+    /**
+     * The count of the dependencies of a module, which are installed at the same time
+     */
+    private static final int DEPENDENCY_PARALLELISM = Math.max(1, Integer.getInteger("cloudnet.modules.dependencies.parallelism", 4));
     private final EnumMap<ModuleLifeCycle, List<IModuleTaskEntry>> moduleTasks = Maps.newEnumMap(ModuleLifeCycle.class);
     private ModuleLifeCycle moduleLifeCycle = ModuleLifeCycle.UNLOADED;
     private URL url;
@@ -108,34 +118,24 @@ public class DefaultModuleWrapper implements IModuleWrapper {
         }
 
         if (moduleConfiguration.getDependencies() != null) {
+            List<Callable<URL>> dependencyLoaders = Iterables.newArrayList();
+
             for (ModuleDependency moduleDependency : moduleConfiguration.getDependencies()) {
                 if (moduleDependency.getGroup() != null && moduleDependency.getName() != null && moduleDependency.getVersion() != null) {
                     if (moduleDependency.getUrl() != null) {
-                        if (moduleProvider.getModuleProviderHandler() != null) {
-                            moduleProvider.getModuleProviderHandler().handlePreInstallDependency(this, moduleDependency);
-                        }
-
-                        urls.add(moduleProvider.getModuleDependencyLoader().loadModuleDependencyByUrl(moduleConfiguration, moduleDependency, repositories));
-
-                        if (moduleProvider.getModuleProviderHandler() != null) {
-                            moduleProvider.getModuleProviderHandler().handlePostInstallDependency(this, moduleDependency);
-                        }
+                        dependencyLoaders.add(() -> this.installDependency(moduleDependency,
+                                () -> moduleProvider.getModuleDependencyLoader().loadModuleDependencyByUrl(moduleConfiguration, moduleDependency, repositories)));
                         continue;
                     }
 
                     if (moduleDependency.getRepo() != null && repositories.containsKey(moduleDependency.getRepo())) {
-                        if (moduleProvider.getModuleProviderHandler() != null) {
-                            moduleProvider.getModuleProviderHandler().handlePreInstallDependency(this, moduleDependency);
-                        }
-
-                        urls.add(moduleProvider.getModuleDependencyLoader().loadModuleDependencyByRepository(moduleConfiguration, moduleDependency, repositories));
-
-                        if (moduleProvider.getModuleProviderHandler() != null) {
-                            moduleProvider.getModuleProviderHandler().handlePostInstallDependency(this, moduleDependency);
-                        }
+                        dependencyLoaders.add(() -> this.installDependency(moduleDependency,
+                                () -> moduleProvider.getModuleDependencyLoader().loadModuleDependencyByRepository(moduleConfiguration, moduleDependency, repositories)));
                     }
                 }
             }
+
+            urls.addAll(loadDependencies(dependencyLoaders));
         }
 
         this.classLoader = new FinalizeURLClassLoader(urls.toArray(new URL[0]));
@@ -159,6 +159,49 @@ public class DefaultModuleWrapper implements IModuleWrapper {
         }
     }
 
+    private URL installDependency(ModuleDependency moduleDependency, Callable<URL> loader) throws Exception {
+        if (this.moduleProvider.getModuleProviderHandler() != null) {
+            this.moduleProvider.getModuleProviderHandler().handlePreInstallDependency(this, moduleDependency);
+        }
+
+        URL url = loader.call();
+
+        if (this.moduleProvider.getModuleProviderHandler() != null) {
+            this.moduleProvider.getModuleProviderHandler().handlePostInstallDependency(this, moduleDependency);
+        }
+
+        return url;
+    }
+
+    private static List<URL> loadDependencies(List<Callable<URL>> dependencyLoaders) throws Exception {
+        List<URL> urls = Iterables.newArrayList();
+
+        if (dependencyLoaders.size() <= 1 || DEPENDENCY_PARALLELISM == 1) {
+            for (Callable<URL> dependencyLoader : dependencyLoaders) {
+                urls.add(dependencyLoader.call());
+            }
+
+            return urls;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(DEPENDENCY_PARALLELISM, dependencyLoaders.size()));
+
+        try {
+            //the urls keep the order of the dependencies in the module configuration
+            for (Future<URL> future : executorService.invokeAll(dependencyLoaders)) {
+                try {
+                    urls.add(future.get());
+                } catch (ExecutionException exception) {
+                    throw exception.getCause() instanceof Exception ? (Exception) exception.getCause() : exception;
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return urls;
+    }
+
     @Override
     public EnumMap<ModuleLifeCycle, List<IModuleTaskEntry>> getModuleTasks() {
         return new EnumMap<>(this.moduleTasks);
@@ -3,10 +3,17 @@ package de.dytanic.cloudnet.driver.module;
 import de.dytanic.cloudnet.common.io.FileUtils;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.Map;
 
 public class DefaultPersistableModuleDependencyLoader implements IModuleDependencyLoader {
@@ -38,23 +45,75 @@ public class DefaultPersistableModuleDependencyLoader implements IModuleDependen
         if (!destFile.exists()) {
             destFile.getParentFile().mkdirs();
 
-            URLConnection urlConnection = new URL(url).openConnection();
+            //the dependency is downloaded into a temporary file first, so that a failed download never leaves a broken jar behind
+            Path tempFile = Files.createTempFile(destFile.getParentFile().toPath(), destFile.getName(), ".part");
 
-            urlConnection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11");
-            urlConnection.setDoOutput(false);
-            urlConnection.setUseCaches(false);
-            urlConnection.connect();
+            try {
+                MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
 
-            destFile.createNewFile();
-            try (InputStream inputStream = urlConnection.getInputStream();
-                 FileOutputStream fileOutputStream = new FileOutputStream(destFile)) {
-                FileUtils.copy(inputStream, fileOutputStream);
+                try (InputStream inputStream = new DigestInputStream(openConnection(url).getInputStream(), messageDigest);
+                     OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                    FileUtils.copy(inputStream, outputStream);
+                }
+
+                String checksum = readChecksum(url + ".sha1");
+                String downloadedChecksum = toHex(messageDigest.digest());
+
+                if (checksum != null && !checksum.equals(downloadedChecksum)) {
+                    throw new IOException("Checksum mismatch of " + url + ", expected " + checksum + " but was " + downloadedChecksum);
+                }
+
+                Files.move(tempFile, destFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
             }
         }
 
         return destFile.toURI().toURL();
     }
 
+    private static URLConnection openConnection(String url) throws IOException {
+        URLConnection urlConnection = new URL(url).openConnection();
+
+        urlConnection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11");
+        urlConnection.setDoOutput(false);
+        urlConnection.setUseCaches(false);
+        urlConnection.setConnectTimeout(10000);
+        urlConnection.setReadTimeout(30000);
+        urlConnection.connect();
+
+        return urlConnection;
+    }
+
+    /**
+     * @return the sha1 checksum of the checksum file or null, if the repository doesn't provide it
+     */
+    private static String readChecksum(String url) {
+        try (InputStream inputStream = openConnection(url).getInputStream()) {
+            byte[] buffer = new byte[128];
+            int length = 0, read;
+
+            while (length < buffer.length && (read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+            }
+
+            String checksum = new String(buffer, 0, length, StandardCharsets.US_ASCII).trim().split("\\s+")[0].toLowerCase();
+            return checksum.matches("[0-9a-f]{40}") ? checksum : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return stringBuilder.toString();
+    }
+
     public File getBaseDirectory() {
         return this.baseDirectory;
     }
@@ -10,6 +10,7 @@ import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.internal.InternalSyncPacketChannel;
 
+import java.util.concurrent.Callable;
 import java.util.function.Function;
 
 public class PacketQueryProvider {
@@ -39,17 +40,21 @@ public class PacketQueryProvider {
     }
 
     public <R> ITask<R> sendCallablePacket(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function) {
-        return sendCallablePacket0(networkChannel, channel, header, body, function);
+        return sendCallablePacket0(networkChannel, channel, header, body, function, InternalSyncPacketChannel.DEFAULT_TIMEOUT_MILLIS);
     }
 
-    private <R> ITask<R> sendCallablePacket0(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function) {
+    public <R> ITask<R> sendCallablePacket(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function, long timeoutMillis) {
+        return sendCallablePacket0(networkChannel, channel, header, body, function, timeoutMillis);
+    }
+
+    private <R> ITask<R> sendCallablePacket0(INetworkChannel networkChannel, String channel, JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function, long timeoutMillis) {
         header.append(PacketConstants.SYNC_PACKET_CHANNEL_PROPERTY, channel);
 
         Value<R> value = new Value<>();
 
-        ITask<R> listenableTask = new ListenableTask<>(value::getValue);
+        SyncQueryTask<R> listenableTask = new SyncQueryTask<>(value::getValue);
 
-        InternalSyncPacketChannel.sendCallablePacket(networkChannel, header, body, new ITaskListener<Pair<JsonDocument, byte[]>>() {
+        listenableTask.syncTask = InternalSyncPacketChannel.sendCallablePacket(networkChannel, header, body, new ITaskListener<Pair<JsonDocument, byte[]>>() {
 
             @Override
             public void onComplete(ITask<Pair<JsonDocument, byte[]>> task, Pair<JsonDocument, byte[]> result) {
@@ -65,10 +70,37 @@ public class PacketQueryProvider {
             public void onFailure(ITask<Pair<JsonDocument, byte[]>> task, Throwable th) {
                 th.printStackTrace();
             }
-        });
+
+            @Override
+            public void onCancelled(ITask<Pair<JsonDocument, byte[]>> task) {
+                listenableTask.completeCancelled();
+            }
+        }, timeoutMillis);
 
         return listenableTask;
     }
 
+    /**
+     * The result task of a query, which cancels the waiting callback of the query on cancellation
+     */
+    private static final class SyncQueryTask<R> extends ListenableTask<R> {
+
+        private volatile ITask<Pair<JsonDocument, byte[]>> syncTask;
+
+        private SyncQueryTask(Callable<R> callable) {
+            super(callable);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return this.syncTask != null && this.syncTask.cancel(mayInterruptIfRunning);
+        }
+
+        private void completeCancelled() {
+            super.cancel(true);
+            this.call();
+        }
+    }
+
 
 }
@@ -0,0 +1,103 @@
+package de.dytanic.cloudnet.driver.network.cluster;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Creates and applies the differences between two serialized NetworkClusterNodeInfoSnapshots, so that
+ * a node only has to publish the changed values of its snapshot, after the receiver got the full snapshot once
+ */
+public final class NetworkClusterNodeInfoSnapshotDelta {
+
+    /**
+     * The properties, which are only changing on a restart or reload of the node.
+     * A change of them requires to publish the full snapshot again
+     */
+    public static final Collection<String> STATIC_PROPERTIES = Arrays.asList("node", "version", "extensions");
+
+    /**
+     * The property of a delta, which contains the keys, that have been removed from the object
+     */
+    public static final String REMOVED_KEYS_PROPERTY = "__removedKeys";
+
+    private NetworkClusterNodeInfoSnapshotDelta() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static JsonObject createDelta(JsonObject previous, JsonObject current) {
+        JsonObject delta = new JsonObject();
+
+        for (Map.Entry<String, JsonElement> entry : current.entrySet()) {
+            JsonElement previousElement = previous.get(entry.getKey());
+
+            if (entry.getValue().equals(previousElement)) {
+                continue;
+            }
+
+            if (previousElement != null && previousElement.isJsonObject() && entry.getValue().isJsonObject()) {
+                delta.add(entry.getKey(), createDelta(previousElement.getAsJsonObject(), entry.getValue().getAsJsonObject()));
+            } else {
+                delta.add(entry.getKey(), entry.getValue());
+            }
+        }
+
+        JsonArray removedKeys = new JsonArray();
+
+        for (Map.Entry<String, JsonElement> entry : previous.entrySet()) {
+            if (!current.has(entry.getKey())) {
+                removedKeys.add(entry.getKey());
+            }
+        }
+
+        if (removedKeys.size() > 0) {
+            delta.add(REMOVED_KEYS_PROPERTY, removedKeys);
+        }
+
+        return delta;
+    }
+
+    public static boolean isStaticChange(JsonObject delta) {
+        for (String property : STATIC_PROPERTIES) {
+            if (delta.has(property)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static NetworkClusterNodeInfoSnapshot applyDelta(NetworkClusterNodeInfoSnapshot snapshot, JsonObject delta) {
+        JsonObject jsonObject = JsonDocument.GSON.toJsonTree(snapshot).getAsJsonObject();
+        applyDelta(jsonObject, delta);
+
+        return JsonDocument.GSON.fromJson(jsonObject, NetworkClusterNodeInfoSnapshot.TYPE);
+    }
+
+    public static void applyDelta(JsonObject jsonObject, JsonObject delta) {
+        if (delta.has(REMOVED_KEYS_PROPERTY)) {
+            for (JsonElement removedKey : delta.getAsJsonArray(REMOVED_KEYS_PROPERTY)) {
+                jsonObject.remove(removedKey.getAsString());
+            }
+        }
+
+        for (Map.Entry<String, JsonElement> entry : delta.entrySet()) {
+            if (entry.getKey().equals(REMOVED_KEYS_PROPERTY)) {
+                continue;
+            }
+
+            JsonElement element = jsonObject.get(entry.getKey());
+
+            if (element != null && element.isJsonObject() && entry.getValue().isJsonObject()) {
+                applyDelta(element.getAsJsonObject(), entry.getValue().getAsJsonObject());
+            } else {
+                jsonObject.add(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -11,9 +11,15 @@ import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is the internal api channel for synchronized communication between driver api and cloudnet node.
@@ -26,8 +32,17 @@ import java.util.UUID;
 @UnsafeClass
 public final class InternalSyncPacketChannel {
 
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
     private final static Map<UUID, SynchronizedCallback> WAITING_PACKETS = Maps.newConcurrentHashMap();
 
+    /**
+     * Expires the callbacks, that are waiting too long for a response, without walking through all waiting packets
+     */
+    private static final Timer TIMEOUT_TIMER = new HashedWheelTimer(new DefaultThreadFactory("InternalSyncPacketChannel", true), 100, TimeUnit.MILLISECONDS, 512);
+
+    private static final AtomicLong EXPIRED_CALLBACK_COUNT = new AtomicLong();
+
     private InternalSyncPacketChannel() {
         throw new UnsupportedOperationException();
     }
@@ -35,22 +50,22 @@ public final class InternalSyncPacketChannel {
     public static boolean handleIncomingChannel(Packet packet) {
         Validate.checkNotNull(packet);
 
-        if (WAITING_PACKETS.containsKey(packet.getUniqueId())) {
-            try {
-                SynchronizedCallback syncEntry = WAITING_PACKETS.get(packet.getUniqueId());
-                syncEntry.response = new Pair<>(packet.getHeader(), packet.getBody());
-                syncEntry.task.call();
-            } catch (Throwable e) {
-                e.printStackTrace();
-            }
+        SynchronizedCallback syncEntry = WAITING_PACKETS.remove(packet.getUniqueId());
 
-            WAITING_PACKETS.remove(packet.getUniqueId());
+        if (syncEntry == null) {
+            return false;
+        }
 
-            return true;
+        syncEntry.cancelTimeout();
 
-        } else {
-            return false;
+        try {
+            syncEntry.response = new Pair<>(packet.getHeader(), packet.getBody());
+            syncEntry.task.call();
+        } catch (Throwable e) {
+            e.printStackTrace();
         }
+
+        return true;
     }
 
     public static ITask<Pair<JsonDocument, byte[]>> sendCallablePacket(INetworkChannel channel, JsonDocument header, byte[] body) {
@@ -58,42 +73,95 @@ public final class InternalSyncPacketChannel {
     }
 
     public static ITask<Pair<JsonDocument, byte[]>> sendCallablePacket(INetworkChannel channel, JsonDocument header, byte[] body, ITaskListener<Pair<JsonDocument, byte[]>> listener) {
+        return sendCallablePacket(channel, header, body, listener, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Sends a callable packet and waits for the response. If no response has been received after the timeout,
+     * the returned task will be completed with an empty header and body. Cancelling the task removes the callback.
+     *
+     * @param timeoutMillis the time in milliseconds, after the callback expires
+     */
+    public static ITask<Pair<JsonDocument, byte[]>> sendCallablePacket(INetworkChannel channel, JsonDocument header, byte[] body, ITaskListener<Pair<JsonDocument, byte[]>> listener, long timeoutMillis) {
         Validate.checkNotNull(channel);
         Validate.checkNotNull(header);
 
         Packet packet = new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, header, body);
-        checkCachedValidation();
 
-        SynchronizedCallback syncEntry = new SynchronizedCallback();
-        syncEntry.task = new ListenableTask<>(() -> syncEntry.response, listener);
+        SynchronizedCallback syncEntry = new SynchronizedCallback(packet.getUniqueId());
+        syncEntry.task = new SynchronizedCallbackTask(syncEntry, listener);
 
         WAITING_PACKETS.put(packet.getUniqueId(), syncEntry);
+        syncEntry.timeout = TIMEOUT_TIMER.newTimeout(timeout -> expire(syncEntry), timeoutMillis, TimeUnit.MILLISECONDS);
+
         channel.sendPacket(packet);
 
         return syncEntry.task;
     }
 
-    private static void checkCachedValidation() {
-        long systemCurrent = System.currentTimeMillis();
+    public static int getOutstandingCallbackCount() {
+        return WAITING_PACKETS.size();
+    }
 
-        for (Map.Entry<UUID, SynchronizedCallback> entry : WAITING_PACKETS.entrySet()) {
-            if (entry.getValue().timeOut < systemCurrent) {
-                WAITING_PACKETS.remove(entry.getKey());
+    public static long getExpiredCallbackCount() {
+        return EXPIRED_CALLBACK_COUNT.get();
+    }
 
-                try {
-                    entry.getValue().response = new Pair<>(new JsonDocument(), new byte[0]);
-                    entry.getValue().task.call();
-                } catch (Throwable throwable) {
-                    throwable.printStackTrace();
-                }
-            }
+    private static void expire(SynchronizedCallback syncEntry) {
+        if (!WAITING_PACKETS.remove(syncEntry.uniqueId, syncEntry)) {
+            return;
+        }
+
+        EXPIRED_CALLBACK_COUNT.incrementAndGet();
+
+        try {
+            syncEntry.response = new Pair<>(new JsonDocument(), new byte[0]);
+            syncEntry.task.call();
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
         }
     }
 
     private static class SynchronizedCallback {
 
-        private final long timeOut = System.currentTimeMillis() + 30000;
+        private final UUID uniqueId;
         private volatile Pair<JsonDocument, byte[]> response = new Pair<>(new JsonDocument(), new byte[0]);
         private volatile ITask<Pair<JsonDocument, byte[]>> task;
+        private volatile Timeout timeout;
+
+        private SynchronizedCallback(UUID uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+
+        private void cancelTimeout() {
+            Timeout timeout = this.timeout;
+
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    private static class SynchronizedCallbackTask extends ListenableTask<Pair<JsonDocument, byte[]>> {
+
+        private final SynchronizedCallback syncEntry;
+
+        private SynchronizedCallbackTask(SynchronizedCallback syncEntry, ITaskListener<Pair<JsonDocument, byte[]>> listener) {
+            super(() -> syncEntry.response, listener);
+            this.syncEntry = syncEntry;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!mayInterruptIfRunning || !WAITING_PACKETS.remove(this.syncEntry.uniqueId, this.syncEntry)) {
+                return false;
+            }
+
+            this.syncEntry.cancelTimeout();
+
+            super.cancel(true);
+            this.call();
+            return true;
+        }
     }
-}
\ No newline at end of file
+}
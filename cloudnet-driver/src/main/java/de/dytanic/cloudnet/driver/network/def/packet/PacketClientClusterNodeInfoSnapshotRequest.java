@@ -0,0 +1,16 @@
+package de.dytanic.cloudnet.driver.network.def.packet;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+
+/**
+ * Requests the full snapshot of a node, if a received delta can't be applied, because the snapshot, on which the
+ * delta is based, is unknown
+ */
+public final class PacketClientClusterNodeInfoSnapshotRequest extends Packet {
+
+    public PacketClientClusterNodeInfoSnapshotRequest(String nodeUniqueId) {
+        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("requestClusterNodeInfoSnapshot", nodeUniqueId), new byte[0]);
+    }
+}
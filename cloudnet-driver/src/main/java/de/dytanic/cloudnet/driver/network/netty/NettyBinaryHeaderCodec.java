@@ -0,0 +1,150 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import io.netty.buffer.ByteBuf;
+
+import java.util.Map;
+
+/**
+ * Compact binary representation of the packet header, that is used by the binary packet framing.
+ * The header is written as tree of tagged elements, so the receiver doesn't need to parse the json text again.
+ */
+final class NettyBinaryHeaderCodec {
+
+    private static final byte
+            TYPE_NULL = 0,
+            TYPE_TRUE = 1,
+            TYPE_FALSE = 2,
+            TYPE_LONG = 3,
+            TYPE_DOUBLE = 4,
+            TYPE_NUMBER = 5,
+            TYPE_STRING = 6,
+            TYPE_ARRAY = 7,
+            TYPE_OBJECT = 8;
+
+    private NettyBinaryHeaderCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void writeHeader(ByteBuf byteBuf, JsonDocument header) {
+        if (header == null) {
+            NettyUtils.writeVarInt(byteBuf, 0);
+            return;
+        }
+
+        NettyUtils.writeVarInt(byteBuf, header.size());
+
+        for (String key : header) {
+            NettyUtils.writeString(byteBuf, key);
+            writeElement(byteBuf, header.get(key));
+        }
+    }
+
+    public static JsonDocument readHeader(ByteBuf byteBuf) {
+        return new JsonDocument().append(readObject(byteBuf));
+    }
+
+    private static void writeElement(ByteBuf byteBuf, JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            byteBuf.writeByte(TYPE_NULL);
+
+        } else if (element.isJsonObject()) {
+            byteBuf.writeByte(TYPE_OBJECT);
+            NettyUtils.writeVarInt(byteBuf, element.getAsJsonObject().size());
+
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                NettyUtils.writeString(byteBuf, entry.getKey());
+                writeElement(byteBuf, entry.getValue());
+            }
+
+        } else if (element.isJsonArray()) {
+            byteBuf.writeByte(TYPE_ARRAY);
+            NettyUtils.writeVarInt(byteBuf, element.getAsJsonArray().size());
+
+            for (JsonElement entry : element.getAsJsonArray()) {
+                writeElement(byteBuf, entry);
+            }
+
+        } else {
+            writePrimitive(byteBuf, element.getAsJsonPrimitive());
+        }
+    }
+
+    private static void writePrimitive(ByteBuf byteBuf, JsonPrimitive primitive) {
+        if (primitive.isBoolean()) {
+            byteBuf.writeByte(primitive.getAsBoolean() ? TYPE_TRUE : TYPE_FALSE);
+
+        } else if (primitive.isNumber()) {
+            Number number = primitive.getAsNumber();
+
+            if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+                byteBuf.writeByte(TYPE_LONG);
+                long value = number.longValue();
+                NettyUtils.writeVarLong(byteBuf, (value << 1) ^ (value >> 63));
+
+            } else if (number instanceof Double || number instanceof Float) {
+                byteBuf.writeByte(TYPE_DOUBLE);
+                byteBuf.writeDouble(number.doubleValue());
+
+            } else {
+                //BigInteger, BigDecimal and lazily parsed numbers keep their exact text representation
+                byteBuf.writeByte(TYPE_NUMBER);
+                NettyUtils.writeString(byteBuf, number.toString());
+            }
+
+        } else {
+            byteBuf.writeByte(TYPE_STRING);
+            NettyUtils.writeString(byteBuf, primitive.getAsString());
+        }
+    }
+
+    private static JsonElement readElement(ByteBuf byteBuf) {
+        byte type = byteBuf.readByte();
+
+        switch (type) {
+            case TYPE_NULL:
+                return JsonNull.INSTANCE;
+            case TYPE_TRUE:
+                return new JsonPrimitive(true);
+            case TYPE_FALSE:
+                return new JsonPrimitive(false);
+            case TYPE_LONG: {
+                long value = NettyUtils.readVarLong(byteBuf);
+                return new JsonPrimitive((value >>> 1) ^ -(value & 1));
+            }
+            case TYPE_DOUBLE:
+                return new JsonPrimitive(byteBuf.readDouble());
+            case TYPE_NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(NettyUtils.readString(byteBuf)));
+            case TYPE_STRING:
+                return new JsonPrimitive(NettyUtils.readString(byteBuf));
+            case TYPE_ARRAY: {
+                int size = NettyUtils.readVarInt(byteBuf);
+                JsonArray jsonArray = new JsonArray(size);
+
+                for (int i = 0; i < size; i++) {
+                    jsonArray.add(readElement(byteBuf));
+                }
+
+                return jsonArray;
+            }
+            case TYPE_OBJECT:
+                return readObject(byteBuf);
+            default:
+                throw new IllegalStateException("Unknown binary header element type " + type);
+        }
+    }
+
+    private static JsonObject readObject(ByteBuf byteBuf) {
+        int size = NettyUtils.readVarInt(byteBuf);
+        JsonObject jsonObject = new JsonObject();
+
+        for (int i = 0; i < size; i++) {
+            jsonObject.add(NettyUtils.readString(byteBuf), readElement(byteBuf));
+        }
+
+        return jsonObject;
+    }
+}
@@ -14,11 +14,14 @@ final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet
 
     private final HostAndPort connectedAddress;
 
+    private final NettyPacketDispatcher packetDispatcher;
+
     private NettyNetworkChannel channel;
 
     public NettyNetworkClientHandler(NettyNetworkClient nettyNetworkClient, HostAndPort connectedAddress) {
         this.nettyNetworkClient = nettyNetworkClient;
         this.connectedAddress = connectedAddress;
+        this.packetDispatcher = new NettyPacketDispatcher(nettyNetworkClient.taskScheduler);
     }
 
     @Override
@@ -28,6 +31,8 @@ final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet
 
         this.nettyNetworkClient.channels.add(channel);
 
+        NettyPacketFraming.announce(ctx);
+
         if (this.channel.getHandler() != null) {
             this.channel.getHandler().handleChannelInitialize(this.channel);
         }
@@ -60,7 +65,11 @@ final class NettyNetworkClientHandler extends SimpleChannelInboundHandler<Packet
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Packet msg) {
-        nettyNetworkClient.taskScheduler.schedule((Callable<Void>) () -> {
+        if (NettyPacketFraming.handleFramingPacket(ctx, msg)) {
+            return;
+        }
+
+        this.packetDispatcher.dispatch(msg, (Callable<Void>) () -> {
             if (channel.getHandler() != null && !channel.getHandler().handlePacketReceive(channel, msg)) {
                 return null;
             }
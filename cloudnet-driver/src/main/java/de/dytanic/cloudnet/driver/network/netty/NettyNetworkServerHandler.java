@@ -14,11 +14,14 @@ final class NettyNetworkServerHandler extends SimpleChannelInboundHandler<Packet
 
     private final HostAndPort connectedAddress;
 
+    private final NettyPacketDispatcher packetDispatcher;
+
     private NettyNetworkChannel channel;
 
     public NettyNetworkServerHandler(NettyNetworkServer nettyNetworkServer, HostAndPort connectedAddress) {
         this.nettyNetworkServer = nettyNetworkServer;
         this.connectedAddress = connectedAddress;
+        this.packetDispatcher = new NettyPacketDispatcher(nettyNetworkServer.taskScheduler);
     }
 
     @Override
@@ -27,6 +30,8 @@ final class NettyNetworkServerHandler extends SimpleChannelInboundHandler<Packet
                 this.nettyNetworkServer.networkChannelHandler.call(), connectedAddress, new HostAndPort(ctx.channel().remoteAddress()), false);
         this.nettyNetworkServer.channels.add(channel);
 
+        NettyPacketFraming.announce(ctx);
+
         if (this.channel.getHandler() != null) {
             this.channel.getHandler().handleChannelInitialize(this.channel);
         }
@@ -59,7 +64,11 @@ final class NettyNetworkServerHandler extends SimpleChannelInboundHandler<Packet
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Packet msg) {
-        nettyNetworkServer.taskScheduler.schedule((Callable<Void>) () -> {
+        if (NettyPacketFraming.handleFramingPacket(ctx, msg)) {
+            return;
+        }
+
+        this.packetDispatcher.dispatch(msg, (Callable<Void>) () -> {
             if (channel.getHandler() != null && !channel.getHandler().handlePacketReceive(channel, msg)) {
                 return null;
             }
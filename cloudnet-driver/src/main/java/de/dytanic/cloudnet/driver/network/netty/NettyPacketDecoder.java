@@ -11,6 +11,12 @@ import java.util.UUID;
 
 final class NettyPacketDecoder extends ByteToMessageDecoder {
 
+    /**
+     * The legacy format writes the uniqueId as string with the length 36, so an empty string length
+     * marks a packet in the binary framing format
+     */
+    static final byte BINARY_FRAME_MARKER = 0;
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> out) {
         if (byteBuf.readableBytes() == 0) {
@@ -18,14 +24,27 @@ final class NettyPacketDecoder extends ByteToMessageDecoder {
         }
 
         try {
-            out.add(new Packet(
-                    NettyUtils.readVarInt(byteBuf),
-                    UUID.fromString(NettyUtils.readString(byteBuf)),
-                    JsonDocument.newDocument(NettyUtils.readString(byteBuf)),
-                    NettyUtils.toByteArray(byteBuf, NettyUtils.readVarInt(byteBuf))
-            ));
+            int channel = NettyUtils.readVarInt(byteBuf);
+
+            if (byteBuf.getByte(byteBuf.readerIndex()) == BINARY_FRAME_MARKER) {
+                byteBuf.skipBytes(1);
+
+                out.add(new Packet(
+                        channel,
+                        new UUID(byteBuf.readLong(), byteBuf.readLong()),
+                        NettyBinaryHeaderCodec.readHeader(byteBuf),
+                        NettyUtils.toByteArray(byteBuf, NettyUtils.readVarInt(byteBuf))
+                ));
+            } else {
+                out.add(new Packet(
+                        channel,
+                        UUID.fromString(NettyUtils.readString(byteBuf)),
+                        JsonDocument.newDocument(NettyUtils.readString(byteBuf)),
+                        NettyUtils.toByteArray(byteBuf, NettyUtils.readVarInt(byteBuf))
+                ));
+            }
         } catch (Exception exception) {
             exception.printStackTrace();
         }
     }
-}
\ No newline at end of file
+}
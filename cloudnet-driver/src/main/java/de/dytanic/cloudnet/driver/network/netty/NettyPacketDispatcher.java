@@ -0,0 +1,115 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches the received packets of one channel to the packet listeners.
+ * <p>
+ * By default, the packets are scheduled on the task scheduler of the network component. The virtual thread mode
+ * can be enabled with the system property "cloudnet.network.virtualThreads". In this mode, the packets of a channel are
+ * handled one after another on a virtual thread, so the order of the packets is preserved and a blocking listener
+ * doesn't take a worker of the shared scheduler. Packets of the callable channel aren't ordered, because a listener
+ * could wait for the response of a callable packet, which is received on the same channel.
+ * On a Java version without virtual threads, an elastic thread pool is used instead.
+ */
+final class NettyPacketDispatcher {
+
+    static final boolean VIRTUAL_THREADS_ENABLED = Boolean.getBoolean("cloudnet.network.virtualThreads");
+
+    private static final AtomicLong THREAD_COUNT = new AtomicLong();
+
+    private static volatile Executor virtualThreadExecutor;
+
+    private final Queue<Callable<Void>> packetTasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final ITaskScheduler taskScheduler;
+
+    private final boolean virtualThreads;
+
+    public NettyPacketDispatcher(ITaskScheduler taskScheduler) {
+        this(taskScheduler, VIRTUAL_THREADS_ENABLED);
+    }
+
+    public NettyPacketDispatcher(ITaskScheduler taskScheduler, boolean virtualThreads) {
+        this.taskScheduler = taskScheduler;
+        this.virtualThreads = virtualThreads;
+    }
+
+    private static Executor getVirtualThreadExecutor() {
+        if (virtualThreadExecutor == null) {
+            synchronized (NettyPacketDispatcher.class) {
+                if (virtualThreadExecutor == null) {
+                    virtualThreadExecutor = newVirtualThreadExecutor();
+                }
+            }
+        }
+
+        return virtualThreadExecutor;
+    }
+
+    private static Executor newVirtualThreadExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ignored) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "NettyPacketDispatcher#" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void dispatch(Packet packet, Callable<Void> handler) {
+        if (!this.virtualThreads) {
+            this.taskScheduler.schedule(handler);
+            return;
+        }
+
+        if (packet.getChannel() == PacketConstants.INTERNAL_CALLABLE_CHANNEL) {
+            getVirtualThreadExecutor().execute(() -> this.run(handler));
+            return;
+        }
+
+        this.packetTasks.offer(handler);
+
+        if (this.running.compareAndSet(false, true)) {
+            getVirtualThreadExecutor().execute(this::drain);
+        }
+    }
+
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    private void drain() {
+        do {
+            Callable<Void> handler;
+
+            while ((handler = this.packetTasks.poll()) != null) {
+                this.run(handler);
+            }
+
+            this.running.set(false);
+        } while (!this.packetTasks.isEmpty() && this.running.compareAndSet(false, true));
+    }
+
+    private void run(Callable<Void> handler) {
+        try {
+            handler.call();
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        }
+    }
+}
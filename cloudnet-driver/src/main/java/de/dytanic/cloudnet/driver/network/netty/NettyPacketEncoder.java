@@ -10,23 +10,38 @@ import java.util.UUID;
 
 final class NettyPacketEncoder extends MessageToByteEncoder<IPacket> {
 
+    /**
+     * Will be enabled, after both sides of the connection have been announced, that they support the binary framing
+     */
+    private volatile boolean binaryFraming;
+
     @Override
     protected void encode(ChannelHandlerContext ctx, IPacket packet, ByteBuf byteBuf) {
         //Writing the channelId
         NettyUtils.writeVarInt(byteBuf, packet.getChannel());
 
-        //Writing the uniqueId
-        NettyUtils.writeString(byteBuf, packet.getUniqueId() != null ? packet.getUniqueId().toString() : UUID.randomUUID().toString());
-
+        UUID uniqueId = packet.getUniqueId() != null ? packet.getUniqueId() : UUID.randomUUID();
         byte[] data;
 
-        //Writing the header
-        if (packet.getHeader() != null) {
-            data = packet.getHeader().toByteArray();
-            NettyUtils.writeVarInt(byteBuf, data.length);
-            byteBuf.writeBytes(data);
+        if (this.binaryFraming) {
+            //Writing the binary frame marker, the uniqueId as two longs and the binary header
+            byteBuf.writeByte(NettyPacketDecoder.BINARY_FRAME_MARKER);
+            byteBuf.writeLong(uniqueId.getMostSignificantBits());
+            byteBuf.writeLong(uniqueId.getLeastSignificantBits());
+
+            NettyBinaryHeaderCodec.writeHeader(byteBuf, packet.getHeader());
         } else {
-            NettyUtils.writeString(byteBuf, "{}");
+            //Writing the uniqueId
+            NettyUtils.writeString(byteBuf, uniqueId.toString());
+
+            //Writing the header
+            if (packet.getHeader() != null) {
+                data = packet.getHeader().toByteArray();
+                NettyUtils.writeVarInt(byteBuf, data.length);
+                byteBuf.writeBytes(data);
+            } else {
+                NettyUtils.writeString(byteBuf, "{}");
+            }
         }
 
         //Writing the body
@@ -38,4 +53,12 @@ final class NettyPacketEncoder extends MessageToByteEncoder<IPacket> {
 
         NettyUtils.writeVarInt(byteBuf, data.length).writeBytes(data);
     }
-}
\ No newline at end of file
+
+    public boolean isBinaryFraming() {
+        return this.binaryFraming;
+    }
+
+    public void setBinaryFraming(boolean binaryFraming) {
+        this.binaryFraming = binaryFraming;
+    }
+}
@@ -0,0 +1,44 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Negotiates the packet framing between both sides of a connection. Each side announces on channel init
+ * that it supports the binary framing and switches its own encoder to it, after the other side has been
+ * announced the same. Older versions ignore the announcement and keep the UUID-string and json header format.
+ * <p>
+ * The binary framing can be disabled with the system property "cloudnet.network.binaryFraming"
+ */
+final class NettyPacketFraming {
+
+    static final boolean BINARY_FRAMING_ENABLED = Boolean.parseBoolean(System.getProperty("cloudnet.network.binaryFraming", "true"));
+
+    private static final String BINARY_FRAMING_PROPERTY = "binaryFraming";
+
+    private NettyPacketFraming() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void announce(ChannelHandlerContext ctx) {
+        if (BINARY_FRAMING_ENABLED) {
+            ctx.writeAndFlush(new Packet(PacketConstants.INTERNAL_PACKET_FRAMING_CHANNEL, new JsonDocument(BINARY_FRAMING_PROPERTY, true)), ctx.voidPromise());
+        }
+    }
+
+    public static boolean handleFramingPacket(ChannelHandlerContext ctx, Packet packet) {
+        if (packet.getChannel() != PacketConstants.INTERNAL_PACKET_FRAMING_CHANNEL) {
+            return false;
+        }
+
+        NettyPacketEncoder packetEncoder = ctx.pipeline().get(NettyPacketEncoder.class);
+
+        if (BINARY_FRAMING_ENABLED && packetEncoder != null && packet.getHeader().getBoolean(BINARY_FRAMING_PROPERTY)) {
+            packetEncoder.setBinaryFraming(true);
+        }
+
+        return true;
+    }
+}
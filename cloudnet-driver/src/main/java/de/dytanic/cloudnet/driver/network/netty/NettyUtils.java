@@ -83,7 +83,7 @@ public final class NettyUtils {
         byte read;
         do {
             read = byteBuf.readByte();
-            int value = (read & 0b01111111);
+            long value = (read & 0b01111111);
             result |= (value << (7 * numRead));
 
             numRead++;
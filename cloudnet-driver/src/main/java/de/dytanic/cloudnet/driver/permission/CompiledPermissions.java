@@ -0,0 +1,347 @@
+package de.dytanic.cloudnet.driver.permission;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+
+import java.util.*;
+
+/**
+ * The effective permissions of a user, compiled from the permissions of the user, the groups of the user and the
+ * groups which they extend, the default group and the group specific permissions of the given groups.
+ * <p>
+ * Every check of the IPermissionManagement grants a permission, if the potency of the requested permission is lower
+ * or equal to a threshold, which only depends on the name of the permission. The compiled permissions hold this
+ * threshold for every permission name which is set anywhere in the hierarchy in a prefix trie and a second trie of
+ * the wildcard permissions for all other names, so a check is a walk through the tries without any allocation.
+ * <p>
+ * Permission names and wildcards are compared case insensitive, both are lowercased with the root locale, so that the
+ * comparison doesn't depend on the default locale of the jvm. The compiled permissions don't change, if the user
+ * or one of the groups is changed, they have to be compiled again.
+ */
+public final class CompiledPermissions {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final Node exactPermissions = new Node();
+
+    private final Node wildcardPermissions = new Node();
+
+    private long highestWildcardThreshold = NONE;
+
+    private CompiledPermissions() {
+    }
+
+    /**
+     * Compiles the effective permissions of the user, which are granted by
+     * {@link IPermissionManagement#hasPermission(IPermissionUser, Permission)} or by
+     * {@link IPermissionManagement#hasPermission(IPermissionUser, String, Permission)} for one of the groups
+     *
+     * @param permissionManagement the permission management, which provides the groups of the user
+     * @param permissionUser       the user
+     * @param groups               the names of the groups whose group specific permissions are included
+     */
+    public static CompiledPermissions compile(IPermissionManagement permissionManagement, IPermissionUser permissionUser, String... groups) {
+        Validate.checkNotNull(permissionManagement);
+        Validate.checkNotNull(permissionUser);
+        Validate.checkNotNull(groups);
+
+        CompiledPermissions compiledPermissions = new CompiledPermissions();
+        Set<String> exactNames = new HashSet<>();
+        List<Hierarchy> hierarchies = new ArrayList<>(groups.length + 1);
+
+        hierarchies.add(new Hierarchy(permissionManagement, permissionUser, null));
+        for (String group : groups) {
+            hierarchies.add(new Hierarchy(permissionManagement, permissionUser, group));
+        }
+
+        for (Hierarchy hierarchy : hierarchies) {
+            for (CompiledPermissible permissible : hierarchy.permissibles.values()) {
+                exactNames.addAll(permissible.exactThresholds.keySet());
+
+                for (Map.Entry<String, Long> wildcard : permissible.wildcardThresholds.entrySet()) {
+                    compiledPermissions.putWildcard(wildcard.getKey(), wildcard.getValue());
+                }
+            }
+        }
+
+        //names which aren't set anywhere can't be forbidden, the threshold of these names only depends on the wildcards
+        for (String name : exactNames) {
+            long threshold = NONE;
+
+            for (Hierarchy hierarchy : hierarchies) {
+                threshold = Math.max(threshold, hierarchy.getThreshold(name));
+            }
+
+            compiledPermissions.exactPermissions.getOrCreate(name).setThreshold(threshold);
+        }
+
+        return compiledPermissions;
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return permission != null && permission.getName() != null && this.hasPermission(permission.getName(), permission.getPotency());
+    }
+
+    public boolean hasPermission(String name, int potency) {
+        if (name == null) {
+            return false;
+        }
+
+        //returns the same string without an allocation, if the name is already lowercase
+        name = name.toLowerCase(Locale.ROOT);
+
+        Node node = this.exactPermissions;
+        for (int i = 0; i < name.length() && node != null; i++) {
+            node = node.getChild(name.charAt(i));
+        }
+
+        if (node != null && node.terminal) {
+            return potency <= node.threshold;
+        }
+
+        return potency <= this.highestWildcardThreshold && potency <= this.getWildcardThreshold(name);
+    }
+
+    /**
+     * Returns the highest threshold of the wildcards which are contained in the given lowercase name
+     */
+    private long getWildcardThreshold(String name) {
+        long threshold = this.wildcardPermissions.threshold;
+
+        for (int start = 0; start < name.length(); start++) {
+            Node node = this.wildcardPermissions;
+
+            for (int i = start; i < name.length(); i++) {
+                node = node.getChild(name.charAt(i));
+
+                if (node == null) {
+                    break;
+                }
+                if (node.terminal && node.threshold > threshold) {
+                    threshold = node.threshold;
+                }
+            }
+        }
+
+        return threshold;
+    }
+
+    private void putWildcard(String stem, long threshold) {
+        Node node = this.wildcardPermissions.getOrCreate(stem);
+
+        if (!node.terminal || node.threshold < threshold) {
+            node.setThreshold(threshold);
+        }
+
+        this.highestWildcardThreshold = Math.max(this.highestWildcardThreshold, threshold);
+    }
+
+    /**
+     * The permissions of one permissible in the context of a group or of the global permissions
+     */
+    private static final class CompiledPermissible {
+
+        //Map<Lowercase permission, Highest potency that is granted>
+        private final Map<String, Long> exactThresholds = Maps.newHashMap();
+
+        //Map<Lowercase wildcard without '*', Highest potency that is granted>
+        private final Map<String, Long> wildcardThresholds = Maps.newHashMap();
+
+        private final Set<String> forbiddenPermissions = new HashSet<>();
+
+        private CompiledPermissible(IPermissible permissible, Collection<Permission> permissions) {
+            if (permissions == null) {
+                return;
+            }
+
+            Set<String> names = new HashSet<>();
+
+            for (Permission permission : permissions) {
+                if (permission == null || permission.getName() == null) {
+                    continue;
+                }
+
+                String name = permission.getName().toLowerCase(Locale.ROOT);
+                long threshold = Math.max(permission.getPotency(), permissible.getPotency());
+
+                //only the first permission with the name decides, whether the permission is forbidden
+                if (names.add(name) && permission.getPotency() < 0) {
+                    this.forbiddenPermissions.add(name);
+                }
+
+                this.exactThresholds.merge(name, threshold, Math::max);
+
+                if (name.endsWith("*")) {
+                    this.wildcardThresholds.merge(name.replace("*", ""), threshold, Math::max);
+                }
+            }
+        }
+
+        private long getThreshold(String name) {
+            long threshold = this.exactThresholds.getOrDefault(name, NONE);
+
+            for (Map.Entry<String, Long> wildcard : this.wildcardThresholds.entrySet()) {
+                if (wildcard.getValue() > threshold && name.contains(wildcard.getKey())) {
+                    threshold = wildcard.getValue();
+                }
+            }
+
+            return threshold;
+        }
+    }
+
+    /**
+     * The user, the groups of the user, the default group and all groups they extend with their permissions in the context of
+     * one group or of the global permissions
+     */
+    private static final class Hierarchy {
+
+        private final Map<IPermissible, CompiledPermissible> permissibles = new IdentityHashMap<>();
+
+        //Map<Group, Extended groups>
+        private final Map<IPermissionGroup, Collection<IPermissionGroup>> extendedGroups = new IdentityHashMap<>();
+
+        private final IPermissionUser permissionUser;
+
+        private final Collection<IPermissionGroup> groups;
+
+        private final IPermissionGroup defaultGroup;
+
+        private Hierarchy(IPermissionManagement permissionManagement, IPermissionUser permissionUser, String group) {
+            this.permissionUser = permissionUser;
+            this.groups = permissionManagement.getGroups(permissionUser);
+            this.defaultGroup = permissionManagement.getDefaultPermissionGroup();
+
+            this.add(permissionManagement, permissionUser, group);
+
+            for (IPermissionGroup permissionGroup : this.groups) {
+                this.add(permissionManagement, permissionGroup, group);
+            }
+
+            this.add(permissionManagement, this.defaultGroup, group);
+        }
+
+        private void add(IPermissionManagement permissionManagement, IPermissible permissible, String group) {
+            if (permissible == null || this.permissibles.containsKey(permissible)) {
+                return;
+            }
+
+            this.permissibles.put(permissible, new CompiledPermissible(
+                    permissible,
+                    group == null ? permissible.getPermissions() : permissible.getGroupPermissions().get(group)
+            ));
+
+            if (permissible instanceof IPermissionGroup) {
+                Collection<IPermissionGroup> extendedGroups = permissionManagement.getExtendedGroups((IPermissionGroup) permissible);
+                this.extendedGroups.put((IPermissionGroup) permissible, extendedGroups);
+
+                for (IPermissionGroup extendedGroup : extendedGroups) {
+                    this.add(permissionManagement, extendedGroup, group);
+                }
+            }
+        }
+
+        /**
+         * Resolves the threshold of the name in the same order as the IPermissionManagement: the user, the groups of the user
+         * with the groups they extend and the default group, where a forbidden permission hides the extended groups
+         */
+        private long getThreshold(String name) {
+            CompiledPermissible user = this.permissibles.get(this.permissionUser);
+
+            if (user.forbiddenPermissions.contains(name)) {
+                return NONE;
+            }
+
+            long threshold = user.getThreshold(name);
+            Set<IPermissionGroup> path = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (IPermissionGroup permissionGroup : this.groups) {
+                threshold = Math.max(threshold, this.getThreshold(permissionGroup, name, path));
+            }
+
+            return Math.max(threshold, this.getThreshold(this.defaultGroup, name, path));
+        }
+
+        private long getThreshold(IPermissionGroup permissionGroup, String name, Set<IPermissionGroup> path) {
+            //the path prevents an endless recursion, if the groups extend each other
+            if (permissionGroup == null || !path.add(permissionGroup)) {
+                return NONE;
+            }
+
+            try {
+                CompiledPermissible permissible = this.permissibles.get(permissionGroup);
+
+                if (permissible.forbiddenPermissions.contains(name)) {
+                    return NONE;
+                }
+
+                long threshold = permissible.getThreshold(name);
+
+                for (IPermissionGroup extendedGroup : this.extendedGroups.get(permissionGroup)) {
+                    threshold = Math.max(threshold, this.getThreshold(extendedGroup, name, path));
+                }
+
+                return threshold;
+            } finally {
+                path.remove(permissionGroup);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private boolean terminal;
+
+        private long threshold = NONE;
+
+        private Node getChild(char key) {
+            int index = Arrays.binarySearch(this.keys, key);
+            return index >= 0 ? this.children[index] : null;
+        }
+
+        private Node getOrCreate(String path) {
+            Node node = this;
+
+            for (int i = 0; i < path.length(); i++) {
+                node = node.getOrCreateChild(path.charAt(i));
+            }
+
+            return node;
+        }
+
+        private Node getOrCreateChild(char key) {
+            int index = Arrays.binarySearch(this.keys, key);
+
+            if (index >= 0) {
+                return this.children[index];
+            }
+
+            index = -index - 1;
+
+            char[] keys = new char[this.keys.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+
+            System.arraycopy(this.keys, 0, keys, 0, index);
+            System.arraycopy(this.children, 0, children, 0, index);
+            System.arraycopy(this.keys, index, keys, index + 1, this.keys.length - index);
+            System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+
+            keys[index] = key;
+            children[index] = new Node();
+
+            this.keys = keys;
+            this.children = children;
+
+            return children[index];
+        }
+
+        private void setThreshold(long threshold) {
+            this.terminal = true;
+            this.threshold = threshold;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package de.dytanic.cloudnet.driver.permission;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the CompiledPermissions of the users by their unique id. The compiled permissions of a user are compiled
+ * again, if another instance of the user is checked, if the user or all users have been invalidated or if the
+ * permissions are requested for other groups.
+ * <p>
+ * The implementations have to invalidate the users on every update of a user and all users on every update of a
+ * group, because every user may inherit the permissions of the group.
+ */
+public final class CompiledPermissionsCache {
+
+    private final Map<UUID, CachedPermissions> cachedPermissions = Maps.newConcurrentHashMap();
+
+    private final AtomicLong version = new AtomicLong();
+
+    public CompiledPermissions getPermissions(IPermissionManagement permissionManagement, IPermissionUser permissionUser, String... groups) {
+        Validate.checkNotNull(permissionUser);
+
+        CachedPermissions cachedPermissions = this.cachedPermissions.get(permissionUser.getUniqueId());
+        long version = this.version.get();
+
+        if (cachedPermissions != null && cachedPermissions.version == version &&
+                cachedPermissions.permissionUser == permissionUser && Arrays.equals(cachedPermissions.groups, groups)) {
+            return cachedPermissions.compiledPermissions;
+        }
+
+        //the version is read before the compilation, permissions which are compiled during an update of a group are compiled again on the next check
+        CompiledPermissions compiledPermissions = CompiledPermissions.compile(permissionManagement, permissionUser, groups);
+        this.cachedPermissions.put(permissionUser.getUniqueId(), new CachedPermissions(permissionUser, groups, version, compiledPermissions));
+
+        return compiledPermissions;
+    }
+
+    public void invalidate(UUID uniqueId) {
+        Validate.checkNotNull(uniqueId);
+
+        this.cachedPermissions.remove(uniqueId);
+    }
+
+    public void invalidateAll() {
+        this.version.incrementAndGet();
+        this.cachedPermissions.clear();
+    }
+
+    public int size() {
+        return this.cachedPermissions.size();
+    }
+
+    private static final class CachedPermissions {
+
+        private final IPermissionUser permissionUser;
+
+        private final String[] groups;
+
+        private final long version;
+
+        private final CompiledPermissions compiledPermissions;
+
+        private CachedPermissions(IPermissionUser permissionUser, String[] groups, long version, CompiledPermissions compiledPermissions) {
+            this.permissionUser = permissionUser;
+            this.groups = groups;
+            this.version = version;
+            this.compiledPermissions = compiledPermissions;
+        }
+    }
+}
@@ -17,11 +17,20 @@ public class ProcessSnapshot {
 
     private Collection<ThreadSnapshot> threads;
 
+    private int threadCount;
+
     private double cpuUsage;
 
     private int pid;
 
     public ProcessSnapshot(long heapUsageMemory, long noHeapUsageMemory, long maxHeapMemory, int currentLoadedClassCount, long totalLoadedClassCount, long unloadedClassCount, Collection<ThreadSnapshot> threads, double cpuUsage, int pid) {
+        this(heapUsageMemory, noHeapUsageMemory, maxHeapMemory, currentLoadedClassCount, totalLoadedClassCount, unloadedClassCount, threads, threads.size(), cpuUsage, pid);
+    }
+
+    /**
+     * @param threadCount the count of the threads, which may be known without the snapshots of the threads
+     */
+    public ProcessSnapshot(long heapUsageMemory, long noHeapUsageMemory, long maxHeapMemory, int currentLoadedClassCount, long totalLoadedClassCount, long unloadedClassCount, Collection<ThreadSnapshot> threads, int threadCount, double cpuUsage, int pid) {
         this.heapUsageMemory = heapUsageMemory;
         this.noHeapUsageMemory = noHeapUsageMemory;
         this.maxHeapMemory = maxHeapMemory;
@@ -29,6 +38,7 @@ public class ProcessSnapshot {
         this.totalLoadedClassCount = totalLoadedClassCount;
         this.unloadedClassCount = unloadedClassCount;
         this.threads = threads;
+        this.threadCount = threadCount;
         this.cpuUsage = cpuUsage;
         this.pid = pid;
     }
@@ -61,6 +71,10 @@ public class ProcessSnapshot {
         return this.threads;
     }
 
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
     public double getCpuUsage() {
         return this.cpuUsage;
     }
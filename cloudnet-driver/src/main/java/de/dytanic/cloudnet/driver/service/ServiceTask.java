@@ -27,6 +27,12 @@ public class ServiceTask extends ServiceConfigurationBase {
     private int startPort;
     private int minServiceCount = 0;
 
+    /**
+     * The count of services, which are kept prepared with their templates and inclusions on every associated node,
+     * so that they can be started without copying any files
+     */
+    private int preparedServiceCount = 0;
+
     /**
      * Represents the time in millis where this task is able to start new services again
      */
@@ -172,8 +178,16 @@ public class ServiceTask extends ServiceConfigurationBase {
         this.minServiceCount = minServiceCount;
     }
 
+    public int getPreparedServiceCount() {
+        return this.preparedServiceCount;
+    }
+
+    public void setPreparedServiceCount(int preparedServiceCount) {
+        this.preparedServiceCount = preparedServiceCount;
+    }
+
     public ServiceTask makeClone() {
-        return new ServiceTask(
+        ServiceTask serviceTask = new ServiceTask(
                 new ArrayList<>(this.includes),
                 new ArrayList<>(this.templates),
                 new ArrayList<>(this.deployments),
@@ -193,5 +207,8 @@ public class ServiceTask extends ServiceConfigurationBase {
                 this.startPort,
                 this.minServiceCount
         );
+        serviceTask.setPreparedServiceCount(this.preparedServiceCount);
+
+        return serviceTask;
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package de.dytanic.cloudnet.driver.network.cluster;
+
+import com.google.gson.JsonObject;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.service.ProcessSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class NetworkClusterNodeInfoSnapshotDeltaTest {
+
+    @Test
+    public void testDelta() {
+        NetworkClusterNodeInfoSnapshot previous = this.createSnapshot(1000, 5, 256, "1.0"),
+                current = this.createSnapshot(2000, 6, 256, "1.0");
+
+        JsonObject delta = NetworkClusterNodeInfoSnapshotDelta.createDelta(this.toJson(previous), this.toJson(current));
+
+        Assert.assertTrue(delta.has("creationTime"));
+        Assert.assertTrue(delta.has("currentServicesCount"));
+        Assert.assertFalse(delta.has("maxMemory"));
+        Assert.assertFalse(delta.has("processSnapshot"));
+        Assert.assertFalse(NetworkClusterNodeInfoSnapshotDelta.isStaticChange(delta));
+
+        NetworkClusterNodeInfoSnapshot applied = NetworkClusterNodeInfoSnapshotDelta.applyDelta(previous, delta);
+
+        Assert.assertEquals(this.toJson(current), this.toJson(applied));
+        Assert.assertTrue(NetworkClusterNodeInfoSnapshotDelta.isStaticChange(
+                NetworkClusterNodeInfoSnapshotDelta.createDelta(this.toJson(current), this.toJson(this.createSnapshot(3000, 6, 256, "1.1")))
+        ));
+    }
+
+    @Test
+    public void testRemovedKeys() {
+        JsonObject previous = JsonDocument.GSON.fromJson("{\"a\":1,\"b\":2,\"nested\":{\"c\":3,\"d\":4}}", JsonObject.class),
+                current = JsonDocument.GSON.fromJson("{\"a\":1,\"nested\":{\"c\":3,\"e\":null}}", JsonObject.class);
+
+        JsonObject delta = NetworkClusterNodeInfoSnapshotDelta.createDelta(previous, current);
+        Assert.assertFalse(delta.has("a"));
+
+        JsonObject applied = previous.deepCopy();
+        NetworkClusterNodeInfoSnapshotDelta.applyDelta(applied, delta);
+
+        Assert.assertEquals(current, applied);
+    }
+
+    private NetworkClusterNodeInfoSnapshot createSnapshot(long creationTime, int servicesCount, int heapUsage, String version) {
+        return new NetworkClusterNodeInfoSnapshot(
+                creationTime,
+                new NetworkClusterNode("Node-1", new HostAndPort[]{new HostAndPort("127.0.0.1", 1410)}),
+                version,
+                servicesCount,
+                512,
+                1024,
+                4096,
+                new ProcessSnapshot(heapUsage, 64, 1024, 5000, 5000, 0, Collections.emptyList(), 3.5, 1234),
+                Collections.singletonList(new NetworkClusterNodeExtensionSnapshot("de.dytanic.cloudnet", "CloudNet-Bridge", version, "CloudNetService", null, null)),
+                12.5
+        );
+    }
+
+    private JsonObject toJson(NetworkClusterNodeInfoSnapshot snapshot) {
+        return JsonDocument.GSON.toJsonTree(snapshot).getAsJsonObject();
+    }
+}
@@ -0,0 +1,51 @@
+package de.dytanic.cloudnet.driver.network.def.internal;
+
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class InternalSyncPacketChannelTest {
+
+    @Test
+    public void testCallablePackets() throws Exception {
+        AtomicReference<Packet> sentPacket = new AtomicReference<>();
+
+        INetworkChannel channel = (INetworkChannel) Proxy.newProxyInstance(INetworkChannel.class.getClassLoader(), new Class<?>[]{INetworkChannel.class}, (proxy, method, args) -> {
+            if (method.getName().equals("sendPacket")) {
+                sentPacket.set((Packet) args[0]);
+            }
+
+            return null;
+        });
+
+        int outstandingCallbacks = InternalSyncPacketChannel.getOutstandingCallbackCount();
+        long expiredCallbacks = InternalSyncPacketChannel.getExpiredCallbackCount();
+
+        ITask<Pair<JsonDocument, byte[]>> task = InternalSyncPacketChannel.sendCallablePacket(channel, new JsonDocument("request", true), null);
+
+        Assert.assertEquals(outstandingCallbacks + 1, InternalSyncPacketChannel.getOutstandingCallbackCount());
+        Assert.assertTrue(InternalSyncPacketChannel.handleIncomingChannel(new Packet(sentPacket.get().getChannel(), sentPacket.get().getUniqueId(), new JsonDocument("response", true), null)));
+        Assert.assertTrue(task.get().getFirst().getBoolean("response"));
+        Assert.assertFalse(InternalSyncPacketChannel.handleIncomingChannel(sentPacket.get()));
+
+        ITask<Pair<JsonDocument, byte[]>> expiringTask = InternalSyncPacketChannel.sendCallablePacket(channel, new JsonDocument(), null, null, 200);
+
+        Assert.assertEquals(0, expiringTask.get().getFirst().size());
+        Assert.assertEquals(expiredCallbacks + 1, InternalSyncPacketChannel.getExpiredCallbackCount());
+
+        ITask<Pair<JsonDocument, byte[]>> cancelledTask = InternalSyncPacketChannel.sendCallablePacket(channel, new JsonDocument(), null);
+
+        Assert.assertTrue(cancelledTask.cancel(true));
+        Assert.assertTrue(cancelledTask.isCancelled());
+        Assert.assertTrue(cancelledTask.isDone());
+        Assert.assertFalse(InternalSyncPacketChannel.handleIncomingChannel(sentPacket.get()));
+        Assert.assertEquals(outstandingCallbacks, InternalSyncPacketChannel.getOutstandingCallbackCount());
+    }
+}
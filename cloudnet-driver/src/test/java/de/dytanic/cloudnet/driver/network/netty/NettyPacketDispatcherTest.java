@@ -0,0 +1,54 @@
+package de.dytanic.cloudnet.driver.network.netty;
+
+import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class NettyPacketDispatcherTest {
+
+    @Test
+    public void testVirtualThreadDispatch() throws Exception {
+        NettyPacketDispatcher packetDispatcher = new NettyPacketDispatcher(new DefaultTaskScheduler(1), true);
+
+        List<Integer> receivedPackets = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch callableResponse = new CountDownLatch(1), handledPackets = new CountDownLatch(100);
+
+        //the first packet waits for a callable response, which is received on the same channel
+        packetDispatcher.dispatch(new Packet(1, new JsonDocument(), null), () -> {
+            Assert.assertTrue(callableResponse.await(5, TimeUnit.SECONDS));
+            receivedPackets.add(0);
+            handledPackets.countDown();
+            return null;
+        });
+
+        for (int i = 1; i < 100; i++) {
+            int packetId = i;
+
+            packetDispatcher.dispatch(new Packet(1, new JsonDocument(), null), () -> {
+                receivedPackets.add(packetId);
+                handledPackets.countDown();
+                return null;
+            });
+        }
+
+        packetDispatcher.dispatch(new Packet(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new JsonDocument(), null), () -> {
+            callableResponse.countDown();
+            return null;
+        });
+
+        Assert.assertTrue(handledPackets.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, receivedPackets.get(i).intValue());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet.driver.network.netty;
 
+import com.google.gson.JsonNull;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
 import io.netty.buffer.ByteBuf;
@@ -9,7 +10,9 @@ import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 public class NettyPacketEncoderDecoderTest {
 
@@ -42,4 +45,49 @@ public class NettyPacketEncoderDecoderTest {
 
         Assert.assertEquals("Test_Nachricht", new String(((Packet) packets.get(1)).getBody(), StandardCharsets.UTF_8));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBinaryFramingEncoderDecoder() throws Exception {
+        NettyPacketEncoder nettyPacketEncoder = new NettyPacketEncoder();
+        NettyPacketDecoder nettyPacketDecoder = new NettyPacketDecoder();
+
+        ByteBuf byteBuf = Unpooled.buffer();
+        UUID uniqueId = UUID.randomUUID();
+
+        Packet packet = new Packet(4, uniqueId, new JsonDocument()
+                .append("val", true)
+                .append("int", 5)
+                .append("negative", -800000000000L)
+                .append("double", 2.5D)
+                .append("string", "Test_Nachricht")
+                .append("list", Arrays.asList("a", "b", "c"))
+                .append("document", new JsonDocument("nested", 8).append("null", JsonNull.INSTANCE)), "Test_Nachricht".getBytes());
+
+        nettyPacketEncoder.encode(null, new Packet(2, new JsonDocument("legacy", true), null), byteBuf);
+        nettyPacketEncoder.setBinaryFraming(true);
+        nettyPacketEncoder.encode(null, packet, byteBuf);
+        nettyPacketEncoder.encode(null, new Packet(3, null, null), byteBuf);
+
+        List<Object> packets = new ArrayList<>();
+        nettyPacketDecoder.decode(null, byteBuf, packets);
+        nettyPacketDecoder.decode(null, byteBuf, packets);
+        nettyPacketDecoder.decode(null, byteBuf, packets);
+
+        Assert.assertEquals(3, packets.size());
+        Assert.assertTrue(((Packet) packets.get(0)).getHeader().getBoolean("legacy"));
+
+        Packet received = (Packet) packets.get(1);
+        Assert.assertEquals(4, received.getChannel());
+        Assert.assertEquals(uniqueId, received.getUniqueId());
+        Assert.assertEquals(packet.getHeader().toJson(), received.getHeader().toJson());
+        Assert.assertEquals(5, received.getHeader().getInt("int"));
+        Assert.assertEquals(-800000000000L, received.getHeader().getLong("negative"));
+        Assert.assertEquals(2.5D, received.getHeader().getDouble("double"), 0);
+        Assert.assertEquals(8, received.getHeader().getDocument("document").getInt("nested"));
+        Assert.assertEquals("Test_Nachricht", new String(received.getBody(), StandardCharsets.UTF_8));
+
+        Assert.assertEquals(3, ((Packet) packets.get(2)).getChannel());
+        Assert.assertEquals(0, ((Packet) packets.get(2)).getHeader().size());
+        Assert.assertEquals(0, byteBuf.readableBytes());
+    }
+}
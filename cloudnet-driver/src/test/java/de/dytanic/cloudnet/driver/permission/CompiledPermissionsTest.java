@@ -0,0 +1,131 @@
+package de.dytanic.cloudnet.driver.permission;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+public class CompiledPermissionsTest {
+
+    @Test
+    public void testCompiledPermissions() {
+        IPermissionManagement permissionManagement = new DefaultJsonFilePermissionManagement(new File("build/compiledPermissions.json"));
+        permissionManagement.setGroups(Arrays.asList(
+                new PermissionGroup("Default", 0, new ArrayList<>(), "", "", "", "", 0, true),
+                new PermissionGroup("Member", 10, new ArrayList<>(Arrays.asList("Default")), "", "", "", "", 0, false),
+                new PermissionGroup("Moderator", 50, new ArrayList<>(Arrays.asList("Member")), "", "", "", "", 0, false),
+                new PermissionGroup("Admin", 100, new ArrayList<>(Arrays.asList("Moderator")), "", "", "", "", 0, false)
+        ));
+
+        permissionManagement.getGroup("Default").addPermission("lobby.join");
+        permissionManagement.getGroup("Default").addPermission("Lobby", new Permission("lobby.build", -1));
+        permissionManagement.getGroup("Member").addPermission("essentials.home.*");
+        permissionManagement.getGroup("Member").addPermission("essentials.fly", -1);
+        permissionManagement.getGroup("Moderator").addPermission("essentials.fly", 60);
+        permissionManagement.getGroup("Moderator").addPermission("essentials.kick", 70);
+        permissionManagement.getGroup("Admin").addPermission("*", 120);
+        permissionManagement.getGroup("Admin").addPermission("essentials.nick", -1);
+
+        IPermissionUser member = new PermissionUser(UUID.randomUUID(), "Member", null, 0);
+        member.addGroup("Member");
+
+        IPermissionUser moderator = new PermissionUser(UUID.randomUUID(), "Moderator", null, 0);
+        moderator.addGroup("Moderator");
+        moderator.addPermission("worldedit.*", 5);
+
+        IPermissionUser admin = new PermissionUser(UUID.randomUUID(), "Admin", null, 0);
+        admin.addGroup("Admin");
+        admin.addPermission("Lobby", new Permission("lobby.build", 1));
+
+        IPermissionUser guest = new PermissionUser(UUID.randomUUID(), "Guest", null, 0);
+        guest.addPermission("essentials.kick", -1);
+
+        String[] permissions = {
+                "lobby.join", "lobby.build", "essentials.home", "essentials.home.set", "essentials.fly", "essentials.kick",
+                "essentials.nick", "worldedit.wand", "worldedit.*", "*", "bungeecord.command.server", ""
+        };
+
+        for (IPermissionUser permissionUser : new IPermissionUser[]{member, moderator, admin, guest}) {
+            CompiledPermissions compiledPermissions = CompiledPermissions.compile(permissionManagement, permissionUser, "Lobby");
+
+            for (String permission : permissions) {
+                for (int potency : new int[]{0, 5, 10, 50, 60, 100, 120, 121}) {
+                    boolean expected = permissionManagement.hasPermission(permissionUser, "Lobby", new Permission(permission, potency)) ||
+                            permissionManagement.hasPermission(permissionUser, new Permission(permission, potency));
+
+                    Assert.assertEquals(permissionUser.getName() + " " + permission + " " + potency, expected, compiledPermissions.hasPermission(permission, potency));
+                }
+            }
+        }
+
+        CompiledPermissions moderatorPermissions = CompiledPermissions.compile(permissionManagement, moderator);
+
+        Assert.assertTrue(moderatorPermissions.hasPermission("Essentials.Home.Set", 0));
+        Assert.assertTrue(moderatorPermissions.hasPermission("essentials.fly", 60));
+        Assert.assertFalse(moderatorPermissions.hasPermission("essentials.fly", 61));
+        Assert.assertFalse(moderatorPermissions.hasPermission("lobby.build", 0));
+        Assert.assertFalse(CompiledPermissions.compile(permissionManagement, member).hasPermission("essentials.fly", 0));
+        Assert.assertFalse(CompiledPermissions.compile(permissionManagement, admin).hasPermission("essentials.nick", 0));
+        Assert.assertTrue(CompiledPermissions.compile(permissionManagement, admin, "Lobby").hasPermission("lobby.build", 0));
+
+        //groups which extend each other don't end in an endless recursion
+        permissionManagement.getGroup("Default").getGroups().add("Admin");
+        Assert.assertTrue(CompiledPermissions.compile(permissionManagement, member).hasPermission("essentials.kick", 0));
+    }
+
+    @Test
+    public void testDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+
+        try {
+            //the turkish locale lowercases 'I' to the dotless 'ı'
+            Locale.setDefault(new Locale("tr", "TR"));
+
+            IPermissionManagement permissionManagement = new DefaultJsonFilePermissionManagement(new File("build/compiledPermissionsLocale.json"));
+            permissionManagement.setGroups(Arrays.asList(new PermissionGroup("Default", 0, new ArrayList<>(), "", "", "", "", 0, true)));
+
+            IPermissionUser permissionUser = new PermissionUser(UUID.randomUUID(), "Tester", null, 0);
+            permissionUser.addPermission("ESSENTIALS.HOME");
+            permissionUser.addPermission("WORLDEDIT.*");
+
+            CompiledPermissions compiledPermissions = CompiledPermissions.compile(permissionManagement, permissionUser);
+
+            Assert.assertTrue(compiledPermissions.hasPermission("essentials.home", 0));
+            Assert.assertTrue(compiledPermissions.hasPermission("ESSENTIALS.HOME", 0));
+            Assert.assertTrue(compiledPermissions.hasPermission("worldedit.wand", 0));
+            Assert.assertTrue(compiledPermissions.hasPermission("WorldEdit.Wand", 0));
+            Assert.assertFalse(compiledPermissions.hasPermission("essentials.fly", 0));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testCompiledPermissionsCache() {
+        IPermissionManagement permissionManagement = new DefaultJsonFilePermissionManagement(new File("build/compiledPermissionsCache.json"));
+        permissionManagement.setGroups(Arrays.asList(new PermissionGroup("Default", 0, new ArrayList<>(), "", "", "", "", 0, true)));
+
+        CompiledPermissionsCache cache = new CompiledPermissionsCache();
+        IPermissionUser permissionUser = new PermissionUser(UUID.randomUUID(), "Tester", null, 0);
+
+        CompiledPermissions compiledPermissions = cache.getPermissions(permissionManagement, permissionUser);
+        Assert.assertSame(compiledPermissions, cache.getPermissions(permissionManagement, permissionUser));
+        Assert.assertNotSame(compiledPermissions, cache.getPermissions(permissionManagement, permissionUser, "Lobby"));
+        Assert.assertFalse(cache.getPermissions(permissionManagement, permissionUser).hasPermission("lobby.join", 0));
+
+        permissionManagement.getGroup("Default").addPermission("lobby.join");
+        Assert.assertFalse(cache.getPermissions(permissionManagement, permissionUser).hasPermission("lobby.join", 0));
+
+        cache.invalidateAll();
+        Assert.assertTrue(cache.getPermissions(permissionManagement, permissionUser).hasPermission("lobby.join", 0));
+
+        permissionUser.addPermission("lobby.join", -1);
+        cache.invalidate(permissionUser.getUniqueId());
+        Assert.assertFalse(cache.getPermissions(permissionManagement, permissionUser).hasPermission("lobby.join", 0));
+        Assert.assertEquals(1, cache.size());
+    }
+}
@@ -10,6 +10,7 @@ import de.dytanic.cloudnet.launcher.update.DefaultRepositoryUpdater;
 import de.dytanic.cloudnet.launcher.update.IUpdater;
 import de.dytanic.cloudnet.launcher.util.CloudNetModule;
 import de.dytanic.cloudnet.launcher.util.Dependency;
+import de.dytanic.cloudnet.launcher.util.DependencyResolver;
 import de.dytanic.cloudnet.launcher.util.IOUtils;
 
 import java.io.File;
@@ -18,7 +19,6 @@ import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -115,45 +115,32 @@ public final class CloudNetLauncher {
 
         CNLInterpreter.runInterpreter(new File(targetDirectory, "driver.cnl"));
 
+        Collection<Dependency> driverDependencies = new ArrayList<>(dependencies);
+
+        CNLInterpreter.runInterpreter(new File(targetDirectory, "cloudnet.cnl"));
+
+        //the dependencies of the driver and the node are downloaded together
+        DependencyResolver dependencyResolver = new DependencyResolver(launcherDirectory.resolve("libs"), repositories, DependencyResolver.DEFAULT_PARALLELISM, PRINT);
+        Map<Dependency, Path> dependencyPaths = dependencyResolver.resolve(dependencies);
+
         Collection<URL> dependencyResources = new ArrayList<>();
         StringBuilder driverLibs = new StringBuilder();
 
-        for (Dependency dependency : dependencies) {
-            if (repositories.containsKey(dependency.getRepository())) {
-                File dest = new File(launcherDirectory.toFile(), "libs/" +
-                        dependency.getGroup().replace(".", "/") + "/" + dependency.getName() + "/" + dependency.getVersion() + "/"
-                        + dependency.getName() + "-" + dependency.getVersion() + (dependency.getClassifier() != null ? "-" + dependency.getClassifier() : "") + ".jar"
-                );
-
-                driverLibs.append(dest.getAbsolutePath()).append(File.pathSeparator);
+        for (Dependency dependency : driverDependencies) {
+            Path path = dependencyPaths.get(dependency);
 
-                installLibrary(repositories.get(dependency.getRepository()), dependency, dest, buffer);
-                dependencyResources.add(dest.toURI().toURL());
+            if (path != null) {
+                driverLibs.append(path.toAbsolutePath()).append(File.pathSeparator);
+                dependencyResources.add(path.toUri().toURL());
             }
         }
 
         driverLibs.append(new File(targetDirectory, "driver.jar").getAbsolutePath());
         System.setProperty("cloudnet.launcher.driver.dependencies", driverLibs.toString()); //For wrapper instances
 
-        Collection<Dependency> includes = new ArrayList<>(dependencies);
-
-        CNLInterpreter.runInterpreter(new File(targetDirectory, "cloudnet.cnl"));
-
-        for (Dependency entry : includes) {
-            dependencies.remove(entry);
-        }
-
-        includes.clear();
-
-        for (Dependency dependency : dependencies) {
-            if (repositories.containsKey(dependency.getRepository())) {
-                File dest = new File(launcherDirectory.toFile(), "libs/" +
-                        dependency.getGroup().replace(".", "/") + "/" + dependency.getName() + "/" + dependency.getVersion() + "/"
-                        + dependency.getName() + "-" + dependency.getVersion() + (dependency.getClassifier() != null ? "-" + dependency.getClassifier() : "") + ".jar"
-                );
-
-                installLibrary(repositories.get(dependency.getRepository()), dependency, dest, buffer);
-                dependencyResources.add(dest.toURI().toURL());
+        for (Map.Entry<Dependency, Path> entry : dependencyPaths.entrySet()) {
+            if (!driverDependencies.contains(entry.getKey())) {
+                dependencyResources.add(entry.getValue().toUri().toURL());
             }
         }
 
@@ -244,33 +231,6 @@ public final class CloudNetLauncher {
         CNLInterpreter.registerCommand(new CNLCommandRepo(repositories));
     }
 
-    private static void installLibrary(String repoUrl, Dependency dependency, File dest, byte[] buffer) {
-        if (!dest.exists()) {
-            try {
-                dest.getParentFile().mkdirs();
-
-                PRINT.accept("Install from repository " + dependency.getRepository() + " " + dependency.getGroup() +
-                        ":" + dependency.getName() + ":" + dependency.getVersion() + (dependency.getClassifier() != null ? "-" + dependency.getClassifier() : "") + ".jar");
-
-                URLConnection urlConnection = new URL(repoUrl + "/" +
-                        dependency.getGroup().replace(".", "/") + "/" + dependency.getName() + "/" + dependency.getVersion() + "/"
-                        + dependency.getName() + "-" + dependency.getVersion() + (dependency.getClassifier() != null ? "-" + dependency.getClassifier() : "") + ".jar").openConnection();
-
-                urlConnection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11");
-                urlConnection.setDoOutput(false);
-                urlConnection.setUseCaches(false);
-                urlConnection.connect();
-
-                try (InputStream inputStream = urlConnection.getInputStream()) {
-                    IOUtils.copy(buffer, inputStream, dest.toPath());
-                }
-
-            } catch (Exception exception) {
-                exception.printStackTrace();
-            }
-        }
-    }
-
     private static void prepareApplication(Map<String, String> variables) {
         //Set properties for default dependencies
         System.setProperty("io.netty.maxDirectMemory", "0");
@@ -0,0 +1,317 @@
+package de.dytanic.cloudnet.launcher.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Resolves the dependencies of the launcher from the maven repositories into the local library directory.
+ * The missing dependencies are downloaded in parallel into temporary files, which are verified against the sha1
+ * checksums of the repository and moved to their target path afterwards, so that an interrupted or corrupt download
+ * never leaves a broken library behind.
+ * <p>
+ * The verified libraries are recorded with their checksum and size in an index file in the library directory.
+ * A library of the index is used without another verification, if its size hasn't changed.
+ */
+public final class DependencyResolver {
+
+    /**
+     * The count of the dependencies, which are downloaded at the same time
+     */
+    public static final int DEFAULT_PARALLELISM = Math.max(1, Integer.getInteger("cloudnet.launcher.dependencies.parallelism", 4));
+
+    public static final String INDEX_FILE_NAME = "dependencies.index";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Path directory, indexFile;
+
+    private final Map<String, String> repositories;
+
+    private final int parallelism;
+
+    private final Consumer<String> logger;
+
+    private final Properties index = new Properties();
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    /**
+     * @param directory    the library directory, which contains the dependencies in the layout of a maven repository
+     * @param repositories the urls of the repositories by their names
+     * @param parallelism  the count of the dependencies, which are downloaded at the same time
+     * @param logger       the consumer of the messages about the downloads
+     */
+    public DependencyResolver(Path directory, Map<String, String> repositories, int parallelism, Consumer<String> logger) {
+        this.directory = directory;
+        this.indexFile = directory.resolve(INDEX_FILE_NAME);
+        this.repositories = repositories;
+        this.parallelism = Math.max(1, parallelism);
+        this.logger = logger;
+
+        if (Files.exists(this.indexFile)) {
+            try (InputStream inputStream = Files.newInputStream(this.indexFile)) {
+                this.index.load(inputStream);
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    public static String getRelativePath(Dependency dependency) {
+        return dependency.getGroup().replace(".", "/") + "/" + dependency.getName() + "/" + dependency.getVersion() + "/"
+                + dependency.getName() + "-" + dependency.getVersion() + (dependency.getClassifier() != null ? "-" + dependency.getClassifier() : "") + ".jar";
+    }
+
+    public Path getPath(Dependency dependency) {
+        return this.directory.resolve(getRelativePath(dependency));
+    }
+
+    /**
+     * Resolves all dependencies, whose repository is known. The dependencies, which couldn't be resolved, are
+     * reported by the stack trace of the failure
+     *
+     * @return the local paths of the dependencies in the order of the given dependencies
+     */
+    public Map<Dependency, Path> resolve(Collection<Dependency> dependencies) throws InterruptedException {
+        Map<Dependency, Future<Path>> futures = new LinkedHashMap<>();
+        List<Dependency> missingDependencies = new ArrayList<>();
+
+        for (Dependency dependency : dependencies) {
+            if (this.repositories.containsKey(dependency.getRepository()) && !futures.containsKey(dependency)) {
+                futures.put(dependency, null);
+
+                if (!this.isIndexed(dependency)) {
+                    missingDependencies.add(dependency);
+                }
+            }
+        }
+
+        if (!missingDependencies.isEmpty()) {
+            ExecutorService executorService = Executors.newFixedThreadPool(Math.min(this.parallelism, missingDependencies.size()));
+
+            try {
+                for (Dependency dependency : missingDependencies) {
+                    futures.put(dependency, executorService.submit(() -> this.install(dependency)));
+                }
+
+                for (Map.Entry<Dependency, Future<Path>> entry : futures.entrySet()) {
+                    if (entry.getValue() != null) {
+                        try {
+                            entry.getValue().get();
+                        } catch (ExecutionException exception) {
+                            exception.getCause().printStackTrace();
+                        }
+                    }
+                }
+            } finally {
+                executorService.shutdownNow();
+            }
+
+            this.saveIndex();
+        }
+
+        Map<Dependency, Path> paths = new LinkedHashMap<>();
+
+        for (Dependency dependency : futures.keySet()) {
+            paths.put(dependency, this.getPath(dependency));
+        }
+
+        return paths;
+    }
+
+    /**
+     * @return the count of the dependencies, which have been downloaded by this resolver
+     */
+    public int getDownloadCount() {
+        return this.downloads.get();
+    }
+
+    private boolean isIndexed(Dependency dependency) {
+        String entry = this.index.getProperty(getRelativePath(dependency));
+
+        if (entry == null) {
+            return false;
+        }
+
+        try {
+            return Long.parseLong(entry.substring(entry.indexOf(':') + 1)) == Files.size(this.getPath(dependency));
+        } catch (IOException | NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private Path install(Dependency dependency) throws Exception {
+        String relativePath = getRelativePath(dependency);
+        String url = this.repositories.get(dependency.getRepository()) + "/" + relativePath;
+
+        Path path = this.directory.resolve(relativePath);
+        String checksum = readChecksum(url + ".sha1");
+
+        if (Files.exists(path)) {
+            //a library of a previous launcher, which hasn't been indexed, is kept if it's valid or can't be verified
+            String localChecksum = hash(path);
+
+            if (checksum == null || checksum.equals(localChecksum)) {
+                this.index(relativePath, localChecksum, Files.size(path));
+                return path;
+            }
+        }
+
+        Files.createDirectories(path.getParent());
+
+        this.logger.accept("Install from repository " + dependency.getRepository() + " " + dependency.getGroup() +
+                ":" + dependency.getName() + ":" + dependency.getVersion() + (dependency.getClassifier() != null ? "-" + dependency.getClassifier() : "") + ".jar");
+
+        for (int attempt = 1; ; attempt++) {
+            Path tempFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".part");
+
+            try {
+                String downloadedChecksum = download(url, tempFile);
+
+                if (checksum == null || checksum.equals(downloadedChecksum)) {
+                    Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                    this.downloads.incrementAndGet();
+                    this.index(relativePath, downloadedChecksum, Files.size(path));
+                    return path;
+                }
+
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new IOException("Checksum mismatch of " + url + ", expected " + checksum + " but was " + downloadedChecksum);
+                }
+            } catch (IOException exception) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw exception;
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    private void index(String relativePath, String checksum, long size) {
+        synchronized (this.index) {
+            this.index.setProperty(relativePath, checksum + ":" + size);
+        }
+    }
+
+    private void saveIndex() {
+        try {
+            Files.createDirectories(this.directory);
+            Path tempFile = Files.createTempFile(this.directory, INDEX_FILE_NAME, ".part");
+
+            synchronized (this.index) {
+                try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                    this.index.store(outputStream, "The verified libraries of the launcher");
+                }
+            }
+
+            Files.move(tempFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    private static URLConnection openConnection(String url) throws IOException {
+        URLConnection urlConnection = new URL(url).openConnection();
+
+        urlConnection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11");
+        urlConnection.setDoOutput(false);
+        urlConnection.setUseCaches(false);
+        urlConnection.setConnectTimeout(10000);
+        urlConnection.setReadTimeout(30000);
+        urlConnection.connect();
+
+        return urlConnection;
+    }
+
+    /**
+     * @return the sha1 checksum of the checksum file or null, if the repository doesn't provide it
+     */
+    private static String readChecksum(String url) {
+        try (InputStream inputStream = openConnection(url).getInputStream()) {
+            byte[] buffer = new byte[128];
+            int length = 0, read;
+
+            while (length < buffer.length && (read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+            }
+
+            //the checksum file may contain the name of the file after the checksum
+            String checksum = new String(buffer, 0, length, StandardCharsets.US_ASCII).trim().split("\\s+")[0].toLowerCase();
+            return checksum.matches("[0-9a-f]{40}") ? checksum : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private static String download(String url, Path path) throws IOException {
+        MessageDigest messageDigest = createDigest();
+
+        try (InputStream inputStream = new DigestInputStream(openConnection(url).getInputStream(), messageDigest);
+             OutputStream outputStream = Files.newOutputStream(path)) {
+            byte[] buffer = new byte[16384];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+        }
+
+        return toHex(messageDigest.digest());
+    }
+
+    private static String hash(Path path) throws IOException {
+        MessageDigest messageDigest = createDigest();
+
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = new byte[16384];
+            int length;
+
+            while ((length = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, length);
+            }
+        }
+
+        return toHex(messageDigest.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return stringBuilder.toString();
+    }
+}
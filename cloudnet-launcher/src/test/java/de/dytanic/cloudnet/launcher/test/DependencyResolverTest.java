@@ -0,0 +1,170 @@
+package de.dytanic.cloudnet.launcher.test;
+
+import de.dytanic.cloudnet.launcher.util.Dependency;
+import de.dytanic.cloudnet.launcher.util.DependencyResolver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class DependencyResolverTest {
+
+    private final Path directory = Paths.get("build/tests/dependencyResolver"), repository = this.directory.resolve("repository"),
+            libraries = this.directory.resolve("libs");
+
+    private Map<String, String> repositories;
+
+    @Before
+    public void setUp() throws Exception {
+        this.delete(this.directory);
+        Files.createDirectories(this.repository);
+
+        String url = this.repository.toAbsolutePath().toUri().toString();
+        this.repositories = Collections.singletonMap("local", url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.delete(this.directory);
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        List<Dependency> dependencies = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Dependency dependency = new Dependency("local", "de.dytanic.test", "library-" + i, "1.0." + i);
+
+            this.deploy(dependency, ("content of library " + i).getBytes(StandardCharsets.UTF_8), true);
+            dependencies.add(dependency);
+        }
+
+        //dependencies of unknown repositories are skipped
+        dependencies.add(new Dependency("unknown", "de.dytanic.test", "unknown", "1.0"));
+
+        DependencyResolver dependencyResolver = new DependencyResolver(this.libraries, this.repositories, 4, message -> {
+        });
+        Map<Dependency, Path> paths = dependencyResolver.resolve(dependencies);
+
+        Assert.assertEquals(10, dependencyResolver.getDownloadCount());
+        Assert.assertEquals(dependencies.subList(0, 10), new ArrayList<>(paths.keySet()));
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("content of library " + i, new String(Files.readAllBytes(paths.get(dependencies.get(i))), StandardCharsets.UTF_8));
+        }
+
+        Assert.assertTrue(Files.exists(this.libraries.resolve(DependencyResolver.INDEX_FILE_NAME)));
+        Assert.assertEquals(0, this.countTempFiles());
+
+        //a warm start only uses the index without probing the repository
+        this.delete(this.repository);
+
+        dependencyResolver = new DependencyResolver(this.libraries, this.repositories, 4, message -> {
+        });
+
+        Assert.assertEquals(paths, dependencyResolver.resolve(dependencies));
+        Assert.assertEquals(0, dependencyResolver.getDownloadCount());
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        Dependency dependency = new Dependency("local", "de.dytanic.test", "corrupt", "1.0");
+        this.deploy(dependency, "content".getBytes(StandardCharsets.UTF_8), false);
+
+        Files.write(this.repository.resolve(DependencyResolver.getRelativePath(dependency) + ".sha1"), "0000000000000000000000000000000000000000".getBytes(StandardCharsets.US_ASCII));
+
+        DependencyResolver dependencyResolver = new DependencyResolver(this.libraries, this.repositories, 4, message -> {
+        });
+        dependencyResolver.resolve(Collections.singletonList(dependency));
+
+        Assert.assertEquals(0, dependencyResolver.getDownloadCount());
+        Assert.assertFalse(Files.exists(dependencyResolver.getPath(dependency)));
+        Assert.assertEquals(0, this.countTempFiles());
+    }
+
+    @Test
+    public void testAdoptExistingLibrary() throws Exception {
+        Dependency dependency = new Dependency("local", "de.dytanic.test", "existing", "1.0", "all");
+        byte[] content = "existing content".getBytes(StandardCharsets.UTF_8);
+
+        this.deploy(dependency, content, true);
+
+        DependencyResolver dependencyResolver = new DependencyResolver(this.libraries, this.repositories, 4, message -> {
+        });
+
+        //a library of a previous launcher, which hasn't been indexed, is kept if it's valid
+        Files.createDirectories(dependencyResolver.getPath(dependency).getParent());
+        Files.write(dependencyResolver.getPath(dependency), content);
+
+        dependencyResolver.resolve(Collections.singletonList(dependency));
+        Assert.assertEquals(0, dependencyResolver.getDownloadCount());
+
+        //an invalid library is replaced
+        Files.write(dependencyResolver.getPath(dependency), "broken".getBytes(StandardCharsets.UTF_8));
+        Files.delete(this.libraries.resolve(DependencyResolver.INDEX_FILE_NAME));
+
+        dependencyResolver = new DependencyResolver(this.libraries, this.repositories, 4, message -> {
+        });
+        dependencyResolver.resolve(Collections.singletonList(dependency));
+
+        Assert.assertEquals(1, dependencyResolver.getDownloadCount());
+        Assert.assertArrayEquals(content, Files.readAllBytes(dependencyResolver.getPath(dependency)));
+    }
+
+    private void deploy(Dependency dependency, byte[] content, boolean checksum) throws Exception {
+        Path path = this.repository.resolve(DependencyResolver.getRelativePath(dependency));
+
+        Files.createDirectories(path.getParent());
+        Files.write(path, content);
+
+        if (checksum) {
+            StringBuilder stringBuilder = new StringBuilder();
+
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(content)) {
+                stringBuilder.append(String.format("%02x", b));
+            }
+
+            Files.write(Paths.get(path + ".sha1"), stringBuilder.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private long countTempFiles() throws IOException {
+        if (!Files.exists(this.libraries)) {
+            return 0;
+        }
+
+        try (Stream<Path> stream = Files.walk(this.libraries)) {
+            return stream.filter(path -> path.toString().endsWith(".part")).count();
+        }
+    }
+
+    private void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        Collection<Path> paths = new ArrayList<>();
+
+        try (Stream<Path> stream = Files.walk(path)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(paths::add);
+        }
+
+        for (Path entry : paths) {
+            Files.delete(entry);
+        }
+    }
+}
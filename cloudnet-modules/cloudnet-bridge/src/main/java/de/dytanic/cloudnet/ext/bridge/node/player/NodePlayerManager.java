@@ -28,6 +28,9 @@ public final class NodePlayerManager implements IPlayerManager {
     public NodePlayerManager(String databaseName) {
         this.databaseName = databaseName;
 
+        //the offline players are queried by their name
+        this.getDatabase().createIndex("name");
+
         instance = this;
     }
 
@@ -20,6 +20,7 @@ public class CloudPermissionsManagement implements IPermissionManagement {
     private static CloudPermissionsManagement instance;
     private final Map<String, IPermissionGroup> cachedPermissionGroups = Maps.newConcurrentHashMap();
     private final Map<UUID, IPermissionUser> cachedPermissionUsers = Maps.newConcurrentHashMap();
+    private final CompiledPermissionsCache compiledPermissionsCache = new CompiledPermissionsCache();
 
     protected CloudPermissionsManagement() {
         this.init();
@@ -40,15 +41,13 @@ public class CloudPermissionsManagement implements IPermissionManagement {
     }
 
     public boolean hasPlayerPermission(IPermissionUser permissionUser, String perm) {
-        Permission permission = new Permission(perm, 0);
-
-        for (String group : Wrapper.getInstance().getServiceConfiguration().getGroups()) {
-            if (hasPermission(permissionUser, group, permission)) {
-                return true;
-            }
+        if (permissionUser == null || perm == null) {
+            return false;
         }
 
-        return hasPermission(permissionUser, permission);
+        return this.compiledPermissionsCache
+                .getPermissions(this, permissionUser, Wrapper.getInstance().getServiceConfiguration().getGroups())
+                .hasPermission(perm, 0);
     }
 
 
@@ -209,6 +208,8 @@ public class CloudPermissionsManagement implements IPermissionManagement {
             this.cachedPermissionGroups.put(group.getName(), group);
         }
 
+        this.compiledPermissionsCache.invalidateAll();
+
         return true;
     }
 
@@ -225,4 +226,8 @@ public class CloudPermissionsManagement implements IPermissionManagement {
         return this.cachedPermissionUsers;
     }
 
+    public CompiledPermissionsCache getCompiledPermissionsCache() {
+        return this.compiledPermissionsCache;
+    }
+
 }
\ No newline at end of file
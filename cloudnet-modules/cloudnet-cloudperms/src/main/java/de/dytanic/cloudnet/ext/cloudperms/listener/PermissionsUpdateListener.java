@@ -20,11 +20,14 @@ public final class PermissionsUpdateListener {
         if (CloudPermissionsManagement.getInstance().getCachedPermissionUsers().containsKey(event.getPermissionUser().getUniqueId())) {
             CloudPermissionsManagement.getInstance().getCachedPermissionUsers().put(event.getPermissionUser().getUniqueId(), event.getPermissionUser());
         }
+
+        CloudPermissionsManagement.getInstance().getCompiledPermissionsCache().invalidate(event.getPermissionUser().getUniqueId());
     }
 
     @EventListener
     public void handle(PermissionDeleteUserEvent event) {
         CloudPermissionsManagement.getInstance().getCachedPermissionUsers().remove(event.getPermissionUser().getUniqueId());
+        CloudPermissionsManagement.getInstance().getCompiledPermissionsCache().invalidate(event.getPermissionUser().getUniqueId());
     }
 
     /*
@@ -38,16 +41,19 @@ public final class PermissionsUpdateListener {
     @EventListener
     public void handle(PermissionAddGroupEvent event) {
         CloudPermissionsManagement.getInstance().getCachedPermissionGroups().put(event.getPermissionGroup().getName(), event.getPermissionGroup());
+        CloudPermissionsManagement.getInstance().getCompiledPermissionsCache().invalidateAll();
     }
 
     @EventListener
     public void handle(PermissionUpdateGroupEvent event) {
         CloudPermissionsManagement.getInstance().getCachedPermissionGroups().put(event.getPermissionGroup().getName(), event.getPermissionGroup());
+        CloudPermissionsManagement.getInstance().getCompiledPermissionsCache().invalidateAll();
     }
 
     @EventListener
     public void handle(PermissionDeleteGroupEvent event) {
         CloudPermissionsManagement.getInstance().getCachedPermissionGroups().remove(event.getPermissionGroup().getName());
+        CloudPermissionsManagement.getInstance().getCompiledPermissionsCache().invalidateAll();
     }
 
     @EventListener
@@ -57,5 +63,7 @@ public final class PermissionsUpdateListener {
         for (IPermissionGroup permissionGroup : event.getGroups()) {
             CloudPermissionsManagement.getInstance().getCachedPermissionGroups().put(permissionGroup.getName(), permissionGroup);
         }
+
+        CloudPermissionsManagement.getInstance().getCompiledPermissionsCache().invalidateAll();
     }
 }
\ No newline at end of file
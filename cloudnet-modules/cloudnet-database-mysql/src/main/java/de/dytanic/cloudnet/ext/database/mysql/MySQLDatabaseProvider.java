@@ -8,6 +8,7 @@ import de.dytanic.cloudnet.common.collection.Pair;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.IDatabase;
+import de.dytanic.cloudnet.database.sql.SQLDatabase;
 import de.dytanic.cloudnet.database.sql.SQLDatabaseProvider;
 import de.dytanic.cloudnet.ext.database.mysql.util.MySQLConnectionEndpoint;
 
@@ -19,6 +20,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
 
 public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
 
@@ -29,6 +31,8 @@ public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
 
     protected final HikariDataSource hikariDataSource = new HikariDataSource();
 
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+
     private final JsonDocument config;
 
     private List<MySQLConnectionEndpoint> addresses;
@@ -94,6 +98,8 @@ public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
         this.cachedDatabaseInstances.remove(name);
 
         if (this.containsDatabase(name)) {
+            this.executeUpdate("DROP TABLE IF EXISTS " + name + SQLDatabase.INDEX_TABLE_SUFFIX);
+
             try (Connection connection = this.getConnection();
                  PreparedStatement preparedStatement = connection.prepareStatement("DROP TABLE " + name)) {
                 return preparedStatement.executeUpdate() != -1;
@@ -112,7 +118,11 @@ public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
                 resultSet -> {
                     Collection<String> collection = Iterables.newArrayList();
                     while (resultSet.next()) {
-                        collection.add(resultSet.getString("table_name"));
+                        String tableName = resultSet.getString("table_name");
+
+                        if (!this.isIndexTable(tableName)) {
+                            collection.add(tableName);
+                        }
                     }
 
                     return collection;
@@ -120,6 +130,13 @@ public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
         );
     }
 
+    @Override
+    public void createIndexTable(String indexTableName) {
+        //mysql doesn't support "CREATE INDEX IF NOT EXISTS", the indexes are declared with the table instead
+        this.executeUpdate("CREATE TABLE IF NOT EXISTS " + indexTableName + "(Name VARCHAR(1024), Field VARCHAR(64), Value VARCHAR(" + SQLDatabase.MAX_INDEX_VALUE_LENGTH + "), " +
+                "INDEX (Field, Value), INDEX (Name(" + SQLDatabase.MAX_INDEX_VALUE_LENGTH + ")));");
+    }
+
     @Override
     public String getName() {
         return config.getString("database");
@@ -163,17 +180,10 @@ public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
         Validate.checkNotNull(query);
         Validate.checkNotNull(objects);
 
-        try (Connection connection = this.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            int i = 1;
-            for (Object object : objects) {
-                preparedStatement.setString(i++, object.toString());
-            }
-
-            return preparedStatement.executeUpdate();
-
-        } catch (SQLException exception) {
-            exception.printStackTrace();
+        try {
+            return this.execute(query, objects, PreparedStatement::executeUpdate);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
         }
 
         return -1;
@@ -184,22 +194,87 @@ public final class MySQLDatabaseProvider extends SQLDatabaseProvider {
         Validate.checkNotNull(callback);
         Validate.checkNotNull(objects);
 
-        try (Connection connection = this.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            int i = 1;
-            for (Object object : objects) {
-                preparedStatement.setString(i++, object.toString());
+        try {
+            return this.execute(query, objects, preparedStatement -> {
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    return callback.call(resultSet);
+                }
+            });
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean executeTransaction(Callable<Boolean> transaction) {
+        Validate.checkNotNull(transaction);
+
+        if (this.transactionConnection.get() != null) {
+            try {
+                return transaction.call();
+            } catch (Exception exception) {
+                exception.printStackTrace();
+                return false;
             }
+        }
+
+        try (Connection connection = this.getConnection()) {
+            boolean success = false;
+
+            connection.setAutoCommit(false);
+            this.transactionConnection.set(connection);
 
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                return callback.call(resultSet);
+            try {
+                success = transaction.call();
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            } finally {
+                this.transactionConnection.remove();
+
+                try {
+                    if (success) {
+                        connection.commit();
+                    } else {
+                        connection.rollback();
+                    }
+                } finally {
+                    connection.setAutoCommit(true);
+                }
             }
 
-        } catch (Throwable e) {
-            e.printStackTrace();
+            return success;
+        } catch (SQLException exception) {
+            exception.printStackTrace();
         }
 
-        return null;
+        return false;
+    }
+
+    private <T> T execute(String query, Object[] objects, IThrowableCallback<PreparedStatement, T> callback) throws Throwable {
+        Connection transactionConnection = this.transactionConnection.get();
+
+        //the executions within a transaction use the connection of the transaction, which is closed by the transaction
+        if (transactionConnection != null) {
+            try (PreparedStatement preparedStatement = transactionConnection.prepareStatement(query)) {
+                setParameters(preparedStatement, objects);
+                return callback.call(preparedStatement);
+            }
+        }
+
+        try (Connection connection = this.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            setParameters(preparedStatement, objects);
+            return callback.call(preparedStatement);
+        }
+    }
+
+    private static void setParameters(PreparedStatement preparedStatement, Object[] objects) throws SQLException {
+        int i = 1;
+        for (Object object : objects) {
+            preparedStatement.setString(i++, object.toString());
+        }
     }
 
 }
\ No newline at end of file
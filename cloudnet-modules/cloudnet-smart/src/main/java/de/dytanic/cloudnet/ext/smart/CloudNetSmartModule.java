@@ -2,7 +2,6 @@ package de.dytanic.cloudnet.ext.smart;
 
 import com.google.gson.reflect.TypeToken;
 import de.dytanic.cloudnet.CloudNet;
-import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.common.io.FileUtils;
@@ -16,6 +15,7 @@ import de.dytanic.cloudnet.ext.smart.listener.TaskDefaultSmartConfigListener;
 import de.dytanic.cloudnet.ext.smart.template.TemplateInstaller;
 import de.dytanic.cloudnet.ext.smart.util.SmartServiceTaskConfig;
 import de.dytanic.cloudnet.module.NodeCloudNetModule;
+import de.dytanic.cloudnet.service.ICloudService;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -99,8 +99,18 @@ public final class CloudNetSmartModule extends NodeCloudNetModule {
     }
 
     public ServiceInfoSnapshot getFreeNonStartedService(String taskName) {
-        return Iterables.first(CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots().values(), serviceInfoSnapshot -> serviceInfoSnapshot.getServiceId().getTaskName().equalsIgnoreCase(taskName) &&
-                (serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.PREPARED || serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.DEFINED));
+        //a local service of the prepared service pool is preferred, it can be started without copying any files
+        ICloudService cloudService = CloudNet.getInstance().getPreparedServicePool()
+                .getFreeNonStartedService(CloudNet.getInstance().getCloudServiceManager(), taskName, service -> true);
+
+        if (cloudService != null) {
+            return cloudService.getServiceInfoSnapshot();
+        }
+
+        Collection<ServiceInfoSnapshot> serviceInfoSnapshots = CloudNet.getInstance().getCloudServiceManager()
+                .getServiceInfoSnapshotsByLifeCycle(taskName, ServiceLifeCycle.PREPARED, ServiceLifeCycle.DEFINED);
+
+        return serviceInfoSnapshots.isEmpty() ? null : serviceInfoSnapshots.iterator().next();
     }
 
     public void updateAsSmartService(ServiceConfiguration configuration, ServiceTask serviceTask, SmartServiceTaskConfig smartTask) {
@@ -55,10 +55,9 @@ public final class CloudNetTickListener {
     }
 
     private void autoGeneratePreparedServices(SmartServiceTaskConfig task, ServiceTask serviceTask) {
-        long preparedServices = CloudNetDriver.getInstance().getCloudServiceProvider().getCloudServices(serviceTask.getName()).stream()
-                .filter(serviceInfoSnapshot -> serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.PREPARED ||
-                        serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.DEFINED)
-                .count();
+        long preparedServices = CloudNet.getInstance().getCloudServiceManager()
+                .getServiceInfoSnapshotsByLifeCycle(serviceTask.getName(), ServiceLifeCycle.PREPARED, ServiceLifeCycle.DEFINED)
+                .size();
 
         if (task.getPreparedServices() > 0 && preparedServices < task.getPreparedServices()) {
             if (preparedServices < task.getPreparedServices()) {
@@ -68,10 +67,7 @@ public final class CloudNetTickListener {
     }
 
     private void handleAutoStop() {
-        Collection<ServiceInfoSnapshot> runningServiceInfoSnapshots = CloudNetDriver.getInstance().getCloudServiceProvider().getCloudServices()
-                .stream()
-                .filter(serviceInfoSnapshot -> serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.RUNNING)
-                .collect(Collectors.toList());
+        Collection<ServiceInfoSnapshot> runningServiceInfoSnapshots = CloudNet.getInstance().getCloudServiceManager().getServiceInfoSnapshots(ServiceLifeCycle.RUNNING);
         Collection<ServiceInfoSnapshot> onlineServiceInfoSnapshots = runningServiceInfoSnapshots.stream()
                 .filter(serviceInfoSnapshot -> serviceInfoSnapshot.getProperties().contains("Online-Count"))
                 .filter(serviceInfoSnapshot -> serviceInfoSnapshot.getProperties().contains("Max-Players"))
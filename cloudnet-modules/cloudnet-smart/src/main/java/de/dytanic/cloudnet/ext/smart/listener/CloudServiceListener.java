@@ -41,8 +41,7 @@ public final class CloudServiceListener {
             SmartServiceTaskConfig smartTask = CloudNetSmartModule.getInstance().getSmartServiceTaskConfig(task);
 
             if (smartTask.isDirectTemplatesAndInclusionsSetup()) {
-                cloudService.includeInclusions();
-                cloudService.includeTemplates();
+                CloudNet.getInstance().getPreparedServicePool().prepare(cloudService);
             }
 
             UUID uniqueId = cloudService.getServiceId().getUniqueId();
@@ -5,9 +5,11 @@ import de.dytanic.cloudnet.driver.module.ModuleTask;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.ext.storage.ftp.client.FTPCredentials;
 import de.dytanic.cloudnet.ext.storage.ftp.client.FTPType;
+import de.dytanic.cloudnet.ext.storage.ftp.storage.FTPTemplateCache;
 import de.dytanic.cloudnet.ext.storage.ftp.storage.queue.FTPQueueStorage;
 import de.dytanic.cloudnet.module.NodeCloudNetModule;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 
 public final class CloudNetStorageFTPModule extends NodeCloudNetModule {
@@ -28,6 +30,9 @@ public final class CloudNetStorageFTPModule extends NodeCloudNetModule {
         super.getConfig().getString("username", "root");
         super.getConfig().getString("password", "password");
         super.getConfig().getString("baseDirectory", "/home/cloudnet");
+        super.getConfig().getInt("connections", 4);
+        super.getConfig().getBoolean("cache", false);
+        super.getConfig().getString("cacheDirectory", "local/ftpCache");
 
         super.saveConfig();
     }
@@ -45,12 +50,17 @@ public final class CloudNetStorageFTPModule extends NodeCloudNetModule {
         String storageName = super.getConfig().getString("storage");
         FTPCredentials credentials = super.getConfig().toInstanceOf(FTPCredentials.class);
 
-        this.templateStorage = new FTPQueueStorage(ftpType.createNewTemplateStorage(storageName, credentials));
+        FTPTemplateCache templateCache = super.getConfig().getBoolean("cache") ?
+                new FTPTemplateCache(Paths.get(super.getConfig().getString("cacheDirectory"))) : null;
+
+        this.templateStorage = new FTPQueueStorage(
+                () -> ftpType.createNewTemplateStorage(storageName, credentials),
+                super.getConfig().getInt("connections"),
+                templateCache
+        );
         super.registerTemplateStorage(storageName, this.templateStorage);
 
-        Thread ftpQueueThread = new Thread(this.templateStorage, "FTP queue worker");
-        ftpQueueThread.setDaemon(true);
-        ftpQueueThread.start();
+        this.templateStorage.start();
     }
 
     @ModuleTask(event = ModuleLifeCycle.STOPPED)
@@ -1,10 +1,15 @@
 package de.dytanic.cloudnet.ext.storage.ftp.storage;
 
 
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import de.dytanic.cloudnet.ext.storage.ftp.client.FTPCredentials;
 import de.dytanic.cloudnet.ext.storage.ftp.client.FTPType;
 import de.dytanic.cloudnet.template.ITemplateStorage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
 public abstract class AbstractFTPStorage implements ITemplateStorage {
 
     private String name;
@@ -28,6 +33,27 @@ public abstract class AbstractFTPStorage implements ITemplateStorage {
 
     public abstract void completeDataTransfer();
 
+    /**
+     * Lists all files and directories of the template recursively
+     *
+     * @return the files of the template or null, if the template doesn't exist
+     */
+    public abstract List<FTPRemoteFile> listTemplateFiles(ServiceTemplate template) throws IOException;
+
+    /**
+     * Downloads a single file of the template into the target file
+     *
+     * @param path the path of the file relative to the template directory
+     */
+    public abstract boolean downloadFile(ServiceTemplate template, String path, Path target) throws IOException;
+
+    /**
+     * Uploads a single local file into the template, the parent directories are created if necessary
+     *
+     * @param path the path of the file relative to the template directory
+     */
+    public abstract boolean uploadFile(Path file, ServiceTemplate template, String path) throws IOException;
+
     @Override
     public String getName() {
         return name;
@@ -0,0 +1,42 @@
+package de.dytanic.cloudnet.ext.storage.ftp.storage;
+
+/**
+ * A file or directory of a template on the ftp server
+ */
+public final class FTPRemoteFile {
+
+    private final String path;
+
+    private final boolean directory;
+
+    private final long size, lastModified;
+
+    /**
+     * @param path         the path of the file relative to the template directory, separated by '/'
+     * @param directory    true, if the file is a directory
+     * @param size         the size of the file in bytes
+     * @param lastModified the last modification time of the file in milliseconds or -1, if it is unknown
+     */
+    public FTPRemoteFile(String path, boolean directory, long size, long lastModified) {
+        this.path = path;
+        this.directory = directory;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public boolean isDirectory() {
+        return this.directory;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public long getLastModified() {
+        return this.lastModified;
+    }
+}
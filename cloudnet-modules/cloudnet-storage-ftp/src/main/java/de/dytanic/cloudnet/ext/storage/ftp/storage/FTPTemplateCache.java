@@ -0,0 +1,97 @@
+package de.dytanic.cloudnet.ext.storage.ftp.storage;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+
+/**
+ * A local read-through cache of the template files on the ftp server. A cached file is only used, if its size and
+ * last modification time are equal to the ones of the remote file, the modification time of the cached file is
+ * set to the one of the remote file for that purpose.
+ */
+public final class FTPTemplateCache {
+
+    private final Path directory;
+
+    public FTPTemplateCache(Path directory) {
+        Validate.checkNotNull(directory);
+
+        this.directory = directory;
+    }
+
+    /**
+     * @return the cached file or null, if the file isn't cached or the remote file has changed
+     */
+    public Path getCachedFile(ServiceTemplate template, FTPRemoteFile file) {
+        if (file.isDirectory() || file.getLastModified() < 0) {
+            return null;
+        }
+
+        Path cachedFile = this.resolve(template, file.getPath());
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(cachedFile, BasicFileAttributes.class);
+
+            return attributes.isRegularFile() && attributes.size() == file.getSize() && attributes.lastModifiedTime().toMillis() == file.getLastModified() ?
+                    cachedFile : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Downloads the file into the cache. The download is written into a temporary file first, so that other
+     * services never read an incomplete file.
+     *
+     * @return the cached file or null, if the download failed
+     */
+    public Path store(ServiceTemplate template, FTPRemoteFile file, FileDownloader downloader) throws IOException {
+        Path cachedFile = this.resolve(template, file.getPath());
+        Path tempFile = cachedFile.resolveSibling(cachedFile.getFileName() + "." + UUID.randomUUID() + ".part");
+
+        Files.createDirectories(cachedFile.getParent());
+
+        try {
+            if (!downloader.download(tempFile)) {
+                return null;
+            }
+
+            Files.setLastModifiedTime(tempFile, FileTime.fromMillis(file.getLastModified()));
+            Files.move(tempFile, cachedFile, StandardCopyOption.REPLACE_EXISTING);
+
+            return cachedFile;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Removes all cached files of the template, should be called after the template has been changed by this node
+     */
+    public void invalidate(ServiceTemplate template) {
+        FileUtils.delete(this.directory.resolve(template.getPrefix()).resolve(template.getName()).toFile());
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    private Path resolve(ServiceTemplate template, String path) {
+        return this.directory.resolve(template.getPrefix()).resolve(template.getName()).resolve(path);
+    }
+
+    @FunctionalInterface
+    public interface FileDownloader {
+
+        boolean download(Path target) throws IOException;
+
+    }
+}
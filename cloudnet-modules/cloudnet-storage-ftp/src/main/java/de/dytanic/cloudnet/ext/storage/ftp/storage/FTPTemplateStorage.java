@@ -13,13 +13,17 @@ import de.dytanic.cloudnet.ext.storage.ftp.client.FTPType;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPReply;
 import org.apache.commons.net.ftp.FTPSClient;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -31,6 +35,9 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
 
     private final FTPClient ftpClient;
 
+    //if the server supports the machine listings (MLSD), which are determined once per connection
+    private Boolean machineListing;
+
     public FTPTemplateStorage(String name, FTPCredentials credentials, boolean ssl) {
         super(name, credentials, ssl ? FTPType.FTPS : FTPType.FTP);
 
@@ -52,6 +59,7 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
         }
 
         ILogger logger = CloudNetDriver.getInstance().getLogger();
+        this.machineListing = null;
 
         try {
             this.ftpClient.setAutodetectUTF8(true);
@@ -356,7 +364,11 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
     }
 
     private void deleteDir(String path) throws IOException {
-        for (FTPFile ftpFile : this.ftpClient.mlistDir(path)) {
+        for (FTPFile ftpFile : this.listDirectory(path)) {
+            if (ftpFile.getName().equals(".") || ftpFile.getName().equals("..")) {
+                continue;
+            }
+
             String filePath = path + "/" + ftpFile.getName();
 
             if (ftpFile.isDirectory()) {
@@ -406,6 +418,58 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
         }
     }
 
+    @Override
+    public List<FTPRemoteFile> listTemplateFiles(ServiceTemplate template) throws IOException {
+        if (!this.has(template)) {
+            return null;
+        }
+
+        List<FTPRemoteFile> files = new ArrayList<>();
+        this.listTemplateFiles(template.getTemplatePath(), "", files);
+
+        return files;
+    }
+
+    private void listTemplateFiles(String directory, String relativeDirectory, List<FTPRemoteFile> files) throws IOException {
+        //the machine listing contains the modification times with seconds precision, the list of a server without it only with minutes precision
+        FTPFile[] entries = this.listDirectory(directory);
+
+        if (entries != null) {
+            for (FTPFile entry : entries) {
+                if (entry == null || entry.getName().equals(".") || entry.getName().equals("..")) {
+                    continue;
+                }
+
+                String path = relativeDirectory.isEmpty() ? entry.getName() : relativeDirectory + "/" + entry.getName();
+
+                if (entry.isDirectory()) {
+                    files.add(new FTPRemoteFile(path, true, 0, -1));
+                    this.listTemplateFiles(directory + "/" + entry.getName(), path, files);
+                } else if (entry.isFile()) {
+                    files.add(new FTPRemoteFile(path, false, entry.getSize(), entry.getTimestamp() == null ? -1 : entry.getTimestamp().getTimeInMillis()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean downloadFile(ServiceTemplate template, String path, Path target) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            return this.ftpClient.retrieveFile(template.getTemplatePath() + "/" + path, outputStream);
+        }
+    }
+
+    @Override
+    public boolean uploadFile(Path file, ServiceTemplate template, String path) throws IOException {
+        String fullPath = template.getTemplatePath() + "/" + path;
+
+        this.createParent(fullPath);
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return this.ftpClient.storeFile(fullPath, inputStream);
+        }
+    }
+
     @Override
     public boolean createFile(ServiceTemplate template, String path) throws IOException {
         String fullPath = template.getTemplatePath() + "/" + path;
@@ -433,8 +497,22 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
 
     @Override
     public boolean hasFile(ServiceTemplate template, String path) throws IOException {
-        FTPFile file = this.ftpClient.mlistFile(template.getTemplatePath() + "/" + path);
-        return file != null;
+        String fullPath = template.getTemplatePath() + "/" + path;
+
+        if (this.hasMachineListing()) {
+            return this.ftpClient.mlistFile(fullPath) != null;
+        }
+
+        //without the machine listing the file is searched in the list of its parent directory
+        int slash = fullPath.lastIndexOf('/');
+        FTPFile[] entries = this.ftpClient.listFiles(fullPath.substring(0, slash));
+
+        if (entries == null || !FTPReply.isPositiveCompletion(this.ftpClient.getReplyCode())) {
+            return false;
+        }
+
+        String name = fullPath.substring(slash + 1);
+        return Arrays.stream(entries).anyMatch(entry -> entry != null && entry.getName().equals(name));
     }
 
     @Override
@@ -444,8 +522,10 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
 
     @Override
     public String[] listFiles(ServiceTemplate template, String dir) throws IOException {
-        FTPFile[] fileList = this.ftpClient.mlistDir(template.getTemplatePath() + "/" + dir);
-        return fileList == null ? new String[0] : Arrays.stream(fileList).map(FTPFile::getName).toArray(String[]::new);
+        return Arrays.stream(this.listDirectory(template.getTemplatePath() + "/" + dir))
+                .map(FTPFile::getName)
+                .filter(name -> !name.equals(".") && !name.equals(".."))
+                .toArray(String[]::new);
     }
 
     @Override
@@ -477,6 +557,29 @@ public final class FTPTemplateStorage extends AbstractFTPStorage {
         return templates;
     }
 
+    /**
+     * Lists the entries of the directory with MLSD, if the server supports it, or with LIST otherwise
+     *
+     * @throws IOException if the server has refused the listing, for example because the directory doesn't exist
+     */
+    private FTPFile[] listDirectory(String path) throws IOException {
+        FTPFile[] entries = this.hasMachineListing() ? this.ftpClient.mlistDir(path) : this.ftpClient.listFiles(path);
+
+        if (!FTPReply.isPositiveCompletion(this.ftpClient.getReplyCode())) {
+            throw new IOException("Unable to list the directory " + path + ": " + this.ftpClient.getReplyString());
+        }
+
+        return entries == null ? new FTPFile[0] : entries;
+    }
+
+    private boolean hasMachineListing() throws IOException {
+        if (this.machineListing == null) {
+            this.machineListing = this.ftpClient.hasFeature("MLSD");
+        }
+
+        return this.machineListing;
+    }
+
     private void createDirectories(String path) throws IOException {
         StringBuilder pathBuilder = new StringBuilder();
 
@@ -1,6 +1,7 @@
 package de.dytanic.cloudnet.ext.storage.ftp.storage;
 
 import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpATTRS;
 import de.dytanic.cloudnet.common.io.FileUtils;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import de.dytanic.cloudnet.ext.storage.ftp.client.FTPCredentials;
@@ -157,6 +158,50 @@ public class SFTPTemplateStorage extends AbstractFTPStorage {
     public void completeDataTransfer() {
     }
 
+    @Override
+    public List<FTPRemoteFile> listTemplateFiles(ServiceTemplate template) {
+        String path = this.getPath(template);
+
+        if (!this.ftpClient.existsDirectory(path)) {
+            return null;
+        }
+
+        List<FTPRemoteFile> files = new ArrayList<>();
+        this.listTemplateFiles(path, "", files);
+
+        return files;
+    }
+
+    private void listTemplateFiles(String directory, String relativeDirectory, List<FTPRemoteFile> files) {
+        Collection<ChannelSftp.LsEntry> entries = this.ftpClient.listFiles(directory);
+
+        if (entries != null) {
+            for (ChannelSftp.LsEntry entry : entries) {
+                String path = relativeDirectory.isEmpty() ? entry.getFilename() : relativeDirectory + "/" + entry.getFilename();
+                SftpATTRS attrs = entry.getAttrs();
+
+                if (attrs.isDir()) {
+                    files.add(new FTPRemoteFile(path, true, 0, -1));
+                    this.listTemplateFiles(directory + "/" + entry.getFilename(), path, files);
+                } else if (!attrs.isLink()) {
+                    files.add(new FTPRemoteFile(path, false, attrs.getSize(), attrs.getMTime() * 1000L));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean downloadFile(ServiceTemplate template, String path, Path target) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            return this.ftpClient.downloadFile(this.getPath(template) + "/" + path, outputStream);
+        }
+    }
+
+    @Override
+    public boolean uploadFile(Path file, ServiceTemplate template, String path) {
+        return this.ftpClient.uploadFile(file, this.getPath(template) + "/" + path);
+    }
+
     @Override
     public boolean createFile(ServiceTemplate template, String path) {
         return this.ftpClient.createFile(this.getPath(template) + "/" + path);
@@ -1,183 +1,357 @@
 package de.dytanic.cloudnet.ext.storage.ftp.storage.queue;
 
+import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.Value;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.ListenableTask;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import de.dytanic.cloudnet.ext.storage.ftp.storage.AbstractFTPStorage;
+import de.dytanic.cloudnet.ext.storage.ftp.storage.FTPRemoteFile;
+import de.dytanic.cloudnet.ext.storage.ftp.storage.FTPTemplateCache;
 import de.dytanic.cloudnet.template.ITemplateStorage;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collection;
-import java.util.Collections;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Callable;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
-public class FTPQueueStorage implements Runnable, ITemplateStorage {
+/**
+ * Queues the operations of the template storage and processes them on a pool of connections. The files of a template
+ * are copied and deployed as single operations, so that they are transferred in parallel over all connections.
+ */
+public class FTPQueueStorage implements ITemplateStorage {
 
     private static final long EMPTY_QUEUE_TOLERANCE_SECONDS = 5;
 
-    private AbstractFTPStorage executingStorage;
+    private final AbstractFTPStorage[] storages;
 
-    private boolean opened = true;
+    private final FTPTemplateCache templateCache;
+
+    private final ThreadLocal<AbstractFTPStorage> workerStorage = new ThreadLocal<>();
+
+    private volatile boolean opened = true;
     private BlockingQueue<ITask<?>> ftpTaskQueue = new LinkedBlockingQueue<>();
 
-    public FTPQueueStorage(AbstractFTPStorage executingStorage) {
-        this.executingStorage = executingStorage;
+    /**
+     * @param storageFactory creates the storage of a single connection
+     * @param connections    the count of connections, which process the queued operations in parallel
+     * @param templateCache  the local cache of the template files or null, if the files shouldn't be cached
+     */
+    public FTPQueueStorage(Supplier<AbstractFTPStorage> storageFactory, int connections, FTPTemplateCache templateCache) {
+        Validate.checkNotNull(storageFactory);
+
+        this.storages = new AbstractFTPStorage[Math.max(1, connections)];
+        this.templateCache = templateCache;
+
+        for (int i = 0; i < this.storages.length; i++) {
+            this.storages[i] = storageFactory.get();
+        }
     }
 
-    @Override
-    public void run() {
+    /**
+     * Starts a worker thread for every connection of this storage
+     */
+    public void start() {
+        for (int i = 0; i < this.storages.length; i++) {
+            AbstractFTPStorage storage = this.storages[i];
+
+            Thread ftpQueueThread = new Thread(() -> this.work(storage), "FTP queue worker #" + (i + 1));
+            ftpQueueThread.setDaemon(true);
+            ftpQueueThread.start();
+        }
+    }
+
+    private void work(AbstractFTPStorage storage) {
+        this.workerStorage.set(storage);
+
         while (!Thread.currentThread().isInterrupted() && this.opened) {
             try {
                 ITask<?> nextFTPTask = this.ftpTaskQueue.poll(EMPTY_QUEUE_TOLERANCE_SECONDS, TimeUnit.SECONDS);
 
-                boolean ftpAvailable = this.executingStorage.isAvailable();
+                boolean ftpAvailable = storage.isAvailable();
 
                 if (nextFTPTask == null) {
                     if (ftpAvailable) {
-                        this.executingStorage.close();
+                        storage.close();
                     }
                 } else {
-                    if (!ftpAvailable && !this.executingStorage.connect()) {
+                    if (!ftpAvailable && !storage.connect()) {
                         nextFTPTask.cancel(true);
                     }
 
                     nextFTPTask.call();
                 }
+            } catch (InterruptedException exception) {
+                break;
             } catch (Exception exception) {
                 exception.printStackTrace();
             }
-
         }
+    }
 
+    private <V> FTPTask<V> submit(StorageCallable<V> callable) {
+        FTPTask<V> ftpTask = new FTPTask<>(() -> callable.call(this.workerStorage.get()));
+        this.ftpTaskQueue.add(ftpTask);
+
+        return ftpTask;
+    }
+
+    private boolean await(FTPTask<Boolean> ftpTask) {
+        return Boolean.TRUE.equals(ftpTask.getDef(false));
+    }
+
+    private void invalidate(ServiceTemplate template) {
+        if (this.templateCache != null) {
+            this.templateCache.invalidate(template);
+        }
     }
 
     @Override
     public boolean deploy(byte[] zipInput, ServiceTemplate target) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.deploy(zipInput, target));
-        this.ftpTaskQueue.add(ftpTask);
+        boolean success = this.await(this.submit(storage -> storage.deploy(zipInput, target)));
 
-        return ftpTask.getDef(false);
+        this.invalidate(target);
+        return success;
     }
 
     @Override
     public boolean deploy(File directory, ServiceTemplate target, Predicate<File> fileFilter) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.deploy(directory, target, fileFilter));
-        this.ftpTaskQueue.add(ftpTask);
+        Validate.checkNotNull(directory);
 
-        return ftpTask.getDef(false);
+        File[] files = directory.listFiles();
+        return files != null && this.deployFiles(files, target, fileFilter);
     }
 
     @Override
     public boolean deploy(Path[] paths, ServiceTemplate target) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.deploy(paths, target));
-        this.ftpTaskQueue.add(ftpTask);
+        Validate.checkNotNull(paths);
 
-        return ftpTask.getDef(false);
+        return this.deployFiles(Arrays.stream(paths).map(Path::toFile).toArray(File[]::new), target, null);
     }
 
     @Override
     public boolean deploy(File[] files, ServiceTemplate target) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.deploy(files, target));
-        this.ftpTaskQueue.add(ftpTask);
+        return this.deployFiles(files, target, null);
+    }
+
+    private boolean deployFiles(File[] files, ServiceTemplate target, Predicate<File> fileFilter) {
+        Validate.checkNotNull(files);
+        Validate.checkNotNull(target);
+
+        Collection<String> directories = new ArrayList<>();
+        //Map<path in the template, local file>
+        Map<String, Path> uploads = new LinkedHashMap<>();
 
-        return ftpTask.getDef(false);
+        for (File file : files) {
+            if (file != null && (fileFilter == null || fileFilter.test(file))) {
+                this.collectFiles(file, file.getName(), directories, uploads);
+            }
+        }
+
+        boolean success = this.await(this.submit(storage -> {
+            storage.create(target);
+
+            for (String directory : directories) {
+                storage.createDirectory(target, directory);
+            }
+
+            return true;
+        }));
+
+        if (success) {
+            Collection<FTPTask<Boolean>> uploadTasks = new ArrayList<>();
+
+            for (Map.Entry<String, Path> upload : uploads.entrySet()) {
+                uploadTasks.add(this.submit(storage -> storage.uploadFile(upload.getValue(), target, upload.getKey())));
+            }
+
+            for (FTPTask<Boolean> uploadTask : uploadTasks) {
+                if (!this.await(uploadTask)) {
+                    success = false;
+                }
+            }
+        }
+
+        this.invalidate(target);
+        return success;
+    }
+
+    private void collectFiles(File file, String path, Collection<String> directories, Map<String, Path> uploads) {
+        if (file.isDirectory()) {
+            directories.add(path);
+
+            File[] entries = file.listFiles();
+
+            if (entries != null) {
+                for (File entry : entries) {
+                    this.collectFiles(entry, path + "/" + entry.getName(), directories, uploads);
+                }
+            }
+        } else if (file.isFile()) {
+            uploads.put(path, file.toPath());
+        }
     }
 
     @Override
     public boolean copy(ServiceTemplate template, File directory) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.copy(template, directory));
-        this.ftpTaskQueue.add(ftpTask);
+        Validate.checkNotNull(directory);
 
-        return ftpTask.getDef(false);
+        return this.copy(template, new Path[]{directory.toPath()});
     }
 
     @Override
     public boolean copy(ServiceTemplate template, Path directory) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.copy(template, directory));
-        this.ftpTaskQueue.add(ftpTask);
+        Validate.checkNotNull(directory);
 
-        return ftpTask.getDef(false);
+        return this.copy(template, new Path[]{directory});
     }
 
     @Override
     public boolean copy(ServiceTemplate template, File[] directories) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.copy(template, directories));
-        this.ftpTaskQueue.add(ftpTask);
+        Validate.checkNotNull(directories);
 
-        return ftpTask.getDef(false);
+        return this.copy(template, Arrays.stream(directories).map(File::toPath).toArray(Path[]::new));
     }
 
     @Override
     public boolean copy(ServiceTemplate template, Path[] directories) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.copy(template, directories));
-        this.ftpTaskQueue.add(ftpTask);
+        Validate.checkNotNull(template);
+        Validate.checkNotNull(directories);
+
+        List<FTPRemoteFile> files = this.submit(storage -> storage.listTemplateFiles(template)).getDef(null);
 
-        return ftpTask.getDef(false);
+        if (files == null) {
+            return false;
+        }
+
+        if (directories.length == 0) {
+            return true;
+        }
+
+        boolean success = true;
+        Collection<FTPTask<Boolean>> downloadTasks = new ArrayList<>();
+
+        try {
+            for (Path directory : directories) {
+                Files.createDirectories(directory);
+            }
+
+            for (FTPRemoteFile file : files) {
+                if (file.isDirectory()) {
+                    for (Path directory : directories) {
+                        Files.createDirectories(directory.resolve(file.getPath()));
+                    }
+
+                    continue;
+                }
+
+                Path cachedFile = this.templateCache != null ? this.templateCache.getCachedFile(template, file) : null;
+
+                if (cachedFile != null) {
+                    this.copyFile(cachedFile, file.getPath(), directories);
+                } else {
+                    downloadTasks.add(this.submit(storage -> this.downloadFile(storage, template, file, directories)));
+                }
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            success = false;
+        }
+
+        for (FTPTask<Boolean> downloadTask : downloadTasks) {
+            if (!this.await(downloadTask)) {
+                success = false;
+            }
+        }
+
+        return success;
+    }
+
+    private boolean downloadFile(AbstractFTPStorage storage, ServiceTemplate template, FTPRemoteFile file, Path[] directories) throws IOException {
+        if (this.templateCache != null && file.getLastModified() >= 0) {
+            Path cachedFile = this.templateCache.store(template, file, target -> storage.downloadFile(template, file.getPath(), target));
+
+            if (cachedFile == null) {
+                return false;
+            }
+
+            this.copyFile(cachedFile, file.getPath(), directories);
+            return true;
+        }
+
+        Path target = directories[0].resolve(file.getPath());
+
+        if (!storage.downloadFile(template, file.getPath(), target)) {
+            return false;
+        }
+
+        this.copyFile(target, file.getPath(), Arrays.copyOfRange(directories, 1, directories.length));
+        return true;
+    }
+
+    private void copyFile(Path source, String path, Path[] directories) throws IOException {
+        for (Path directory : directories) {
+            Files.copy(source, directory.resolve(path), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     @Override
     public byte[] toZipByteArray(ServiceTemplate template) {
-        ITask<byte[]> ftpTask = new FTPTask<>(() -> this.executingStorage.toZipByteArray(template));
-        this.ftpTaskQueue.add(ftpTask);
-
-        return ftpTask.getDef(new byte[0]);
+        return this.submit(storage -> storage.toZipByteArray(template)).getDef(new byte[0]);
     }
 
     @Override
     public boolean delete(ServiceTemplate template) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.delete(template));
-        this.ftpTaskQueue.add(ftpTask);
+        boolean success = this.await(this.submit(storage -> storage.delete(template)));
 
-        return ftpTask.getDef(false);
+        this.invalidate(template);
+        return success;
     }
 
     @Override
     public boolean create(ServiceTemplate template) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.create(template));
-        this.ftpTaskQueue.add(ftpTask);
-
-        return ftpTask.getDef(false);
+        return this.await(this.submit(storage -> storage.create(template)));
     }
 
     @Override
     public boolean has(ServiceTemplate template) {
-        ITask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.has(template));
-        this.ftpTaskQueue.add(ftpTask);
-
-        return ftpTask.getDef(false);
+        return this.await(this.submit(storage -> storage.has(template)));
     }
 
     @Override
     public OutputStream appendOutputStream(ServiceTemplate template, String path) throws IOException {
-        return this.createDataTransfer(() -> this.executingStorage.appendOutputStream(template, path));
+        this.invalidate(template);
+        return this.createDataTransfer(storage -> storage.appendOutputStream(template, path));
     }
 
     @Override
     public OutputStream newOutputStream(ServiceTemplate template, String path) throws IOException {
-        return this.createDataTransfer(() -> this.executingStorage.newOutputStream(template, path));
+        this.invalidate(template);
+        return this.createDataTransfer(storage -> storage.newOutputStream(template, path));
     }
 
-    private OutputStream createDataTransfer(Callable<OutputStream> outputStreamCallable) throws IOException {
+    private OutputStream createDataTransfer(StorageCallable<OutputStream> outputStreamCallable) throws IOException {
         Value<OutputStream> outputStreamValue = new Value<>();
         ListenableTask<OutputStream> valueTask = new ListenableTask<>(outputStreamValue::getValue);
 
         FTPTask<Void> ftpTask = new FTPTask<>(() -> {
-            OutputStreamCloseTask outputStreamCloseTask = new OutputStreamCloseTask(outputStreamCallable.call());
+            AbstractFTPStorage storage = this.workerStorage.get();
+            OutputStreamCloseTask outputStreamCloseTask = new OutputStreamCloseTask(outputStreamCallable.call(storage));
 
             outputStreamValue.setValue(outputStreamCloseTask);
             valueTask.call();
 
             outputStreamCloseTask.get();
 
-            this.executingStorage.completeDataTransfer();
+            storage.completeDataTransfer();
 
             return null;
         }, valueTask::call);
@@ -198,54 +372,52 @@ public class FTPQueueStorage implements Runnable, ITemplateStorage {
 
     @Override
     public boolean createFile(ServiceTemplate template, String path) throws IOException {
-        FTPTask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.createFile(template, path));
-        this.ftpTaskQueue.add(ftpTask);
+        FTPTask<Boolean> ftpTask = this.submit(storage -> storage.createFile(template, path));
+        this.invalidate(template);
 
         return ftpTask.getOptionalValue(false).orElseThrow(() -> (IOException) ftpTask.getException());
     }
 
     @Override
     public boolean createDirectory(ServiceTemplate template, String path) throws IOException {
-        FTPTask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.createDirectory(template, path));
-        this.ftpTaskQueue.add(ftpTask);
+        FTPTask<Boolean> ftpTask = this.submit(storage -> storage.createDirectory(template, path));
 
         return ftpTask.getOptionalValue(false).orElseThrow(() -> (IOException) ftpTask.getException());
     }
 
     @Override
     public boolean hasFile(ServiceTemplate template, String path) throws IOException {
-        FTPTask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.hasFile(template, path));
-        this.ftpTaskQueue.add(ftpTask);
+        FTPTask<Boolean> ftpTask = this.submit(storage -> storage.hasFile(template, path));
 
         return ftpTask.getOptionalValue(false).orElseThrow(() -> (IOException) ftpTask.getException());
     }
 
     @Override
     public boolean deleteFile(ServiceTemplate template, String path) throws IOException {
-        FTPTask<Boolean> ftpTask = new FTPTask<>(() -> this.executingStorage.deleteFile(template, path));
-        this.ftpTaskQueue.add(ftpTask);
+        FTPTask<Boolean> ftpTask = this.submit(storage -> storage.deleteFile(template, path));
+        this.invalidate(template);
 
         return ftpTask.getOptionalValue(false).orElseThrow(() -> (IOException) ftpTask.getException());
     }
 
     @Override
     public String[] listFiles(ServiceTemplate template, String dir) throws IOException {
-        FTPTask<String[]> ftpTask = new FTPTask<>(() -> this.executingStorage.listFiles(template, dir));
-        this.ftpTaskQueue.add(ftpTask);
+        FTPTask<String[]> ftpTask = this.submit(storage -> storage.listFiles(template, dir));
 
         return ftpTask.getOptionalValue(new String[0]).orElseThrow(() -> (IOException) ftpTask.getException());
     }
 
     @Override
     public Collection<ServiceTemplate> getTemplates() {
-        ITask<Collection<ServiceTemplate>> ftpTask = new FTPTask<>(() -> this.executingStorage.getTemplates());
-        this.ftpTaskQueue.add(ftpTask);
+        return this.submit(AbstractFTPStorage::getTemplates).getDef(Collections.emptyList());
+    }
 
-        return ftpTask.getDef(Collections.emptyList());
+    public Collection<AbstractFTPStorage> getStorages() {
+        return Collections.unmodifiableList(Arrays.asList(this.storages));
     }
 
-    public AbstractFTPStorage getExecutingStorage() {
-        return executingStorage;
+    public FTPTemplateCache getTemplateCache() {
+        return this.templateCache;
     }
 
     public boolean isOpened() {
@@ -254,13 +426,23 @@ public class FTPQueueStorage implements Runnable, ITemplateStorage {
 
     @Override
     public String getName() {
-        return this.executingStorage.getName();
+        return this.storages[0].getName();
     }
 
     @Override
     public void close() throws IOException {
         this.opened = false;
-        this.executingStorage.close();
+
+        for (AbstractFTPStorage storage : this.storages) {
+            storage.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface StorageCallable<V> {
+
+        V call(AbstractFTPStorage storage) throws Exception;
+
     }
 
 }
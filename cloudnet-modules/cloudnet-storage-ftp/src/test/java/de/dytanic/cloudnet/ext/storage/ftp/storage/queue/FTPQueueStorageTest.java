@@ -0,0 +1,262 @@
+package de.dytanic.cloudnet.ext.storage.ftp.storage.queue;
+
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.common.logging.DefaultAsyncLogger;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkClient;
+import de.dytanic.cloudnet.driver.provider.*;
+import de.dytanic.cloudnet.driver.provider.service.CloudServiceFactory;
+import de.dytanic.cloudnet.driver.provider.service.GeneralCloudServiceProvider;
+import de.dytanic.cloudnet.driver.provider.service.SpecificCloudServiceProvider;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.ext.storage.ftp.client.FTPCredentials;
+import de.dytanic.cloudnet.ext.storage.ftp.storage.FTPTemplateCache;
+import de.dytanic.cloudnet.ext.storage.ftp.storage.FTPTemplateStorage;
+import org.apache.ftpserver.FtpServer;
+import org.apache.ftpserver.FtpServerFactory;
+import org.apache.ftpserver.ftplet.*;
+import org.apache.ftpserver.listener.ListenerFactory;
+import org.apache.ftpserver.usermanager.PropertiesUserManagerFactory;
+import org.apache.ftpserver.usermanager.impl.BaseUser;
+import org.apache.ftpserver.usermanager.impl.WritePermission;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FTPQueueStorageTest {
+
+    private final Path directory = Paths.get("build/tests/ftpQueueStorage");
+
+    private final Path serverDirectory = this.directory.resolve("server");
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private FtpServer ftpServer;
+
+    private FTPQueueStorage storage;
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.delete(this.directory.toFile());
+        Files.createDirectories(this.serverDirectory.resolve("templates"));
+
+        if (CloudNetDriver.getInstance() == null) {
+            new TestCloudNetDriver();
+        }
+
+        FtpServerFactory serverFactory = new FtpServerFactory();
+
+        ListenerFactory listenerFactory = new ListenerFactory();
+        listenerFactory.setServerAddress("127.0.0.1");
+        listenerFactory.setPort(0);
+        serverFactory.addListener("default", listenerFactory.createListener());
+
+        BaseUser user = new BaseUser();
+        user.setName("cloudnet");
+        user.setPassword("password");
+        user.setHomeDirectory(this.serverDirectory.toAbsolutePath().toString());
+        user.setAuthorities(Collections.singletonList(new WritePermission()));
+
+        UserManager userManager = new PropertiesUserManagerFactory().createUserManager();
+        userManager.save(user);
+        serverFactory.setUserManager(userManager);
+
+        Map<String, Ftplet> ftplets = new HashMap<>();
+        ftplets.put("counter", new DefaultFtplet() {
+            @Override
+            public FtpletResult onDownloadStart(FtpSession session, FtpRequest request) {
+                FTPQueueStorageTest.this.downloads.incrementAndGet();
+                return FtpletResult.DEFAULT;
+            }
+        });
+        serverFactory.setFtplets(ftplets);
+
+        this.ftpServer = serverFactory.createServer();
+        this.ftpServer.start();
+
+        FTPCredentials credentials = new FTPCredentials(
+                new HostAndPort("127.0.0.1", serverFactory.getListener("default").getPort()),
+                "cloudnet",
+                "password",
+                "/templates"
+        );
+
+        this.storage = new FTPQueueStorage(
+                () -> new FTPTemplateStorage("ftp", credentials, false),
+                4,
+                new FTPTemplateCache(this.directory.resolve("cache"))
+        );
+        this.storage.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.storage.close();
+        this.ftpServer.stop();
+
+        FileUtils.delete(this.directory.toFile());
+    }
+
+    @Test
+    public void testDeployAndCopy() throws Exception {
+        ServiceTemplate template = new ServiceTemplate("Lobby", "default", "ftp");
+        Path source = this.directory.resolve("source");
+
+        byte[] pluginContent = new byte[1 << 20];
+        new Random(42).nextBytes(pluginContent);
+
+        Files.createDirectories(source.resolve("plugins/empty"));
+        Files.createDirectories(source.resolve("logs"));
+        Files.write(source.resolve("plugins/plugin.jar"), pluginContent);
+        Files.write(source.resolve("server.properties"), "server-port=25565".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("logs/latest.log"), new byte[]{1, 2, 3});
+
+        Assert.assertTrue(this.storage.deploy(source.toFile(), template, file -> !file.getName().equals("logs")));
+
+        Path remoteTemplate = this.serverDirectory.resolve("templates/Lobby/default");
+
+        Assert.assertArrayEquals(pluginContent, Files.readAllBytes(remoteTemplate.resolve("plugins/plugin.jar")));
+        Assert.assertTrue(Files.isDirectory(remoteTemplate.resolve("plugins/empty")));
+        Assert.assertFalse(Files.exists(remoteTemplate.resolve("logs")));
+
+        Path[] targets = {this.directory.resolve("service-1"), this.directory.resolve("service-2")};
+
+        Assert.assertTrue(this.storage.copy(template, targets));
+        Assert.assertEquals(2, this.downloads.get());
+
+        for (Path target : targets) {
+            Assert.assertArrayEquals(pluginContent, Files.readAllBytes(target.resolve("plugins/plugin.jar")));
+            Assert.assertEquals("server-port=25565", new String(Files.readAllBytes(target.resolve("server.properties")), StandardCharsets.UTF_8));
+            Assert.assertTrue(Files.isDirectory(target.resolve("plugins/empty")));
+        }
+
+        //the unchanged files are taken from the local cache
+        Assert.assertTrue(this.storage.copy(template, this.directory.resolve("service-3")));
+        Assert.assertEquals(2, this.downloads.get());
+
+        Files.write(remoteTemplate.resolve("server.properties"), "server-port=25566\nmotd=Lobby".getBytes(StandardCharsets.UTF_8));
+
+        Path target = this.directory.resolve("service-4");
+
+        Assert.assertTrue(this.storage.copy(template, target));
+        Assert.assertEquals(3, this.downloads.get());
+        Assert.assertEquals("server-port=25566\nmotd=Lobby", new String(Files.readAllBytes(target.resolve("server.properties")), StandardCharsets.UTF_8));
+
+        Assert.assertFalse(this.storage.copy(new ServiceTemplate("Lobby", "missing", "ftp"), target));
+    }
+
+    private static final class TestCloudNetDriver extends CloudNetDriver {
+
+        private TestCloudNetDriver() {
+            super(new DefaultAsyncLogger());
+
+            setInstance(this);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public PermissionProvider getPermissionProvider() {
+            return null;
+        }
+
+        @Override
+        public CloudServiceFactory getCloudServiceFactory() {
+            return null;
+        }
+
+        @Override
+        public ServiceTaskProvider getServiceTaskProvider() {
+            return null;
+        }
+
+        @Override
+        public NodeInfoProvider getNodeInfoProvider() {
+            return null;
+        }
+
+        @Override
+        public GroupConfigurationProvider getGroupConfigurationProvider() {
+            return null;
+        }
+
+        @Override
+        public CloudMessenger getMessenger() {
+            return null;
+        }
+
+        @Override
+        public SpecificCloudServiceProvider getCloudServiceProvider(String name) {
+            return null;
+        }
+
+        @Override
+        public SpecificCloudServiceProvider getCloudServiceProvider(UUID uniqueId) {
+            return null;
+        }
+
+        @Override
+        public SpecificCloudServiceProvider getCloudServiceProvider(ServiceInfoSnapshot serviceInfoSnapshot) {
+            return null;
+        }
+
+        @Override
+        public GeneralCloudServiceProvider getCloudServiceProvider() {
+            return null;
+        }
+
+        @Override
+        public INetworkClient getNetworkClient() {
+            return null;
+        }
+
+        @Override
+        public ITask<Collection<ServiceTemplate>> getLocalTemplateStorageTemplatesAsync() {
+            return null;
+        }
+
+        @Override
+        public ITask<Collection<ServiceTemplate>> getTemplateStorageTemplatesAsync(String serviceName) {
+            return null;
+        }
+
+        @Override
+        public Collection<ServiceTemplate> getLocalTemplateStorageTemplates() {
+            return null;
+        }
+
+        @Override
+        public Collection<ServiceTemplate> getTemplateStorageTemplates(String serviceName) {
+            return null;
+        }
+
+        @Override
+        public Pair<Boolean, String[]> sendCommandLineAsPermissionUser(UUID uniqueId, String commandLine) {
+            return null;
+        }
+
+        @Override
+        public ITask<Pair<Boolean, String[]>> sendCommandLineAsPermissionUserAsync(UUID uniqueId, String commandLine) {
+            return null;
+        }
+    }
+}
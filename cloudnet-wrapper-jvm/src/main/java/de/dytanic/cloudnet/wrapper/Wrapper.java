@@ -77,7 +77,7 @@ public final class Wrapper extends CloudNetDriver {
     private final List<String> commandLineArguments;
 
     private CloudServiceFactory cloudServiceFactory = new WrapperCloudServiceFactory(this);
-    private GeneralCloudServiceProvider generalCloudServiceProvider = new WrapperGeneralCloudServiceProvider(this);
+    private final WrapperGeneralCloudServiceProvider generalCloudServiceProvider = new WrapperGeneralCloudServiceProvider(this);
     private ServiceTaskProvider serviceTaskProvider = new WrapperServiceTaskProvider(this);
     private GroupConfigurationProvider groupConfigurationProvider = new WrapperGroupConfigurationProvider(this);
     private PermissionProvider permissionProvider = new WrapperPermissionProvider(this);
@@ -128,7 +128,7 @@ public final class Wrapper extends CloudNetDriver {
         super.packetQueryProvider = new PacketQueryProvider(this.networkClient);
 
         //- Packet client registry
-        this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerServiceInfoPublisherListener());
+        this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerServiceInfoPublisherListener(this.generalCloudServiceProvider.getReplica()));
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerUpdatePermissionsListener());
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_EVENTBUS_CHANNEL, new PacketServerChannelMessageListener());
         this.networkClient.getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerClusterNodeInfoUpdateListener());
@@ -171,6 +171,14 @@ public final class Wrapper extends CloudNetDriver {
             throw new IllegalStateException("authorization response is: denied");
         }
 
+        this.generalCloudServiceProvider.synchronizeReplica();
+
+        //the replica is resynchronized periodically in case an update packet was lost
+        long synchronizeInterval = Long.getLong("cloudnet.wrapper.services.synchronizeInterval", 60000L);
+        if (synchronizeInterval > 0) {
+            this.taskScheduler.schedule(this.generalCloudServiceProvider::synchronizeReplica, synchronizeInterval, synchronizeInterval, Long.MAX_VALUE);
+        }
+
         Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
 
         if (!this.startApplication()) {
@@ -411,6 +419,8 @@ public final class Wrapper extends CloudNetDriver {
             this.currentServiceInfoSnapshot = serviceInfoSnapshot;
         }
 
+        this.generalCloudServiceProvider.getReplica().update(serviceInfoSnapshot);
+
         this.networkClient.sendPacket(new PacketClientServiceInfoUpdate(serviceInfoSnapshot));
     }
 
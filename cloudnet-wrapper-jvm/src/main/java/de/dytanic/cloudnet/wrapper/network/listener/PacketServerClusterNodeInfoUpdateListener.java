@@ -1,19 +1,69 @@
 package de.dytanic.cloudnet.wrapper.network.listener;
 
+import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.event.events.network.NetworkClusterNodeInfoUpdateEvent;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshotDelta;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientClusterNodeInfoSnapshotRequest;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 
+import java.util.Map;
+
 public final class PacketServerClusterNodeInfoUpdateListener implements IPacketListener {
 
+    private static final long SNAPSHOT_REQUEST_INTERVAL = 1000;
+
+    //Map<NodeUniqueId, Snapshot> the last snapshots, on which the received deltas are applied
+    private final Map<String, NetworkClusterNodeInfoSnapshot> snapshots = Maps.newConcurrentHashMap();
+
+    //Map<NodeUniqueId, Time> of the last requests of full snapshots
+    private final Map<String, Long> snapshotRequests = Maps.newConcurrentHashMap();
+
     @Override
     public void handle(INetworkChannel channel, IPacket packet) {
-        if (packet.getHeader().contains("clusterNodeInfoSnapshot")) {
-            NetworkClusterNodeInfoSnapshot snapshot = packet.getHeader().get("clusterNodeInfoSnapshot", NetworkClusterNodeInfoSnapshot.TYPE);
-            CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkClusterNodeInfoUpdateEvent(channel, snapshot));
+        NetworkClusterNodeInfoSnapshot snapshot;
+
+        synchronized (this) {
+            if (packet.getHeader().contains("clusterNodeInfoSnapshot")) {
+                snapshot = packet.getHeader().get("clusterNodeInfoSnapshot", NetworkClusterNodeInfoSnapshot.TYPE);
+                NetworkClusterNodeInfoSnapshot lastSnapshot = this.snapshots.get(snapshot.getNode().getUniqueId());
+
+                //the packets are handled in parallel, so a full snapshot may be overtaken by a newer snapshot
+                if (lastSnapshot != null && lastSnapshot.getCreationTime() > snapshot.getCreationTime()) {
+                    return;
+                }
+
+            } else if (packet.getHeader().contains("clusterNodeInfoSnapshotDelta")) {
+                String nodeUniqueId = packet.getHeader().getString("nodeUniqueId");
+                NetworkClusterNodeInfoSnapshot lastSnapshot = this.snapshots.get(nodeUniqueId);
+
+                //the delta can only be applied on the snapshot, from which it has been created
+                if (lastSnapshot == null || lastSnapshot.getCreationTime() != packet.getHeader().getLong("baseCreationTime")) {
+                    this.requestSnapshot(channel, nodeUniqueId);
+                    return;
+                }
+
+                snapshot = NetworkClusterNodeInfoSnapshotDelta.applyDelta(lastSnapshot, packet.getHeader().getJsonObject("clusterNodeInfoSnapshotDelta"));
+            } else {
+                return;
+            }
+
+            this.snapshots.put(snapshot.getNode().getUniqueId(), snapshot);
+        }
+
+        CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkClusterNodeInfoUpdateEvent(channel, snapshot));
+    }
+
+    private void requestSnapshot(INetworkChannel channel, String nodeUniqueId) {
+        long now = System.currentTimeMillis();
+        Long lastRequest = this.snapshotRequests.get(nodeUniqueId);
+
+        if (lastRequest == null || lastRequest + SNAPSHOT_REQUEST_INTERVAL <= now) {
+            this.snapshotRequests.put(nodeUniqueId, now);
+            channel.sendPacket(new PacketClientClusterNodeInfoSnapshotRequest(nodeUniqueId));
         }
     }
-}
\ No newline at end of file
+}
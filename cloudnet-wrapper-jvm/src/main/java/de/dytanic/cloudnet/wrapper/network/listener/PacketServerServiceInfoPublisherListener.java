@@ -8,15 +8,32 @@ import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceIn
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.wrapper.provider.service.ServiceInfoSnapshotReplica;
 
 public final class PacketServerServiceInfoPublisherListener implements IPacketListener {
 
+    private final ServiceInfoSnapshotReplica replica;
+
+    public PacketServerServiceInfoPublisherListener(ServiceInfoSnapshotReplica replica) {
+        this.replica = replica;
+    }
+
     @Override
     public void handle(INetworkChannel channel, IPacket packet) {
         if (packet.getHeader().contains("serviceInfoSnapshot") && packet.getHeader().contains("type")) {
             ServiceInfoSnapshot serviceInfoSnapshot = packet.getHeader().get("serviceInfoSnapshot", ServiceInfoSnapshot.TYPE);
             PacketClientServerServiceInfoPublisher.PublisherType publisherType = packet.getHeader().get("type", PacketClientServerServiceInfoPublisher.PublisherType.class);
 
+            //the replica is updated before the events are called, so that the listeners already see the new state
+            boolean applied = publisherType == PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER ?
+                    this.replica.remove(serviceInfoSnapshot) :
+                    this.replica.update(serviceInfoSnapshot);
+
+            //an outdated snapshot or a service which has already been removed isn't published again
+            if (!applied) {
+                return;
+            }
+
             switch (publisherType) {
                 case UPDATE:
                     this.invoke0(new CloudServiceInfoUpdateEvent(serviceInfoSnapshot));
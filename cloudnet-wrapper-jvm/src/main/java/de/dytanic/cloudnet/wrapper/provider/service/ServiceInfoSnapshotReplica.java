@@ -0,0 +1,360 @@
+package de.dytanic.cloudnet.wrapper.provider.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A local replica of the ServiceInfoSnapshots of all services in the cluster, indexed by the unique id, name, task,
+ * group and environment of the services. The replica is kept up to date by the service info packets, which the
+ * node publishes to every service, and is resynchronized with the full list of services from the node.
+ * <p>
+ * Packets which are received while a resynchronization is running are newer than the answer of the node, the
+ * services of these packets are therefore not overwritten by the resynchronization.
+ * <p>
+ * The packets may be handled in another order than they have been sent. A snapshot which is older than the snapshot
+ * in the replica is ignored, and the unique ids of removed services are remembered for a while, so that a delayed
+ * update doesn't add a deleted service again.
+ */
+public final class ServiceInfoSnapshotReplica {
+
+    public static final long REMOVED_SERVICES_TIMEOUT = Long.getLong("cloudnet.wrapper.services.removedTimeout", 300000);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, ServiceInfoSnapshot> services = new HashMap<>();
+
+    //Map<Lowercase name, UniqueId>
+    private final Map<String, UUID> servicesByName = new HashMap<>();
+
+    //Map<Lowercase task name, UniqueIds>
+    private final Map<String, Set<UUID>> servicesByTask = new HashMap<>();
+
+    //Map<Group, UniqueIds>
+    private final Map<String, Set<UUID>> servicesByGroup = new HashMap<>();
+
+    private final Map<ServiceEnvironmentType, Set<UUID>> servicesByEnvironment = new EnumMap<>(ServiceEnvironmentType.class);
+
+    //Map<UniqueId, RemovalTime>, ordered by the removal time
+    private final Map<UUID, Long> removedServices = new LinkedHashMap<>();
+
+    /**
+     * The services which have been changed by a packet since the running resynchronization has started or null, if
+     * no resynchronization is running
+     */
+    private Set<UUID> changedServices;
+
+    private volatile boolean synchronizedWithNode;
+
+    private volatile long lastSynchronization = -1;
+
+    /**
+     * Puts the snapshot into the replica or replaces the previous snapshot of the service
+     *
+     * @return false, if the snapshot has been ignored, because it is older than the snapshot in the replica or the
+     * service has already been removed
+     */
+    public boolean update(ServiceInfoSnapshot serviceInfoSnapshot) {
+        Validate.checkNotNull(serviceInfoSnapshot);
+
+        this.lock.writeLock().lock();
+        try {
+            UUID uniqueId = serviceInfoSnapshot.getServiceId().getUniqueId();
+
+            if (this.isRemoved(uniqueId) || this.isOutdated(serviceInfoSnapshot)) {
+                return false;
+            }
+
+            this.put(serviceInfoSnapshot);
+
+            if (this.changedServices != null) {
+                this.changedServices.add(uniqueId);
+            }
+
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the service of the snapshot from the replica
+     *
+     * @return false, if the service has already been removed
+     */
+    public boolean remove(ServiceInfoSnapshot serviceInfoSnapshot) {
+        Validate.checkNotNull(serviceInfoSnapshot);
+
+        this.lock.writeLock().lock();
+        try {
+            UUID uniqueId = serviceInfoSnapshot.getServiceId().getUniqueId();
+
+            if (this.isRemoved(uniqueId)) {
+                return false;
+            }
+
+            this.removedServices.put(uniqueId, System.currentTimeMillis());
+            this.remove(uniqueId);
+
+            if (this.changedServices != null) {
+                this.changedServices.add(uniqueId);
+            }
+
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Has to be called before the full list of services is requested from the node
+     */
+    public void beginSynchronization() {
+        this.lock.writeLock().lock();
+        try {
+            this.changedServices = new HashSet<>();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content of the replica with the full list of services from the node, except the services which
+     * have been changed by a packet since the synchronization has started
+     *
+     * @param serviceInfoSnapshots the services from the node or null, if the request has failed
+     */
+    public void completeSynchronization(Collection<ServiceInfoSnapshot> serviceInfoSnapshots) {
+        this.lock.writeLock().lock();
+        try {
+            Set<UUID> changedServices = this.changedServices;
+            this.changedServices = null;
+
+            if (serviceInfoSnapshots == null || changedServices == null) {
+                return;
+            }
+
+            Set<UUID> removedServices = new HashSet<>(this.services.keySet());
+
+            for (ServiceInfoSnapshot serviceInfoSnapshot : serviceInfoSnapshots) {
+                UUID uniqueId = serviceInfoSnapshot.getServiceId().getUniqueId();
+                removedServices.remove(uniqueId);
+
+                if (!changedServices.contains(uniqueId) && !this.isRemoved(uniqueId) && !this.isOutdated(serviceInfoSnapshot)) {
+                    this.put(serviceInfoSnapshot);
+                }
+            }
+
+            for (UUID uniqueId : removedServices) {
+                if (!changedServices.contains(uniqueId)) {
+                    this.remove(uniqueId);
+                }
+            }
+
+            this.synchronizedWithNode = true;
+            this.lastSynchronization = System.currentTimeMillis();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true, if the replica has been synchronized with the node at least once and can be used for queries
+     */
+    public boolean isSynchronized() {
+        return this.synchronizedWithNode;
+    }
+
+    /**
+     * @return the time of the last completed synchronization in milliseconds or -1, if there was none
+     */
+    public long getLastSynchronization() {
+        return this.lastSynchronization;
+    }
+
+    public ServiceInfoSnapshot getService(UUID uniqueId) {
+        this.lock.readLock().lock();
+        try {
+            return this.services.get(uniqueId);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public ServiceInfoSnapshot getServiceByName(String name) {
+        this.lock.readLock().lock();
+        try {
+            UUID uniqueId = this.servicesByName.get(name.toLowerCase());
+            return uniqueId != null ? this.services.get(uniqueId) : null;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Collection<UUID> getServiceUniqueIds() {
+        this.lock.readLock().lock();
+        try {
+            return new ArrayList<>(this.services.keySet());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Collection<ServiceInfoSnapshot> getServices() {
+        this.lock.readLock().lock();
+        try {
+            return new ArrayList<>(this.services.values());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Collection<ServiceInfoSnapshot> getStartedServices() {
+        this.lock.readLock().lock();
+        try {
+            Collection<ServiceInfoSnapshot> serviceInfoSnapshots = new ArrayList<>();
+
+            for (ServiceInfoSnapshot serviceInfoSnapshot : this.services.values()) {
+                if (serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.RUNNING) {
+                    serviceInfoSnapshots.add(serviceInfoSnapshot);
+                }
+            }
+
+            return serviceInfoSnapshots;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Collection<ServiceInfoSnapshot> getServicesByTask(String taskName) {
+        return this.getServices(this.servicesByTask, taskName.toLowerCase());
+    }
+
+    public Collection<ServiceInfoSnapshot> getServicesByGroup(String group) {
+        return this.getServices(this.servicesByGroup, group);
+    }
+
+    public Collection<ServiceInfoSnapshot> getServicesByEnvironment(ServiceEnvironmentType environment) {
+        return this.getServices(this.servicesByEnvironment, environment);
+    }
+
+    public int getServicesCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.services.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int getServicesCountByTask(String taskName) {
+        return this.getServicesCount(this.servicesByTask, taskName.toLowerCase());
+    }
+
+    public int getServicesCountByGroup(String group) {
+        return this.getServicesCount(this.servicesByGroup, group);
+    }
+
+    private <K> Collection<ServiceInfoSnapshot> getServices(Map<K, Set<UUID>> index, K key) {
+        this.lock.readLock().lock();
+        try {
+            Set<UUID> uniqueIds = index.get(key);
+
+            if (uniqueIds == null) {
+                return new ArrayList<>();
+            }
+
+            Collection<ServiceInfoSnapshot> serviceInfoSnapshots = new ArrayList<>(uniqueIds.size());
+
+            for (UUID uniqueId : uniqueIds) {
+                serviceInfoSnapshots.add(this.services.get(uniqueId));
+            }
+
+            return serviceInfoSnapshots;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private <K> int getServicesCount(Map<K, Set<UUID>> index, K key) {
+        this.lock.readLock().lock();
+        try {
+            Set<UUID> uniqueIds = index.get(key);
+            return uniqueIds != null ? uniqueIds.size() : 0;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private boolean isRemoved(UUID uniqueId) {
+        long timeout = System.currentTimeMillis() - REMOVED_SERVICES_TIMEOUT;
+        Iterator<Long> iterator = this.removedServices.values().iterator();
+
+        while (iterator.hasNext() && iterator.next() < timeout) {
+            iterator.remove();
+        }
+
+        return this.removedServices.containsKey(uniqueId);
+    }
+
+    private boolean isOutdated(ServiceInfoSnapshot serviceInfoSnapshot) {
+        ServiceInfoSnapshot currentSnapshot = this.services.get(serviceInfoSnapshot.getServiceId().getUniqueId());
+        return currentSnapshot != null && currentSnapshot.getCreationTime() > serviceInfoSnapshot.getCreationTime();
+    }
+
+    private void put(ServiceInfoSnapshot serviceInfoSnapshot) {
+        UUID uniqueId = serviceInfoSnapshot.getServiceId().getUniqueId();
+
+        this.remove(uniqueId);
+        this.services.put(uniqueId, serviceInfoSnapshot);
+
+        this.servicesByName.put(serviceInfoSnapshot.getServiceId().getName().toLowerCase(), uniqueId);
+        addToIndex(this.servicesByTask, serviceInfoSnapshot.getServiceId().getTaskName().toLowerCase(), uniqueId);
+        addToIndex(this.servicesByEnvironment, serviceInfoSnapshot.getServiceId().getEnvironment(), uniqueId);
+
+        if (serviceInfoSnapshot.getConfiguration() != null && serviceInfoSnapshot.getConfiguration().getGroups() != null) {
+            for (String group : serviceInfoSnapshot.getConfiguration().getGroups()) {
+                addToIndex(this.servicesByGroup, group, uniqueId);
+            }
+        }
+    }
+
+    private void remove(UUID uniqueId) {
+        ServiceInfoSnapshot serviceInfoSnapshot = this.services.remove(uniqueId);
+
+        if (serviceInfoSnapshot == null) {
+            return;
+        }
+
+        this.servicesByName.remove(serviceInfoSnapshot.getServiceId().getName().toLowerCase(), uniqueId);
+        removeFromIndex(this.servicesByTask, serviceInfoSnapshot.getServiceId().getTaskName().toLowerCase(), uniqueId);
+        removeFromIndex(this.servicesByEnvironment, serviceInfoSnapshot.getServiceId().getEnvironment(), uniqueId);
+
+        if (serviceInfoSnapshot.getConfiguration() != null && serviceInfoSnapshot.getConfiguration().getGroups() != null) {
+            for (String group : serviceInfoSnapshot.getConfiguration().getGroups()) {
+                removeFromIndex(this.servicesByGroup, group, uniqueId);
+            }
+        }
+    }
+
+    private static <K> void addToIndex(Map<K, Set<UUID>> index, K key, UUID uniqueId) {
+        if (key == null) {
+            return;
+        }
+
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(uniqueId);
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<UUID>> index, K key, UUID uniqueId) {
+        Set<UUID> uniqueIds = key != null ? index.get(key) : null;
+
+        if (uniqueIds != null && uniqueIds.remove(uniqueId) && uniqueIds.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package de.dytanic.cloudnet.wrapper.provider.service;
+
+/**
+ * Defines how the WrapperGeneralCloudServiceProvider answers the queries for the ServiceInfoSnapshots of the services
+ *
+ * @see WrapperGeneralCloudServiceProvider#setConsistency(ServiceSnapshotConsistency)
+ */
+public enum ServiceSnapshotConsistency {
+
+    /**
+     * Every query is sent to the node and blocks until the node has answered
+     */
+    REMOTE,
+    /**
+     * The queries are answered from the local ServiceInfoSnapshotReplica, which is updated by the packets of the node
+     * and therefore is eventually consistent with the node. Until the replica was synchronized with the node for the
+     * first time, the queries are sent to the node.
+     */
+    REPLICA
+
+}
@@ -3,7 +3,10 @@ package de.dytanic.cloudnet.wrapper.provider.service;
 import com.google.gson.reflect.TypeToken;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ITaskListener;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.PacketQueryProvider;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.provider.service.GeneralCloudServiceProvider;
 import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
@@ -15,17 +18,105 @@ import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 public class WrapperGeneralCloudServiceProvider implements GeneralCloudServiceProvider {
 
-    private Wrapper wrapper;
+    private final ServiceInfoSnapshotReplica replica = new ServiceInfoSnapshotReplica();
+
+    private final Supplier<PacketQueryProvider> packetQueryProvider;
+
+    private volatile ServiceSnapshotConsistency consistency = ServiceSnapshotConsistency.valueOf(
+            System.getProperty("cloudnet.wrapper.services.consistency", ServiceSnapshotConsistency.REPLICA.name()).toUpperCase()
+    );
+
+    private ITask<Collection<ServiceInfoSnapshot>> pendingSynchronization;
 
     public WrapperGeneralCloudServiceProvider(Wrapper wrapper) {
-        this.wrapper = wrapper;
+        this(wrapper::getPacketQueryProvider);
+    }
+
+    /**
+     * @param packetQueryProvider supplies the provider of the queries to the node, which is created after this provider
+     */
+    WrapperGeneralCloudServiceProvider(Supplier<PacketQueryProvider> packetQueryProvider) {
+        Validate.checkNotNull(packetQueryProvider);
+
+        this.packetQueryProvider = packetQueryProvider;
+    }
+
+    /**
+     * Requests the full list of services from the node and synchronizes the local replica with it. Only one
+     * synchronization is running at the same time, the pending one is returned if this method is called again.
+     *
+     * @return the task which is completed with the services from the node
+     */
+    public synchronized ITask<Collection<ServiceInfoSnapshot>> synchronizeReplica() {
+        if (this.pendingSynchronization != null && !this.pendingSynchronization.isDone()) {
+            return this.pendingSynchronization;
+        }
+
+        this.replica.beginSynchronization();
+
+        ITask<Collection<ServiceInfoSnapshot>> task = this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+                new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos"), null,
+                documentPair -> documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
+                }.getType()));
+
+        task.addListener(new ITaskListener<Collection<ServiceInfoSnapshot>>() {
+            @Override
+            public void onComplete(ITask<Collection<ServiceInfoSnapshot>> task, Collection<ServiceInfoSnapshot> serviceInfoSnapshots) {
+                WrapperGeneralCloudServiceProvider.this.replica.completeSynchronization(serviceInfoSnapshots);
+            }
+
+            @Override
+            public void onCancelled(ITask<Collection<ServiceInfoSnapshot>> task) {
+                WrapperGeneralCloudServiceProvider.this.replica.completeSynchronization(null);
+            }
+
+            @Override
+            public void onFailure(ITask<Collection<ServiceInfoSnapshot>> task, Throwable th) {
+                WrapperGeneralCloudServiceProvider.this.replica.completeSynchronization(null);
+            }
+        });
+
+        return this.pendingSynchronization = task;
+    }
+
+    public ServiceInfoSnapshotReplica getReplica() {
+        return this.replica;
+    }
+
+    public ServiceSnapshotConsistency getConsistency() {
+        return this.consistency;
+    }
+
+    /**
+     * Sets how the queries of this provider are answered, plugins which need the exact state of the node for a
+     * single query should use the REMOTE consistency or call synchronizeReplica() and wait for it
+     */
+    public void setConsistency(ServiceSnapshotConsistency consistency) {
+        Validate.checkNotNull(consistency);
+
+        this.consistency = consistency;
+    }
+
+    private boolean isReplicaAvailable() {
+        return this.consistency == ServiceSnapshotConsistency.REPLICA && this.replica.isSynchronized();
+    }
+
+    private <T> ITask<T> completedTask(T value) {
+        ListenableTask<T> task = new ListenableTask<>(() -> value);
+        task.call();
+        return task;
     }
 
     @Override
     public Collection<UUID> getServicesAsUniqueId() {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServiceUniqueIds();
+        }
+
         try {
             return this.getServicesAsUniqueIdAsync().get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -36,6 +127,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ServiceInfoSnapshot getCloudServiceByName(String name) {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServiceByName(name);
+        }
+
         try {
             return this.getCloudServiceByNameAsync(name).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -46,6 +141,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public Collection<ServiceInfoSnapshot> getCloudServices() {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServices();
+        }
+
         try {
             return this.getCloudServicesAsync().get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -56,6 +155,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public Collection<ServiceInfoSnapshot> getStartedCloudServices() {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getStartedServices();
+        }
+
         try {
             return this.getStartedCloudServicesAsync().get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -66,6 +169,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public Collection<ServiceInfoSnapshot> getCloudServices(String taskName) {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServicesByTask(taskName);
+        }
+
         try {
             return this.getCloudServicesAsync(taskName).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -78,6 +185,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
     public Collection<ServiceInfoSnapshot> getCloudServices(ServiceEnvironmentType environment) {
         Validate.checkNotNull(environment);
 
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServicesByEnvironment(environment);
+        }
+
         try {
             return this.getCloudServicesAsync(environment).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -88,6 +199,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public Collection<ServiceInfoSnapshot> getCloudServicesByGroup(String group) {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServicesByGroup(group);
+        }
+
         try {
             return this.getCloudServicesByGroupAsync(group).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -98,6 +213,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ServiceInfoSnapshot getCloudService(UUID uniqueId) {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getService(uniqueId);
+        }
+
         try {
             return this.getCloudServiceAsync(uniqueId).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -108,6 +227,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public int getServicesCount() {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServicesCount();
+        }
+
         try {
             return this.getServicesCountAsync().get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -118,6 +241,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public int getServicesCountByGroup(String group) {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServicesCountByGroup(group);
+        }
+
         try {
             return this.getServicesCountByGroupAsync(group).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -128,6 +255,10 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public int getServicesCountByTask(String taskName) {
+        if (this.isReplicaAvailable()) {
+            return this.replica.getServicesCountByTask(taskName);
+        }
+
         try {
             return this.getServicesCountByTaskAsync(taskName).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException exception) {
@@ -138,7 +269,11 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ITask<Collection<UUID>> getServicesAsUniqueIdAsync() {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServiceUniqueIds());
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_as_uuid"), null,
                 documentPair -> documentPair.getFirst().get("serviceUniqueIds", new TypeToken<Collection<UUID>>() {
                 }.getType()));
@@ -146,14 +281,22 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ITask<ServiceInfoSnapshot> getCloudServiceByNameAsync(String name) {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServiceByName(name));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudService_by_name").append("name", name), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshot", ServiceInfoSnapshot.TYPE));
     }
 
     @Override
     public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync() {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServices());
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos"), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
                 }.getType()));
@@ -161,7 +304,11 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ITask<Collection<ServiceInfoSnapshot>> getStartedCloudServicesAsync() {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getStartedServices());
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_started"), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
                 }.getType()));
@@ -169,7 +316,11 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(String taskName) {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServicesByTask(taskName));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_by_taskName").append("taskName", taskName), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
                 }.getType()));
@@ -179,7 +330,11 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
     public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(ServiceEnvironmentType environment) {
         Validate.checkNotNull(environment);
 
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServicesByEnvironment(environment));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloud_services_with_environment").append("serviceEnvironment", environment), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
                 }.getType()));
@@ -187,7 +342,11 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesByGroupAsync(String group) {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServicesByGroup(group));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_by_group").append("group", group), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshots", new TypeToken<Collection<ServiceInfoSnapshot>>() {
                 }.getType()));
@@ -195,28 +354,44 @@ public class WrapperGeneralCloudServiceProvider implements GeneralCloudServicePr
 
     @Override
     public ITask<Integer> getServicesCountAsync() {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServicesCount());
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_count"), null,
                 documentPair -> documentPair.getFirst().getInt("servicesCount"));
     }
 
     @Override
     public ITask<Integer> getServicesCountByGroupAsync(String group) {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServicesCountByGroup(group));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_count_by_group").append("group", group), null,
                 documentPair -> documentPair.getFirst().getInt("servicesCount"));
     }
 
     @Override
     public ITask<Integer> getServicesCountByTaskAsync(String taskName) {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getServicesCountByTask(taskName));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_services_count_by_task").append("taskName", taskName), null,
                 documentPair -> documentPair.getFirst().getInt("servicesCount"));
     }
 
     @Override
     public ITask<ServiceInfoSnapshot> getCloudServiceAsync(UUID uniqueId) {
-        return this.wrapper.getPacketQueryProvider().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
+        if (this.isReplicaAvailable()) {
+            return this.completedTask(this.replica.getService(uniqueId));
+        }
+
+        return this.packetQueryProvider.get().sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(
                 new JsonDocument(PacketConstants.SYNC_PACKET_ID_PROPERTY, "get_cloudServiceInfos_by_uniqueId").append("uniqueId", uniqueId), null,
                 documentPair -> documentPair.getFirst().get("serviceInfoSnapshot", new TypeToken<ServiceInfoSnapshot>() {
                 }.getType()));
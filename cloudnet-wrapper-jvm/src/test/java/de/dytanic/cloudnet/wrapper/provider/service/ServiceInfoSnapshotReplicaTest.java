@@ -0,0 +1,137 @@
+package de.dytanic.cloudnet.wrapper.provider.service;
+
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+public class ServiceInfoSnapshotReplicaTest {
+
+    @Test
+    public void testIndexes() {
+        ServiceInfoSnapshotReplica replica = new ServiceInfoSnapshotReplica();
+
+        ServiceId lobbyId = this.createServiceId("Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+        ServiceId proxyId = this.createServiceId("Proxy", 1, ServiceEnvironmentType.BUNGEECORD);
+
+        Assert.assertTrue(replica.update(this.createSnapshot(lobbyId, 1000, ServiceLifeCycle.RUNNING, "Lobby", "Global")));
+        Assert.assertTrue(replica.update(this.createSnapshot(proxyId, 1000, ServiceLifeCycle.DEFINED, "Global")));
+
+        Assert.assertEquals(2, replica.getServicesCount());
+        Assert.assertEquals(lobbyId, replica.getServiceByName("lobby-1").getServiceId());
+        Assert.assertEquals(1, replica.getServicesCountByTask("LOBBY"));
+        Assert.assertEquals(2, replica.getServicesCountByGroup("Global"));
+        Assert.assertEquals(proxyId, replica.getServicesByEnvironment(ServiceEnvironmentType.BUNGEECORD).iterator().next().getServiceId());
+        Assert.assertEquals(1, replica.getStartedServices().size());
+
+        //a changed group is removed from the index
+        Assert.assertTrue(replica.update(this.createSnapshot(lobbyId, 2000, ServiceLifeCycle.RUNNING, "Lobby")));
+
+        Assert.assertEquals(1, replica.getServicesCountByGroup("Global"));
+        Assert.assertEquals(1, replica.getServicesCountByGroup("Lobby"));
+
+        Assert.assertTrue(replica.remove(this.createSnapshot(lobbyId, 3000, ServiceLifeCycle.DELETED)));
+
+        Assert.assertNull(replica.getService(lobbyId.getUniqueId()));
+        Assert.assertNull(replica.getServiceByName("Lobby-1"));
+        Assert.assertTrue(replica.getServicesByTask("Lobby").isEmpty());
+        Assert.assertEquals(0, replica.getServicesCountByGroup("Lobby"));
+    }
+
+    @Test
+    public void testReorderedPackets() {
+        ServiceInfoSnapshotReplica replica = new ServiceInfoSnapshotReplica();
+        ServiceId serviceId = this.createServiceId("Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+
+        //an update, which has been created before the snapshot in the replica, is ignored
+        Assert.assertTrue(replica.update(this.createSnapshot(serviceId, 2000, ServiceLifeCycle.RUNNING)));
+        Assert.assertFalse(replica.update(this.createSnapshot(serviceId, 1000, ServiceLifeCycle.PREPARED)));
+
+        Assert.assertEquals(ServiceLifeCycle.RUNNING, replica.getService(serviceId.getUniqueId()).getLifeCycle());
+        Assert.assertEquals(2000, replica.getService(serviceId.getUniqueId()).getCreationTime());
+
+        //a snapshot with the same creation time is still taken over
+        Assert.assertTrue(replica.update(this.createSnapshot(serviceId, 2000, ServiceLifeCycle.STOPPED)));
+        Assert.assertEquals(ServiceLifeCycle.STOPPED, replica.getService(serviceId.getUniqueId()).getLifeCycle());
+
+        //an update after the removal doesn't add the deleted service again
+        Assert.assertTrue(replica.remove(this.createSnapshot(serviceId, 1500, ServiceLifeCycle.DELETED)));
+        Assert.assertFalse(replica.update(this.createSnapshot(serviceId, 3000, ServiceLifeCycle.RUNNING)));
+        Assert.assertFalse(replica.remove(this.createSnapshot(serviceId, 3000, ServiceLifeCycle.DELETED)));
+
+        Assert.assertNull(replica.getService(serviceId.getUniqueId()));
+        Assert.assertEquals(0, replica.getServicesCount());
+
+        //the removal of a service, which hasn't been in the replica, is remembered as well
+        ServiceId unknownServiceId = this.createServiceId("Lobby", 2, ServiceEnvironmentType.MINECRAFT_SERVER);
+
+        Assert.assertTrue(replica.remove(this.createSnapshot(unknownServiceId, 1000, ServiceLifeCycle.DELETED)));
+        Assert.assertFalse(replica.update(this.createSnapshot(unknownServiceId, 1000, ServiceLifeCycle.RUNNING)));
+    }
+
+    @Test
+    public void testSynchronization() {
+        ServiceInfoSnapshotReplica replica = new ServiceInfoSnapshotReplica();
+
+        ServiceId changedId = this.createServiceId("Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+        ServiceId removedId = this.createServiceId("Lobby", 2, ServiceEnvironmentType.MINECRAFT_SERVER);
+        ServiceId staleId = this.createServiceId("Lobby", 3, ServiceEnvironmentType.MINECRAFT_SERVER);
+        ServiceId deletedId = this.createServiceId("Lobby", 4, ServiceEnvironmentType.MINECRAFT_SERVER);
+        ServiceId addedId = this.createServiceId("Proxy", 1, ServiceEnvironmentType.BUNGEECORD);
+
+        replica.update(this.createSnapshot(staleId, 1000, ServiceLifeCycle.RUNNING));
+        replica.update(this.createSnapshot(deletedId, 1000, ServiceLifeCycle.RUNNING));
+        replica.remove(this.createSnapshot(deletedId, 1000, ServiceLifeCycle.DELETED));
+
+        Assert.assertFalse(replica.isSynchronized());
+        replica.beginSynchronization();
+
+        //the packets, which are handled during the synchronization, are newer than the answer of the node
+        replica.update(this.createSnapshot(changedId, 3000, ServiceLifeCycle.RUNNING));
+        replica.remove(this.createSnapshot(removedId, 3000, ServiceLifeCycle.DELETED));
+
+        replica.completeSynchronization(Arrays.asList(
+                this.createSnapshot(changedId, 2000, ServiceLifeCycle.PREPARED),
+                this.createSnapshot(removedId, 2000, ServiceLifeCycle.RUNNING),
+                this.createSnapshot(deletedId, 2000, ServiceLifeCycle.RUNNING),
+                this.createSnapshot(addedId, 2000, ServiceLifeCycle.RUNNING)
+        ));
+
+        Assert.assertTrue(replica.isSynchronized());
+        Assert.assertEquals(ServiceLifeCycle.RUNNING, replica.getService(changedId.getUniqueId()).getLifeCycle());
+        Assert.assertNull(replica.getService(removedId.getUniqueId()));
+        Assert.assertNull(replica.getService(staleId.getUniqueId()));
+        Assert.assertNull(replica.getService(deletedId.getUniqueId()));
+        Assert.assertNotNull(replica.getService(addedId.getUniqueId()));
+        Assert.assertEquals(2, replica.getServicesCount());
+
+        //a failed synchronization keeps the replica
+        replica.beginSynchronization();
+        replica.completeSynchronization(null);
+
+        Assert.assertEquals(2, replica.getServicesCount());
+    }
+
+    private ServiceId createServiceId(String taskName, int taskServiceId, ServiceEnvironmentType environment) {
+        return new ServiceId(UUID.randomUUID(), "Node-1", taskName, taskServiceId, environment);
+    }
+
+    private ServiceInfoSnapshot createSnapshot(ServiceId serviceId, long creationTime, ServiceLifeCycle lifeCycle, String... groups) {
+        return new ServiceInfoSnapshot(
+                creationTime,
+                serviceId,
+                null,
+                false,
+                lifeCycle,
+                null,
+                new ServiceConfiguration(serviceId, "java", false, false, groups, null, null, null, null, 0)
+        );
+    }
+}
@@ -0,0 +1,117 @@
+package de.dytanic.cloudnet.wrapper.provider.service;
+
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.concurrent.ListenableTask;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.PacketQueryProvider;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+public class WrapperGeneralCloudServiceProviderTest {
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    private final ServiceInfoSnapshot remoteService = this.createSnapshot("Lobby", 1);
+
+    private volatile boolean deferQueries;
+
+    @Test
+    public void testConsistency() throws Exception {
+        WrapperGeneralCloudServiceProvider provider = new WrapperGeneralCloudServiceProvider(() -> new QueryProvider());
+        provider.setConsistency(ServiceSnapshotConsistency.REPLICA);
+
+        //the node is queried, until the replica has been synchronized
+        Assert.assertEquals(1, provider.getCloudServices().size());
+        Assert.assertEquals(Collections.singletonList("get_cloudServiceInfos"), this.queries);
+        this.queries.clear();
+
+        this.deferQueries = true;
+
+        ITask<Collection<ServiceInfoSnapshot>> synchronization = provider.synchronizeReplica();
+        Assert.assertSame(synchronization, provider.synchronizeReplica());
+
+        this.deferQueries = false;
+        Assert.assertFalse(provider.getReplica().isSynchronized());
+
+        //the replica is updated by the packets and answers the queries without the node
+        ServiceInfoSnapshot localService = this.createSnapshot("Proxy", 1);
+        provider.getReplica().update(localService);
+
+        ((ListenableTask<Collection<ServiceInfoSnapshot>>) synchronization).call();
+        this.queries.clear();
+
+        Assert.assertTrue(provider.getReplica().isSynchronized());
+        Assert.assertEquals(2, provider.getCloudServices().size());
+        Assert.assertEquals(2, provider.getServicesCount());
+        Assert.assertSame(localService, provider.getCloudServiceByName("Proxy-1"));
+        Assert.assertNotNull(provider.getCloudServiceAsync(this.remoteService.getServiceId().getUniqueId()).get());
+        Assert.assertTrue(this.queries.isEmpty());
+
+        //the remote consistency queries the node for every request
+        provider.setConsistency(ServiceSnapshotConsistency.REMOTE);
+
+        Assert.assertEquals(1, provider.getCloudServices().size());
+        Assert.assertEquals(1, provider.getServicesCount());
+        Assert.assertEquals(2, this.queries.size());
+
+        provider.setConsistency(ServiceSnapshotConsistency.REPLICA);
+
+        Assert.assertEquals(2, provider.getCloudServices().size());
+        Assert.assertEquals(2, this.queries.size());
+    }
+
+    private ServiceInfoSnapshot createSnapshot(String taskName, int taskServiceId) {
+        ServiceId serviceId = new ServiceId(UUID.randomUUID(), "Node-1", taskName, taskServiceId, ServiceEnvironmentType.MINECRAFT_SERVER);
+
+        return new ServiceInfoSnapshot(
+                System.currentTimeMillis(),
+                serviceId,
+                null,
+                false,
+                ServiceLifeCycle.RUNNING,
+                null,
+                new ServiceConfiguration(serviceId, "java", false, false, new String[0], null, null, null, null, 0)
+        );
+    }
+
+    private final class QueryProvider extends PacketQueryProvider {
+
+        private QueryProvider() {
+            super(null);
+        }
+
+        @Override
+        public <R> ITask<R> sendCallablePacketWithAsDriverSyncAPIWithNetworkConnector(JsonDocument header, byte[] body, Function<Pair<JsonDocument, byte[]>, R> function) {
+            String id = header.getString(PacketConstants.SYNC_PACKET_ID_PROPERTY);
+            queries.add(id);
+
+            JsonDocument response = new JsonDocument()
+                    .append("serviceInfoSnapshots", Collections.singletonList(remoteService))
+                    .append("serviceInfoSnapshot", remoteService)
+                    .append("servicesCount", 1);
+
+            ListenableTask<R> task = new ListenableTask<>(() -> function.apply(new Pair<>(response, null)));
+
+            //the deferred queries are completed by the test
+            if (!deferQueries) {
+                task.call();
+            }
+
+            return task;
+        }
+    }
+}
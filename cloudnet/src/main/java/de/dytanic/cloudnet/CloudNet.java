@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet;
 
+import de.dytanic.cloudnet.cluster.ClusterNodeInfoSnapshotPublisher;
 import de.dytanic.cloudnet.cluster.DefaultClusterNodeServerProvider;
 import de.dytanic.cloudnet.cluster.IClusterNodeServer;
 import de.dytanic.cloudnet.cluster.IClusterNodeServerProvider;
@@ -10,13 +11,11 @@ import de.dytanic.cloudnet.command.commands.*;
 import de.dytanic.cloudnet.common.Properties;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
-import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.collection.Pair;
 import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ListenableTask;
-import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.common.io.FileUtils;
 import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.common.logging.ILogger;
@@ -29,8 +28,8 @@ import de.dytanic.cloudnet.conf.JsonConfigurationRegistry;
 import de.dytanic.cloudnet.console.IConsole;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
 import de.dytanic.cloudnet.database.DefaultDatabaseHandler;
-import de.dytanic.cloudnet.database.IDatabase;
 import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
+import de.dytanic.cloudnet.database.h2.H2DatabaseReplicator;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.DriverEnvironment;
 import de.dytanic.cloudnet.driver.module.DefaultPersistableModuleDependencyLoader;
@@ -76,11 +75,22 @@ import de.dytanic.cloudnet.provider.*;
 import de.dytanic.cloudnet.provider.service.NodeCloudServiceFactory;
 import de.dytanic.cloudnet.provider.service.NodeGeneralCloudServiceProvider;
 import de.dytanic.cloudnet.provider.service.NodeSpecificCloudServiceProvider;
+import de.dytanic.cloudnet.scheduler.StageScheduler;
 import de.dytanic.cloudnet.service.DefaultCloudServiceManager;
 import de.dytanic.cloudnet.service.ICloudService;
 import de.dytanic.cloudnet.service.ICloudServiceManager;
+import de.dytanic.cloudnet.service.PreparedServicePool;
+import de.dytanic.cloudnet.service.ServiceClassDataArchives;
+import de.dytanic.cloudnet.service.ServiceConsoleLogForwarder;
+import de.dytanic.cloudnet.service.ServiceConsoleLogPump;
+import de.dytanic.cloudnet.service.ServiceInclusionCache;
+import de.dytanic.cloudnet.service.ServiceStartExecutor;
 import de.dytanic.cloudnet.template.ITemplateStorage;
 import de.dytanic.cloudnet.template.LocalTemplateStorage;
+import de.dytanic.cloudnet.template.TemplateStorageUtil;
+import de.dytanic.cloudnet.template.cluster.TemplateBlobStore;
+import de.dytanic.cloudnet.template.cluster.TemplateTransferReceiver;
+import de.dytanic.cloudnet.template.cluster.TemplateTransferSender;
 import de.dytanic.cloudnet.template.install.ServiceVersionProvider;
 
 import java.io.File;
@@ -148,8 +158,43 @@ public final class CloudNet extends CloudNetDriver {
     private ServiceVersionProvider serviceVersionProvider = new ServiceVersionProvider();
 
     private AbstractDatabaseProvider databaseProvider;
+    private H2DatabaseReplicator h2DatabaseReplicator;
     private volatile NetworkClusterNodeInfoSnapshot lastNetworkClusterNodeInfoSnapshot, currentNetworkClusterNodeInfoSnapshot;
 
+    private final ClusterNodeInfoSnapshotPublisher clusterNodeInfoSnapshotPublisher = new ClusterNodeInfoSnapshotPublisher();
+
+    private final ServiceConsoleLogPump serviceConsoleLogPump = new ServiceConsoleLogPump();
+
+    private final ServiceConsoleLogForwarder serviceConsoleLogForwarder = new ServiceConsoleLogForwarder();
+
+    private final PreparedServicePool preparedServicePool = new PreparedServicePool();
+
+    private final ServiceStartExecutor serviceStartExecutor = new ServiceStartExecutor();
+
+    private final StageScheduler stageScheduler = new StageScheduler();
+
+    private final ServiceClassDataArchives serviceClassDataArchives = new ServiceClassDataArchives(
+            Paths.get(System.getProperty("cloudnet.tempDir", "temp"), "caches", "cds")
+    );
+
+    private final ServiceInclusionCache serviceInclusionCache = new ServiceInclusionCache(
+            Paths.get(System.getProperty("cloudnet.tempDir.includes", "temp/includes")),
+            Long.getLong("cloudnet.service.includes.revalidateInterval", 300000),
+            Integer.getInteger("cloudnet.service.includes.threads", 4),
+            System.getProperty("cloudnet.service.includes.linkedFiles", "*.jar")
+    );
+
+    private final TemplateTransferSender templateTransferSender = new TemplateTransferSender();
+
+    private final TemplateTransferReceiver templateTransferReceiver = new TemplateTransferReceiver(
+            Paths.get(System.getProperty("cloudnet.tempDir.transfers", "temp/transfers")),
+            () -> TemplateStorageUtil.getLocalTemplateStorage().getStorageDirectory().toPath(),
+            new TemplateBlobStore(
+                    Paths.get(System.getProperty("cloudnet.storage.blobs", "local/blobs")),
+                    Long.getLong("cloudnet.storage.blobs.maxSize", 1024L * 1024L * 1024L)
+            )
+    );
+
     CloudNet(List<String> commandLineArguments, ILogger logger, IConsole console) {
         super(logger);
         setInstance(this);
@@ -239,6 +284,11 @@ public final class CloudNet extends CloudNetDriver {
             this.databaseProvider.init();
         }
 
+        if (this.databaseProvider instanceof H2DatabaseProvider) {
+            this.h2DatabaseReplicator = new H2DatabaseReplicator((H2DatabaseProvider) this.databaseProvider, this.config.getIdentity().getUniqueId(), this.clusterNodeServerProvider);
+            ((H2DatabaseProvider) this.databaseProvider).setReplicator(this.h2DatabaseReplicator);
+        }
+
         this.permissionManagement = this.servicesRegistry.getService(IPermissionManagement.class, this.configurationRegistry.getString("permission_service", "json_database"));
         this.permissionManagement.setPermissionManagementHandler(new DefaultPermissionManagementHandler());
 
@@ -256,6 +306,7 @@ public final class CloudNet extends CloudNetDriver {
         this.eventManager.callEvent(new CloudNetNodePostInitializationEvent());
 
         this.runConsole();
+        this.scheduleStages();
         this.mainloop();
     }
 
@@ -310,13 +361,27 @@ public final class CloudNet extends CloudNetDriver {
 
         this.logger.info(LanguageManager.getMessage("stop-start-message"));
 
+        this.stageScheduler.close();
+        this.flushPendingPermissionUserUpdates();
+        this.serviceStartExecutor.close();
+        this.preparedServicePool.close();
         this.cloudServiceManager.deleteAllCloudServices();
+        this.serviceConsoleLogPump.close();
+        this.serviceInclusionCache.close();
         this.taskScheduler.shutdown();
 
         this.unloadAll();
         this.unloadAllModules0();
 
         try {
+            if (this.h2DatabaseReplicator != null) {
+                try {
+                    this.h2DatabaseReplicator.close();
+                } catch (Exception exception) {
+                    exception.printStackTrace();
+                }
+            }
+
             if (this.databaseProvider != null) {
                 try {
                     this.databaseProvider.close();
@@ -522,6 +587,28 @@ public final class CloudNet extends CloudNetDriver {
         this.getClusterNodeServerProvider().deployTemplateInCluster(serviceTemplate, resource);
     }
 
+    /**
+     * Streams the template of the local template storage in chunks to all connected nodes of the cluster.
+     * In contrast to {@link #deployTemplateInCluster(ServiceTemplate, byte[])} the template doesn't have to be
+     * packed into memory and an interrupted transfer is resumed.
+     *
+     * @param serviceTemplate the template of the local storage, which should be deployed
+     */
+    public void deployTemplateInCluster(ServiceTemplate serviceTemplate) {
+        Validate.checkNotNull(serviceTemplate);
+
+        try {
+            this.templateTransferSender.transfer(
+                    serviceTemplate,
+                    TemplateStorageUtil.getLocalTemplateStorage().getStorageDirectory().toPath().resolve(serviceTemplate.getTemplatePath()),
+                    this.getClusterNodeServerProvider().getNodeServers(),
+                    true
+            );
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
     public void updateServiceTasksInCluster(Collection<ServiceTask> serviceTasks, NetworkUpdateType updateType) {
         this.getClusterNodeServerProvider().sendPacket(new PacketServerSetServiceTaskList(serviceTasks, updateType));
     }
@@ -577,6 +664,15 @@ public final class CloudNet extends CloudNetDriver {
     }
 
     public NetworkClusterNodeInfoSnapshot createClusterNodeInfoSnapshot() {
+        return this.createClusterNodeInfoSnapshot(true);
+    }
+
+    /**
+     * Creates the snapshot of this node
+     *
+     * @param includeThreads if the snapshots of all threads should be collected, which is only required on demand
+     */
+    public NetworkClusterNodeInfoSnapshot createClusterNodeInfoSnapshot(boolean includeThreads) {
         MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
 
         return new NetworkClusterNodeInfoSnapshot(
@@ -594,7 +690,10 @@ public final class CloudNet extends CloudNetDriver {
                         ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(),
                         ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount(),
                         ManagementFactory.getClassLoadingMXBean().getUnloadedClassCount(),
-                        Iterables.map(Thread.getAllStackTraces().keySet(), thread -> new ThreadSnapshot(thread.getId(), thread.getName(), thread.getState(), thread.isDaemon(), thread.getPriority())),
+                        includeThreads ?
+                                Iterables.map(Thread.getAllStackTraces().keySet(), thread -> new ThreadSnapshot(thread.getId(), thread.getName(), thread.getState(), thread.isDaemon(), thread.getPriority())) :
+                                Collections.emptyList(),
+                        ManagementFactory.getThreadMXBean().getThreadCount(),
                         CPUUsageResolver.getProcessCPUUsage(),
                         this.getOwnPID()
                 ),
@@ -669,47 +768,44 @@ public final class CloudNet extends CloudNetDriver {
 
     public void publishNetworkClusterNodeInfoSnapshotUpdate() {
         this.lastNetworkClusterNodeInfoSnapshot = this.currentNetworkClusterNodeInfoSnapshot;
-        this.currentNetworkClusterNodeInfoSnapshot = this.createClusterNodeInfoSnapshot();
+        this.currentNetworkClusterNodeInfoSnapshot = this.createClusterNodeInfoSnapshot(false);
 
         this.getEventManager().callEvent(new NetworkClusterNodeInfoConfigureEvent(currentNetworkClusterNodeInfoSnapshot));
-        this.sendAll(new PacketServerClusterNodeInfoUpdate(this.currentNetworkClusterNodeInfoSnapshot));
-    }
-
-    public void publishPermissionGroupUpdates(Collection<IPermissionGroup> permissionGroups, NetworkUpdateType updateType) {
-        this.clusterNodeServerProvider.sendPacket(new PacketServerSetPermissionData(permissionGroups, updateType, true));
-    }
-
-    public void publishH2DatabaseDataToCluster(INetworkChannel channel) {
-        if (channel != null) {
-            if (databaseProvider instanceof H2DatabaseProvider) {
-                Map<String, Map<String, JsonDocument>> map = allocateDatabaseData();
 
-                channel.sendPacket(new PacketServerSetH2DatabaseData(map, NetworkUpdateType.ADD));
+        Collection<INetworkChannel> channels = Iterables.newArrayList();
 
-                for (Map.Entry<String, Map<String, JsonDocument>> entry : map.entrySet()) {
-                    entry.getValue().clear();
-                }
+        for (IClusterNodeServer clusterNodeServer : getClusterNodeServerProvider().getNodeServers()) {
+            if (clusterNodeServer.getChannel() != null) {
+                channels.add(clusterNodeServer.getChannel());
+            }
+        }
 
-                map.clear();
+        for (ICloudService cloudService : getCloudServiceManager().getCloudServices().values()) {
+            if (cloudService.getNetworkChannel() != null) {
+                channels.add(cloudService.getNetworkChannel());
             }
         }
+
+        this.clusterNodeInfoSnapshotPublisher.publish(this.currentNetworkClusterNodeInfoSnapshot, channels);
     }
 
-    private Map<String, Map<String, JsonDocument>> allocateDatabaseData() {
-        Map<String, Map<String, JsonDocument>> map = Maps.newHashMap();
+    public void publishPermissionGroupUpdates(Collection<IPermissionGroup> permissionGroups, NetworkUpdateType updateType) {
+        this.clusterNodeServerProvider.sendPacket(new PacketServerSetPermissionData(permissionGroups, updateType, true));
+    }
+
+    /**
+     * Requests the writes into the h2 databases, which this node has missed, from the node of the channel
+     */
+    public void requestH2DatabaseSynchronization(INetworkChannel channel) {
+        if (channel != null && this.h2DatabaseReplicator != null) {
+            IClusterNodeServer clusterNodeServer = this.clusterNodeServerProvider.getNodeServer(channel);
 
-        for (String name : databaseProvider.getDatabaseNames()) {
-            if (!map.containsKey(name)) {
-                map.put(name, Maps.newHashMap());
+            if (clusterNodeServer != null) {
+                this.h2DatabaseReplicator.requestSynchronization(channel, clusterNodeServer.getNodeInfo().getUniqueId());
             }
-            IDatabase database = databaseProvider.getDatabase(name);
-            map.get(name).putAll(database.entries());
         }
-
-        return map;
     }
 
-
     private void initPacketRegistryListeners() {
         // Packet client registry
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_AUTHORIZATION_CHANNEL, new PacketServerAuthorizationResponseListener());
@@ -723,9 +819,12 @@ public final class CloudNet extends CloudNetDriver {
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerSetServiceTaskListListener());
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerDeployLocalTemplateListener());
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerClusterNodeInfoUpdateListener());
+        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketClientClusterNodeInfoSnapshotRequestListener());
+        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerConsoleLogEntryReceiveListener());
+        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerConsoleLogSubscriptionListener());
+        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new PacketServerTemplateTransferListener());
 
-        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new PacketServerH2DatabaseListener());
-        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new PacketServerSetH2DatabaseDataListener());
+        this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new PacketServerH2DatabaseReplicationListener());
 
         // Node server API
         this.getNetworkClient().getPacketRegistry().addListener(PacketConstants.INTERNAL_CALLABLE_CHANNEL, new PacketClientCallablePacketReceiveListener());
@@ -737,10 +836,30 @@ public final class CloudNet extends CloudNetDriver {
         this.getNetworkServer().getPacketRegistry().addListener(PacketConstants.INTERNAL_AUTHORIZATION_CHANNEL, new PacketClientAuthorizationListener());
     }
 
+    /**
+     * Schedules the periodic work of the node as independent stages, so that a slow step like the launch of the
+     * services doesn't delay the stop of dead services or the node updates for the cluster
+     */
+    private void scheduleStages() {
+        this.stageScheduler.schedule("launchServices", 1000, this::launchServices);
+        this.stageScheduler.schedule("stopDeadServices", 1000 / TPS, this::stopDeadServices);
+        this.stageScheduler.schedule("nodeUpdate", 1000, this::sendNodeUpdate);
+        this.stageScheduler.schedule("permissionUserUpdates", 5000, this::flushPendingPermissionUserUpdates);
+    }
+
+    private void flushPendingPermissionUserUpdates() {
+        if (this.permissionManagement instanceof DefaultDatabasePermissionManagement) {
+            ((DefaultDatabasePermissionManagement) this.permissionManagement).flushPendingUserUpdates();
+        }
+    }
+
+    /**
+     * Runs the tasks of the processQueue and calls the CloudNetTickEvent with a fixed rate of {@link #TPS} ticks per
+     * second. The periodic work of the node itself runs in the stages of the StageScheduler.
+     */
     private void mainloop() {
         long value = System.currentTimeMillis();
         long millis = 1000 / TPS;
-        int start1Tick = 0, start3Tick = 0 / 2;
 
         while (RUNNING) {
             try {
@@ -763,20 +882,6 @@ public final class CloudNet extends CloudNetDriver {
                     }
                 }
 
-                if (start1Tick++ >= TPS) {
-                    this.launchServices();
-                    start1Tick = 0;
-                }
-
-                this.stopDeadServices();
-
-                if (start3Tick++ >= TPS) {
-                    this.sendNodeUpdate();
-                    start3Tick = 0;
-                }
-
-                this.updateServiceLogs();
-
                 eventManager.callEvent(new CloudNetTickEvent());
 
             } catch (Exception exception) {
@@ -786,31 +891,27 @@ public final class CloudNet extends CloudNetDriver {
     }
 
     private void launchServices() {
+        this.preparedServicePool.fill(this.cloudServiceManager, this.getConfig().getIdentity().getUniqueId());
+
         for (ServiceTask serviceTask : cloudServiceManager.getServiceTasks()) {
             if (serviceTask.canStartServices()) {
 
-                Collection<ServiceInfoSnapshot> taskServices = this.getCloudServiceProvider().getCloudServices(serviceTask.getName());
+                Collection<ServiceInfoSnapshot> taskServices = this.cloudServiceManager.getServiceInfoSnapshots(serviceTask.getName());
 
-                long runningTaskServices = taskServices.stream()
-                        .filter(taskService -> taskService.getLifeCycle() == ServiceLifeCycle.RUNNING)
-                        .count();
+                // the services which are currently started by the ServiceStartExecutor are counted as running
+                long runningTaskServices = this.cloudServiceManager.getServiceInfoSnapshotsByLifeCycle(serviceTask.getName(), ServiceLifeCycle.RUNNING).size()
+                        + this.serviceStartExecutor.getPendingCount(serviceTask.getName());
 
                 if ((serviceTask.getAssociatedNodes().isEmpty() || (serviceTask.getAssociatedNodes().contains(getConfig().getIdentity().getUniqueId()))) &&
                         serviceTask.getMinServiceCount() > runningTaskServices) {
 
                     // there are still less running services of this task than the specified minServiceCount, so looking for a local service which isn't started yet
-                    Optional<ICloudService> nonStartedServiceOptional = this.getCloudServiceManager().getLocalCloudServices(serviceTask.getName())
-                            .stream()
-                            .filter(cloudService -> cloudService.getLifeCycle() == ServiceLifeCycle.DEFINED
-                                    || cloudService.getLifeCycle() == ServiceLifeCycle.PREPARED)
-                            .findFirst();
-
-                    if (nonStartedServiceOptional.isPresent()) {
-                        try {
-                            nonStartedServiceOptional.get().start();
-                        } catch (Exception exception) {
-                            exception.printStackTrace();
-                        }
+                    // and preferring the services, whose templates and inclusions are already prepared
+                    ICloudService nonStartedService = this.preparedServicePool.getFreeNonStartedService(
+                            this.cloudServiceManager, serviceTask.getName(), cloudService -> !this.serviceStartExecutor.isPending(cloudService));
+
+                    if (nonStartedService != null) {
+                        this.serviceStartExecutor.submit(nonStartedService);
                     } else if (serviceTask.getMinServiceCount() > taskServices.size() && this.competeWithCluster(serviceTask)) {
                         // There is no local existing service to start and there are less services existing of this task
                         // than the specified minServiceCount, so starting a new service, because this is the best node to do so
@@ -818,11 +919,7 @@ public final class CloudNet extends CloudNetDriver {
                         ICloudService cloudService = cloudServiceManager.runTask(serviceTask);
 
                         if (cloudService != null) {
-                            try {
-                                cloudService.start();
-                            } catch (Exception exception) {
-                                exception.printStackTrace();
-                            }
+                            this.serviceStartExecutor.submit(cloudService);
                         }
                     }
                 }
@@ -842,12 +939,6 @@ public final class CloudNet extends CloudNetDriver {
         this.publishNetworkClusterNodeInfoSnapshotUpdate();
     }
 
-    private void updateServiceLogs() {
-        for (ICloudService cloudService : cloudServiceManager.getCloudServices().values()) {
-            cloudService.getServiceConsoleLogCache().update();
-        }
-    }
-
     private void unloadAll() {
         this.unloadModules();
     }
@@ -1017,6 +1108,46 @@ public final class CloudNet extends CloudNetDriver {
         return this.cloudServiceManager;
     }
 
+    public ServiceConsoleLogPump getServiceConsoleLogPump() {
+        return this.serviceConsoleLogPump;
+    }
+
+    public ServiceConsoleLogForwarder getServiceConsoleLogForwarder() {
+        return this.serviceConsoleLogForwarder;
+    }
+
+    public PreparedServicePool getPreparedServicePool() {
+        return this.preparedServicePool;
+    }
+
+    public ClusterNodeInfoSnapshotPublisher getClusterNodeInfoSnapshotPublisher() {
+        return this.clusterNodeInfoSnapshotPublisher;
+    }
+
+    public ServiceClassDataArchives getServiceClassDataArchives() {
+        return this.serviceClassDataArchives;
+    }
+
+    public ServiceStartExecutor getServiceStartExecutor() {
+        return this.serviceStartExecutor;
+    }
+
+    public StageScheduler getStageScheduler() {
+        return this.stageScheduler;
+    }
+
+    public ServiceInclusionCache getServiceInclusionCache() {
+        return this.serviceInclusionCache;
+    }
+
+    public TemplateTransferSender getTemplateTransferSender() {
+        return this.templateTransferSender;
+    }
+
+    public TemplateTransferReceiver getTemplateTransferReceiver() {
+        return this.templateTransferReceiver;
+    }
+
     public IClusterNodeServerProvider getClusterNodeServerProvider() {
         return this.clusterNodeServerProvider;
     }
@@ -1065,6 +1196,13 @@ public final class CloudNet extends CloudNetDriver {
         return this.databaseProvider;
     }
 
+    /**
+     * @return the replicator of the h2 databases or null, if the node doesn't use the h2 database provider
+     */
+    public H2DatabaseReplicator getH2DatabaseReplicator() {
+        return this.h2DatabaseReplicator;
+    }
+
     public NetworkClusterNodeInfoSnapshot getLastNetworkClusterNodeInfoSnapshot() {
         return this.lastNetworkClusterNodeInfoSnapshot;
     }
@@ -9,6 +9,8 @@ import de.dytanic.cloudnet.console.log.ColouredLogFormatter;
 import de.dytanic.cloudnet.console.util.HeaderReader;
 
 import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 public final class Main {
@@ -42,8 +44,9 @@ public final class Main {
             logger.addLogHandler(logHandler);
         }
 
-        System.setOut(new AsyncPrintStream(new LogOutputStream(logger, LogLevel.INFO)));
-        System.setErr(new AsyncPrintStream(new LogOutputStream(logger, LogLevel.ERROR)));
+        //the logger handles the entries asynchronously already, so the print streams don't need another queue
+        System.setOut(new PrintStream(new LogOutputStream(logger, LogLevel.INFO), true, StandardCharsets.UTF_8.name()));
+        System.setErr(new PrintStream(new LogOutputStream(logger, LogLevel.ERROR), true, StandardCharsets.UTF_8.name()));
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
@@ -0,0 +1,68 @@
+package de.dytanic.cloudnet.cluster;
+
+import com.google.gson.JsonObject;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshotDelta;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.network.packet.PacketServerClusterNodeInfoUpdate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Publishes the snapshots of one node. Every channel receives the full snapshot once, after that only the changed
+ * values of the snapshot are sent. The full snapshot is sent again to all channels, if a static part like the
+ * version or the extensions has been changed. A delta contains the creation time of the snapshot, on which it is
+ * based, so that a receiver, which doesn't know that snapshot, can request the full snapshot with
+ * {@link #publishSnapshot(INetworkChannel)}.
+ */
+public final class ClusterNodeInfoSnapshotPublisher {
+
+    private final Set<INetworkChannel> initializedChannels = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private JsonObject lastSnapshot;
+
+    public synchronized void publish(NetworkClusterNodeInfoSnapshot snapshot, Collection<INetworkChannel> channels) {
+        JsonObject currentSnapshot = JsonDocument.GSON.toJsonTree(snapshot).getAsJsonObject();
+        JsonObject delta = this.lastSnapshot != null ? NetworkClusterNodeInfoSnapshotDelta.createDelta(this.lastSnapshot, currentSnapshot) : null;
+        long baseCreationTime = this.lastSnapshot != null ? this.lastSnapshot.get("creationTime").getAsLong() : 0;
+
+        if (delta == null || NetworkClusterNodeInfoSnapshotDelta.isStaticChange(delta)) {
+            this.initializedChannels.clear();
+        }
+
+        this.lastSnapshot = currentSnapshot;
+
+        IPacket snapshotPacket = null, deltaPacket = null;
+
+        for (INetworkChannel channel : channels) {
+            if (this.initializedChannels.add(channel)) {
+                if (snapshotPacket == null) {
+                    snapshotPacket = new PacketServerClusterNodeInfoUpdate(currentSnapshot);
+                }
+
+                channel.sendPacket(snapshotPacket);
+            } else {
+                if (deltaPacket == null) {
+                    deltaPacket = new PacketServerClusterNodeInfoUpdate(snapshot.getNode().getUniqueId(), baseCreationTime, delta);
+                }
+
+                channel.sendPacket(deltaPacket);
+            }
+        }
+    }
+
+    /**
+     * Sends the last published snapshot completely to the channel, the following publications are sent as deltas again
+     */
+    public synchronized void publishSnapshot(INetworkChannel channel) {
+        if (this.lastSnapshot != null) {
+            channel.sendPacket(new PacketServerClusterNodeInfoUpdate(this.lastSnapshot));
+            this.initializedChannels.add(channel);
+        }
+    }
+}
@@ -64,7 +64,7 @@ public final class CommandCluster extends CommandDefault implements ITabComplete
                     ServiceTemplate serviceTemplate = ServiceTemplate.parse(args[2]);
 
                     if (serviceTemplate != null && storage.has(serviceTemplate)) {
-                        this.pushLocalTemplate(sender, storage, serviceTemplate);
+                        this.pushLocalTemplate(sender, serviceTemplate);
                     }
                     return;
                 }
@@ -128,24 +128,20 @@ public final class CommandCluster extends CommandDefault implements ITabComplete
         }
     }
 
-    private void pushLocalTemplate(ICommandSender sender, ITemplateStorage storage, ServiceTemplate serviceTemplate) {
-        byte[] bytes = storage.toZipByteArray(serviceTemplate);
+    private void pushLocalTemplate(ICommandSender sender, ServiceTemplate serviceTemplate) {
+        getCloudNet().deployTemplateInCluster(serviceTemplate);
 
-        if (bytes != null) {
-            getCloudNet().deployTemplateInCluster(serviceTemplate, bytes);
-
-            sender.sendMessage(
-                    LanguageManager.getMessage("command-cluster-push-templates-from-local-success")
-                            .replace("%template%", serviceTemplate.getStorage() + ":" + serviceTemplate.getTemplatePath())
-            );
-        }
+        sender.sendMessage(
+                LanguageManager.getMessage("command-cluster-push-templates-from-local-success")
+                        .replace("%template%", serviceTemplate.getStorage() + ":" + serviceTemplate.getTemplatePath())
+        );
     }
 
     private void pushLocalTemplates(ICommandSender sender) {
         ITemplateStorage storage = CloudNetDriver.getInstance().getServicesRegistry().getService(ITemplateStorage.class, LocalTemplateStorage.LOCAL_TEMPLATE_STORAGE);
 
         for (ServiceTemplate serviceTemplate : storage.getTemplates()) {
-            this.pushLocalTemplate(sender, storage, serviceTemplate);
+            this.pushLocalTemplate(sender, serviceTemplate);
         }
     }
 
@@ -192,7 +188,7 @@ public final class CommandCluster extends CommandDefault implements ITabComplete
                     " ",
                     "CPU usage process: " + CPUUsageResolver.CPU_USAGE_OUTPUT_FORMAT.format(node.getNodeInfoSnapshot().getProcessSnapshot().getCpuUsage()) + "%",
                     "CPU usage system: " + CPUUsageResolver.CPU_USAGE_OUTPUT_FORMAT.format(node.getNodeInfoSnapshot().getSystemCpuUsage()) + "%",
-                    "Threads: " + node.getNodeInfoSnapshot().getProcessSnapshot().getThreads().size(),
+                    "Threads: " + node.getNodeInfoSnapshot().getProcessSnapshot().getThreadCount(),
                     "Heap usage: " + (node.getNodeInfoSnapshot().getProcessSnapshot().getHeapUsageMemory() / 1048576) + "/" +
                             (node.getNodeInfoSnapshot().getProcessSnapshot().getMaxHeapMemory() / 1048576) + "MB",
                     "Loaded classes: " + node.getNodeInfoSnapshot().getProcessSnapshot().getCurrentLoadedClassCount(),
@@ -4,6 +4,9 @@ import de.dytanic.cloudnet.command.ICommandSender;
 import de.dytanic.cloudnet.common.Properties;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.unsafe.CPUUsageResolver;
+import de.dytanic.cloudnet.permission.DefaultDatabasePermissionManagement;
+import de.dytanic.cloudnet.permission.PermissionUserCache;
+import de.dytanic.cloudnet.scheduler.ScheduledStage;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
@@ -40,8 +43,27 @@ public final class CommandMe extends CommandDefault {
                 "Loaded classes: " + ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(),
                 "Unloaded classes: " + ManagementFactory.getClassLoadingMXBean().getUnloadedClassCount(),
                 "Total loaded classes: " + ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount(),
-                " "
+                " ",
+                "Pending service starts: " + getCloudNet().getServiceStartExecutor().getPendingCount(),
+                "Stages: (avg/max/last)"
         ));
+
+        for (ScheduledStage stage : getCloudNet().getStageScheduler().getStages()) {
+            messages.add("- " + stage.getName() + ": " + String.format("%.2f/%.2f/%.2fms", stage.getAverageMillis(), stage.getMaxMillis(), stage.getLastMillis())
+                    + " | Runs: " + stage.getRuns() + " | Overruns: " + stage.getOverruns() + " | Failures: " + stage.getFailures());
+        }
+
+        if (getCloudNet().getPermissionManagement() instanceof DefaultDatabasePermissionManagement) {
+            DefaultDatabasePermissionManagement permissionManagement = (DefaultDatabasePermissionManagement) getCloudNet().getPermissionManagement();
+            PermissionUserCache userCache = permissionManagement.getUserCache();
+
+            messages.add("Permission user cache: " + userCache.size() + "/" + userCache.getMaxSize()
+                    + " | Hits: " + userCache.getHits() + " | Misses: " + userCache.getMisses()
+                    + " | Hit rate: " + String.format("%.1f%%", userCache.getHitRate() * 100)
+                    + " | Evictions: " + userCache.getEvictions()
+                    + " | Pending updates: " + permissionManagement.getPendingUserUpdatesCount());
+        }
+
         messages.add(" ");
         sender.sendMessage(messages.toArray(new String[0]));
     }
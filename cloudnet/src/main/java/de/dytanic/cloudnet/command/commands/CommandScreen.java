@@ -10,6 +10,7 @@ import de.dytanic.cloudnet.common.logging.LogLevel;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
 import de.dytanic.cloudnet.service.ICloudService;
+import de.dytanic.cloudnet.service.ServiceConsoleLogForwarder;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -25,7 +26,7 @@ public final class CommandScreen extends CommandDefault implements ITabCompleter
     public void execute(ICommandSender sender, String command, String[] args, String commandLine, Properties properties) {
         if (args.length == 0) {
             sender.sendMessage(
-                    "screen <local service uniqueId | name> | toggling",
+                    "screen <service uniqueId | name> | toggling",
                     "screen write <command>"
             );
         } else if (args.length == 1) {
@@ -60,6 +61,17 @@ public final class CommandScreen extends CommandDefault implements ITabCompleter
                             );
                         }
                     }
+                } else if (sender instanceof ConsoleCommandSender) {
+                    //the service is running on another node, which sends the output only while this node has subscribed it
+                    ServiceConsoleLogForwarder logForwarder = super.getCloudNet().getServiceConsoleLogForwarder();
+
+                    boolean enabled = !logForwarder.isScreenEnabled(serviceInfoSnapshot.getServiceId().getUniqueId());
+                    logForwarder.setScreenEnabled(serviceInfoSnapshot, enabled);
+
+                    sender.sendMessage(LanguageManager.getMessage(enabled ? "command-screen-enable-for-service" : "command-screen-disable-for-service")
+                            .replace("%name%", serviceInfoSnapshot.getServiceId().getName())
+                            .replace("%uniqueId%", serviceInfoSnapshot.getServiceId().getUniqueId().toString().split("-")[0])
+                    );
                 }
             }
         } else {
@@ -62,6 +62,7 @@ public final class CommandTasks extends CommandDefault implements ITabCompleter
                     "tasks task <name> set static <true : false>",
                     "tasks task <name> set startPort <port>",
                     "tasks task <name> set minServiceCount <number>",
+                    "tasks task <name> set preparedServiceCount <number>",
                     "tasks task <name> set env <" + Arrays.toString(ServiceEnvironmentType.values()) + ">",
                     "tasks task <name> add group <name>",
                     "tasks task <name> remove group <name>",
@@ -253,6 +254,15 @@ public final class CommandTasks extends CommandDefault implements ITabCompleter
                                     this.sendMessage0(sender, serviceTask.getName(), "minServiceCount", serviceTask.getMinServiceCount());
                                 }
                                 break;
+                            case "preparedservicecount":
+                                if (Validate.testStringParseToInt(args[4])) {
+                                    int value = Integer.parseInt(args[4]);
+
+                                    serviceTask.setPreparedServiceCount(value);
+                                    this.updateServiceTask(serviceTask);
+                                    this.sendMessage0(sender, serviceTask.getName(), "preparedServiceCount", serviceTask.getPreparedServiceCount());
+                                }
+                                break;
                             case "maintenance":
                                 serviceTask.setMaintenance(args[4].equalsIgnoreCase("true"));
                                 this.updateServiceTask(serviceTask);
@@ -510,6 +520,7 @@ public final class CommandTasks extends CommandDefault implements ITabCompleter
                 " ",
                 "* Name: " + serviceTask.getName(),
                 "* Minimal Services: " + serviceTask.getMinServiceCount(),
+                "* Prepared Services: " + serviceTask.getPreparedServiceCount(),
                 "* Associated nodes: " + serviceTask.getAssociatedNodes().toString(),
                 "* Groups: " + serviceTask.getGroups().toString(),
                 "* Start Port: " + serviceTask.getStartPort(),
@@ -667,7 +678,7 @@ public final class CommandTasks extends CommandDefault implements ITabCompleter
             }
             if (args[0].equalsIgnoreCase("task")) {
                 if (args[2].equalsIgnoreCase("set")) {
-                    return Arrays.asList("maxHeapMemory", "maintenance", "autoDeleteOnStop", "static", "startPort", "minServiceCount", "env");
+                    return Arrays.asList("maxHeapMemory", "maintenance", "autoDeleteOnStop", "static", "startPort", "minServiceCount", "preparedServiceCount", "env");
                 }
                 if (args[2].equalsIgnoreCase("add")) {
                     return Arrays.asList("group", "node", "inclusion", "template", "deployment");
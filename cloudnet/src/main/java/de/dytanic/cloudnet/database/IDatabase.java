@@ -42,6 +42,18 @@ public interface IDatabase extends INameable, AutoCloseable {
 
     long getDocumentsCount();
 
+    /**
+     * Declares an index on a top level field of the documents. The index is stored with the database and used
+     * by {@link #get(String, Object)} and {@link #get(JsonDocument)} instead of comparing the whole documents.
+     * The existing documents are indexed once, if the field wasn't declared before
+     *
+     * @param fieldName the name of the field in the documents
+     * @return true if the index exists or has been created successfully
+     */
+    boolean createIndex(String fieldName);
+
+    Collection<String> getIndexedFields();
+
 
     ITask<Boolean> insertAsync(String key, JsonDocument document);
 
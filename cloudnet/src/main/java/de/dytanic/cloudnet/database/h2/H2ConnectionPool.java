@@ -0,0 +1,220 @@
+package de.dytanic.cloudnet.database.h2;
+
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed pool of connections to an embedded h2 database. Every connection caches the prepared statements of the
+ * data queries, so that the same query shapes of the SQLDatabase don't have to be parsed again on every call.
+ * <p>
+ * A connection is bound to the thread, which has taken it, until its outermost call is finished. A nested call of
+ * the same thread, like a query in the callback of another query, reuses this connection instead of waiting for a
+ * second one, which would never become idle with a pool of one connection.
+ */
+final class H2ConnectionPool implements AutoCloseable {
+
+    private static final int MAX_CACHED_STATEMENTS = 128;
+
+    private static final long CONNECTION_TIMEOUT = Long.getLong("cloudnet.database.h2.connectionTimeout", 30000);
+
+    private final Collection<PooledConnection> connections = Iterables.newArrayList();
+
+    private final BlockingQueue<PooledConnection> idleConnections;
+
+    private final ThreadLocal<PooledConnection> heldConnection = new ThreadLocal<>();
+
+    H2ConnectionPool(String url, int poolSize) throws SQLException {
+        this.idleConnections = new ArrayBlockingQueue<>(poolSize);
+
+        for (int i = 0; i < poolSize; i++) {
+            PooledConnection connection = new PooledConnection(DriverManager.getConnection(url));
+
+            this.connections.add(connection);
+            this.idleConnections.offer(connection);
+        }
+    }
+
+    /**
+     * Executes the callback with the prepared statement of the given query on an idle connection of the pool.
+     * The statement must not be closed by the callback, it's cached for the next executions of the query.
+     *
+     * @throws SQLException if no connection became idle within the connection timeout
+     */
+    <T> T execute(String query, Object[] objects, IThrowableCallback<PreparedStatement, T> callback) throws Throwable {
+        return this.withConnection(connection -> connection.execute(query, objects, callback));
+    }
+
+    /**
+     * Executes the transaction on one connection, the executions of the thread within the transaction are committed
+     * together, if the transaction returns true. Otherwise they are rolled back. A transaction within another
+     * transaction of the same thread is a part of the outer transaction, which decides about the commit.
+     *
+     * @return if the transaction has been committed
+     */
+    boolean executeTransaction(Callable<Boolean> transaction) throws Throwable {
+        return this.withConnection(pooledConnection -> {
+            Connection connection = pooledConnection.connection;
+
+            if (!connection.getAutoCommit()) {
+                return transaction.call();
+            }
+
+            boolean success = false;
+            connection.setAutoCommit(false);
+
+            try {
+                success = transaction.call();
+            } finally {
+                try {
+                    if (success) {
+                        connection.commit();
+                    } else {
+                        connection.rollback();
+                    }
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+
+            return success;
+        });
+    }
+
+    private <T> T withConnection(IThrowableCallback<PooledConnection, T> callback) throws Throwable {
+        PooledConnection connection = this.heldConnection.get();
+
+        if (connection != null) {
+            return callback.call(connection);
+        }
+
+        try {
+            connection = this.idleConnections.poll(CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", exception);
+        }
+
+        if (connection == null) {
+            throw new SQLException("Timed out after " + CONNECTION_TIMEOUT + "ms while waiting for one of " + this.connections.size() + " connections");
+        }
+
+        this.heldConnection.set(connection);
+
+        try {
+            return callback.call(connection);
+        } finally {
+            this.heldConnection.remove();
+            this.idleConnections.offer(connection);
+        }
+    }
+
+    int getSize() {
+        return this.connections.size();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (PooledConnection connection : this.connections) {
+            connection.connection.close();
+        }
+
+        this.connections.clear();
+        this.idleConnections.clear();
+    }
+
+    private static boolean isCacheableQuery(String query) {
+        String command = query.trim();
+        command = command.substring(0, Math.min(command.length(), 6)).toUpperCase();
+
+        return command.equals("SELECT") || command.equals("INSERT") || command.equals("UPDATE") || command.equals("DELETE");
+    }
+
+    private static final class PooledConnection {
+
+        private final Connection connection;
+
+        private final Map<String, PreparedStatement> cachedStatements = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (this.size() > MAX_CACHED_STATEMENTS && !PooledConnection.this.usedQueries.contains(eldest.getKey())) {
+                    closeStatement(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        //the cached statements, which are executed by an outer call of the thread of this connection
+        private final Set<String> usedQueries = new HashSet<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        private <T> T execute(String query, Object[] objects, IThrowableCallback<PreparedStatement, T> callback) throws Throwable {
+            //a nested call of the same query would reset the result of the outer call on the shared statement
+            if (!isCacheableQuery(query) || this.usedQueries.contains(query)) {
+                try (PreparedStatement preparedStatement = this.connection.prepareStatement(query)) {
+                    setParameters(preparedStatement, objects);
+                    return callback.call(preparedStatement);
+                }
+            }
+
+            PreparedStatement preparedStatement = this.cachedStatements.get(query);
+
+            if (preparedStatement == null) {
+                preparedStatement = this.connection.prepareStatement(query);
+                this.cachedStatements.put(query, preparedStatement);
+            } else {
+                preparedStatement.clearParameters();
+            }
+
+            this.usedQueries.add(query);
+
+            try {
+                setParameters(preparedStatement, objects);
+                return callback.call(preparedStatement);
+            } catch (Throwable throwable) {
+                if (this.cachedStatements.get(query) == preparedStatement) {
+                    this.cachedStatements.remove(query);
+                }
+
+                closeStatement(preparedStatement);
+
+                throw throwable;
+            } finally {
+                this.usedQueries.remove(query);
+            }
+        }
+
+        private static void setParameters(PreparedStatement preparedStatement, Object[] objects) throws SQLException {
+            int i = 1;
+            for (Object object : objects) {
+                preparedStatement.setString(i++, object.toString());
+            }
+        }
+
+        private static void closeStatement(PreparedStatement preparedStatement) {
+            try {
+                preparedStatement.close();
+            } catch (SQLException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+}
@@ -1,9 +1,87 @@
 package de.dytanic.cloudnet.database.h2;
 
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.sql.SQLDatabase;
 
 public final class H2Database extends SQLDatabase {
+
     public H2Database(H2DatabaseProvider databaseProvider, String name) {
         super(databaseProvider, name);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean insert(String key, JsonDocument document) {
+        H2DatabaseReplicator replicator = this.getReplicator();
+
+        if (replicator == null) {
+            return super.insert(key, document);
+        }
+
+        synchronized (replicator.getLock(this.name)) {
+            boolean success = super.insert(key, document);
+
+            if (success) {
+                replicator.record(this.name, H2DatabaseOperation.OperationType.INSERT, key, document);
+            }
+
+            return success;
+        }
+    }
+
+    @Override
+    public boolean update(String key, JsonDocument document) {
+        H2DatabaseReplicator replicator = this.getReplicator();
+
+        if (replicator == null) {
+            return super.update(key, document);
+        }
+
+        synchronized (replicator.getLock(this.name)) {
+            boolean success = super.update(key, document);
+
+            if (success) {
+                replicator.record(this.name, H2DatabaseOperation.OperationType.UPDATE, key, document);
+            }
+
+            return success;
+        }
+    }
+
+    @Override
+    public boolean delete(String key) {
+        H2DatabaseReplicator replicator = this.getReplicator();
+
+        if (replicator == null) {
+            return super.delete(key);
+        }
+
+        synchronized (replicator.getLock(this.name)) {
+            boolean success = super.delete(key);
+
+            if (success) {
+                replicator.record(this.name, H2DatabaseOperation.OperationType.DELETE, key, null);
+            }
+
+            return success;
+        }
+    }
+
+    @Override
+    public void clear() {
+        H2DatabaseReplicator replicator = this.getReplicator();
+
+        if (replicator == null) {
+            super.clear();
+            return;
+        }
+
+        synchronized (replicator.getLock(this.name)) {
+            super.clear();
+            replicator.record(this.name, H2DatabaseOperation.OperationType.CLEAR, null, null);
+        }
+    }
+
+    private H2DatabaseReplicator getReplicator() {
+        return ((H2DatabaseProvider) this.databaseProvider).getReplicator();
+    }
+}
@@ -0,0 +1,62 @@
+package de.dytanic.cloudnet.database.h2;
+
+import com.google.gson.reflect.TypeToken;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * A write into a h2 database of this node, which is replicated to the other nodes of the cluster.
+ * The sequence numbers of the operations of a database are continuous for the epoch of the {@link H2OperationLog}.
+ */
+public final class H2DatabaseOperation {
+
+    public static final Type LIST_TYPE = new TypeToken<List<H2DatabaseOperation>>() {
+    }.getType();
+
+    private final String database;
+
+    private final long sequence;
+
+    private final OperationType type;
+
+    private final String key;
+
+    private final JsonDocument document;
+
+    public H2DatabaseOperation(String database, long sequence, OperationType type, String key, JsonDocument document) {
+        this.database = database;
+        this.sequence = sequence;
+        this.type = type;
+        this.key = key;
+        this.document = document;
+    }
+
+    public String getDatabase() {
+        return this.database;
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public OperationType getType() {
+        return this.type;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public JsonDocument getDocument() {
+        return this.document;
+    }
+
+    public enum OperationType {
+        INSERT,
+        UPDATE,
+        DELETE,
+        CLEAR
+    }
+}
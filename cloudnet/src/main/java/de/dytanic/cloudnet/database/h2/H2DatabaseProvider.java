@@ -8,6 +8,7 @@ import de.dytanic.cloudnet.common.concurrent.DefaultTaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.ITaskScheduler;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.language.LanguageManager;
+import de.dytanic.cloudnet.database.sql.SQLDatabase;
 import de.dytanic.cloudnet.database.sql.SQLDatabaseProvider;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import org.h2.Driver;
@@ -16,11 +17,18 @@ import java.io.File;
 import java.sql.*;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 public final class H2DatabaseProvider extends SQLDatabaseProvider {
 
     private static final long NEW_CREATION_DELAY = 600000;
 
+    /**
+     * The count of the pooled connections, which are executing the queries of the databases concurrently.
+     * A pool size of 1 uses a single connection like before, without the multi threaded mode of h2
+     */
+    public static final int DEFAULT_POOL_SIZE = Math.max(1, Integer.getInteger("cloudnet.database.h2.poolSize", Math.min(Runtime.getRuntime().availableProcessors(), 8)));
+
     static {
         Driver.load();
     }
@@ -30,13 +38,20 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
     protected final boolean autoShutdownTaskScheduler;
     protected final File h2dbFile;
     protected final boolean runsInCluster;
+    protected final int poolSize;
     protected Connection connection;
+    protected H2ConnectionPool connectionPool;
+    protected volatile H2DatabaseReplicator replicator;
 
     public H2DatabaseProvider(String h2File, boolean runsInCluster) {
         this(h2File, runsInCluster, null);
     }
 
     public H2DatabaseProvider(String h2File, boolean runsInCluster, ITaskScheduler taskScheduler) {
+        this(h2File, runsInCluster, taskScheduler, DEFAULT_POOL_SIZE);
+    }
+
+    public H2DatabaseProvider(String h2File, boolean runsInCluster, ITaskScheduler taskScheduler, int poolSize) {
         if (taskScheduler != null) {
             this.taskScheduler = taskScheduler;
             this.autoShutdownTaskScheduler = false;
@@ -47,12 +62,17 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
 
         this.h2dbFile = new File(h2File);
         this.runsInCluster = runsInCluster;
+        this.poolSize = Math.max(1, poolSize);
     }
 
     @Override
     public boolean init() throws Exception {
         this.h2dbFile.getParentFile().mkdirs();
-        this.connection = DriverManager.getConnection("jdbc:h2:" + this.h2dbFile.getAbsolutePath());
+
+        String url = "jdbc:h2:" + this.h2dbFile.getAbsolutePath() + (this.poolSize > 1 ? ";MULTI_THREADED=TRUE" : "");
+
+        this.connection = DriverManager.getConnection(url);
+        this.connectionPool = new H2ConnectionPool(url, this.poolSize);
 
         if (this.runsInCluster) {
             CloudNetDriver.getInstance().getLogger().warning("============================================");
@@ -101,13 +121,9 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
 
         this.cachedDatabaseInstances.remove(name);
 
-        try (PreparedStatement preparedStatement = this.connection.prepareStatement("DROP TABLE " + name)) {
-            return preparedStatement.executeUpdate() != -1;
-        } catch (SQLException exception) {
-            exception.printStackTrace();
-        }
+        this.executeUpdate("DROP TABLE IF EXISTS " + name + SQLDatabase.INDEX_TABLE_SUFFIX);
 
-        return false;
+        return this.executeUpdate("DROP TABLE " + name) != -1;
     }
 
     @Override
@@ -117,7 +133,11 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
                 resultSet -> {
                     Collection<String> collection = Iterables.newArrayList();
                     while (resultSet.next()) {
-                        collection.add(resultSet.getString("table_name"));
+                        String tableName = resultSet.getString("table_name");
+
+                        if (!this.isIndexTable(tableName)) {
+                            collection.add(tableName);
+                        }
                     }
 
                     return collection;
@@ -136,6 +156,10 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
             this.taskScheduler.shutdown();
         }
 
+        if (this.connectionPool != null) {
+            this.connectionPool.close();
+        }
+
         if (this.connection != null) {
             this.connection.close();
         }
@@ -149,28 +173,53 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
         }
     }
 
+    /**
+     * @return the connection, which isn't part of the pool of this provider. It's shared and must not be closed
+     */
     @Override
     public Connection getConnection() {
         return this.connection;
     }
 
+    /**
+     * @return the replicator, which records the writes into the databases for the other nodes or null, if the writes aren't replicated
+     */
+    public H2DatabaseReplicator getReplicator() {
+        return this.replicator;
+    }
+
+    public void setReplicator(H2DatabaseReplicator replicator) {
+        this.replicator = replicator;
+    }
+
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
     public int executeUpdate(String query, Object... objects) {
         Validate.checkNotNull(query);
         Validate.checkNotNull(objects);
 
-        try (PreparedStatement preparedStatement = this.getConnection().prepareStatement(query)) {
-            int i = 1;
-            for (Object object : objects) {
-                preparedStatement.setString(i++, object.toString());
-            }
+        try {
+            return this.connectionPool.execute(query, objects, PreparedStatement::executeUpdate);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        }
 
-            return preparedStatement.executeUpdate();
+        return -1;
+    }
+
+    @Override
+    public boolean executeTransaction(Callable<Boolean> transaction) {
+        Validate.checkNotNull(transaction);
 
-        } catch (SQLException exception) {
-            exception.printStackTrace();
+        try {
+            return this.connectionPool.executeTransaction(transaction);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
         }
 
-        return -1;
+        return false;
     }
 
     public <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callback, Object... objects) {
@@ -178,16 +227,12 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
         Validate.checkNotNull(callback);
         Validate.checkNotNull(objects);
 
-        try (PreparedStatement preparedStatement = this.getConnection().prepareStatement(query)) {
-            int i = 1;
-            for (Object object : objects) {
-                preparedStatement.setString(i++, object.toString());
-            }
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                return callback.call(resultSet);
-            }
-
+        try {
+            return this.connectionPool.execute(query, objects, preparedStatement -> {
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    return callback.call(resultSet);
+                }
+            });
         } catch (Throwable e) {
             e.printStackTrace();
         }
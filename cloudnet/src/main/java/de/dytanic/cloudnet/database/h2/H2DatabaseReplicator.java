@@ -0,0 +1,763 @@
+package de.dytanic.cloudnet.database.h2;
+
+import com.google.gson.reflect.TypeToken;
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.database.IDatabaseHandler;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketSender;
+import de.dytanic.cloudnet.network.packet.PacketServerH2DatabaseReplication;
+
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replicates the h2 databases between the nodes of the cluster. The writes of this node are recorded in the
+ * {@link H2OperationLog} and sent in batches to the connected nodes. Every node knows the last sequence number of
+ * every database, which it has applied from another node, so that a node, which connects again, only requests the
+ * operations it has missed. Only if these operations aren't retained anymore or the other node has been restarted,
+ * a snapshot of the database is streamed in pages, of which only a window of {@link #WINDOW_SIZE} pages is sent
+ * without an acknowledgement, so that neither side has to load the whole database into the memory.
+ * <p>
+ * All packets of the replication are sent by a single thread, so that the snapshots and the operations of this
+ * node arrive in the order, in which they have been read and written. A page, which has been read before a write,
+ * arrives before the operation of the write and a page, which has been read after the write, already contains it.
+ * <p>
+ * The received packets may be handled in another order than they have been sent. All packets of a synchronization
+ * are therefore numbered, the receiver buffers a packet until all previous packets of the synchronization have been
+ * handled, so that a page is never applied before the begin of its snapshot. The operations of the other packets
+ * aren't numbered, they are buffered until the snapshot of their database has been completed or the previous
+ * operations of their database have been applied.
+ */
+public final class H2DatabaseReplicator implements AutoCloseable {
+
+    public static final String COMMAND_OPERATIONS = "h2_replication_operations", COMMAND_SYNC_REQUEST = "h2_replication_sync_request",
+            COMMAND_SYNC_BEGIN = "h2_replication_sync_begin", COMMAND_SNAPSHOT_BEGIN = "h2_replication_snapshot_begin",
+            COMMAND_SNAPSHOT_PAGE = "h2_replication_snapshot_page", COMMAND_SNAPSHOT_ACK = "h2_replication_snapshot_ack",
+            COMMAND_SYNC_COMPLETE = "h2_replication_sync_complete";
+
+    /**
+     * The count of the last operations of every database, which are retained for nodes that connect again
+     */
+    public static final int DEFAULT_RETENTION = Math.max(1, Integer.getInteger("cloudnet.database.h2.replication.retention", 8192));
+
+    /**
+     * The time in milliseconds, in which the writes are collected into one packet
+     */
+    public static final long DEFAULT_BATCH_DELAY = Math.max(0, Long.getLong("cloudnet.database.h2.replication.batchDelay", 20));
+
+    public static final int BATCH_SIZE = 256, PAGE_SIZE = 256, WINDOW_SIZE = 4;
+
+    //the sequence of a database, whose snapshot has been announced but hasn't begun yet
+    private static final long UNSYNCHRONIZED = -1;
+
+    private static final long SYNCHRONIZATION_TIMEOUT = 60000;
+
+    private static final Type SEQUENCES_TYPE = new TypeToken<Map<String, Long>>() {
+    }.getType(), DATABASES_TYPE = new TypeToken<List<String>>() {
+    }.getType(), ENTRIES_TYPE = new TypeToken<Map<String, JsonDocument>>() {
+    }.getType();
+
+    private final H2DatabaseProvider databaseProvider;
+
+    private final String nodeUniqueId;
+
+    private final IPacketSender clusterPacketSender;
+
+    private final ScheduledExecutorService executorService;
+
+    private final long batchDelay;
+
+    private final H2OperationLog operationLog;
+
+    //Map<Database, Lock>
+    private final Map<String, Object> locks = Maps.newConcurrentHashMap();
+
+    private final List<H2DatabaseOperation> pendingOperations = new ArrayList<>();
+
+    private boolean flushScheduled;
+
+    //Map<SessionId, Snapshot>, only accessed by the thread of the replication
+    private final Map<UUID, OutgoingSnapshot> snapshots = Maps.newHashMap();
+
+    //Map<NodeId, Replica>
+    private final Map<String, Replica> replicas = Maps.newConcurrentHashMap();
+
+    public H2DatabaseReplicator(H2DatabaseProvider databaseProvider, String nodeUniqueId, IPacketSender clusterPacketSender) {
+        this(databaseProvider, nodeUniqueId, clusterPacketSender, Executors.newSingleThreadScheduledExecutor(), DEFAULT_RETENTION, DEFAULT_BATCH_DELAY);
+    }
+
+    /**
+     * @param clusterPacketSender the sender, which sends the operations to all connected nodes
+     * @param executorService     the single thread, which sends all packets of the replication
+     * @param retention           the count of the last operations of every database, which are retained
+     * @param batchDelay          the time in milliseconds, in which the writes are collected into one packet
+     */
+    public H2DatabaseReplicator(H2DatabaseProvider databaseProvider, String nodeUniqueId, IPacketSender clusterPacketSender,
+                                ScheduledExecutorService executorService, int retention, long batchDelay) {
+        Validate.checkNotNull(databaseProvider);
+        Validate.checkNotNull(nodeUniqueId);
+        Validate.checkNotNull(clusterPacketSender);
+        Validate.checkNotNull(executorService);
+
+        this.databaseProvider = databaseProvider;
+        this.nodeUniqueId = nodeUniqueId;
+        this.clusterPacketSender = clusterPacketSender;
+        this.executorService = executorService;
+        this.operationLog = new H2OperationLog(retention);
+        this.batchDelay = batchDelay;
+    }
+
+    /**
+     * @return the lock, which has to be held for a write into the database and its record, so that the operations
+     * are recorded in the order of the writes
+     */
+    public Object getLock(String database) {
+        return this.locks.computeIfAbsent(normalize(database), name -> new Object());
+    }
+
+    /**
+     * Records a successful write of this node into the database, which is sent to the other nodes with the next batch
+     */
+    public void record(String database, H2DatabaseOperation.OperationType type, String key, JsonDocument document) {
+        H2DatabaseOperation operation = this.operationLog.append(normalize(database), type, key, document);
+
+        synchronized (this.pendingOperations) {
+            this.pendingOperations.add(operation);
+
+            if (!this.flushScheduled) {
+                try {
+                    this.executorService.schedule(this::flush, this.batchDelay, TimeUnit.MILLISECONDS);
+                    this.flushScheduled = true;
+                } catch (RejectedExecutionException ignored) {
+                    //the node is stopping, the other nodes request the operations after the next start
+                }
+            }
+        }
+    }
+
+    /**
+     * Requests the operations of the databases of the node, which this node has missed. The node answers with a
+     * snapshot of the databases, whose operations aren't retained anymore
+     *
+     * @param channel      the channel of the node
+     * @param nodeUniqueId the unique id of the node
+     */
+    public void requestSynchronization(INetworkChannel channel, String nodeUniqueId) {
+        Validate.checkNotNull(channel);
+        Validate.checkNotNull(nodeUniqueId);
+
+        Replica replica = this.replicas.computeIfAbsent(nodeUniqueId, key -> new Replica());
+        JsonDocument request;
+
+        synchronized (replica) {
+            replica.synchronizationTime = System.currentTimeMillis();
+
+            request = new JsonDocument("node", this.nodeUniqueId)
+                    .append("epoch", replica.epoch)
+                    .append("sequences", Maps.newHashMap(replica.sequences));
+        }
+
+        channel.sendPacket(new PacketServerH2DatabaseReplication(COMMAND_SYNC_REQUEST, request));
+    }
+
+    /**
+     * Handles a packet of the replication from another node
+     *
+     * @return true, if the snapshot of a database has begun, so that the database has been cleared and is filled again
+     */
+    public boolean handle(INetworkChannel channel, JsonDocument header) {
+        String command = header.getString("command");
+        String node = header.getString("node");
+
+        if (command == null || node == null) {
+            return false;
+        }
+
+        if (header.contains("sessionId") && header.contains("index")) {
+            return this.handleSessionPacket(channel, node, header);
+        }
+
+        return this.handle(channel, node, command, header);
+    }
+
+    private boolean handle(INetworkChannel channel, String node, String command, JsonDocument header) {
+        switch (command) {
+            case COMMAND_OPERATIONS:
+                this.handleOperations(channel, node, header);
+                break;
+            case COMMAND_SYNC_REQUEST: {
+                UUID epoch = header.get("epoch", UUID.class);
+                Map<String, Long> sequences = header.get("sequences", SEQUENCES_TYPE);
+
+                this.execute(() -> this.synchronize(channel, node, epoch, sequences));
+            }
+            break;
+            case COMMAND_SYNC_BEGIN:
+                this.handleSyncBegin(node, header);
+                break;
+            case COMMAND_SNAPSHOT_BEGIN:
+                return this.handleSnapshotBegin(node, header);
+            case COMMAND_SNAPSHOT_PAGE:
+                this.handleSnapshotPage(channel, node, header);
+                break;
+            case COMMAND_SNAPSHOT_ACK: {
+                UUID sessionId = header.get("sessionId", UUID.class);
+
+                this.execute(() -> {
+                    OutgoingSnapshot snapshot = this.snapshots.get(sessionId);
+
+                    if (snapshot != null) {
+                        snapshot.acknowledge();
+                    }
+                });
+            }
+            break;
+            case COMMAND_SYNC_COMPLETE:
+                this.handleSyncComplete(channel, node, header);
+                break;
+        }
+
+        return false;
+    }
+
+    /**
+     * Buffers the numbered packet of a synchronization and handles it and all following buffered packets, once the
+     * previous packets of the synchronization have been handled
+     */
+    private boolean handleSessionPacket(INetworkChannel channel, String node, JsonDocument header) {
+        UUID sessionId = header.get("sessionId", UUID.class);
+        int index = header.getInt("index");
+
+        if (sessionId == null) {
+            return false;
+        }
+
+        Replica replica = this.replicas.computeIfAbsent(node, key -> new Replica());
+        boolean snapshotBegun = false;
+
+        synchronized (replica) {
+            long time = System.currentTimeMillis();
+
+            //the packets of a synchronization, which has been replaced or aborted, are never completed
+            replica.sessions.values().removeIf(session -> session.lastPacketTime + SYNCHRONIZATION_TIMEOUT < time);
+
+            IncomingSession session = replica.sessions.computeIfAbsent(sessionId, key -> new IncomingSession());
+
+            if (index < session.nextIndex) {
+                return false;
+            }
+
+            session.lastPacketTime = time;
+            session.pendingPackets.put(index, header);
+
+            JsonDocument pendingHeader;
+
+            while ((pendingHeader = session.pendingPackets.remove(session.nextIndex)) != null) {
+                String command = pendingHeader.getString("command");
+                session.nextIndex++;
+
+                if (COMMAND_SYNC_BEGIN.equals(command)) {
+                    //the buffered packets of the previous synchronizations aren't applied anymore
+                    replica.sessions.keySet().removeIf(key -> !key.equals(sessionId));
+                }
+
+                if (command != null) {
+                    snapshotBegun |= this.handle(channel, node, command, pendingHeader);
+                }
+
+                if (COMMAND_SYNC_COMPLETE.equals(command)) {
+                    replica.sessions.remove(sessionId);
+                }
+            }
+        }
+
+        return snapshotBegun;
+    }
+
+    public H2OperationLog getOperationLog() {
+        return this.operationLog;
+    }
+
+    /**
+     * @return the last sequence number of the database, which has been applied from the node or -1, if it's unknown
+     */
+    public long getReplicatedSequence(String nodeUniqueId, String database) {
+        Replica replica = this.replicas.get(nodeUniqueId);
+
+        if (replica == null) {
+            return UNSYNCHRONIZED;
+        }
+
+        synchronized (replica) {
+            return replica.epoch != null ? replica.sequences.getOrDefault(normalize(database), 0L) : UNSYNCHRONIZED;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        //the last batch is still sent, the delayed tasks are executed after the shutdown
+        this.executorService.shutdown();
+        this.executorService.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void flush() {
+        List<H2DatabaseOperation> operations;
+
+        synchronized (this.pendingOperations) {
+            operations = new ArrayList<>(this.pendingOperations);
+
+            this.pendingOperations.clear();
+            this.flushScheduled = false;
+        }
+
+        for (JsonDocument batch : this.createBatches(operations)) {
+            this.clusterPacketSender.sendPacket(new PacketServerH2DatabaseReplication(COMMAND_OPERATIONS, batch));
+        }
+    }
+
+    private List<JsonDocument> createBatches(List<H2DatabaseOperation> operations) {
+        List<JsonDocument> batches = new ArrayList<>();
+
+        for (int index = 0; index < operations.size(); index += BATCH_SIZE) {
+            batches.add(new JsonDocument("node", this.nodeUniqueId)
+                    .append("epoch", this.operationLog.getEpoch())
+                    .append("operations", operations.subList(index, Math.min(operations.size(), index + BATCH_SIZE))));
+        }
+
+        return batches;
+    }
+
+    private void synchronize(INetworkChannel channel, String node, UUID epoch, Map<String, Long> sequences) {
+        //a new request of the node replaces the previous one, whose snapshots may be incomplete
+        this.snapshots.values().removeIf(snapshot -> snapshot.node.equals(node));
+
+        Set<String> databases = new HashSet<>(this.operationLog.getDatabases());
+        Collection<String> databaseNames = this.databaseProvider.getDatabaseNames();
+
+        if (databaseNames != null) {
+            for (String databaseName : databaseNames) {
+                databases.add(normalize(databaseName));
+            }
+        }
+
+        boolean sameEpoch = this.operationLog.getEpoch().equals(epoch);
+
+        List<String> snapshotDatabases = new ArrayList<>();
+        List<H2DatabaseOperation> operations = new ArrayList<>();
+
+        for (String database : databases) {
+            List<H2DatabaseOperation> missingOperations = sameEpoch && sequences != null ?
+                    this.operationLog.getOperations(database, sequences.getOrDefault(database, 0L)) :
+                    null;
+
+            if (missingOperations != null) {
+                operations.addAll(missingOperations);
+            } else {
+                snapshotDatabases.add(database);
+            }
+        }
+
+        OutgoingSnapshot snapshot = new OutgoingSnapshot(UUID.randomUUID(), node, channel, snapshotDatabases);
+
+        snapshot.send(COMMAND_SYNC_BEGIN, new JsonDocument("node", this.nodeUniqueId)
+                .append("epoch", this.operationLog.getEpoch())
+                .append("databases", snapshotDatabases));
+
+        for (JsonDocument batch : this.createBatches(operations)) {
+            snapshot.send(COMMAND_OPERATIONS, batch);
+        }
+
+        this.snapshots.put(snapshot.sessionId, snapshot);
+        snapshot.sendPages();
+    }
+
+    private void handleOperations(INetworkChannel channel, String node, JsonDocument header) {
+        UUID epoch = header.get("epoch", UUID.class);
+        List<H2DatabaseOperation> operations = header.get("operations", H2DatabaseOperation.LIST_TYPE);
+
+        if (epoch == null || operations == null) {
+            return;
+        }
+
+        Replica replica = this.replicas.computeIfAbsent(node, key -> new Replica());
+
+        synchronized (replica) {
+            if (!epoch.equals(replica.pendingEpoch)) {
+                replica.pendingOperations.clear();
+                replica.pendingEpoch = epoch;
+            }
+
+            boolean sameEpoch = epoch.equals(replica.epoch);
+            Set<String> databases = new HashSet<>();
+
+            //the operations are buffered, because they may arrive before the operations or the snapshot they are based on
+            for (H2DatabaseOperation operation : operations) {
+                long sequence = replica.sequences.getOrDefault(operation.getDatabase(), 0L);
+
+                if (sameEpoch && sequence != UNSYNCHRONIZED && operation.getSequence() <= sequence) {
+                    continue;
+                }
+
+                Map<Long, H2DatabaseOperation> pendingOperations = replica.pendingOperations.computeIfAbsent(operation.getDatabase(), key -> new TreeMap<>());
+
+                if (pendingOperations.size() >= this.operationLog.getRetention()) {
+                    //the operations are requested again, after the buffered operations have been applied
+                    replica.missingOperations = true;
+                    continue;
+                }
+
+                pendingOperations.put(operation.getSequence(), operation);
+                databases.add(operation.getDatabase());
+            }
+
+            boolean missingOperations = !sameEpoch || replica.missingOperations;
+
+            if (sameEpoch) {
+                for (String database : databases) {
+                    if (!replica.snapshotDatabases.contains(database) && !this.applyPendingOperations(replica, database)) {
+                        missingOperations = true;
+                    }
+                }
+            }
+
+            if (missingOperations && replica.synchronizationTime + SYNCHRONIZATION_TIMEOUT < System.currentTimeMillis()) {
+                replica.missingOperations = false;
+                this.requestSynchronization(channel, node);
+            }
+        }
+    }
+
+    /**
+     * Applies the buffered operations of the database, which follow its sequence without a gap
+     *
+     * @return true, if all buffered operations of the database have been applied
+     */
+    private boolean applyPendingOperations(Replica replica, String database) {
+        TreeMap<Long, H2DatabaseOperation> pendingOperations = replica.pendingOperations.get(database);
+
+        if (pendingOperations == null) {
+            return true;
+        }
+
+        long sequence = replica.sequences.getOrDefault(database, 0L);
+
+        if (sequence == UNSYNCHRONIZED) {
+            return false;
+        }
+
+        pendingOperations.headMap(sequence, true).clear();
+
+        H2DatabaseOperation operation;
+
+        while ((operation = pendingOperations.remove(sequence + 1)) != null) {
+            this.apply(operation);
+
+            sequence = operation.getSequence();
+            replica.sequences.put(database, sequence);
+        }
+
+        if (pendingOperations.isEmpty()) {
+            replica.pendingOperations.remove(database);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void handleSyncBegin(String node, JsonDocument header) {
+        UUID epoch = header.get("epoch", UUID.class);
+        List<String> databases = header.get("databases", DATABASES_TYPE);
+
+        if (epoch == null || databases == null) {
+            return;
+        }
+
+        Replica replica = this.replicas.computeIfAbsent(node, key -> new Replica());
+
+        synchronized (replica) {
+            if (!epoch.equals(replica.epoch)) {
+                replica.epoch = epoch;
+                replica.sequences.clear();
+            }
+
+            if (!epoch.equals(replica.pendingEpoch)) {
+                replica.pendingOperations.clear();
+                replica.pendingEpoch = epoch;
+            }
+
+            replica.snapshotDatabases.clear();
+
+            for (String database : databases) {
+                replica.sequences.put(database, UNSYNCHRONIZED);
+                replica.snapshotDatabases.add(database);
+            }
+
+            replica.sessionId = header.get("sessionId", UUID.class);
+            replica.synchronizationTime = System.currentTimeMillis();
+        }
+    }
+
+    private void handleSyncComplete(INetworkChannel channel, String node, JsonDocument header) {
+        UUID sessionId = header.get("sessionId", UUID.class);
+        Replica replica = this.replicas.computeIfAbsent(node, key -> new Replica());
+
+        synchronized (replica) {
+            if (sessionId == null || !sessionId.equals(replica.sessionId)) {
+                return;
+            }
+
+            replica.synchronizationTime = 0;
+
+            //the operations, which have been received during the snapshot, are applied after all of its pages
+            for (String database : replica.snapshotDatabases) {
+                this.applyPendingOperations(replica, database);
+            }
+
+            replica.snapshotDatabases.clear();
+
+            //a gap, which has been detected during the synchronization, is requested right away
+            if (replica.missingOperations || !replica.pendingOperations.isEmpty() || (replica.pendingEpoch != null && !replica.pendingEpoch.equals(replica.epoch))) {
+                replica.missingOperations = false;
+                this.requestSynchronization(channel, node);
+            }
+        }
+    }
+
+    private boolean handleSnapshotBegin(String node, JsonDocument header) {
+        UUID sessionId = header.get("sessionId", UUID.class);
+        String database = header.getString("database");
+
+        Replica replica = this.replicas.get(node);
+
+        if (replica == null || sessionId == null || database == null) {
+            return false;
+        }
+
+        synchronized (replica) {
+            if (!sessionId.equals(replica.sessionId)) {
+                return false;
+            }
+
+            H2Database h2Database = this.databaseProvider.getDatabase(database);
+            IDatabaseHandler databaseHandler = this.databaseProvider.getDatabaseHandler();
+
+            if (databaseHandler != null) {
+                databaseHandler.handleClear(h2Database);
+            }
+
+            h2Database.clear0();
+            replica.sequences.put(database, header.getLong("sequence"));
+        }
+
+        return true;
+    }
+
+    private void handleSnapshotPage(INetworkChannel channel, String node, JsonDocument header) {
+        UUID sessionId = header.get("sessionId", UUID.class);
+        String database = header.getString("database");
+        Map<String, JsonDocument> entries = header.get("entries", ENTRIES_TYPE);
+
+        Replica replica = this.replicas.get(node);
+
+        if (replica == null || sessionId == null || database == null || entries == null) {
+            return;
+        }
+
+        synchronized (replica) {
+            if (!sessionId.equals(replica.sessionId)) {
+                return;
+            }
+
+            H2Database h2Database = this.databaseProvider.getDatabase(database);
+
+            for (Map.Entry<String, JsonDocument> entry : entries.entrySet()) {
+                h2Database.insert0(entry.getKey(), entry.getValue());
+            }
+        }
+
+        channel.sendPacket(new PacketServerH2DatabaseReplication(COMMAND_SNAPSHOT_ACK, new JsonDocument("node", this.nodeUniqueId)
+                .append("sessionId", sessionId)));
+    }
+
+    private void apply(H2DatabaseOperation operation) {
+        H2Database database = this.databaseProvider.getDatabase(operation.getDatabase());
+        IDatabaseHandler databaseHandler = this.databaseProvider.getDatabaseHandler();
+
+        switch (operation.getType()) {
+            case INSERT:
+                if (databaseHandler != null) {
+                    databaseHandler.handleInsert(database, operation.getKey(), operation.getDocument());
+                }
+
+                database.insert0(operation.getKey(), operation.getDocument());
+                break;
+            case UPDATE:
+                if (databaseHandler != null) {
+                    databaseHandler.handleUpdate(database, operation.getKey(), operation.getDocument());
+                }
+
+                //the insert updates an existing entry, the entry may be missing if it was inserted before the snapshot
+                database.insert0(operation.getKey(), operation.getDocument());
+                break;
+            case DELETE:
+                if (databaseHandler != null) {
+                    databaseHandler.handleDelete(database, operation.getKey());
+                }
+
+                database.delete0(operation.getKey());
+                break;
+            case CLEAR:
+                if (databaseHandler != null) {
+                    databaseHandler.handleClear(database);
+                }
+
+                database.clear0();
+                break;
+        }
+    }
+
+    private void execute(Runnable runnable) {
+        try {
+            this.executorService.execute(runnable);
+        } catch (RejectedExecutionException ignored) {
+            //the node is stopping
+        }
+    }
+
+    private static String normalize(String database) {
+        //the names of the tables are case insensitive and listed in upper case by h2
+        return database.toUpperCase();
+    }
+
+    private static final class Replica {
+
+        private UUID epoch, sessionId;
+
+        //Map<Database, Sequence>
+        private final Map<String, Long> sequences = Maps.newHashMap();
+
+        private long synchronizationTime;
+
+        //the epoch of the buffered operations, which may be received before the begin of the synchronization
+        private UUID pendingEpoch;
+
+        //Map<Database, Map<Sequence, Operation>>, the operations which can't be applied yet
+        private final Map<String, TreeMap<Long, H2DatabaseOperation>> pendingOperations = Maps.newHashMap();
+
+        //the databases, whose snapshot is received by the current synchronization
+        private final Set<String> snapshotDatabases = new HashSet<>();
+
+        //true, if buffered operations have been dropped, because too many operations were pending
+        private boolean missingOperations;
+
+        //Map<SessionId, Session>, the synchronizations whose packets are still received
+        private final Map<UUID, IncomingSession> sessions = Maps.newHashMap();
+    }
+
+    private static final class IncomingSession {
+
+        //Map<Index, Header>, the packets which have been received before one of the previous packets
+        private final Map<Integer, JsonDocument> pendingPackets = Maps.newHashMap();
+
+        private int nextIndex;
+
+        private long lastPacketTime;
+    }
+
+    private final class OutgoingSnapshot {
+
+        private final UUID sessionId;
+
+        private final String node;
+
+        private final INetworkChannel channel;
+
+        private final Deque<String> databases;
+
+        private String database, lastKey;
+
+        private int inflightPages, index;
+
+        private OutgoingSnapshot(UUID sessionId, String node, INetworkChannel channel, Collection<String> databases) {
+            this.sessionId = sessionId;
+            this.node = node;
+            this.channel = channel;
+            this.databases = new ArrayDeque<>(databases);
+        }
+
+        private void acknowledge() {
+            if (this.inflightPages > 0) {
+                this.inflightPages--;
+            }
+
+            this.sendPages();
+        }
+
+        private void send(String command, JsonDocument header) {
+            this.channel.sendPacket(new PacketServerH2DatabaseReplication(command, header
+                    .append("sessionId", this.sessionId)
+                    .append("index", this.index++)));
+        }
+
+        private void sendPages() {
+            while (this.inflightPages < WINDOW_SIZE) {
+                if (this.database == null) {
+                    this.database = this.databases.poll();
+
+                    if (this.database == null) {
+                        if (this.inflightPages == 0) {
+                            H2DatabaseReplicator.this.snapshots.remove(this.sessionId);
+
+                            this.send(COMMAND_SYNC_COMPLETE, new JsonDocument("node", H2DatabaseReplicator.this.nodeUniqueId));
+                        }
+
+                        return;
+                    }
+
+                    this.lastKey = null;
+
+                    //the sequence is read before the first page, later operations are sent as usual and applied after the begin
+                    this.send(COMMAND_SNAPSHOT_BEGIN, new JsonDocument("node", H2DatabaseReplicator.this.nodeUniqueId)
+                            .append("database", this.database)
+                            .append("sequence", H2DatabaseReplicator.this.operationLog.getSequence(this.database)));
+                }
+
+                Map<String, JsonDocument> entries = H2DatabaseReplicator.this.databaseProvider.getDatabase(this.database).entries(this.lastKey, PAGE_SIZE);
+
+                if (entries == null || entries.isEmpty()) {
+                    this.database = null;
+                    continue;
+                }
+
+                for (String key : entries.keySet()) {
+                    this.lastKey = key;
+                }
+
+                this.inflightPages++;
+
+                this.send(COMMAND_SNAPSHOT_PAGE, new JsonDocument("node", H2DatabaseReplicator.this.nodeUniqueId)
+                        .append("database", this.database)
+                        .append("entries", entries));
+
+                if (entries.size() < PAGE_SIZE) {
+                    this.database = null;
+                }
+            }
+        }
+    }
+}
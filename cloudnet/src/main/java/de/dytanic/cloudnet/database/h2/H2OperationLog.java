@@ -0,0 +1,108 @@
+package de.dytanic.cloudnet.database.h2;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The bounded in memory log of the last writes into the h2 databases of this node. Every database has its own
+ * sequence, which starts with 1 in the epoch of the log. The epoch is created with the log, so that other nodes
+ * notice a restart of this node, after which their positions in the sequences aren't valid anymore.
+ * <p>
+ * Only the last {@link #getRetention()} operations of a database are kept. Other nodes, whose position in the
+ * sequence is older than the retained operations, have to load a snapshot of the database.
+ */
+public final class H2OperationLog {
+
+    private final UUID epoch = UUID.randomUUID();
+
+    private final int retention;
+
+    //Map<Database, Operations>
+    private final Map<String, DatabaseLog> logs = Maps.newHashMap();
+
+    public H2OperationLog(int retention) {
+        Validate.assertTrue(retention > 0, "retention has to be positive");
+
+        this.retention = retention;
+    }
+
+    public synchronized H2DatabaseOperation append(String database, H2DatabaseOperation.OperationType type, String key, JsonDocument document) {
+        Validate.checkNotNull(database);
+        Validate.checkNotNull(type);
+
+        DatabaseLog log = this.logs.computeIfAbsent(database, name -> new DatabaseLog());
+        H2DatabaseOperation operation = new H2DatabaseOperation(database, ++log.sequence, type, key, document);
+
+        log.operations.addLast(operation);
+
+        if (log.operations.size() > this.retention) {
+            log.operations.removeFirst();
+        }
+
+        return operation;
+    }
+
+    /**
+     * @param sequence the last sequence number of the database, which is known by the other node
+     * @return the operations of the database after the sequence number or null, if they aren't retained anymore
+     */
+    public synchronized List<H2DatabaseOperation> getOperations(String database, long sequence) {
+        Validate.checkNotNull(database);
+
+        DatabaseLog log = this.logs.get(database);
+
+        if (log == null) {
+            return sequence == 0 ? new ArrayList<>() : null;
+        }
+
+        if (sequence > log.sequence || sequence < log.sequence - log.operations.size()) {
+            return null;
+        }
+
+        List<H2DatabaseOperation> operations = new ArrayList<>((int) (log.sequence - sequence));
+
+        for (H2DatabaseOperation operation : log.operations) {
+            if (operation.getSequence() > sequence) {
+                operations.add(operation);
+            }
+        }
+
+        return operations;
+    }
+
+    /**
+     * @return the sequence number of the last operation of the database or 0, if nothing has been written in this epoch
+     */
+    public synchronized long getSequence(String database) {
+        DatabaseLog log = this.logs.get(database);
+        return log != null ? log.sequence : 0;
+    }
+
+    public synchronized Collection<String> getDatabases() {
+        return new ArrayList<>(this.logs.keySet());
+    }
+
+    public UUID getEpoch() {
+        return this.epoch;
+    }
+
+    public int getRetention() {
+        return this.retention;
+    }
+
+    private static final class DatabaseLog {
+
+        private final Deque<H2DatabaseOperation> operations = new ArrayDeque<>();
+
+        private long sequence;
+    }
+}
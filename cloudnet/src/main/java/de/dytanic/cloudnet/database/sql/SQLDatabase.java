@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet.database.sql;
 
+import com.google.gson.JsonElement;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.collection.Maps;
@@ -11,19 +12,40 @@ import de.dytanic.cloudnet.driver.CloudNetDriver;
 
 import java.sql.ResultSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
 public abstract class SQLDatabase implements IDatabase {
 
+    /**
+     * The suffix of the table, which contains the values of the indexed fields of the documents of a database
+     */
+    public static final String INDEX_TABLE_SUFFIX = "__INDEX";
+
+    //values of the indexed fields, which are longer than the index column, are truncated and compared with the documents
+    public static final int MAX_INDEX_VALUE_LENGTH = 191;
+
     private static final String TABLE_COLUMN_KEY = "Name", TABLE_COLUMN_VALUE = "Document";
 
+    private static final String INDEX_COLUMN_FIELD = "Field", INDEX_COLUMN_VALUE = "Value";
+
+    protected final Collection<String> indexedFields = new CopyOnWriteArraySet<>();
+
+    //the writes share the read lock, the creation of an index excludes them until its field is indexed by them as well
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
     protected SQLDatabaseProvider databaseProvider;
     protected String name;
+    protected String indexTableName;
 
     public SQLDatabase(SQLDatabaseProvider databaseProvider, String name) {
         Validate.checkNotNull(databaseProvider);
@@ -33,6 +55,27 @@ public abstract class SQLDatabase implements IDatabase {
         this.name = name;
 
         databaseProvider.executeUpdate("CREATE TABLE IF NOT EXISTS " + name + "(" + TABLE_COLUMN_KEY + " VARCHAR(1024), " + TABLE_COLUMN_VALUE + " TEXT);");
+
+        this.indexTableName = name + INDEX_TABLE_SUFFIX;
+        databaseProvider.createIndexTable(this.indexTableName);
+
+        //the declared fields are stored as rows without a key
+        Collection<String> declaredFields = databaseProvider.executeQuery(
+                "SELECT " + INDEX_COLUMN_FIELD + " FROM " + this.indexTableName + " WHERE " + TABLE_COLUMN_KEY + " IS NULL",
+                resultSet -> {
+                    Collection<String> fields = Iterables.newArrayList();
+
+                    while (resultSet.next()) {
+                        fields.add(resultSet.getString(INDEX_COLUMN_FIELD));
+                    }
+
+                    return fields;
+                }
+        );
+
+        if (declaredFields != null) {
+            this.indexedFields.addAll(declaredFields);
+        }
     }
 
     @Override
@@ -66,11 +109,18 @@ public abstract class SQLDatabase implements IDatabase {
         Validate.checkNotNull(key);
         Validate.checkNotNull(document);
 
-        return !contains(key) ?
-                this.databaseProvider.executeUpdate(
-                        "INSERT INTO " + this.name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
-                        key, document.toString()
-                ) != -1 : update(key, document);
+        //the document and its index values are written in one transaction, so that they can't differ from each other
+        return this.executeWrite(() -> {
+            //the update of an existing key doesn't pass the database handler again, the insert has already been handled
+            if (contains(key)) {
+                return update0(key, document);
+            }
+
+            return this.databaseProvider.executeUpdate(
+                    "INSERT INTO " + this.name + "(" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
+                    key, document.toString()
+            ) != -1 && this.updateIndexValues(key, document);
+        });
     }
 
     @Override
@@ -86,10 +136,10 @@ public abstract class SQLDatabase implements IDatabase {
     }
 
     public boolean update0(String key, JsonDocument document) {
-        return this.databaseProvider.executeUpdate(
+        return this.executeWrite(() -> this.databaseProvider.executeUpdate(
                 "UPDATE " + this.name + " SET " + TABLE_COLUMN_VALUE + "=? WHERE " + TABLE_COLUMN_KEY + "=?",
                 document.toString(), key
-        ) != -1;
+        ) != -1 && this.updateIndexValues(key, document));
     }
 
     @Override
@@ -115,10 +165,16 @@ public abstract class SQLDatabase implements IDatabase {
     }
 
     public boolean delete0(String key) {
-        return this.databaseProvider.executeUpdate(
-                "DELETE FROM " + this.name + " WHERE " + TABLE_COLUMN_KEY + "=?",
-                key
-        ) != -1;
+        return this.executeWrite(() -> {
+            if (!this.indexedFields.isEmpty() && this.databaseProvider.executeUpdate("DELETE FROM " + this.indexTableName + " WHERE " + TABLE_COLUMN_KEY + "=?", key) == -1) {
+                return false;
+            }
+
+            return this.databaseProvider.executeUpdate(
+                    "DELETE FROM " + this.name + " WHERE " + TABLE_COLUMN_KEY + "=?",
+                    key
+            ) != -1;
+        });
     }
 
     @Override
@@ -137,6 +193,10 @@ public abstract class SQLDatabase implements IDatabase {
         Validate.checkNotNull(fieldName);
         Validate.checkNotNull(fieldValue);
 
+        if (this.indexedFields.contains(fieldName)) {
+            return this.getIndexed(Collections.singletonMap(fieldName, JsonDocument.GSON.toJsonTree(fieldValue)), Collections.emptyList());
+        }
+
         return this.databaseProvider.executeQuery(
                 "SELECT " + TABLE_COLUMN_VALUE + " FROM " + this.name + " WHERE " + TABLE_COLUMN_VALUE + " LIKE ?",
                 resultSet -> {
@@ -156,6 +216,21 @@ public abstract class SQLDatabase implements IDatabase {
     public List<JsonDocument> get(JsonDocument filters) {
         Validate.checkNotNull(filters);
 
+        Map<String, JsonElement> indexedFilters = Maps.newHashMap();
+        Collection<String> otherFilters = Iterables.newArrayList();
+
+        for (String item : filters) {
+            if (this.indexedFields.contains(item)) {
+                indexedFilters.put(item, filters.get(item));
+            } else {
+                otherFilters.add("%\"" + item + "\":" + filters.get(item).toString() + "%");
+            }
+        }
+
+        if (!indexedFilters.isEmpty()) {
+            return this.getIndexed(indexedFilters, otherFilters);
+        }
+
         StringBuilder stringBuilder = new StringBuilder("SELECT ").append(TABLE_COLUMN_VALUE).append(" FROM ").append(this.name);
 
         Collection<String> collection = Iterables.newArrayList();
@@ -241,6 +316,42 @@ public abstract class SQLDatabase implements IDatabase {
         );
     }
 
+    /**
+     * Reads a page of the entries ordered by their keys, so that all entries can be read without loading the whole
+     * database into the memory or blocking a connection of the provider
+     *
+     * @param afterKey the last key of the previous page or null for the first page
+     * @param limit    the maximum count of the entries of the page
+     * @return the entries in the order of their keys or null, if the query has failed
+     */
+    public Map<String, JsonDocument> entries(String afterKey, int limit) {
+        Validate.assertTrue(limit > 0, "limit has to be positive");
+
+        IThrowableCallback<ResultSet, Map<String, JsonDocument>> callback = resultSet -> {
+            Map<String, JsonDocument> map = new LinkedHashMap<>();
+
+            while (resultSet.next()) {
+                map.put(resultSet.getString(TABLE_COLUMN_KEY), JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
+            }
+
+            return map;
+        };
+
+        if (afterKey == null) {
+            return this.databaseProvider.executeQuery(
+                    "SELECT * FROM " + this.name + " ORDER BY " + TABLE_COLUMN_KEY + " LIMIT ?",
+                    callback,
+                    limit
+            );
+        }
+
+        return this.databaseProvider.executeQuery(
+                "SELECT * FROM " + this.name + " WHERE " + TABLE_COLUMN_KEY + ">? ORDER BY " + TABLE_COLUMN_KEY + " LIMIT ?",
+                callback,
+                afterKey, limit
+        );
+    }
+
     @Override
     public Map<String, JsonDocument> filter(BiPredicate<String, JsonDocument> predicate) {
         Validate.checkNotNull(predicate);
@@ -291,7 +402,180 @@ public abstract class SQLDatabase implements IDatabase {
     }
 
     public void clear0() {
-        this.databaseProvider.executeUpdate("TRUNCATE TABLE " + this.name);
+        this.indexLock.readLock().lock();
+
+        try {
+            this.databaseProvider.executeUpdate("TRUNCATE TABLE " + this.name);
+            this.databaseProvider.executeUpdate("DELETE FROM " + this.indexTableName + " WHERE " + TABLE_COLUMN_KEY + " IS NOT NULL");
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public synchronized boolean createIndex(String fieldName) {
+        Validate.checkNotNull(fieldName);
+
+        if (this.indexedFields.contains(fieldName)) {
+            return true;
+        }
+
+        //a write during the backfill wouldn't write the index value of the field, which the backfill hasn't read
+        this.indexLock.writeLock().lock();
+
+        try {
+            return this.createIndex0(fieldName);
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+
+    private boolean createIndex0(String fieldName) {
+        Boolean declared = this.databaseProvider.executeQuery(
+                "SELECT " + INDEX_COLUMN_FIELD + " FROM " + this.indexTableName + " WHERE " + INDEX_COLUMN_FIELD + "=? AND " + TABLE_COLUMN_KEY + " IS NULL",
+                ResultSet::next,
+                fieldName
+        );
+
+        if (declared == null) {
+            return false;
+        }
+
+        //the existing documents are loaded completely, the iteration would block a connection of the provider
+        if (!declared && !this.databaseProvider.executeTransaction(() -> {
+            for (Map.Entry<String, JsonDocument> entry : this.filter((key, document) -> true).entrySet()) {
+                if (!this.insertIndexValue(entry.getKey(), fieldName, entry.getValue())) {
+                    return false;
+                }
+            }
+
+            return this.databaseProvider.executeUpdate("INSERT INTO " + this.indexTableName + "(" + INDEX_COLUMN_FIELD + ") VALUES (?)", fieldName) != -1;
+        })) {
+            return false;
+        }
+
+        this.indexedFields.add(fieldName);
+        return true;
+    }
+
+    @Override
+    public Collection<String> getIndexedFields() {
+        return Collections.unmodifiableCollection(this.indexedFields);
+    }
+
+    private List<JsonDocument> getIndexed(Map<String, JsonElement> indexedFilters, Collection<String> otherFilters) {
+        StringBuilder stringBuilder = new StringBuilder("SELECT d.").append(TABLE_COLUMN_VALUE).append(" FROM ").append(this.name).append(" d");
+
+        Collection<String> parameters = Iterables.newArrayList();
+        int index = 0;
+
+        for (Map.Entry<String, JsonElement> entry : indexedFilters.entrySet()) {
+            String alias = "i" + index++;
+
+            stringBuilder.append(" INNER JOIN ").append(this.indexTableName).append(" ").append(alias)
+                    .append(" ON ").append(alias).append(".").append(TABLE_COLUMN_KEY).append("=d.").append(TABLE_COLUMN_KEY)
+                    .append(" AND ").append(alias).append(".").append(INDEX_COLUMN_FIELD).append("=?")
+                    .append(" AND ").append(alias).append(".").append(INDEX_COLUMN_VALUE).append("=?");
+
+            parameters.add(entry.getKey());
+            parameters.add(toIndexValue(entry.getValue()));
+        }
+
+        Iterator<String> iterator = otherFilters.iterator();
+
+        if (iterator.hasNext()) {
+            stringBuilder.append(" WHERE ");
+
+            while (iterator.hasNext()) {
+                stringBuilder.append("d.").append(TABLE_COLUMN_VALUE).append(" LIKE ?");
+                parameters.add(iterator.next());
+
+                if (iterator.hasNext()) {
+                    stringBuilder.append(" and ");
+                }
+            }
+        }
+
+        return this.databaseProvider.executeQuery(
+                stringBuilder.toString(),
+                resultSet -> {
+                    List<JsonDocument> jsonDocuments = Iterables.newArrayList();
+
+                    while (resultSet.next()) {
+                        JsonDocument document = JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE));
+
+                        if (this.matchesTruncatedValues(document, indexedFilters)) {
+                            jsonDocuments.add(document);
+                        }
+                    }
+
+                    return jsonDocuments;
+                },
+                parameters.toArray()
+        );
+    }
+
+    private boolean matchesTruncatedValues(JsonDocument document, Map<String, JsonElement> indexedFilters) {
+        for (Map.Entry<String, JsonElement> entry : indexedFilters.entrySet()) {
+            String value = entry.getValue().toString();
+
+            if (value.length() > MAX_INDEX_VALUE_LENGTH) {
+                JsonElement element = document.get(entry.getKey());
+
+                if (element == null || !element.toString().equals(value)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean executeWrite(Callable<Boolean> transaction) {
+        this.indexLock.readLock().lock();
+
+        try {
+            return this.databaseProvider.executeTransaction(transaction);
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the index values of the document, it has to be called within the transaction of the write of the document
+     *
+     * @return if all index values have been written
+     */
+    private boolean updateIndexValues(String key, JsonDocument document) {
+        if (this.indexedFields.isEmpty()) {
+            return true;
+        }
+
+        if (this.databaseProvider.executeUpdate("DELETE FROM " + this.indexTableName + " WHERE " + TABLE_COLUMN_KEY + "=?", key) == -1) {
+            return false;
+        }
+
+        for (String fieldName : this.indexedFields) {
+            if (!this.insertIndexValue(key, fieldName, document)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean insertIndexValue(String key, String fieldName, JsonDocument document) {
+        JsonElement element = document.get(fieldName);
+
+        return element == null || this.databaseProvider.executeUpdate(
+                "INSERT INTO " + this.indexTableName + "(" + TABLE_COLUMN_KEY + "," + INDEX_COLUMN_FIELD + "," + INDEX_COLUMN_VALUE + ") VALUES (?, ?, ?)",
+                key, fieldName, toIndexValue(element)
+        ) != -1;
+    }
+
+    private static String toIndexValue(JsonElement element) {
+        String value = element.toString();
+        return value.length() > MAX_INDEX_VALUE_LENGTH ? value.substring(0, MAX_INDEX_VALUE_LENGTH) : value;
     }
 
     @Override
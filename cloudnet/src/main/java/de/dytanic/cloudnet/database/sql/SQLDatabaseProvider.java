@@ -7,6 +7,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.Callable;
 
 public abstract class SQLDatabaseProvider extends AbstractDatabaseProvider {
 
@@ -18,4 +19,29 @@ public abstract class SQLDatabaseProvider extends AbstractDatabaseProvider {
 
     public abstract <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callback, Object... objects);
 
+    /**
+     * Executes the updates and queries of the transaction on one connection. They are committed together, if the
+     * transaction returns true, and rolled back, if it returns false or throws an exception. A transaction within
+     * another transaction of the same thread is a part of the outer transaction
+     *
+     * @return if the transaction has been committed
+     */
+    public abstract boolean executeTransaction(Callable<Boolean> transaction);
+
+    /**
+     * Creates the table for the indexed field values of a database, if it doesn't exist. The columns "Field" and "Value"
+     * have to be indexed together and the column "Name" contains the key of the document
+     *
+     * @param indexTableName the name of the table
+     */
+    public void createIndexTable(String indexTableName) {
+        this.executeUpdate("CREATE TABLE IF NOT EXISTS " + indexTableName + "(Name VARCHAR(1024), Field VARCHAR(64), Value VARCHAR(" + SQLDatabase.MAX_INDEX_VALUE_LENGTH + "));");
+        this.executeUpdate("CREATE INDEX IF NOT EXISTS " + indexTableName + "_FIELD_VALUE ON " + indexTableName + "(Field, Value);");
+        this.executeUpdate("CREATE INDEX IF NOT EXISTS " + indexTableName + "_NAME ON " + indexTableName + "(Name);");
+    }
+
+    protected boolean isIndexTable(String tableName) {
+        return tableName.toUpperCase().endsWith(SQLDatabase.INDEX_TABLE_SUFFIX);
+    }
+
 }
@@ -26,7 +26,7 @@ public class ClusterUtils {
     public static void sendSetupInformationPackets(INetworkChannel channel, boolean secondNodeConnection) {
         channel.sendPacket(new PacketServerSetGlobalServiceInfoList(CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots().values()));
         if (!secondNodeConnection) {
-            CloudNet.getInstance().publishH2DatabaseDataToCluster(channel);
+            CloudNet.getInstance().requestH2DatabaseSynchronization(channel);
 
             if (CloudNet.getInstance().getPermissionManagement() instanceof DefaultJsonFilePermissionManagement) {
                 Collection<IPermissionUser> users = CloudNet.getInstance().getPermissionManagement().getUsers();
@@ -47,6 +47,9 @@ final class NetworkChannelHandlerUtils {
             exception.printStackTrace();
         }
 
+        CloudNet.getInstance().getServiceConsoleLogForwarder().handleNodeDisconnect(clusterNodeServer.getNodeInfo().getUniqueId());
+        CloudNet.getInstance().getTemplateTransferSender().handleNodeDisconnect(clusterNodeServer.getNodeInfo().getUniqueId());
+
         Collection<Packet> removed = Iterables.newArrayList();
 
         for (Map.Entry<UUID, ServiceInfoSnapshot> entry : CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots().entrySet()) {
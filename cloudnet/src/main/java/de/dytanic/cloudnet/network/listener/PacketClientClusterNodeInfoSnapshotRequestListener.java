@@ -0,0 +1,28 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.cluster.ClusterNodeInfoSnapshotPublisher;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+
+public final class PacketClientClusterNodeInfoSnapshotRequestListener implements IPacketListener {
+
+    @Override
+    public void handle(INetworkChannel channel, IPacket packet) {
+        if (!packet.getHeader().contains("requestClusterNodeInfoSnapshot")) {
+            return;
+        }
+
+        String nodeUniqueId = packet.getHeader().getString("requestClusterNodeInfoSnapshot");
+
+        //the snapshots of the other nodes are forwarded to the local services by their own publishers
+        ClusterNodeInfoSnapshotPublisher publisher = CloudNet.getInstance().getConfig().getIdentity().getUniqueId().equals(nodeUniqueId) ?
+                CloudNet.getInstance().getClusterNodeInfoSnapshotPublisher() :
+                PacketServerClusterNodeInfoUpdateListener.getServicePublisher(nodeUniqueId);
+
+        if (publisher != null) {
+            publisher.publishSnapshot(channel);
+        }
+    }
+}
@@ -29,6 +29,7 @@ public final class PacketServerAuthorizationResponseListener implements IPacketL
                             if (nodeServer != null && nodeServer.isAcceptableConnection(channel, node.getUniqueId())) {
                                 nodeServer.setChannel(channel);
                                 ClusterUtils.sendSetupInformationPackets(channel);
+                                CloudNet.getInstance().getServiceConsoleLogForwarder().handleNodeConnect(node.getUniqueId());
 
                                 CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkChannelAuthClusterNodeSuccessEvent(nodeServer, channel));
 
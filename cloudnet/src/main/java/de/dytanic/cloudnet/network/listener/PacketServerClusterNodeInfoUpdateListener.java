@@ -1,34 +1,103 @@
 package de.dytanic.cloudnet.network.listener;
 
 import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.cluster.ClusterNodeInfoSnapshotPublisher;
 import de.dytanic.cloudnet.cluster.IClusterNodeServer;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.event.events.network.NetworkClusterNodeInfoUpdateEvent;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshotDelta;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientClusterNodeInfoSnapshotRequest;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
-import de.dytanic.cloudnet.driver.network.protocol.Packet;
-import de.dytanic.cloudnet.network.packet.PacketServerClusterNodeInfoUpdate;
 import de.dytanic.cloudnet.service.ICloudService;
 
+import java.util.Collection;
+import java.util.Map;
+
 public final class PacketServerClusterNodeInfoUpdateListener implements IPacketListener {
 
+    //Map<NodeUniqueId, Publisher> for the snapshots of the other nodes to the local services
+    private static final Map<String, ClusterNodeInfoSnapshotPublisher> SERVICE_PUBLISHERS = Maps.newConcurrentHashMap();
+
+    //Map<NodeUniqueId, Time> of the last requests of full snapshots
+    private static final Map<String, Long> SNAPSHOT_REQUESTS = Maps.newConcurrentHashMap();
+
+    private static final long SNAPSHOT_REQUEST_INTERVAL = 1000;
+
+    static ClusterNodeInfoSnapshotPublisher getServicePublisher(String nodeUniqueId) {
+        return SERVICE_PUBLISHERS.get(nodeUniqueId);
+    }
+
     @Override
     public void handle(INetworkChannel channel, IPacket packet) {
+        NetworkClusterNodeInfoSnapshot snapshot;
+        IClusterNodeServer clusterNodeServer;
+
         if (packet.getHeader().contains("clusterNodeInfoSnapshot")) {
-            NetworkClusterNodeInfoSnapshot snapshot = packet.getHeader().get("clusterNodeInfoSnapshot", NetworkClusterNodeInfoSnapshot.TYPE);
-            IClusterNodeServer clusterNodeServer = CloudNet.getInstance().getClusterNodeServerProvider().getNodeServer(snapshot.getNode().getUniqueId());
+            snapshot = packet.getHeader().get("clusterNodeInfoSnapshot", NetworkClusterNodeInfoSnapshot.TYPE);
+            clusterNodeServer = CloudNet.getInstance().getClusterNodeServerProvider().getNodeServer(snapshot.getNode().getUniqueId());
 
-            clusterNodeServer.setNodeInfoSnapshot(snapshot);
-            CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkClusterNodeInfoUpdateEvent(channel, snapshot));
+            if (clusterNodeServer == null) {
+                return;
+            }
 
-            Packet packet1 = new PacketServerClusterNodeInfoUpdate(snapshot);
-            for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values()) {
-                if (cloudService.getNetworkChannel() != null) {
-                    cloudService.getNetworkChannel().sendPacket(packet1);
+            synchronized (clusterNodeServer) {
+                //the packets are handled in parallel, so a full snapshot may be overtaken by a newer snapshot
+                if (clusterNodeServer.getNodeInfoSnapshot() != null && clusterNodeServer.getNodeInfoSnapshot().getCreationTime() > snapshot.getCreationTime()) {
+                    return;
                 }
+
+                clusterNodeServer.setNodeInfoSnapshot(snapshot);
             }
+
+        } else if (packet.getHeader().contains("clusterNodeInfoSnapshotDelta")) {
+            String nodeUniqueId = packet.getHeader().getString("nodeUniqueId");
+            clusterNodeServer = CloudNet.getInstance().getClusterNodeServerProvider().getNodeServer(nodeUniqueId);
+
+            if (clusterNodeServer == null) {
+                return;
+            }
+
+            synchronized (clusterNodeServer) {
+                NetworkClusterNodeInfoSnapshot baseSnapshot = clusterNodeServer.getNodeInfoSnapshot();
+
+                //the delta can only be applied on the snapshot, from which it has been created
+                if (baseSnapshot == null || baseSnapshot.getCreationTime() != packet.getHeader().getLong("baseCreationTime")) {
+                    requestSnapshot(channel, nodeUniqueId);
+                    return;
+                }
+
+                snapshot = NetworkClusterNodeInfoSnapshotDelta.applyDelta(baseSnapshot, packet.getHeader().getJsonObject("clusterNodeInfoSnapshotDelta"));
+                clusterNodeServer.setNodeInfoSnapshot(snapshot);
+            }
+        } else {
+            return;
+        }
+
+        CloudNetDriver.getInstance().getEventManager().callEvent(new NetworkClusterNodeInfoUpdateEvent(channel, snapshot));
+
+        Collection<INetworkChannel> channels = Iterables.newArrayList();
+
+        for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values()) {
+            if (cloudService.getNetworkChannel() != null) {
+                channels.add(cloudService.getNetworkChannel());
+            }
+        }
+
+        SERVICE_PUBLISHERS.computeIfAbsent(snapshot.getNode().getUniqueId(), nodeUniqueId -> new ClusterNodeInfoSnapshotPublisher()).publish(snapshot, channels);
+    }
+
+    private static void requestSnapshot(INetworkChannel channel, String nodeUniqueId) {
+        long now = System.currentTimeMillis();
+        Long lastRequest = SNAPSHOT_REQUESTS.get(nodeUniqueId);
+
+        if (lastRequest == null || lastRequest + SNAPSHOT_REQUEST_INTERVAL <= now) {
+            SNAPSHOT_REQUESTS.put(nodeUniqueId, now);
+            channel.sendPacket(new PacketClientClusterNodeInfoSnapshotRequest(nodeUniqueId));
         }
     }
-}
\ No newline at end of file
+}
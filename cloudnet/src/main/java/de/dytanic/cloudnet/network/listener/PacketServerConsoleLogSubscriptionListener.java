@@ -0,0 +1,22 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+
+import java.util.UUID;
+
+public final class PacketServerConsoleLogSubscriptionListener implements IPacketListener {
+
+    @Override
+    public void handle(INetworkChannel channel, IPacket packet) {
+        if (packet.getHeader().contains("command") && packet.getHeader().getString("command").equals("log_subscription")) {
+            CloudNet.getInstance().getServiceConsoleLogForwarder().handleSubscription(
+                    packet.getHeader().get("serviceUniqueId", UUID.class),
+                    packet.getHeader().getString("nodeUniqueId"),
+                    packet.getHeader().getBoolean("subscribe")
+            );
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.database.h2.H2DatabaseReplicator;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.permission.DefaultDatabasePermissionManagement;
+
+public final class PacketServerH2DatabaseReplicationListener implements IPacketListener {
+
+    @Override
+    public void handle(INetworkChannel channel, IPacket packet) {
+        H2DatabaseReplicator replicator = CloudNet.getInstance().getH2DatabaseReplicator();
+
+        if (replicator == null || !packet.getHeader().contains("command")) {
+            return;
+        }
+
+        //the users are replaced by the snapshot without the permission management
+        if (replicator.handle(channel, packet.getHeader()) &&
+                CloudNet.getInstance().getPermissionManagement() instanceof DefaultDatabasePermissionManagement) {
+            DefaultDatabasePermissionManagement permissionManagement = (DefaultDatabasePermissionManagement) CloudNet.getInstance().getPermissionManagement();
+
+            permissionManagement.getUserCache().invalidateAll();
+            permissionManagement.getUserGroupIndex().invalidate();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package de.dytanic.cloudnet.network.listener;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.template.cluster.TemplateTransferReceiver;
+import de.dytanic.cloudnet.template.cluster.TemplateTransferSender;
+
+import java.util.UUID;
+
+public final class PacketServerTemplateTransferListener implements IPacketListener {
+
+    @Override
+    public void handle(INetworkChannel channel, IPacket packet) throws Exception {
+        if (!packet.getHeader().contains("command") || !packet.getHeader().contains("sessionId")) {
+            return;
+        }
+
+        UUID sessionId = packet.getHeader().get("sessionId", UUID.class);
+
+        TemplateTransferSender sender = CloudNet.getInstance().getTemplateTransferSender();
+        TemplateTransferReceiver receiver = CloudNet.getInstance().getTemplateTransferReceiver();
+
+        switch (packet.getHeader().getString("command")) {
+            case TemplateTransferSender.COMMAND_BEGIN:
+                receiver.handleBegin(channel, sessionId, packet.getHeader());
+                break;
+            case TemplateTransferSender.COMMAND_CHUNK:
+                receiver.handleChunk(channel, sessionId, packet.getHeader(), packet.getBody());
+                break;
+            case TemplateTransferSender.COMMAND_END:
+                receiver.handleEnd(channel, sessionId);
+                break;
+            case TemplateTransferReceiver.COMMAND_RESUME:
+                sender.handleResume(sessionId, packet.getHeader());
+                break;
+            case TemplateTransferReceiver.COMMAND_ACK:
+                sender.handleAck(sessionId);
+                break;
+            case TemplateTransferReceiver.COMMAND_COMPLETE:
+                sender.handleComplete(sessionId, packet.getHeader().getBoolean("success"));
+                break;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet.network.packet;
 
+import com.google.gson.JsonObject;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
@@ -10,4 +11,17 @@ public final class PacketServerClusterNodeInfoUpdate extends Packet {
     public PacketServerClusterNodeInfoUpdate(NetworkClusterNodeInfoSnapshot networkClusterNodeInfoSnapshot) {
         super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("clusterNodeInfoSnapshot", networkClusterNodeInfoSnapshot), new byte[0]);
     }
-}
\ No newline at end of file
+
+    public PacketServerClusterNodeInfoUpdate(JsonObject networkClusterNodeInfoSnapshot) {
+        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("clusterNodeInfoSnapshot", networkClusterNodeInfoSnapshot), new byte[0]);
+    }
+
+    /**
+     * @param baseCreationTime the creation time of the snapshot, on which the delta has to be applied
+     */
+    public PacketServerClusterNodeInfoUpdate(String nodeUniqueId, long baseCreationTime, JsonObject networkClusterNodeInfoSnapshotDelta) {
+        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("nodeUniqueId", nodeUniqueId)
+                .append("baseCreationTime", baseCreationTime)
+                .append("clusterNodeInfoSnapshotDelta", networkClusterNodeInfoSnapshotDelta), new byte[0]);
+    }
+}
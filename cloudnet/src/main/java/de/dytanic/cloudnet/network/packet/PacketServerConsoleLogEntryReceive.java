@@ -1,17 +1,22 @@
 package de.dytanic.cloudnet.network.packet;
 
+import com.google.gson.JsonArray;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
-import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+
+import java.util.UUID;
 
 public final class PacketServerConsoleLogEntryReceive extends Packet {
 
-    public PacketServerConsoleLogEntryReceive(ServiceInfoSnapshot serviceInfoSnapshot, String message, boolean errorMessage) {
-        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("command", "log_entry_receive")
-                        .append("serviceInfoSnapshot", serviceInfoSnapshot)
-                        .append("messageEntry", message)
-                        .append("errorMessage", errorMessage),
+    /**
+     * @param serviceUniqueId the uniqueId of the service, which has written the messages
+     * @param entries         the batched entries as objects with the properties "messageEntry" and "errorMessage"
+     */
+    public PacketServerConsoleLogEntryReceive(UUID serviceUniqueId, JsonArray entries) {
+        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("command", "log_entries_receive")
+                        .append("serviceUniqueId", serviceUniqueId)
+                        .append("entries", entries),
                 new byte[0]);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package de.dytanic.cloudnet.network.packet;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+
+import java.util.UUID;
+
+public final class PacketServerConsoleLogSubscription extends Packet {
+
+    public PacketServerConsoleLogSubscription(UUID serviceUniqueId, String nodeUniqueId, boolean subscribe) {
+        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("command", "log_subscription")
+                        .append("serviceUniqueId", serviceUniqueId)
+                        .append("nodeUniqueId", nodeUniqueId)
+                        .append("subscribe", subscribe),
+                new byte[0]);
+    }
+}
@@ -0,0 +1,12 @@
+package de.dytanic.cloudnet.network.packet;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+
+public final class PacketServerH2DatabaseReplication extends Packet {
+
+    public PacketServerH2DatabaseReplication(String command, JsonDocument properties) {
+        super(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new JsonDocument("command", command).append(properties), new byte[0]);
+    }
+}
@@ -0,0 +1,17 @@
+package de.dytanic.cloudnet.network.packet;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+
+import java.util.UUID;
+
+public final class PacketServerTemplateTransfer extends Packet {
+
+    public PacketServerTemplateTransfer(String command, UUID sessionId, JsonDocument properties, byte[] body) {
+        super(PacketConstants.INTERNAL_CLUSTER_CHANNEL, new JsonDocument("command", command)
+                        .append("sessionId", sessionId)
+                        .append(properties),
+                body == null ? new byte[0] : body);
+    }
+}
@@ -12,6 +12,7 @@ import de.dytanic.cloudnet.driver.permission.*;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class DefaultDatabasePermissionManagement implements ClusterSynchronizedPermissionManagement {
 
@@ -21,6 +22,14 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
 
     private final Map<String, IPermissionGroup> permissionGroupsMap = Maps.newConcurrentHashMap();
     private final Callable<AbstractDatabaseProvider> databaseProviderCallable;
+
+    private final PermissionUserCache userCache = new PermissionUserCache(
+            Integer.getInteger("cloudnet.permissions.users.cache.size", 10000),
+            Long.getLong("cloudnet.permissions.users.cache.ttl", 300000)
+    );
+    private final PermissionUserGroupIndex userGroupIndex = new PermissionUserGroupIndex();
+    //the users whose expired permissions have been removed, but who haven't been written to the database yet
+    private final Set<UUID> pendingUserUpdates = ConcurrentHashMap.newKeySet();
     private IPermissionManagementHandler permissionManagementHandler;
 
     public DefaultDatabasePermissionManagement(Callable<AbstractDatabaseProvider> databaseProviderCallable) {
@@ -35,6 +44,9 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         Validate.checkNotNull(permissionUser);
 
         this.getDatabase().insert(permissionUser.getUniqueId().toString(), new JsonDocument(permissionUser));
+        this.userCache.put(copyOf(permissionUser));
+        this.userGroupIndex.update(permissionUser);
+
         return permissionUser;
     }
 
@@ -42,7 +54,10 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
     public void updateUserWithoutClusterSync(IPermissionUser permissionUser) {
         Validate.checkNotNull(permissionUser);
 
+        this.pendingUserUpdates.remove(permissionUser.getUniqueId());
         this.getDatabase().update(permissionUser.getUniqueId().toString(), new JsonDocument(permissionUser));
+        this.userCache.put(copyOf(permissionUser));
+        this.userGroupIndex.update(permissionUser);
     }
 
     @Override
@@ -50,7 +65,7 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         Validate.checkNotNull(name);
 
         for (IPermissionUser permissionUser : this.getUsers(name)) {
-            this.getDatabase().delete(permissionUser.getUniqueId().toString());
+            this.deleteUserWithoutClusterSync(permissionUser);
         }
     }
 
@@ -59,13 +74,16 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         Validate.checkNotNull(permissionUser);
 
         this.getDatabase().delete(permissionUser.getUniqueId().toString());
+        this.pendingUserUpdates.remove(permissionUser.getUniqueId());
+        this.userCache.invalidate(permissionUser.getUniqueId());
+        this.userGroupIndex.remove(permissionUser.getUniqueId());
     }
 
     @Override
     public boolean containsUser(UUID uniqueId) {
         Validate.checkNotNull(uniqueId);
 
-        return this.getDatabase().contains(uniqueId.toString());
+        return this.userCache.peek(uniqueId) != null || this.getDatabase().contains(uniqueId.toString());
     }
 
     @Override
@@ -75,38 +93,32 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         return this.getUsers(name).size() > 0;
     }
 
+    /**
+     * Returns a copy of the cached user or loads the user from the database into the cache. The cached instance is
+     * never handed out, so that a caller can't change it without an update. Expired permissions and groups of the
+     * user are removed, the user is written to the database with the next {@link #flushPendingUserUpdates()}, so
+     * that multiple removals are written together.
+     */
     @Override
     public IPermissionUser getUser(UUID uniqueId) {
         Validate.checkNotNull(uniqueId);
 
-        JsonDocument jsonDocument = this.getDatabase().get(uniqueId.toString());
+        IPermissionUser permissionUser = this.userCache.get(uniqueId);
 
-        if (jsonDocument != null) {
-            IPermissionUser permissionUser = jsonDocument.toInstanceOf(PermissionUser.TYPE);
+        if (permissionUser != null) {
+            return this.copyCachedUser(permissionUser);
+        }
 
-            if (this.testPermissionUser(permissionUser)) {
-                this.updateUser(permissionUser);
-            }
+        JsonDocument jsonDocument = this.getDatabase().get(uniqueId.toString());
 
-            return permissionUser;
-        } else {
-            return null;
-        }
+        return jsonDocument != null ? this.loadUser(jsonDocument) : null;
     }
 
     @Override
     public List<IPermissionUser> getUsers(String name) {
         Validate.checkNotNull(name);
 
-        return Iterables.map(this.getDatabase().get("name", name), strings -> {
-            IPermissionUser permissionUser = strings.toInstanceOf(PermissionUser.TYPE);
-
-            if (this.testPermissionUser(permissionUser)) {
-                this.updateUser(permissionUser);
-            }
-
-            return permissionUser;
-        });
+        return Iterables.map(this.getDatabase().get("name", name), this::loadUser);
     }
 
     @Override
@@ -114,8 +126,14 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         Collection<IPermissionUser> permissionUsers = Iterables.newArrayList();
 
         this.getDatabase().iterate((s, strings) -> {
-            IPermissionUser permissionUser = strings.toInstanceOf(PermissionUser.TYPE);
-            this.testPermissionUser(permissionUser);
+            IPermissionUser permissionUser = this.userCache.peek(UUID.fromString(s));
+
+            if (permissionUser != null) {
+                permissionUser = this.copyCachedUser(permissionUser);
+            } else {
+                permissionUser = strings.toInstanceOf(PermissionUser.TYPE);
+                this.testPermissionUser(permissionUser);
+            }
 
             permissionUsers.add(permissionUser);
         });
@@ -128,6 +146,9 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         Validate.checkNotNull(users);
 
         this.getDatabase().clear();
+        this.pendingUserUpdates.clear();
+        this.userCache.invalidateAll();
+        this.userGroupIndex.invalidate();
 
         for (IPermissionUser permissionUser : users) {
             if (permissionUser != null) {
@@ -142,18 +163,83 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
 
         Collection<IPermissionUser> permissionUsers = Iterables.newArrayList();
 
-        this.getDatabase().iterate((s, strings) -> {
-            IPermissionUser permissionUser = strings.toInstanceOf(PermissionUser.TYPE);
+        for (UUID uniqueId : this.userGroupIndex.getUsers(group, this::getUsers)) {
+            IPermissionUser permissionUser = this.userCache.peek(uniqueId);
+
+            //the users which aren't cached aren't put into the cache, a large group would evict all other users
+            if (permissionUser != null) {
+                permissionUser = this.copyCachedUser(permissionUser);
+            } else {
+                JsonDocument document = this.getDatabase().get(uniqueId.toString());
+
+                if (document == null) {
+                    continue;
+                }
+
+                permissionUser = document.toInstanceOf(PermissionUser.TYPE);
+                this.testPermissionUser(permissionUser);
+            }
 
-            this.testPermissionUser(permissionUser);
             if (permissionUser.inGroup(group)) {
                 permissionUsers.add(permissionUser);
             }
-        });
+        }
 
         return permissionUsers;
     }
 
+    /**
+     * Writes the users, whose expired permissions have been removed since the last flush, to the database and
+     * synchronizes them with the cluster
+     */
+    public void flushPendingUserUpdates() {
+        for (UUID uniqueId : this.pendingUserUpdates) {
+            if (!this.pendingUserUpdates.remove(uniqueId)) {
+                continue;
+            }
+
+            //users which have been evicted from the cache are cleaned up again on the next load
+            IPermissionUser permissionUser = this.userCache.peek(uniqueId);
+
+            if (permissionUser != null) {
+                this.updateUser(this.copyCachedUser(permissionUser));
+            }
+        }
+    }
+
+    private IPermissionUser loadUser(JsonDocument document) {
+        IPermissionUser permissionUser = document.toInstanceOf(PermissionUser.TYPE);
+        IPermissionUser cachedPermissionUser = this.userCache.peek(permissionUser.getUniqueId());
+
+        if (cachedPermissionUser != null) {
+            return this.copyCachedUser(cachedPermissionUser);
+        }
+
+        this.userCache.put(permissionUser);
+
+        return this.copyCachedUser(permissionUser);
+    }
+
+    /**
+     * Removes the expired permissions and groups of the cached user and returns a copy of it. The removal and the copy
+     * are done under the lock of the cached user, so that concurrent readers never see a partially cleaned user.
+     */
+    private IPermissionUser copyCachedUser(IPermissionUser cachedPermissionUser) {
+        synchronized (cachedPermissionUser) {
+            if (this.userCache.hasTimedOutPermissions(cachedPermissionUser.getUniqueId()) && this.testPermissionUser(cachedPermissionUser)) {
+                //computes the next timeout of the cached user
+                this.userCache.refresh(cachedPermissionUser);
+                this.pendingUserUpdates.add(cachedPermissionUser.getUniqueId());
+            }
+
+            return copyOf(cachedPermissionUser);
+        }
+    }
+
+    private static IPermissionUser copyOf(IPermissionUser permissionUser) {
+        return new JsonDocument(permissionUser).toInstanceOf(PermissionUser.TYPE);
+    }
+
 
     @Override
     public IPermissionGroup addGroupWithoutClusterSync(IPermissionGroup permissionGroup) {
@@ -245,6 +331,10 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
     public boolean reload() {
         loadGroups();
 
+        this.flushPendingUserUpdates();
+        this.userCache.invalidateAll();
+        this.userGroupIndex.invalidate();
+
         if (this.permissionManagementHandler != null) {
             this.permissionManagementHandler.handleReloaded(this);
         }
@@ -292,6 +382,18 @@ public final class DefaultDatabasePermissionManagement implements ClusterSynchro
         return null;
     }
 
+    public PermissionUserCache getUserCache() {
+        return this.userCache;
+    }
+
+    public PermissionUserGroupIndex getUserGroupIndex() {
+        return this.userGroupIndex;
+    }
+
+    public int getPendingUserUpdatesCount() {
+        return this.pendingUserUpdates.size();
+    }
+
     public Map<String, IPermissionGroup> getPermissionGroupsMap() {
         return this.permissionGroupsMap;
     }
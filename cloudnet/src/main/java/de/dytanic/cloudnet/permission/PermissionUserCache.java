@@ -0,0 +1,208 @@
+package de.dytanic.cloudnet.permission;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.driver.permission.IPermissionUser;
+import de.dytanic.cloudnet.driver.permission.Permission;
+import de.dytanic.cloudnet.driver.permission.PermissionUserGroupInfo;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of the deserialized permission users, which evicts the least recently used users, if the cache is
+ * full, and users which have been cached longer than the time to live, so that changes in the database which don't
+ * pass the permission management are visible after the time to live.
+ * <p>
+ * Every entry knows the time of the next timeout of a permission or group of the user, so that the expired
+ * permissions only have to be removed, if this time is reached.
+ */
+public final class PermissionUserCache {
+
+    private final int maxSize;
+
+    private final long timeToLive;
+
+    private final Map<UUID, CachedUser> users = new LinkedHashMap<>(16, 0.75F, true);
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+    public PermissionUserCache(int maxSize, long timeToLive) {
+        Validate.assertTrue(maxSize > 0, "maxSize has to be positive");
+        Validate.assertTrue(timeToLive > 0, "timeToLive has to be positive");
+
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @return the cached user or null, if the user isn't cached or the time to live of the entry has been reached
+     */
+    public IPermissionUser get(UUID uniqueId) {
+        CachedUser cachedUser = this.getCachedUser(uniqueId);
+
+        if (cachedUser == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        return cachedUser.permissionUser;
+    }
+
+    /**
+     * @return the cached user without counting a hit or miss or null, if the user isn't cached
+     */
+    public IPermissionUser peek(UUID uniqueId) {
+        CachedUser cachedUser = this.getCachedUser(uniqueId);
+        return cachedUser != null ? cachedUser.permissionUser : null;
+    }
+
+    /**
+     * @return true, if a permission or group of the cached user has timed out since the user has been cached
+     */
+    public boolean hasTimedOutPermissions(UUID uniqueId) {
+        CachedUser cachedUser = this.getCachedUser(uniqueId);
+        return cachedUser != null && cachedUser.nextTimeOut <= System.currentTimeMillis();
+    }
+
+    public void put(IPermissionUser permissionUser) {
+        Validate.checkNotNull(permissionUser);
+
+        CachedUser cachedUser = new CachedUser(permissionUser, System.currentTimeMillis() + this.timeToLive, getNextTimeOut(permissionUser));
+
+        synchronized (this.users) {
+            this.users.put(permissionUser.getUniqueId(), cachedUser);
+
+            Iterator<CachedUser> iterator = this.users.values().iterator();
+            while (this.users.size() > this.maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Computes the next timeout of the cached user again, after expired permissions have been removed from the user.
+     * The entry isn't changed, if the user has been replaced or removed meanwhile.
+     */
+    public void refresh(IPermissionUser permissionUser) {
+        Validate.checkNotNull(permissionUser);
+
+        long nextTimeOut = getNextTimeOut(permissionUser);
+
+        synchronized (this.users) {
+            CachedUser cachedUser = this.users.get(permissionUser.getUniqueId());
+
+            if (cachedUser != null && cachedUser.permissionUser == permissionUser) {
+                this.users.put(permissionUser.getUniqueId(), new CachedUser(permissionUser, cachedUser.expiration, nextTimeOut));
+            }
+        }
+    }
+
+    public void invalidate(UUID uniqueId) {
+        synchronized (this.users) {
+            this.users.remove(uniqueId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this.users) {
+            this.users.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (this.users) {
+            return this.users.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public long getTimeToLive() {
+        return this.timeToLive;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    public double getHitRate() {
+        long hits = this.hits.get(), requests = hits + this.misses.get();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    private CachedUser getCachedUser(UUID uniqueId) {
+        Validate.checkNotNull(uniqueId);
+
+        synchronized (this.users) {
+            CachedUser cachedUser = this.users.get(uniqueId);
+
+            if (cachedUser != null && cachedUser.expiration <= System.currentTimeMillis()) {
+                this.users.remove(uniqueId);
+                this.evictions.incrementAndGet();
+
+                return null;
+            }
+
+            return cachedUser;
+        }
+    }
+
+    private static long getNextTimeOut(IPermissionUser permissionUser) {
+        long nextTimeOut = getNextTimeOut(permissionUser.getPermissions(), Long.MAX_VALUE);
+
+        for (Collection<Permission> permissions : permissionUser.getGroupPermissions().values()) {
+            nextTimeOut = getNextTimeOut(permissions, nextTimeOut);
+        }
+
+        for (PermissionUserGroupInfo groupInfo : permissionUser.getGroups()) {
+            if (groupInfo.getTimeOutMillis() > 0) {
+                nextTimeOut = Math.min(nextTimeOut, groupInfo.getTimeOutMillis());
+            }
+        }
+
+        return nextTimeOut;
+    }
+
+    private static long getNextTimeOut(Collection<Permission> permissions, long nextTimeOut) {
+        for (Permission permission : permissions) {
+            if (permission.getTimeOutMillis() > 0) {
+                nextTimeOut = Math.min(nextTimeOut, permission.getTimeOutMillis());
+            }
+        }
+
+        return nextTimeOut;
+    }
+
+    private static final class CachedUser {
+
+        private final IPermissionUser permissionUser;
+
+        private final long expiration;
+
+        private final long nextTimeOut;
+
+        private CachedUser(IPermissionUser permissionUser, long expiration, long nextTimeOut) {
+            this.permissionUser = permissionUser;
+            this.expiration = expiration;
+            this.nextTimeOut = nextTimeOut;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.dytanic.cloudnet.permission;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.driver.permission.IPermissionUser;
+import de.dytanic.cloudnet.driver.permission.PermissionUserGroupInfo;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * The reverse index of the groups of all permission users in the database. The index is loaded with one iteration
+ * over the database on the first lookup and is updated by the permission management on every change of a user.
+ * <p>
+ * The groups are compared case insensitive like {@link IPermissionUser#inGroup(String)}. The index doesn't check
+ * the timeouts of the groups, the users of a group have to be checked by the caller.
+ */
+public final class PermissionUserGroupIndex {
+
+    //Map<Lowercase group, UniqueIds>
+    private final Map<String, Set<UUID>> usersByGroup = Maps.newHashMap();
+
+    //Map<UniqueId, Lowercase groups>
+    private final Map<UUID, Collection<String>> groupsByUser = Maps.newHashMap();
+
+    private boolean loaded;
+
+    /**
+     * @param loader loads all users from the database, if the index hasn't been loaded yet
+     * @return the unique ids of the users, which have the group
+     */
+    public synchronized Collection<UUID> getUsers(String group, Supplier<Collection<IPermissionUser>> loader) {
+        Validate.checkNotNull(group);
+        Validate.checkNotNull(loader);
+
+        if (!this.loaded) {
+            for (IPermissionUser permissionUser : loader.get()) {
+                this.update(permissionUser);
+            }
+
+            this.loaded = true;
+        }
+
+        Set<UUID> uniqueIds = this.usersByGroup.get(group.toLowerCase());
+        return uniqueIds != null ? new ArrayList<>(uniqueIds) : new ArrayList<>();
+    }
+
+    public synchronized void update(IPermissionUser permissionUser) {
+        Validate.checkNotNull(permissionUser);
+
+        this.remove(permissionUser.getUniqueId());
+
+        Collection<String> groups = new ArrayList<>();
+
+        for (PermissionUserGroupInfo groupInfo : permissionUser.getGroups()) {
+            if (groupInfo.getGroup() == null) {
+                continue;
+            }
+
+            String group = groupInfo.getGroup().toLowerCase();
+
+            groups.add(group);
+            this.usersByGroup.computeIfAbsent(group, key -> new HashSet<>()).add(permissionUser.getUniqueId());
+        }
+
+        this.groupsByUser.put(permissionUser.getUniqueId(), groups);
+    }
+
+    public synchronized void remove(UUID uniqueId) {
+        Collection<String> groups = this.groupsByUser.remove(uniqueId);
+
+        if (groups == null) {
+            return;
+        }
+
+        for (String group : groups) {
+            Set<UUID> uniqueIds = this.usersByGroup.get(group);
+
+            if (uniqueIds != null && uniqueIds.remove(uniqueId) && uniqueIds.isEmpty()) {
+                this.usersByGroup.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Clears the index, which is loaded from the database again on the next lookup
+     */
+    public synchronized void invalidate() {
+        this.usersByGroup.clear();
+        this.groupsByUser.clear();
+        this.loaded = false;
+    }
+
+    public synchronized boolean isLoaded() {
+        return this.loaded;
+    }
+}
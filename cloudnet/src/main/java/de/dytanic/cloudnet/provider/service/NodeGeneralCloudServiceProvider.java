@@ -2,7 +2,6 @@ package de.dytanic.cloudnet.provider.service;
 
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.common.Validate;
-import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
@@ -41,7 +40,7 @@ public class NodeGeneralCloudServiceProvider implements GeneralCloudServiceProvi
 
     @Override
     public Collection<ServiceInfoSnapshot> getStartedCloudServices() {
-        return Iterables.filter(this.getCloudServices(), serviceInfoSnapshot -> serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.RUNNING);
+        return this.cloudNet.getCloudServiceManager().getServiceInfoSnapshots(ServiceLifeCycle.RUNNING);
     }
 
     @Override
@@ -55,14 +54,14 @@ public class NodeGeneralCloudServiceProvider implements GeneralCloudServiceProvi
     public Collection<ServiceInfoSnapshot> getCloudServices(ServiceEnvironmentType environment) {
         Validate.checkNotNull(environment);
 
-        return this.cloudNet.getCloudServiceManager().getServiceInfoSnapshots(serviceInfoSnapshot -> serviceInfoSnapshot.getServiceId().getEnvironment() == environment);
+        return this.cloudNet.getCloudServiceManager().getServiceInfoSnapshots(environment);
     }
 
     @Override
     public Collection<ServiceInfoSnapshot> getCloudServicesByGroup(String group) {
         Validate.checkNotNull(group);
 
-        return Iterables.filter(this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().values(), serviceInfoSnapshot -> Iterables.contains(group, serviceInfoSnapshot.getConfiguration().getGroups()));
+        return this.cloudNet.getCloudServiceManager().getServiceInfoSnapshotsByGroup(group);
     }
 
     @Override
@@ -81,30 +80,14 @@ public class NodeGeneralCloudServiceProvider implements GeneralCloudServiceProvi
     public int getServicesCountByGroup(String group) {
         Validate.checkNotNull(group);
 
-        int amount = 0;
-
-        for (ServiceInfoSnapshot serviceInfoSnapshot : this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().values()) {
-            if (Iterables.contains(group, serviceInfoSnapshot.getConfiguration().getGroups())) {
-                amount++;
-            }
-        }
-
-        return amount;
+        return this.cloudNet.getCloudServiceManager().getServiceInfoSnapshotsByGroup(group).size();
     }
 
     @Override
     public int getServicesCountByTask(String taskName) {
         Validate.checkNotNull(taskName);
 
-        int amount = 0;
-
-        for (ServiceInfoSnapshot serviceInfoSnapshot : this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().values()) {
-            if (serviceInfoSnapshot.getServiceId().getTaskName().equals(taskName)) {
-                amount++;
-            }
-        }
-
-        return amount;
+        return this.cloudNet.getCloudServiceManager().getServiceInfoSnapshots(taskName).size();
     }
 
     @Override
@@ -0,0 +1,124 @@
+package de.dytanic.cloudnet.scheduler;
+
+import de.dytanic.cloudnet.common.Validate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A periodic step of the node, which runs on its own thread with a fixed delay between the end of a run and the
+ * start of the next one. A slow run therefore only delays this stage and never the other stages of the node. The
+ * durations of the runs are recorded for the diagnostics of the node.
+ */
+public final class ScheduledStage implements AutoCloseable {
+
+    private final String name;
+
+    private final long periodMillis;
+
+    private final Runnable runnable;
+
+    private final ScheduledExecutorService executorService;
+
+    private final AtomicLong runs = new AtomicLong(), failures = new AtomicLong(), overruns = new AtomicLong(), totalNanos = new AtomicLong();
+
+    private volatile long lastNanos, maxNanos, lastRunTime = -1;
+
+    ScheduledStage(String name, long periodMillis, Runnable runnable) {
+        Validate.checkNotNull(name);
+        Validate.checkNotNull(runnable);
+        Validate.assertTrue(periodMillis > 0, "period has to be positive");
+
+        this.name = name;
+        this.periodMillis = periodMillis;
+        this.runnable = runnable;
+        this.executorService = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Stage-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        this.executorService.scheduleWithFixedDelay(this::run, this.periodMillis, this.periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+
+        try {
+            this.runnable.run();
+        } catch (Throwable throwable) {
+            this.failures.incrementAndGet();
+            throwable.printStackTrace();
+        }
+
+        long nanos = System.nanoTime() - start;
+
+        this.runs.incrementAndGet();
+        this.totalNanos.addAndGet(nanos);
+        this.lastNanos = nanos;
+        this.lastRunTime = System.currentTimeMillis();
+
+        if (nanos > this.maxNanos) {
+            this.maxNanos = nanos;
+        }
+
+        if (nanos > TimeUnit.MILLISECONDS.toNanos(this.periodMillis)) {
+            this.overruns.incrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getPeriodMillis() {
+        return this.periodMillis;
+    }
+
+    public long getRuns() {
+        return this.runs.get();
+    }
+
+    /**
+     * @return the amount of runs which have thrown an exception
+     */
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    /**
+     * @return the amount of runs which took longer than the period of this stage
+     */
+    public long getOverruns() {
+        return this.overruns.get();
+    }
+
+    public double getAverageMillis() {
+        long runs = this.runs.get();
+        return runs == 0 ? 0 : this.totalNanos.get() / (double) runs / 1_000_000D;
+    }
+
+    public double getLastMillis() {
+        return this.lastNanos / 1_000_000D;
+    }
+
+    public double getMaxMillis() {
+        return this.maxNanos / 1_000_000D;
+    }
+
+    /**
+     * @return the time when the last run has finished in milliseconds or -1, if the stage hasn't run yet
+     */
+    public long getLastRunTime() {
+        return this.lastRunTime;
+    }
+
+    @Override
+    public void close() {
+        this.executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package de.dytanic.cloudnet.scheduler;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Runs the periodic work of the node as independent stages, each on its own thread. The period of a stage can be
+ * overridden with the system property "cloudnet.stage.&lt;name&gt;.period" in milliseconds.
+ *
+ * @see ScheduledStage
+ */
+public final class StageScheduler implements AutoCloseable {
+
+    //Map<Name, Stage>
+    private final Map<String, ScheduledStage> stages = Maps.newLinkedHashMap();
+
+    private boolean closed;
+
+    /**
+     * Registers and starts a new stage
+     *
+     * @param name         the unique name of the stage, which is used for the thread name and the property of the period
+     * @param periodMillis the default delay between two runs of the stage
+     * @param runnable     the work of the stage
+     * @return the started stage
+     */
+    public synchronized ScheduledStage schedule(String name, long periodMillis, Runnable runnable) {
+        Validate.checkNotNull(name);
+        Validate.assertFalse(this.closed, "the scheduler is already closed");
+        Validate.assertFalse(this.stages.containsKey(name), "stage " + name + " is already registered");
+
+        ScheduledStage stage = new ScheduledStage(name, Long.getLong("cloudnet.stage." + name + ".period", periodMillis), runnable);
+        this.stages.put(name, stage);
+        stage.start();
+
+        return stage;
+    }
+
+    public synchronized ScheduledStage getStage(String name) {
+        return this.stages.get(name);
+    }
+
+    public synchronized Collection<ScheduledStage> getStages() {
+        return new ArrayList<>(this.stages.values());
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+
+        for (ScheduledStage stage : this.stages.values()) {
+            stage.close();
+        }
+
+        this.stages.clear();
+    }
+}
@@ -26,10 +26,16 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
     private final File
             tempDirectory = new File(System.getProperty("cloudnet.tempDir.services", "temp/services")),
             persistenceServicesDirectory = new File(System.getProperty("cloudnet.persistable.services.path", "local/services"));
-    private final Map<UUID, ServiceInfoSnapshot> globalServiceInfoSnapshots = Maps.newConcurrentHashMap();
+    private final ServiceInfoSnapshotRegistry globalServiceInfoSnapshots = new ServiceInfoSnapshotRegistry();
     private final Map<UUID, ICloudService> cloudServices = Maps.newConcurrentHashMap();
     private final Map<String, ICloudServiceFactory> cloudServiceFactories = Maps.newConcurrentHashMap();
 
+    /**
+     * Guards the allocation of the task ids and ports until the new service has been registered, so that two services
+     * which are created at the same time don't get the same id or port
+     */
+    private final Object serviceCreationLock = new Object();
+
     @Override
     public void init() {
         this.config.load();
@@ -268,22 +274,26 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
             return null;
         }
 
-        serviceConfiguration.setPort(checkAndReplacePort(serviceConfiguration.getPort()));
-
         ICloudService cloudService = null;
 
-        if (serviceConfiguration.getRuntime() != null && this.cloudServiceFactories.containsKey(serviceConfiguration.getRuntime())) {
-            cloudService = this.cloudServiceFactories.get(serviceConfiguration.getRuntime()).createCloudService(this, serviceConfiguration);
-        }
+        synchronized (this.serviceCreationLock) {
+            serviceConfiguration.setPort(checkAndReplacePort(serviceConfiguration.getPort()));
+
+            if (serviceConfiguration.getRuntime() != null && this.cloudServiceFactories.containsKey(serviceConfiguration.getRuntime())) {
+                cloudService = this.cloudServiceFactories.get(serviceConfiguration.getRuntime()).createCloudService(this, serviceConfiguration);
+            }
 
-        if (cloudService == null) {
-            cloudService = DEFAULT_FACTORY.createCloudService(this, serviceConfiguration);
+            if (cloudService == null) {
+                cloudService = DEFAULT_FACTORY.createCloudService(this, serviceConfiguration);
+            }
+
+            if (cloudService != null) {
+                this.cloudServices.put(cloudService.getServiceId().getUniqueId(), cloudService);
+                this.globalServiceInfoSnapshots.put(cloudService.getServiceId().getUniqueId(), cloudService.getServiceInfoSnapshot());
+            }
         }
 
         if (cloudService != null) {
-            this.cloudServices.put(cloudService.getServiceId().getUniqueId(), cloudService);
-            this.globalServiceInfoSnapshots.put(cloudService.getServiceId().getUniqueId(), cloudService.getServiceInfoSnapshot());
-
             CloudNet.getInstance().getNetworkClient()
                     .sendPacket(new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(), PacketClientServerServiceInfoPublisher.PublisherType.REGISTER));
             CloudNet.getInstance().getNetworkServer()
@@ -317,14 +327,6 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
         Validate.checkNotNull(groups);
         Validate.checkNotNull(processConfiguration);
 
-        int taskId = 1;
-
-        Collection<Integer> taskIdList = this.getReservedTaskIds(name);
-
-        while (taskIdList.contains(taskId)) {
-            taskId++;
-        }
-
         for (GroupConfiguration groupConfiguration : this.getGroupConfigurations()) {
             if (groups.contains(groupConfiguration.getName())) {
                 includes.addAll(groupConfiguration.getIncludes());
@@ -336,28 +338,39 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
             }
         }
 
-        ServiceConfiguration serviceConfiguration = new ServiceConfiguration(
-                new ServiceId(
-                        UUID.randomUUID(),
-                        CloudNet.getInstance().getConfig().getIdentity().getUniqueId(),
-                        name,
-                        taskId,
-                        processConfiguration.getEnvironment()
-                ),
-                runtime,
-                autoDeleteOnStop,
-                staticService,
-                groups.toArray(new String[0]),
-                includes.toArray(new ServiceRemoteInclusion[0]),
-                templates.toArray(new ServiceTemplate[0]),
-                deployments.toArray(new ServiceDeployment[0]),
-                deletedFilesAfterStop != null ? deletedFilesAfterStop.toArray(new String[0]) : new String[0],
-                processConfiguration,
-                properties,
-                port
-        );
+        //the task id is reserved by the registration of the service in runTask(ServiceConfiguration)
+        synchronized (this.serviceCreationLock) {
+            int taskId = 1;
+
+            Collection<Integer> taskIdList = this.getReservedTaskIds(name);
+
+            while (taskIdList.contains(taskId)) {
+                taskId++;
+            }
 
-        return this.runTask(serviceConfiguration);
+            ServiceConfiguration serviceConfiguration = new ServiceConfiguration(
+                    new ServiceId(
+                            UUID.randomUUID(),
+                            CloudNet.getInstance().getConfig().getIdentity().getUniqueId(),
+                            name,
+                            taskId,
+                            processConfiguration.getEnvironment()
+                    ),
+                    runtime,
+                    autoDeleteOnStop,
+                    staticService,
+                    groups.toArray(new String[0]),
+                    includes.toArray(new ServiceRemoteInclusion[0]),
+                    templates.toArray(new ServiceTemplate[0]),
+                    deployments.toArray(new ServiceDeployment[0]),
+                    deletedFilesAfterStop != null ? deletedFilesAfterStop.toArray(new String[0]) : new String[0],
+                    processConfiguration,
+                    properties,
+                    port
+            );
+
+            return this.runTask(serviceConfiguration);
+        }
     }
 
     @Override
@@ -444,14 +457,36 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
     public Collection<ServiceInfoSnapshot> getServiceInfoSnapshots(String taskName) {
         Validate.checkNotNull(taskName);
 
-        return this.getServiceInfoSnapshots(serviceInfoSnapshot -> serviceInfoSnapshot.getServiceId().getTaskName().equalsIgnoreCase(taskName));
+        return this.globalServiceInfoSnapshots.getByTask(taskName);
     }
 
     @Override
     public Collection<ServiceInfoSnapshot> getServiceInfoSnapshots(ServiceEnvironmentType environment) {
         Validate.checkNotNull(environment);
 
-        return this.getServiceInfoSnapshots(serviceInfoSnapshot -> serviceInfoSnapshot.getServiceId().getEnvironment() == environment);
+        return this.globalServiceInfoSnapshots.getByEnvironment(environment);
+    }
+
+    @Override
+    public Collection<ServiceInfoSnapshot> getServiceInfoSnapshotsByLifeCycle(String taskName, ServiceLifeCycle... lifeCycles) {
+        Validate.checkNotNull(taskName);
+        Validate.checkNotNull(lifeCycles);
+
+        return this.globalServiceInfoSnapshots.getByTask(taskName, lifeCycles);
+    }
+
+    @Override
+    public Collection<ServiceInfoSnapshot> getServiceInfoSnapshots(ServiceLifeCycle lifeCycle) {
+        Validate.checkNotNull(lifeCycle);
+
+        return this.globalServiceInfoSnapshots.getByLifeCycle(lifeCycle);
+    }
+
+    @Override
+    public Collection<ServiceInfoSnapshot> getServiceInfoSnapshotsByGroup(String group) {
+        Validate.checkNotNull(group);
+
+        return this.globalServiceInfoSnapshots.getByGroup(group);
     }
 
     @Override
@@ -472,10 +507,8 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
 
         Collection<Integer> taskIdList = Iterables.newArrayList();
 
-        for (ServiceInfoSnapshot serviceInfoSnapshot : this.globalServiceInfoSnapshots.values()) {
-            if (serviceInfoSnapshot.getServiceId().getTaskName().equalsIgnoreCase(task)) {
-                taskIdList.add(serviceInfoSnapshot.getServiceId().getTaskServiceId());
-            }
+        for (ServiceInfoSnapshot serviceInfoSnapshot : this.globalServiceInfoSnapshots.getByTask(task)) {
+            taskIdList.add(serviceInfoSnapshot.getServiceId().getTaskServiceId());
         }
 
         return taskIdList;
@@ -1,111 +1,150 @@
 package de.dytanic.cloudnet.service;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import de.dytanic.cloudnet.CloudNet;
-import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.cluster.IClusterNodeServer;
+import de.dytanic.cloudnet.common.collection.Maps;
 import de.dytanic.cloudnet.common.logging.LogLevel;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
-import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
 import de.dytanic.cloudnet.event.service.CloudServiceConsoleLogReceiveEntryEvent;
 import de.dytanic.cloudnet.network.packet.PacketServerConsoleLogEntryReceive;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 
 public final class DefaultServiceConsoleLogCache implements IServiceConsoleLogCache {
 
-    private final Queue<String> cachedLogMessages = Iterables.newConcurrentLinkedQueue();
-
-    private final byte[] buffer = new byte[1024];
-
-    private final StringBuffer stringBuffer = new StringBuffer();
-
+    //bounded ring buffer, the oldest message is dropped, if a new message doesn't fit
+    private final Queue<String> cachedLogMessages;
 
     private final ICloudService cloudService;
 
+    private final Set<String> subscribedNodes = Collections.newSetFromMap(Maps.newConcurrentHashMap());
 
-    private boolean autoPrintReceivedInput;
-    private boolean screenEnabled;
+    private JsonArray pendingEntries = new JsonArray();
 
 
-    private int len;
+    private volatile boolean autoPrintReceivedInput;
+    private volatile boolean screenEnabled;
 
     public DefaultServiceConsoleLogCache(ICloudService cloudService) {
+        this(cloudService, CloudNet.getInstance().getConfig().getMaxServiceConsoleLogCacheSize());
+    }
+
+    public DefaultServiceConsoleLogCache(ICloudService cloudService, int maxCachedLogMessages) {
         this.cloudService = cloudService;
+        this.cachedLogMessages = new ArrayBlockingQueue<>(Math.max(1, maxCachedLogMessages));
+    }
+
+    /**
+     * Registers the output streams of the given process of the service at the log pump of the node
+     *
+     * @param process the started process of the service
+     */
+    public void start(Process process) {
+        boolean printErrorIntoConsole = CloudNet.getInstance().getConfig().isPrintErrorStreamLinesFromServices();
+        ServiceConsoleLogPump logPump = CloudNet.getInstance().getServiceConsoleLogPump();
+
+        logPump.register(process, process.getInputStream(), text -> this.addCachedItem(text, false));
+        logPump.register(process, process.getErrorStream(), text -> this.addCachedItem(text, printErrorIntoConsole));
     }
 
+    /**
+     * @deprecated the output of the service is read by the {@link ServiceConsoleLogPump} as soon as it's available
+     */
     @Override
-    public synchronized IServiceConsoleLogCache update() {
-        if (cloudService.getLifeCycle() == ServiceLifeCycle.RUNNING && cloudService.isAlive() && cloudService.getProcess() != null) {
-            readStream(cloudService.getProcess().getInputStream(), false);
-            readStream(cloudService.getProcess().getErrorStream(), CloudNet.getInstance().getConfig().isPrintErrorStreamLinesFromServices());
-        }
+    @Deprecated
+    public IServiceConsoleLogCache update() {
         return this;
     }
 
-    private synchronized void readStream(InputStream inputStream, boolean printErrorIntoConsole) {
-        try {
-            while (inputStream.available() > 0 && (len = inputStream.read(buffer, 0, buffer.length)) != -1) {
-                stringBuffer.append(new String(buffer, 0, len, StandardCharsets.UTF_8));
-            }
+    private void addCachedItem(String text, boolean printErrorIntoConsole) {
+        if (text == null) {
+            return;
+        }
 
-            String stringText = stringBuffer.toString();
-            if (!stringText.contains("\n") && !stringText.contains("\r")) {
-                return;
+        synchronized (this.cachedLogMessages) {
+            while (!this.cachedLogMessages.offer(text)) {
+                this.cachedLogMessages.poll();
             }
+        }
 
-            for (String input : stringText.split("\r")) {
-                for (String text : input.split("\n")) {
-                    if (!text.trim().isEmpty()) {
-                        this.addCachedItem(text, printErrorIntoConsole);
-                    }
-                }
-            }
+        CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceConsoleLogReceiveEntryEvent(cloudService.getServiceInfoSnapshot(), text, printErrorIntoConsole));
 
-            stringBuffer.setLength(0);
+        if (!this.subscribedNodes.isEmpty()) {
+            this.queueEntry(text, printErrorIntoConsole);
+        }
 
-        } catch (Exception ignored) {
-            stringBuffer.setLength(0);
+        if (this.autoPrintReceivedInput || this.screenEnabled || printErrorIntoConsole) {
+            CloudNetDriver.getInstance().getLogger().log((printErrorIntoConsole ? LogLevel.WARNING : LogLevel.INFO), "[" + cloudService.getServiceId().getName() + "] " + text);
         }
     }
 
-    private void addCachedItem(String text, boolean printErrorIntoConsole) {
-        if (text == null) {
-            return;
+    private void queueEntry(String text, boolean errorMessage) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("messageEntry", text);
+        entry.addProperty("errorMessage", errorMessage);
+
+        synchronized (this) {
+            //the first entry of a batch schedules the flush of the batch
+            if (this.pendingEntries.size() == 0) {
+                CloudNet.getInstance().getTaskScheduler().schedule(this::flushEntries, ServiceConsoleLogForwarder.FLUSH_INTERVAL_MILLIS);
+            }
+
+            this.pendingEntries.add(entry);
         }
+    }
 
-        while (cachedLogMessages.size() >= CloudNet.getInstance().getConfig().getMaxServiceConsoleLogCacheSize()) {
-            cachedLogMessages.poll();
+    private void flushEntries() {
+        JsonArray entries;
+
+        synchronized (this) {
+            entries = this.pendingEntries;
+            this.pendingEntries = new JsonArray();
         }
 
-        cachedLogMessages.offer(text);
+        if (entries.size() == 0) {
+            return;
+        }
 
-        CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceConsoleLogReceiveEntryEvent(cloudService.getServiceInfoSnapshot(), text, printErrorIntoConsole));
-        CloudNet.getInstance().getClusterNodeServerProvider().sendPacket(new PacketServerConsoleLogEntryReceive(cloudService.getServiceInfoSnapshot(), text, printErrorIntoConsole));
+        PacketServerConsoleLogEntryReceive packet = new PacketServerConsoleLogEntryReceive(this.cloudService.getServiceId().getUniqueId(), entries);
 
-        if (this.autoPrintReceivedInput || this.screenEnabled || printErrorIntoConsole) {
-            CloudNetDriver.getInstance().getLogger().log((printErrorIntoConsole ? LogLevel.WARNING : LogLevel.INFO), "[" + cloudService.getServiceId().getName() + "] " + text);
+        for (String nodeUniqueId : this.subscribedNodes) {
+            IClusterNodeServer nodeServer = CloudNet.getInstance().getClusterNodeServerProvider().getNodeServer(nodeUniqueId);
+
+            if (nodeServer != null) {
+                nodeServer.saveSendPacket(packet);
+            } else {
+                this.subscribedNodes.remove(nodeUniqueId);
+            }
         }
     }
 
-    public Queue<String> getCachedLogMessages() {
-        return this.cachedLogMessages;
+    @Override
+    public Collection<String> getSubscribedNodes() {
+        return Collections.unmodifiableSet(this.subscribedNodes);
     }
 
-    public byte[] getBuffer() {
-        return this.buffer;
+    @Override
+    public void addSubscribedNode(String nodeUniqueId) {
+        this.subscribedNodes.add(nodeUniqueId);
     }
 
-    public StringBuffer getStringBuffer() {
-        return this.stringBuffer;
+    @Override
+    public void removeSubscribedNode(String nodeUniqueId) {
+        this.subscribedNodes.remove(nodeUniqueId);
     }
 
-    public ICloudService getCloudService() {
-        return this.cloudService;
+    public Queue<String> getCachedLogMessages() {
+        return this.cachedLogMessages;
     }
 
-    public int getLen() {
-        return this.len;
+    public ICloudService getCloudService() {
+        return this.cloudService;
     }
 
     public boolean isAutoPrintReceivedInput() {
@@ -125,4 +164,4 @@ public final class DefaultServiceConsoleLogCache implements IServiceConsoleLogCa
     public void setScreenEnabled(boolean screenEnabled) {
         this.screenEnabled = screenEnabled;
     }
-}
\ No newline at end of file
+}
@@ -196,6 +196,16 @@ public interface ICloudServiceManager {
 
     Collection<ServiceInfoSnapshot> getServiceInfoSnapshots(ServiceEnvironmentType environment);
 
+    /**
+     * @param taskName   the name of the task, case insensitive
+     * @param lifeCycles the lifecycles of the services, all services of the task are returned if none is given
+     */
+    Collection<ServiceInfoSnapshot> getServiceInfoSnapshotsByLifeCycle(String taskName, ServiceLifeCycle... lifeCycles);
+
+    Collection<ServiceInfoSnapshot> getServiceInfoSnapshots(ServiceLifeCycle lifeCycle);
+
+    Collection<ServiceInfoSnapshot> getServiceInfoSnapshotsByGroup(String group);
+
     Collection<ServiceInfoSnapshot> getServiceInfoSnapshots(Predicate<ServiceInfoSnapshot> predicate);
 
     Collection<ServiceInfoSnapshot> getServiceInfoSnapshots();
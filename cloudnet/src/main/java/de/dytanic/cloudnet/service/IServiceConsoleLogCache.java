@@ -1,5 +1,6 @@
 package de.dytanic.cloudnet.service;
 
+import java.util.Collection;
 import java.util.Queue;
 
 public interface IServiceConsoleLogCache {
@@ -8,6 +9,10 @@ public interface IServiceConsoleLogCache {
 
     Queue<String> getCachedLogMessages();
 
+    /**
+     * @deprecated the console output of the services is captured as soon as it's available, there's no need to poll it
+     */
+    @Deprecated
     IServiceConsoleLogCache update();
 
     boolean isAutoPrintReceivedInput();
@@ -18,4 +23,13 @@ public interface IServiceConsoleLogCache {
 
     void setScreenEnabled(boolean value);
 
+    /**
+     * @return the uniqueIds of the nodes, which receive the console output of this service
+     */
+    Collection<String> getSubscribedNodes();
+
+    void addSubscribedNode(String nodeUniqueId);
+
+    void removeSubscribedNode(String nodeUniqueId);
+
 }
\ No newline at end of file
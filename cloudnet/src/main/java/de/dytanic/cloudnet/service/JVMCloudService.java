@@ -5,7 +5,6 @@ import de.dytanic.cloudnet.common.StringUtil;
 import de.dytanic.cloudnet.common.Value;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
-import de.dytanic.cloudnet.common.encrypt.EncryptTo;
 import de.dytanic.cloudnet.common.io.FileUtils;
 import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.common.unsafe.CPUUsageResolver;
@@ -20,12 +19,11 @@ import de.dytanic.cloudnet.template.ITemplateStorage;
 import de.dytanic.cloudnet.template.LocalTemplateStorage;
 
 import java.io.*;
-import java.net.URL;
-import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -60,6 +58,9 @@ final class JVMCloudService implements ICloudService {
 
     private final Lock lifeCycleLock = new ReentrantLock();
 
+    //guards the service directory while the inclusions and templates are copied, which can happen outside of the life cycle lock
+    private final Lock resourceLock = new ReentrantLock();
+
 
     private volatile ServiceLifeCycle lifeCycle;
 
@@ -85,6 +86,8 @@ final class JVMCloudService implements ICloudService {
 
     private Process process;
 
+    private ServiceClassDataArchives.Launch classDataLaunch;
+
     private volatile boolean restartState = false;
 
     JVMCloudService(ICloudServiceManager cloudServiceManager, ServiceConfiguration serviceConfiguration) {
@@ -201,8 +204,10 @@ final class JVMCloudService implements ICloudService {
     public void delete() {
         try {
             lifeCycleLock.lock();
+            resourceLock.lock();
             this.delete0();
         } finally {
+            resourceLock.unlock();
             lifeCycleLock.unlock();
         }
     }
@@ -358,6 +363,8 @@ final class JVMCloudService implements ICloudService {
             );
 
             this.serviceInfoSnapshot.setLifeCycle(ServiceLifeCycle.RUNNING);
+            //the snapshot is put again, so that the lifecycle index of the registry is updated
+            this.cloudServiceManager.getGlobalServiceInfoSnapshots().put(this.serviceInfoSnapshot.getServiceId().getUniqueId(), this.serviceInfoSnapshot);
             CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(this.serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.STARTED));
         }
     }
@@ -365,13 +372,7 @@ final class JVMCloudService implements ICloudService {
     private boolean hasAccessFromNode() {
         if (cloudServiceManager.getCurrentUsedHeapMemory() + this.configuredMaxHeapMemory >= CloudNet.getInstance().getConfig().getMaxMemory()) {
             if (CloudNet.getInstance().getConfig().isRunBlockedServiceStartTryLaterAutomatic()) {
-                CloudNet.getInstance().runTask(() -> {
-                    try {
-                        start();
-                    } catch (Exception exception) {
-                        exception.printStackTrace();
-                    }
-                });
+                CloudNet.getInstance().getServiceStartExecutor().retry(this, 1000 / CloudNet.TPS);
             } else {
                 System.out.println(LanguageManager.getMessage("cloud-service-manager-max-memory-error"));
             }
@@ -381,13 +382,7 @@ final class JVMCloudService implements ICloudService {
 
         if (CPUUsageResolver.getSystemCPUUsage() >= CloudNet.getInstance().getConfig().getMaxCPUUsageToStartServices()) {
             if (CloudNet.getInstance().getConfig().isRunBlockedServiceStartTryLaterAutomatic()) {
-                CloudNet.getInstance().runTask(() -> {
-                    try {
-                        start();
-                    } catch (Exception exception) {
-                        exception.printStackTrace();
-                    }
-                });
+                CloudNet.getInstance().getServiceStartExecutor().retry(this, 1000 / CloudNet.TPS);
             } else {
                 System.out.println(LanguageManager.getMessage("cloud-service-manager-cpu-usage-to-high-error"));
             }
@@ -423,86 +418,84 @@ final class JVMCloudService implements ICloudService {
 
     @Override
     public void includeInclusions() {
-        byte[] buffer = new byte[16384];
-
-        while (!this.waitingIncludes.isEmpty()) {
-            ServiceRemoteInclusion inclusion = this.waitingIncludes.poll();
-
-            if (inclusion != null && inclusion.getDestination() != null && inclusion.getUrl() != null) {
-                try {
-                    System.out.println(LanguageManager.getMessage("cloud-service-include-inclusion-message")
-                            .replace("%task%", this.serviceId.getTaskName())
-                            .replace("%id%", this.serviceId.getUniqueId().toString())
-                            .replace("%serviceId%", String.valueOf(this.serviceId.getTaskServiceId()))
-                            .replace("%url%", inclusion.getUrl())
-                            .replace("%destination%", inclusion.getDestination())
-                    );
-
-                    File cacheDestination = new File(
-                            System.getProperty("cloudnet.tempDir.includes", "temp/includes"),
-                            Base64.getEncoder().encodeToString(EncryptTo.encryptToSHA256(inclusion.getUrl()))
-                    );
-                    cacheDestination.getParentFile().mkdirs();
-
-                    if (!cacheDestination.exists()) {
-                        if (!includeInclusions0(inclusion, cacheDestination, buffer)) {
-                            continue;
-                        }
-                    }
-
-                    try (InputStream inputStream = new FileInputStream(cacheDestination)) {
-                        File destination = new File(this.directory, inclusion.getDestination());
-                        destination.getParentFile().mkdirs();
-
-                        try (OutputStream outputStream = Files.newOutputStream(destination.toPath())) {
-                            FileUtils.copy(inputStream, outputStream, buffer);
-                        }
-                    }
-
-                    this.includes.add(inclusion);
+        try {
+            this.resourceLock.lock();
 
-                } catch (Exception exception) {
-                    exception.printStackTrace();
-                }
+            if (this.lifeCycle != ServiceLifeCycle.DELETED) {
+                this.includeWaitingInclusions();
             }
+        } finally {
+            this.resourceLock.unlock();
         }
     }
 
-    private boolean includeInclusions0(ServiceRemoteInclusion inclusion, File destination, byte[] buffer) throws Exception {
-        URLConnection connection = new URL(inclusion.getUrl()).openConnection();
+    private void includeWaitingInclusions() {
+        //Map<Inclusion, cached file>
+        Map<ServiceRemoteInclusion, CompletableFuture<Path>> downloads = new LinkedHashMap<>();
 
-        CloudServicePreLoadInclusionEvent cloudServicePreLoadInclusionEvent = new CloudServicePreLoadInclusionEvent(this, inclusion, connection);
-        CloudNetDriver.getInstance().getEventManager().callEvent(cloudServicePreLoadInclusionEvent);
+        while (!this.waitingIncludes.isEmpty()) {
+            ServiceRemoteInclusion inclusion = this.waitingIncludes.poll();
 
-        if (cloudServicePreLoadInclusionEvent.isCancelled()) {
-            return false;
+            if (inclusion != null && inclusion.getDestination() != null && inclusion.getUrl() != null) {
+                System.out.println(LanguageManager.getMessage("cloud-service-include-inclusion-message")
+                        .replace("%task%", this.serviceId.getTaskName())
+                        .replace("%id%", this.serviceId.getUniqueId().toString())
+                        .replace("%serviceId%", String.valueOf(this.serviceId.getTaskServiceId()))
+                        .replace("%url%", inclusion.getUrl())
+                        .replace("%destination%", inclusion.getDestination())
+                );
+
+                downloads.put(inclusion, CloudNet.getInstance().getServiceInclusionCache().fetch(inclusion.getUrl(), this.getHttpHeaders(inclusion), connection -> {
+                    CloudServicePreLoadInclusionEvent cloudServicePreLoadInclusionEvent = new CloudServicePreLoadInclusionEvent(this, inclusion, connection);
+                    CloudNetDriver.getInstance().getEventManager().callEvent(cloudServicePreLoadInclusionEvent);
+
+                    return !cloudServicePreLoadInclusionEvent.isCancelled();
+                }));
+            }
         }
 
-        if (inclusion.getProperties() != null) {
-            if (inclusion.getProperties().contains("httpHeaders")) {
-                JsonDocument document = inclusion.getProperties().getDocument("httpHeaders");
+        for (Map.Entry<ServiceRemoteInclusion, CompletableFuture<Path>> download : downloads.entrySet()) {
+            try {
+                Path cachedFile = download.getValue().get();
 
-                for (String key : document) {
-                    connection.setRequestProperty(key, document.get(key).toString());
+                if (cachedFile != null) {
+                    CloudNet.getInstance().getServiceInclusionCache().deliver(cachedFile, new File(this.directory, download.getKey().getDestination()).toPath());
+                    this.includes.add(download.getKey());
                 }
+            } catch (Exception exception) {
+                exception.printStackTrace();
             }
         }
+    }
 
-        connection.setDoOutput(false);
-        connection.setUseCaches(false);
-        connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11");
+    private Map<String, String> getHttpHeaders(ServiceRemoteInclusion inclusion) {
+        Map<String, String> headers = new HashMap<>();
 
-        connection.connect();
+        if (inclusion.getProperties() != null && inclusion.getProperties().contains("httpHeaders")) {
+            JsonDocument document = inclusion.getProperties().getDocument("httpHeaders");
 
-        try (InputStream inputStream = connection.getInputStream(); OutputStream outputStream = Files.newOutputStream(destination.toPath())) {
-            FileUtils.copy(inputStream, outputStream, buffer);
+            for (String key : document) {
+                headers.put(key, document.get(key).toString());
+            }
         }
 
-        return true;
+        return headers;
     }
 
     @Override
     public void includeTemplates() {
+        try {
+            this.resourceLock.lock();
+
+            if (this.lifeCycle != ServiceLifeCycle.DELETED) {
+                this.includeWaitingTemplates();
+            }
+        } finally {
+            this.resourceLock.unlock();
+        }
+    }
+
+    private void includeWaitingTemplates() {
         while (!this.waitingTemplates.isEmpty()) {
             ServiceTemplate template = this.waitingTemplates.poll();
 
@@ -581,7 +574,7 @@ final class JVMCloudService implements ICloudService {
                     }
 
                     if (storage instanceof LocalTemplateStorage) {
-                        CloudNet.getInstance().deployTemplateInCluster(deployment.getTemplate(), storage.toZipByteArray(deployment.getTemplate()));
+                        CloudNet.getInstance().deployTemplateInCluster(deployment.getTemplate());
                     }
                 }
             }
@@ -655,10 +648,18 @@ final class JVMCloudService implements ICloudService {
 
         File applicationFile = applicationFileOptional.get();
 
+        ServiceClassDataArchives.Launch classDataLaunch = CloudNet.getInstance().getServiceClassDataArchives().prepare(
+                CloudNet.getInstance().getConfig().getJVMCommand(),
+                this.serviceConfiguration.getProcessConfig().getEnvironment(),
+                wrapperFile,
+                applicationFile
+        );
+
+        commandArguments.addAll(classDataLaunch.getJvmArguments());
         commandArguments.addAll(this.serviceConfiguration.getProcessConfig().getJvmOptions());
         commandArguments.addAll(Arrays.asList(
                 "-Xmx" + this.serviceConfiguration.getProcessConfig().getMaxHeapMemorySize() + "M",
-                "-cp", wrapperFile.getAbsolutePath() + File.pathSeparator + applicationFile.getAbsolutePath())
+                "-cp", classDataLaunch.getClassPath())
         );
 
         try (JarFile jarFile = new JarFile(wrapperFile)) {
@@ -672,10 +673,19 @@ final class JVMCloudService implements ICloudService {
 
         this.postConfigureServiceEnvironmentStartParameters(commandArguments);
 
-        this.process = new ProcessBuilder()
-                .command(commandArguments)
-                .directory(this.directory)
-                .start();
+        try {
+            this.process = new ProcessBuilder()
+                    .command(commandArguments)
+                    .directory(this.directory)
+                    .start();
+        } catch (IOException exception) {
+            classDataLaunch.complete(-1);
+            throw exception;
+        }
+
+        this.classDataLaunch = classDataLaunch;
+
+        this.serviceConsoleLogCache.start(this.process);
     }
 
     private void postConfigureServiceEnvironmentStartParameters(List<String> commandArguments) {
@@ -885,7 +895,14 @@ final class JVMCloudService implements ICloudService {
             );
             CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServicePreStopEvent(this));
 
-            int exitValue = this.stopProcess(force);
+            //the service, which generates a class data archive, writes the archive after the stop command
+            boolean generatingArchive = this.classDataLaunch != null && this.classDataLaunch.getGeneratedArchiveFile() != null;
+            int exitValue = this.stopProcess(force, generatingArchive ? ServiceClassDataArchives.GENERATING_STOP_TIMEOUT : 5);
+
+            if (this.classDataLaunch != null) {
+                this.classDataLaunch.complete(exitValue);
+                this.classDataLaunch = null;
+            }
 
             if (this.networkChannel != null) {
                 try {
@@ -925,7 +942,7 @@ final class JVMCloudService implements ICloudService {
         return -1;
     }
 
-    private int stopProcess(boolean force) {
+    private int stopProcess(boolean force, long timeout) {
         if (this.process != null) {
 
             if (this.process.isAlive()) {
@@ -936,7 +953,7 @@ final class JVMCloudService implements ICloudService {
                     outputStream.write("end\n".getBytes());
                     outputStream.flush();
 
-                    if (process.waitFor(5, TimeUnit.SECONDS)) {
+                    if (process.waitFor(timeout, TimeUnit.SECONDS)) {
                         return process.exitValue();
                     }
                 } catch (Exception exception) {
@@ -0,0 +1,197 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Iterables;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the configured count of prepared services of every task on this node. The inclusions and templates of
+ * the prepared services are copied into their directories by background threads, so that the start of such a
+ * service only has to boot the JVM.
+ *
+ * @see ServiceTask#getPreparedServiceCount()
+ */
+public final class PreparedServicePool implements AutoCloseable {
+
+    private static final int THREADS = Math.max(1, Integer.getInteger("cloudnet.service.preparedPool.threads", 2));
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "PreparedServicePool-" + this.threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<UUID> preparingServices = Collections.newSetFromMap(Maps.newConcurrentHashMap());
+
+    //the services, which have been created by this pool and haven't been handed out yet
+    private final Set<UUID> pooledServices = Collections.newSetFromMap(Maps.newConcurrentHashMap());
+
+    /**
+     * Creates new services for all tasks, which have less prepared services on this node than configured, and deletes
+     * the services of the pool, which exceed the configured count
+     *
+     * @param cloudServiceManager the service manager of this node
+     * @param nodeUniqueId        the unique id of this node
+     */
+    public void fill(ICloudServiceManager cloudServiceManager, String nodeUniqueId) {
+        Validate.checkNotNull(cloudServiceManager);
+
+        //the services, which have been started or deleted in the meantime, aren't part of the pool anymore
+        this.pooledServices.removeIf(uniqueId -> {
+            ICloudService cloudService = cloudServiceManager.getCloudService(uniqueId);
+            return cloudService == null || !isNonStarted(cloudService);
+        });
+
+        for (ServiceTask serviceTask : cloudServiceManager.getServiceTasks()) {
+            int preparedServiceCount = serviceTask.getAssociatedNodes().isEmpty() || serviceTask.getAssociatedNodes().contains(nodeUniqueId) ?
+                    Math.max(0, serviceTask.getPreparedServiceCount()) : 0;
+
+            List<ICloudService> nonStartedServices = Iterables.newArrayList();
+
+            for (ICloudService cloudService : cloudServiceManager.getLocalCloudServices(serviceTask.getName())) {
+                if (isNonStarted(cloudService)) {
+                    nonStartedServices.add(cloudService);
+                }
+            }
+
+            this.shrink(nonStartedServices, preparedServiceCount);
+
+            if (preparedServiceCount == 0 || !serviceTask.canStartServices()) {
+                continue;
+            }
+
+            for (ICloudService cloudService : nonStartedServices) {
+                this.prepare(cloudService);
+            }
+
+            for (int i = nonStartedServices.size(); i < preparedServiceCount; i++) {
+                ICloudService cloudService = cloudServiceManager.runTask(serviceTask);
+
+                if (cloudService == null) {
+                    break;
+                }
+
+                this.pooledServices.add(cloudService.getServiceId().getUniqueId());
+                this.prepare(cloudService);
+            }
+        }
+    }
+
+    /**
+     * Hands out a local service of the task, which hasn't been started yet. The prepared services are preferred and
+     * the handed out service is replaced by the next fill of the pool.
+     *
+     * @param cloudServiceManager the service manager of this node
+     * @param taskName            the name of the task
+     * @param filter              the filter of the services, which can be handed out
+     * @return the service or null, if there is no non started service of the task on this node
+     */
+    public ICloudService getFreeNonStartedService(ICloudServiceManager cloudServiceManager, String taskName, Predicate<ICloudService> filter) {
+        Validate.checkNotNull(cloudServiceManager);
+        Validate.checkNotNull(taskName);
+        Validate.checkNotNull(filter);
+
+        ICloudService cloudService = cloudServiceManager.getLocalCloudServices(taskName).stream()
+                .filter(service -> isNonStarted(service) && filter.test(service))
+                .min(Comparator.comparing(service -> !this.isPrepared(service)))
+                .orElse(null);
+
+        if (cloudService != null) {
+            this.pooledServices.remove(cloudService.getServiceId().getUniqueId());
+        }
+
+        return cloudService;
+    }
+
+    /**
+     * Copies the waiting inclusions and templates of the service into the service directory in the background
+     */
+    public void prepare(ICloudService cloudService) {
+        Validate.checkNotNull(cloudService);
+
+        if (this.executorService.isShutdown() || this.isPrepared(cloudService) || !this.preparingServices.add(cloudService.getServiceId().getUniqueId())) {
+            return;
+        }
+
+        this.executorService.execute(() -> {
+            try {
+                if (isNonStarted(cloudService)) {
+                    cloudService.includeInclusions();
+                    cloudService.includeTemplates();
+                }
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            } finally {
+                this.preparingServices.remove(cloudService.getServiceId().getUniqueId());
+            }
+        });
+    }
+
+    /**
+     * @return true, if the service doesn't have any inclusions or templates left, which would be copied on the start
+     */
+    public boolean isPrepared(ICloudService cloudService) {
+        return !this.preparingServices.contains(cloudService.getServiceId().getUniqueId()) &&
+                cloudService.getWaitingIncludes().isEmpty() && cloudService.getWaitingTemplates().isEmpty();
+    }
+
+    public Collection<UUID> getPreparingServices() {
+        return Collections.unmodifiableSet(this.preparingServices);
+    }
+
+    public Collection<UUID> getPooledServices() {
+        return Collections.unmodifiableSet(this.pooledServices);
+    }
+
+    /**
+     * Deletes the services of the pool, which exceed the given count of non started services. The services, which
+     * haven't been prepared yet, are deleted first. Services, which haven't been created by the pool, are kept.
+     */
+    private void shrink(List<ICloudService> nonStartedServices, int preparedServiceCount) {
+        List<ICloudService> removableServices = nonStartedServices.stream()
+                .filter(cloudService -> this.pooledServices.contains(cloudService.getServiceId().getUniqueId()) &&
+                        !this.preparingServices.contains(cloudService.getServiceId().getUniqueId()))
+                .sorted(Comparator.comparing(this::isPrepared))
+                .collect(Collectors.toList());
+
+        for (ICloudService cloudService : removableServices) {
+            if (nonStartedServices.size() <= preparedServiceCount) {
+                break;
+            }
+
+            this.pooledServices.remove(cloudService.getServiceId().getUniqueId());
+            nonStartedServices.remove(cloudService);
+
+            cloudService.delete();
+        }
+    }
+
+    private static boolean isNonStarted(ICloudService cloudService) {
+        return cloudService.getLifeCycle() == ServiceLifeCycle.DEFINED || cloudService.getLifeCycle() == ServiceLifeCycle.PREPARED;
+    }
+
+    /**
+     * Stops the background preparations, the services, which haven't been prepared yet, are prepared on their start
+     */
+    @Override
+    public void close() {
+        this.executorService.shutdownNow();
+        this.preparingServices.clear();
+    }
+}
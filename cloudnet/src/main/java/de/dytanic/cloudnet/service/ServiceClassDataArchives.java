@@ -0,0 +1,420 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.template.cluster.TemplateFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the class data sharing archives (AppCDS) of the services of this node. An archive belongs to an
+ * environment, the hashes of the wrapper and the application jar and the version of the jvm. The first service of
+ * such a combination writes the archive of its loaded classes on exit, every following service maps the archive,
+ * instead of parsing and verifying the same classes again.
+ * <p>
+ * The archive records the class path of the generating jvm, so the jars are copied into the directory of the
+ * archive and the services are started with these copies. A changed jar leads to a new archive. The services of
+ * other templates may still use the archives of other jars of the environment, so only the archives which haven't
+ * been used for {@link #UNUSED_ARCHIVE_TIMEOUT} are deleted, once a new archive is available.
+ * <p>
+ * The written archive is only taken over, if the generating jvm has exited normally and another jvm accepts the
+ * archive, an archive which has been truncated by a killed process is deleted and generated again.
+ * <p>
+ * Dynamic archives are supported since Java 13. Services of an older jvm are started without an archive.
+ */
+public final class ServiceClassDataArchives {
+
+    public static final boolean DEFAULT_ENABLED = Boolean.parseBoolean(System.getProperty("cloudnet.service.cds.enabled", "true"));
+
+    public static final int MIN_JAVA_VERSION = 13;
+
+    public static final String ARCHIVE_FILE_NAME = "classes.jsa";
+
+    /**
+     * The time in milliseconds, after which the archive of jars, which aren't used by any service anymore, is deleted
+     */
+    public static final long UNUSED_ARCHIVE_TIMEOUT = Long.getLong("cloudnet.service.cds.unusedTimeout", TimeUnit.DAYS.toMillis(7));
+
+    /**
+     * The time in seconds, which a service that generates an archive gets to write the archive on its stop
+     */
+    public static final long GENERATING_STOP_TIMEOUT = Long.getLong("cloudnet.service.cds.stopTimeout", 60);
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("version \"(\\d+)(?:\\.(\\d+))?");
+
+    private final Path directory;
+
+    private final boolean enabled;
+
+    private final Function<String, JavaVersion> javaVersionResolver;
+
+    private final ArchiveValidator archiveValidator;
+
+    //Map<JVMCommand, JavaVersion>
+    private final Map<String, JavaVersion> javaVersions = Maps.newConcurrentHashMap();
+
+    //Map<WrapperFile, Hash>
+    private final Map<String, String> wrapperHashes = Maps.newConcurrentHashMap();
+
+    private final Set<Path> generatingArchives = ConcurrentHashMap.newKeySet();
+
+    public ServiceClassDataArchives(Path directory) {
+        this(directory, DEFAULT_ENABLED, ServiceClassDataArchives::resolveJavaVersion, ServiceClassDataArchives::validateArchive);
+    }
+
+    /**
+     * @param directory           the directory of the archives
+     * @param enabled             if the archives are used
+     * @param javaVersionResolver resolves the version of the jvm of a command
+     * @param archiveValidator    checks whether a written archive is accepted by the jvm
+     */
+    public ServiceClassDataArchives(Path directory, boolean enabled, Function<String, JavaVersion> javaVersionResolver, ArchiveValidator archiveValidator) {
+        Validate.checkNotNull(directory);
+        Validate.checkNotNull(javaVersionResolver);
+        Validate.checkNotNull(archiveValidator);
+
+        this.directory = directory;
+        this.enabled = enabled;
+        this.javaVersionResolver = javaVersionResolver;
+        this.archiveValidator = archiveValidator;
+    }
+
+    /**
+     * Prepares the start of a service. The returned launch has to be completed with the exit value, after the process
+     * of the service has been terminated, so that a written archive is taken over.
+     *
+     * @param jvmCommand      the command of the jvm of the service
+     * @param environment     the environment of the service
+     * @param wrapperFile     the wrapper jar
+     * @param applicationFile the jar of the application in the directory of the service
+     * @return the launch with the jvm arguments and the class path of the service
+     */
+    public Launch prepare(String jvmCommand, ServiceEnvironmentType environment, File wrapperFile, File applicationFile) {
+        Validate.checkNotNull(jvmCommand);
+        Validate.checkNotNull(environment);
+
+        Launch defaultLaunch = new Launch(Collections.emptyList(), wrapperFile.getAbsolutePath() + File.pathSeparator + applicationFile.getAbsolutePath(), null, null);
+
+        if (!this.enabled) {
+            return defaultLaunch;
+        }
+
+        JavaVersion javaVersion = this.javaVersions.computeIfAbsent(jvmCommand, command -> {
+            JavaVersion resolvedVersion = this.javaVersionResolver.apply(command);
+            return resolvedVersion != null ? resolvedVersion : new JavaVersion(0, "");
+        });
+
+        if (javaVersion.getFeatureVersion() < MIN_JAVA_VERSION) {
+            return defaultLaunch;
+        }
+
+        try {
+            String wrapperHash = this.wrapperHashes.get(wrapperFile.getAbsolutePath() + ":" + wrapperFile.lastModified());
+
+            if (wrapperHash == null) {
+                wrapperHash = TemplateFile.hash(wrapperFile.toPath());
+                this.wrapperHashes.put(wrapperFile.getAbsolutePath() + ":" + wrapperFile.lastModified(), wrapperHash);
+            }
+
+            Path environmentDirectory = this.directory.resolve(environment.name().toLowerCase());
+            Path archiveDirectory = environmentDirectory.resolve(
+                    TemplateFile.hash(applicationFile.toPath()).substring(0, 16) + "-" + wrapperHash.substring(0, 16) + "-" + javaVersion.getHash()
+            );
+
+            Path archiveFile = archiveDirectory.resolve(ARCHIVE_FILE_NAME);
+            Path wrapperCopy = archiveDirectory.resolve("wrapper.jar"), applicationCopy = archiveDirectory.resolve("application.jar");
+            String classPath = wrapperCopy.toAbsolutePath() + File.pathSeparator + applicationCopy.toAbsolutePath();
+
+            synchronized (this) {
+                if (Files.exists(archiveFile) && Files.exists(wrapperCopy) && Files.exists(applicationCopy)) {
+                    markUsed(archiveDirectory);
+
+                    return new Launch(Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + archiveFile.toAbsolutePath()), classPath, null, null);
+                }
+
+                //only one service generates the archive, the others are started as usual meanwhile
+                if (!this.generatingArchives.add(archiveDirectory)) {
+                    return defaultLaunch;
+                }
+
+                try {
+                    Files.createDirectories(archiveDirectory);
+
+                    copyIfAbsent(wrapperFile.toPath(), wrapperCopy);
+                    copyIfAbsent(applicationFile.toPath(), applicationCopy);
+                } catch (IOException exception) {
+                    this.generatingArchives.remove(archiveDirectory);
+                    throw exception;
+                }
+            }
+
+            Path temporaryArchiveFile = archiveDirectory.resolve(ARCHIVE_FILE_NAME + "." + UUID.randomUUID() + ".part");
+
+            return new Launch(
+                    Collections.singletonList("-XX:ArchiveClassesAtExit=" + temporaryArchiveFile.toAbsolutePath()),
+                    classPath,
+                    temporaryArchiveFile,
+                    exitValue -> this.completeArchive(jvmCommand, classPath, environmentDirectory, archiveDirectory, temporaryArchiveFile, exitValue)
+            );
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            return defaultLaunch;
+        }
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    private void completeArchive(String jvmCommand, String classPath, Path environmentDirectory, Path archiveDirectory, Path temporaryArchiveFile, int exitValue) {
+        try {
+            //a jvm, which has been killed while writing the archive, leaves a truncated archive
+            if (exitValue == 0 && Files.exists(temporaryArchiveFile) && Files.size(temporaryArchiveFile) > 0 &&
+                    this.archiveValidator.validate(jvmCommand, classPath, temporaryArchiveFile)) {
+                synchronized (this) {
+                    Files.move(temporaryArchiveFile, archiveDirectory.resolve(ARCHIVE_FILE_NAME), StandardCopyOption.ATOMIC_MOVE);
+                    markUsed(archiveDirectory);
+
+                    this.deleteUnusedArchives(environmentDirectory, archiveDirectory);
+                }
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        } finally {
+            //a rejected archive is generated again by the next service
+            try {
+                Files.deleteIfExists(temporaryArchiveFile);
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+
+            this.generatingArchives.remove(archiveDirectory);
+        }
+    }
+
+    private void deleteUnusedArchives(Path environmentDirectory, Path archiveDirectory) throws IOException {
+        List<Path> unusedDirectories = new ArrayList<>();
+        long timeout = System.currentTimeMillis() - UNUSED_ARCHIVE_TIMEOUT;
+
+        try (Stream<Path> stream = Files.list(environmentDirectory)) {
+            stream.filter(path -> !path.equals(archiveDirectory) && !this.generatingArchives.contains(path)).forEach(unusedDirectories::add);
+        }
+
+        for (Path unusedDirectory : unusedDirectories) {
+            if (Files.getLastModifiedTime(unusedDirectory).toMillis() < timeout) {
+                FileUtils.delete(unusedDirectory.toFile());
+            }
+        }
+    }
+
+    /**
+     * Sets the modification time of the directory of an archive to the last start of a service with the archive
+     */
+    private static void markUsed(Path archiveDirectory) {
+        try {
+            Files.setLastModifiedTime(archiveDirectory, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    private static void copyIfAbsent(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+
+        Path temporaryFile = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+
+        try {
+            Files.copy(source, temporaryFile);
+            Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Resolves the version of the jvm of the command with its -version output
+     *
+     * @return the version of the jvm or null, if it couldn't be resolved
+     */
+    public static JavaVersion resolveJavaVersion(String jvmCommand) {
+        try {
+            Process process = new ProcessBuilder(jvmCommand, "-version").redirectErrorStream(true).start();
+            String output;
+
+            try (InputStream inputStream = process.getInputStream()) {
+                output = new String(FileUtils.toByteArray(inputStream), StandardCharsets.UTF_8);
+            }
+
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return null;
+            }
+
+            return JavaVersion.parse(output);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            return null;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Starts the jvm with the archive, the jvm exits with an error, if the archive can't be mapped
+     *
+     * @return true, if the jvm accepts the archive
+     */
+    public static boolean validateArchive(String jvmCommand, String classPath, Path archiveFile) {
+        try {
+            Process process = new ProcessBuilder(jvmCommand, "-Xshare:on", "-XX:SharedArchiveFile=" + archiveFile.toAbsolutePath(), "-cp", classPath, "-version")
+                    .redirectErrorStream(true)
+                    .start();
+
+            try (InputStream inputStream = process.getInputStream()) {
+                FileUtils.toByteArray(inputStream);
+            }
+
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+
+            return process.exitValue() == 0;
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            return false;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public interface ArchiveValidator {
+
+        /**
+         * @param jvmCommand  the command of the jvm, which has written the archive
+         * @param classPath   the class path, with which the archive has been written
+         * @param archiveFile the written archive
+         * @return true, if the archive can be used by the services
+         */
+        boolean validate(String jvmCommand, String classPath, Path archiveFile);
+    }
+
+    public static final class JavaVersion {
+
+        private final int featureVersion;
+
+        private final String hash;
+
+        public JavaVersion(int featureVersion, String hash) {
+            this.featureVersion = featureVersion;
+            this.hash = hash;
+        }
+
+        /**
+         * Parses the -version output of a jvm, the archives of a jvm can only be used by the same build of the jvm
+         *
+         * @return the version of the output or null, if the output doesn't contain a version
+         */
+        public static JavaVersion parse(String versionOutput) {
+            Matcher matcher = VERSION_PATTERN.matcher(versionOutput);
+
+            if (!matcher.find()) {
+                return null;
+            }
+
+            int featureVersion = Integer.parseInt(matcher.group(1));
+
+            //the versions before Java 9 start with 1, like 1.8.0_212
+            if (featureVersion == 1 && matcher.group(2) != null) {
+                featureVersion = Integer.parseInt(matcher.group(2));
+            }
+
+            return new JavaVersion(featureVersion, String.format("%08x", versionOutput.trim().hashCode()));
+        }
+
+        public int getFeatureVersion() {
+            return this.featureVersion;
+        }
+
+        public String getHash() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The jvm arguments and the class path of the start of a service
+     */
+    public static final class Launch {
+
+        private final List<String> jvmArguments;
+
+        private final String classPath;
+
+        private final Path generatedArchiveFile;
+
+        private final IntConsumer completion;
+
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Launch(List<String> jvmArguments, String classPath, Path generatedArchiveFile, IntConsumer completion) {
+            this.jvmArguments = jvmArguments;
+            this.classPath = classPath;
+            this.generatedArchiveFile = generatedArchiveFile;
+            this.completion = completion;
+        }
+
+        /**
+         * Takes over the archive, which has been written by the terminated process of the service
+         *
+         * @param exitValue the exit value of the process or -1, if the process couldn't be started or hasn't exited
+         */
+        public void complete(int exitValue) {
+            if (this.completion != null && this.completed.compareAndSet(false, true)) {
+                this.completion.accept(exitValue);
+            }
+        }
+
+        public List<String> getJvmArguments() {
+            return this.jvmArguments;
+        }
+
+        public String getClassPath() {
+            return this.classPath;
+        }
+
+        /**
+         * @return the file, into which the process writes the archive on exit, or null, if the archive isn't generated by this launch
+         */
+        public Path getGeneratedArchiveFile() {
+            return this.generatedArchiveFile;
+        }
+    }
+}
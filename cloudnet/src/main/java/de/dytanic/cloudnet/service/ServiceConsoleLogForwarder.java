@@ -0,0 +1,206 @@
+package de.dytanic.cloudnet.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.cluster.IClusterNodeServer;
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.logging.LogLevel;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.event.service.CloudServiceConsoleLogReceiveEntryEvent;
+import de.dytanic.cloudnet.network.packet.PacketServerConsoleLogSubscription;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Forwards the console output of the local services only to the nodes, which have subscribed it.
+ * A node subscribes the output of a service on another node, while at least one consumer like the screen command
+ * is attached, and receives the lines of the service batched by the {@link #FLUSH_INTERVAL_MILLIS}.
+ * <p>
+ * The subscriptions of a node to the local services are removed, if the node disconnects. The subscriptions of this
+ * node are sent again, after the other node has been connected again.
+ */
+public final class ServiceConsoleLogForwarder {
+
+    public static final long FLUSH_INTERVAL_MILLIS = Long.getLong("cloudnet.service.consoleLog.flushInterval", 100);
+
+    //Map<ServiceUniqueId, Subscription>
+    private final Map<UUID, Subscription> subscriptions = Maps.newConcurrentHashMap();
+
+    private final Set<UUID> screenServices = Collections.newSetFromMap(Maps.newConcurrentHashMap());
+
+    private final Supplier<Map<UUID, ICloudService>> localServices;
+
+    private final BiConsumer<String, IPacket> packetSender;
+
+    private final Supplier<String> nodeUniqueId;
+
+    public ServiceConsoleLogForwarder() {
+        this(
+                () -> CloudNet.getInstance().getCloudServiceManager().getCloudServices(),
+                (nodeUniqueId, packet) -> {
+                    IClusterNodeServer nodeServer = CloudNet.getInstance().getClusterNodeServerProvider().getNodeServer(nodeUniqueId);
+
+                    if (nodeServer != null) {
+                        nodeServer.saveSendPacket(packet);
+                    }
+                },
+                () -> CloudNet.getInstance().getConfig().getIdentity().getUniqueId()
+        );
+    }
+
+    /**
+     * @param localServices the services of this node by their unique ids
+     * @param packetSender  sends a packet to the node with the given unique id
+     * @param nodeUniqueId  the unique id of this node
+     */
+    public ServiceConsoleLogForwarder(Supplier<Map<UUID, ICloudService>> localServices, BiConsumer<String, IPacket> packetSender, Supplier<String> nodeUniqueId) {
+        this.localServices = localServices;
+        this.packetSender = packetSender;
+        this.nodeUniqueId = nodeUniqueId;
+    }
+
+    /**
+     * Subscribes the console output of a service on another node, every subscription has to be released
+     * with {@link #unsubscribe(ServiceInfoSnapshot)}
+     */
+    public void subscribe(ServiceInfoSnapshot serviceInfoSnapshot) {
+        Validate.checkNotNull(serviceInfoSnapshot);
+
+        //the count and the subscription packet are changed atomically, so that the packets of a service are sent in order
+        this.subscriptions.compute(serviceInfoSnapshot.getServiceId().getUniqueId(), (uniqueId, subscription) -> {
+            if (subscription == null) {
+                subscription = new Subscription(serviceInfoSnapshot.getServiceId().getNodeUniqueId());
+            }
+
+            if (++subscription.count == 1) {
+                this.sendSubscription(subscription.nodeUniqueId, uniqueId, true);
+            }
+
+            return subscription;
+        });
+    }
+
+    public void unsubscribe(ServiceInfoSnapshot serviceInfoSnapshot) {
+        Validate.checkNotNull(serviceInfoSnapshot);
+
+        this.subscriptions.computeIfPresent(serviceInfoSnapshot.getServiceId().getUniqueId(), (uniqueId, subscription) -> {
+            if (--subscription.count > 0) {
+                return subscription;
+            }
+
+            this.sendSubscription(subscription.nodeUniqueId, uniqueId, false);
+            return null;
+        });
+    }
+
+    public boolean isSubscribed(UUID serviceUniqueId) {
+        return this.subscriptions.containsKey(serviceUniqueId);
+    }
+
+    public boolean isScreenEnabled(UUID serviceUniqueId) {
+        return this.screenServices.contains(serviceUniqueId);
+    }
+
+    /**
+     * Enables or disables the output of a service on another node into the console of this node
+     */
+    public void setScreenEnabled(ServiceInfoSnapshot serviceInfoSnapshot, boolean enabled) {
+        Validate.checkNotNull(serviceInfoSnapshot);
+
+        if (enabled) {
+            if (this.screenServices.add(serviceInfoSnapshot.getServiceId().getUniqueId())) {
+                this.subscribe(serviceInfoSnapshot);
+            }
+        } else if (this.screenServices.remove(serviceInfoSnapshot.getServiceId().getUniqueId())) {
+            this.unsubscribe(serviceInfoSnapshot);
+        }
+    }
+
+    public void handleSubscription(UUID serviceUniqueId, String nodeUniqueId, boolean subscribe) {
+        ICloudService cloudService = this.localServices.get().get(serviceUniqueId);
+
+        if (cloudService == null || nodeUniqueId == null) {
+            return;
+        }
+
+        if (subscribe) {
+            cloudService.getServiceConsoleLogCache().addSubscribedNode(nodeUniqueId);
+        } else {
+            cloudService.getServiceConsoleLogCache().removeSubscribedNode(nodeUniqueId);
+        }
+    }
+
+    /**
+     * Removes the subscriptions of a disconnected node to the local services, so that no output is sent to the node,
+     * until it subscribes the services again
+     */
+    public void handleNodeDisconnect(String nodeUniqueId) {
+        Validate.checkNotNull(nodeUniqueId);
+
+        for (ICloudService cloudService : this.localServices.get().values()) {
+            cloudService.getServiceConsoleLogCache().removeSubscribedNode(nodeUniqueId);
+        }
+    }
+
+    /**
+     * Sends the subscriptions of this node to the services of a node, which has been connected again
+     */
+    public void handleNodeConnect(String nodeUniqueId) {
+        Validate.checkNotNull(nodeUniqueId);
+
+        for (Map.Entry<UUID, Subscription> entry : this.subscriptions.entrySet()) {
+            if (entry.getValue().nodeUniqueId.equals(nodeUniqueId)) {
+                this.sendSubscription(nodeUniqueId, entry.getKey(), true);
+            }
+        }
+    }
+
+    public void handleLogEntries(UUID serviceUniqueId, JsonArray entries) {
+        ServiceInfoSnapshot serviceInfoSnapshot = CloudNet.getInstance().getCloudServiceManager().getGlobalServiceInfoSnapshots().get(serviceUniqueId);
+
+        if (serviceInfoSnapshot == null || entries == null || !this.isSubscribed(serviceUniqueId)) {
+            return;
+        }
+
+        boolean screenEnabled = this.isScreenEnabled(serviceUniqueId);
+
+        for (JsonElement element : entries) {
+            JsonObject entry = element.getAsJsonObject();
+
+            String message = entry.get("messageEntry").getAsString();
+            boolean errorMessage = entry.get("errorMessage").getAsBoolean();
+
+            CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceConsoleLogReceiveEntryEvent(serviceInfoSnapshot, message, errorMessage));
+
+            if (screenEnabled) {
+                CloudNetDriver.getInstance().getLogger().log((errorMessage ? LogLevel.WARNING : LogLevel.INFO), "[" + serviceInfoSnapshot.getServiceId().getName() + "] " + message);
+            }
+        }
+    }
+
+    private void sendSubscription(String nodeUniqueId, UUID serviceUniqueId, boolean subscribe) {
+        this.packetSender.accept(nodeUniqueId, new PacketServerConsoleLogSubscription(serviceUniqueId, this.nodeUniqueId.get(), subscribe));
+    }
+
+    private static final class Subscription {
+
+        private final String nodeUniqueId;
+
+        //the count of the consumers on this node, only changed within the computation of its entry
+        private int count;
+
+        private Subscription(String nodeUniqueId) {
+            this.nodeUniqueId = nodeUniqueId;
+        }
+    }
+}
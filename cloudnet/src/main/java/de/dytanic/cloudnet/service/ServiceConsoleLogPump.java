@@ -0,0 +1,223 @@
+package de.dytanic.cloudnet.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Reads the output streams of the service processes on a small pool of daemon threads, independent of the main loop
+ * of the node. The threads never block on a single pipe, they read only the available bytes of each stream into a
+ * reusable buffer and split them into lines, so that a pump thread can serve many services. If no stream has new
+ * output, the thread parks with an increasing delay up to {@link #MAX_IDLE_MILLIS}.
+ */
+public final class ServiceConsoleLogPump implements AutoCloseable {
+
+    public static final int DEFAULT_THREAD_COUNT = Math.max(1, Integer.getInteger("cloudnet.service.logPump.threads", 2));
+
+    public static final long MAX_IDLE_MILLIS = 50;
+
+    private static final int MAX_LINE_LENGTH = 32768;
+
+    private final PumpThread[] pumpThreads;
+
+    private volatile boolean closed;
+
+    public ServiceConsoleLogPump() {
+        this(DEFAULT_THREAD_COUNT);
+    }
+
+    public ServiceConsoleLogPump(int threadCount) {
+        this.pumpThreads = new PumpThread[threadCount];
+    }
+
+    /**
+     * Registers the stream of a process, every line of the stream is passed to the given handler on a pump thread.
+     * The stream is removed, after the process has been terminated and the remaining output has been read.
+     *
+     * @param process     the process, which writes into the stream
+     * @param inputStream the stdout or stderr stream of the process
+     * @param lineHandler the handler for the lines of the stream, empty lines are skipped
+     */
+    public void register(Process process, InputStream inputStream, Consumer<String> lineHandler) {
+        if (this.closed) {
+            return;
+        }
+
+        PumpThread pumpThread = this.selectPumpThread();
+        pumpThread.streams.offer(new LogStream(process, inputStream, lineHandler));
+        LockSupport.unpark(pumpThread);
+    }
+
+    public int getStreamCount() {
+        int count = 0;
+
+        for (PumpThread pumpThread : this.pumpThreads) {
+            if (pumpThread != null) {
+                count += pumpThread.streams.size();
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+
+        for (int i = 0; i < this.pumpThreads.length; i++) {
+            if (this.pumpThreads[i] != null) {
+                this.pumpThreads[i].interrupt();
+                this.pumpThreads[i] = null;
+            }
+        }
+    }
+
+    private synchronized PumpThread selectPumpThread() {
+        PumpThread selected = null;
+
+        for (int i = 0; i < this.pumpThreads.length; i++) {
+            if (this.pumpThreads[i] == null) {
+                this.pumpThreads[i] = new PumpThread(i);
+                this.pumpThreads[i].start();
+            }
+
+            if (selected == null || this.pumpThreads[i].streams.size() < selected.streams.size()) {
+                selected = this.pumpThreads[i];
+            }
+        }
+
+        return selected;
+    }
+
+    private static final class PumpThread extends Thread {
+
+        private final Queue<LogStream> streams = new ConcurrentLinkedQueue<>();
+
+        private final byte[] buffer = new byte[8192];
+
+        private PumpThread(int id) {
+            super("ServiceConsoleLogPump-" + id);
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long idleMillis = 1;
+
+            while (!this.isInterrupted()) {
+                boolean received = false;
+
+                for (LogStream stream : this.streams) {
+                    try {
+                        int len = stream.pump(this.buffer);
+
+                        if (len > 0) {
+                            received = true;
+                        } else if (len == -1) {
+                            this.streams.remove(stream);
+                        }
+                    } catch (IOException exception) {
+                        stream.flush();
+                        this.streams.remove(stream);
+                    } catch (Throwable throwable) {
+                        throwable.printStackTrace();
+                    }
+                }
+
+                if (received) {
+                    idleMillis = 1;
+                } else {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(idleMillis));
+                    idleMillis = Math.min(idleMillis << 1, MAX_IDLE_MILLIS);
+                }
+            }
+        }
+    }
+
+    private static final class LogStream {
+
+        private final Process process;
+
+        private final InputStream inputStream;
+
+        private final Consumer<String> lineHandler;
+
+        private byte[] line = new byte[256];
+
+        private int lineLength;
+
+        private LogStream(Process process, InputStream inputStream, Consumer<String> lineHandler) {
+            this.process = process;
+            this.inputStream = inputStream;
+            this.lineHandler = lineHandler;
+        }
+
+        /**
+         * @return the count of the read bytes, 0 if no bytes are available or -1 if the stream has been finished
+         */
+        private int pump(byte[] buffer) throws IOException {
+            //the process state has to be checked before the available bytes, otherwise the last output could be lost
+            boolean alive = this.process.isAlive();
+            int available = this.inputStream.available();
+
+            if (available <= 0) {
+                if (!alive) {
+                    this.flush();
+                    return -1;
+                }
+
+                return 0;
+            }
+
+            int len = this.inputStream.read(buffer, 0, Math.min(available, buffer.length));
+
+            if (len == -1) {
+                this.flush();
+                return -1;
+            }
+
+            for (int i = 0; i < len; i++) {
+                byte b = buffer[i];
+
+                if (b == '\n' || b == '\r') {
+                    this.flush();
+                } else {
+                    if (this.lineLength == this.line.length) {
+                        if (this.lineLength >= MAX_LINE_LENGTH) {
+                            this.flush();
+                        } else {
+                            this.line = Arrays.copyOf(this.line, Math.min(this.line.length << 1, MAX_LINE_LENGTH));
+                        }
+                    }
+
+                    this.line[this.lineLength++] = b;
+                }
+            }
+
+            return len;
+        }
+
+        private void flush() {
+            if (this.lineLength == 0) {
+                return;
+            }
+
+            String text = new String(this.line, 0, this.lineLength, StandardCharsets.UTF_8);
+            this.lineLength = 0;
+
+            if (!text.trim().isEmpty()) {
+                try {
+                    this.lineHandler.accept(text);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            }
+        }
+    }
+}
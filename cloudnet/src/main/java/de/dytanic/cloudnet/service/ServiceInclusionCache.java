@@ -0,0 +1,244 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.encrypt.EncryptTo;
+import de.dytanic.cloudnet.common.io.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * A cache of the remote inclusions of the services, which is shared by all services of this node. The inclusions
+ * are downloaded in parallel and a download of an url, which is requested by several services at once, is only
+ * performed once. Cached files are revalidated with conditional requests (ETag and Last-Modified), after they
+ * have been used for the revalidation interval without a check.
+ */
+public final class ServiceInclusionCache implements AutoCloseable {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.11 (KHTML, like Gecko) Chrome/23.0.1271.95 Safari/537.11";
+
+    private final Path directory;
+
+    private final long revalidateIntervalMillis;
+
+    private final PathMatcher linkedFilesMatcher;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    private final ExecutorService executorService;
+
+    //Map<Url, pending download>
+    private final Map<String, CompletableFuture<Path>> pendingDownloads = Maps.newConcurrentHashMap();
+
+    private volatile boolean hardLinks;
+
+    /**
+     * @param directory                the directory of the cached files
+     * @param revalidateIntervalMillis the time after that a cached file is checked for changes again
+     * @param threads                  the count of parallel downloads
+     * @param linkedFilesPattern       the glob pattern of the file names, which are hard linked into the services, or null
+     */
+    public ServiceInclusionCache(Path directory, long revalidateIntervalMillis, int threads, String linkedFilesPattern) {
+        Validate.checkNotNull(directory);
+
+        this.directory = directory;
+        this.revalidateIntervalMillis = revalidateIntervalMillis;
+        this.linkedFilesMatcher = linkedFilesPattern == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + linkedFilesPattern);
+        this.hardLinks = this.linkedFilesMatcher != null;
+
+        this.executorService = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "ServiceInclusionCache-" + this.threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cached file of the url, which is downloaded or revalidated first, if necessary
+     *
+     * @param url              the url of the inclusion
+     * @param headers          the additional http headers of the request
+     * @param connectionFilter is called before a request is sent, the request is cancelled, if it returns false
+     * @return a future, which is completed with the cached file or with null, if the download was cancelled
+     */
+    public CompletableFuture<Path> fetch(String url, Map<String, String> headers, Predicate<URLConnection> connectionFilter) {
+        Validate.checkNotNull(url);
+
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> pendingDownload = this.pendingDownloads.putIfAbsent(url, future);
+
+        if (pendingDownload != null) {
+            return pendingDownload;
+        }
+
+        this.executorService.execute(() -> {
+            Path file = null;
+            Throwable throwable = null;
+
+            try {
+                file = this.fetch0(url, headers, connectionFilter);
+            } catch (Throwable exception) {
+                throwable = exception;
+            }
+
+            //the download has to be removed before the future is completed, a fetch of a waiting caller would get the old result otherwise
+            this.pendingDownloads.remove(url, future);
+
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(file);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Creates the destination file with the content of the cached file. Files, which match the linked files pattern,
+     * are hard linked, all other files are copied. A revalidation replaces the cached file instead of writing into
+     * it, so that a linked file keeps its content.
+     */
+    public void deliver(Path cachedFile, Path destination) throws IOException {
+        Validate.checkNotNull(cachedFile);
+        Validate.checkNotNull(destination);
+
+        Path parent = destination.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        if (this.hardLinks && this.linkedFilesMatcher.matches(destination.getFileName())) {
+            try {
+                Files.deleteIfExists(destination);
+                Files.createLink(destination, cachedFile);
+                return;
+            } catch (IOException | UnsupportedOperationException exception) {
+                this.hardLinks = false;
+            }
+        }
+
+        Files.copy(cachedFile, destination, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Path getCachedFile(String url) {
+        return this.directory.resolve(Base64.getUrlEncoder().withoutPadding().encodeToString(EncryptTo.encryptToSHA256(url)));
+    }
+
+    private Path fetch0(String url, Map<String, String> headers, Predicate<URLConnection> connectionFilter) throws IOException {
+        Path file = this.getCachedFile(url);
+        Path metaFile = file.resolveSibling(file.getFileName() + ".meta");
+
+        boolean cached = Files.exists(file);
+        JsonDocument meta = cached && Files.exists(metaFile) ? JsonDocument.newDocument(metaFile) : new JsonDocument();
+
+        if (cached && System.currentTimeMillis() - meta.getLong("validated", 0L) < this.revalidateIntervalMillis) {
+            return file;
+        }
+
+        URLConnection connection = new URL(url).openConnection();
+
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+        }
+
+        connection.setDoOutput(false);
+        connection.setUseCaches(false);
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+
+        if (cached) {
+            if (meta.getString("etag") != null) {
+                connection.setRequestProperty("If-None-Match", meta.getString("etag"));
+            }
+
+            if (meta.getString("lastModified") != null) {
+                connection.setRequestProperty("If-Modified-Since", meta.getString("lastModified"));
+            }
+        }
+
+        if (connectionFilter != null && !connectionFilter.test(connection)) {
+            return cached ? file : null;
+        }
+
+        try {
+            connection.connect();
+
+            if (connection instanceof HttpURLConnection) {
+                int responseCode = ((HttpURLConnection) connection).getResponseCode();
+
+                if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+                    meta.append("validated", System.currentTimeMillis()).write(metaFile);
+                    return file;
+                }
+
+                if (responseCode >= 400) {
+                    throw new IOException("Server returned HTTP response code " + responseCode + " for URL " + url);
+                }
+            }
+
+            Files.createDirectories(this.directory);
+            Path tempFile = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".part");
+
+            try {
+                try (InputStream inputStream = connection.getInputStream(); OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                    FileUtils.copy(inputStream, outputStream);
+                }
+
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            new JsonDocument()
+                    .append("url", url)
+                    .append("etag", connection.getHeaderField("ETag"))
+                    .append("lastModified", connection.getHeaderField("Last-Modified"))
+                    .append("validated", System.currentTimeMillis())
+                    .write(metaFile);
+
+            return file;
+        } catch (IOException exception) {
+            if (cached) {
+                //the stale file is better than no file, if the server isn't available
+                exception.printStackTrace();
+                return file;
+            }
+
+            throw exception;
+        } finally {
+            if (connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).disconnect();
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    @Override
+    public void close() {
+        this.executorService.shutdownNow();
+    }
+}
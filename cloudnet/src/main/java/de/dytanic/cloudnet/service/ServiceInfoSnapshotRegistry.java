@@ -0,0 +1,308 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The map of the global ServiceInfoSnapshots with secondary indexes by task, group, environment and lifecycle, which
+ * are updated together with the map on every put and remove. Lookups by the unique id don't need a lock, the indexed
+ * lookups only cost as much as the result they return.
+ * <p>
+ * The indexes are built from the state of the snapshot when it was put into the map, so a snapshot whose lifecycle
+ * was changed in place has to be put again.
+ */
+public final class ServiceInfoSnapshotRegistry extends AbstractMap<UUID, ServiceInfoSnapshot> {
+
+    private static final ServiceLifeCycle[] ALL_LIFE_CYCLES = ServiceLifeCycle.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, ServiceInfoSnapshot> serviceInfoSnapshots = Maps.newConcurrentHashMap();
+
+    //Map<UniqueId, The keys under which the snapshot is indexed>
+    private final Map<UUID, IndexKeys> indexKeys = Maps.newHashMap();
+
+    //Map<Lowercase task name, Map<LifeCycle, UniqueIds>>
+    private final Map<String, Map<ServiceLifeCycle, Set<UUID>>> servicesByTask = Maps.newHashMap();
+
+    private final Map<String, Set<UUID>> servicesByGroup = Maps.newHashMap();
+
+    private final Map<ServiceEnvironmentType, Set<UUID>> servicesByEnvironment = new EnumMap<>(ServiceEnvironmentType.class);
+
+    private final Map<ServiceLifeCycle, Set<UUID>> servicesByLifeCycle = new EnumMap<>(ServiceLifeCycle.class);
+
+    private final Set<Entry<UUID, ServiceInfoSnapshot>> entrySet = new EntrySet();
+
+    @Override
+    public ServiceInfoSnapshot get(Object key) {
+        return this.serviceInfoSnapshots.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.serviceInfoSnapshots.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return this.serviceInfoSnapshots.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.serviceInfoSnapshots.isEmpty();
+    }
+
+    @Override
+    public ServiceInfoSnapshot put(UUID uniqueId, ServiceInfoSnapshot serviceInfoSnapshot) {
+        Validate.checkNotNull(uniqueId);
+        Validate.checkNotNull(serviceInfoSnapshot);
+
+        this.lock.writeLock().lock();
+        try {
+            ServiceInfoSnapshot previous = this.serviceInfoSnapshots.put(uniqueId, serviceInfoSnapshot);
+
+            this.unindex(uniqueId);
+            this.index(uniqueId, serviceInfoSnapshot);
+
+            return previous;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ServiceInfoSnapshot remove(Object key) {
+        if (!(key instanceof UUID)) {
+            return null;
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            this.unindex((UUID) key);
+
+            return this.serviceInfoSnapshots.remove(key);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.serviceInfoSnapshots.clear();
+            this.indexKeys.clear();
+            this.servicesByTask.clear();
+            this.servicesByGroup.clear();
+            this.servicesByEnvironment.clear();
+            this.servicesByLifeCycle.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Entry<UUID, ServiceInfoSnapshot>> entrySet() {
+        return this.entrySet;
+    }
+
+    /**
+     * @param taskName   the name of the task, case insensitive
+     * @param lifeCycles the lifecycles of the services or no lifecycle for services in all lifecycles
+     */
+    public Collection<ServiceInfoSnapshot> getByTask(String taskName, ServiceLifeCycle... lifeCycles) {
+        Validate.checkNotNull(taskName);
+
+        this.lock.readLock().lock();
+        try {
+            Map<ServiceLifeCycle, Set<UUID>> servicesByLifeCycle = this.servicesByTask.get(taskName.toLowerCase());
+
+            if (servicesByLifeCycle == null) {
+                return new ArrayList<>();
+            }
+
+            Collection<ServiceInfoSnapshot> result = new ArrayList<>();
+
+            for (ServiceLifeCycle lifeCycle : lifeCycles.length == 0 ? ALL_LIFE_CYCLES : lifeCycles) {
+                this.collect(servicesByLifeCycle.get(lifeCycle), result);
+            }
+
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Collection<ServiceInfoSnapshot> getByGroup(String group) {
+        Validate.checkNotNull(group);
+
+        return this.getIndexed(this.servicesByGroup, group);
+    }
+
+    public Collection<ServiceInfoSnapshot> getByEnvironment(ServiceEnvironmentType environment) {
+        Validate.checkNotNull(environment);
+
+        return this.getIndexed(this.servicesByEnvironment, environment);
+    }
+
+    public Collection<ServiceInfoSnapshot> getByLifeCycle(ServiceLifeCycle lifeCycle) {
+        Validate.checkNotNull(lifeCycle);
+
+        return this.getIndexed(this.servicesByLifeCycle, lifeCycle);
+    }
+
+    private <K> Collection<ServiceInfoSnapshot> getIndexed(Map<K, Set<UUID>> index, K key) {
+        this.lock.readLock().lock();
+        try {
+            Collection<ServiceInfoSnapshot> result = new ArrayList<>();
+            this.collect(index.get(key), result);
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Set<UUID> uniqueIds, Collection<ServiceInfoSnapshot> result) {
+        if (uniqueIds != null) {
+            for (UUID uniqueId : uniqueIds) {
+                result.add(this.serviceInfoSnapshots.get(uniqueId));
+            }
+        }
+    }
+
+    private void index(UUID uniqueId, ServiceInfoSnapshot serviceInfoSnapshot) {
+        IndexKeys keys = new IndexKeys(serviceInfoSnapshot);
+        this.indexKeys.put(uniqueId, keys);
+
+        if (keys.taskName != null) {
+            addToIndex(this.servicesByTask.computeIfAbsent(keys.taskName, taskName -> new EnumMap<>(ServiceLifeCycle.class)), keys.lifeCycle, uniqueId);
+        }
+
+        for (String group : keys.groups) {
+            addToIndex(this.servicesByGroup, group, uniqueId);
+        }
+
+        addToIndex(this.servicesByEnvironment, keys.environment, uniqueId);
+        addToIndex(this.servicesByLifeCycle, keys.lifeCycle, uniqueId);
+    }
+
+    private void unindex(UUID uniqueId) {
+        IndexKeys keys = this.indexKeys.remove(uniqueId);
+
+        if (keys == null) {
+            return;
+        }
+
+        if (keys.taskName != null) {
+            Map<ServiceLifeCycle, Set<UUID>> servicesByLifeCycle = this.servicesByTask.get(keys.taskName);
+
+            if (servicesByLifeCycle != null) {
+                removeFromIndex(servicesByLifeCycle, keys.lifeCycle, uniqueId);
+
+                if (servicesByLifeCycle.isEmpty()) {
+                    this.servicesByTask.remove(keys.taskName);
+                }
+            }
+        }
+
+        for (String group : keys.groups) {
+            removeFromIndex(this.servicesByGroup, group, uniqueId);
+        }
+
+        removeFromIndex(this.servicesByEnvironment, keys.environment, uniqueId);
+        removeFromIndex(this.servicesByLifeCycle, keys.lifeCycle, uniqueId);
+    }
+
+    private static <K> void addToIndex(Map<K, Set<UUID>> index, K key, UUID uniqueId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(uniqueId);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<UUID>> index, K key, UUID uniqueId) {
+        Set<UUID> uniqueIds = key != null ? index.get(key) : null;
+
+        if (uniqueIds != null && uniqueIds.remove(uniqueId) && uniqueIds.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static final class IndexKeys {
+
+        private final String taskName;
+
+        private final String[] groups;
+
+        private final ServiceEnvironmentType environment;
+
+        private final ServiceLifeCycle lifeCycle;
+
+        private IndexKeys(ServiceInfoSnapshot serviceInfoSnapshot) {
+            this.taskName = serviceInfoSnapshot.getServiceId().getTaskName() != null ? serviceInfoSnapshot.getServiceId().getTaskName().toLowerCase() : null;
+            this.groups = serviceInfoSnapshot.getConfiguration() != null && serviceInfoSnapshot.getConfiguration().getGroups() != null ?
+                    serviceInfoSnapshot.getConfiguration().getGroups().clone() :
+                    new String[0];
+            this.environment = serviceInfoSnapshot.getServiceId().getEnvironment();
+            this.lifeCycle = serviceInfoSnapshot.getLifeCycle();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<UUID, ServiceInfoSnapshot>> {
+
+        @Override
+        public Iterator<Entry<UUID, ServiceInfoSnapshot>> iterator() {
+            Iterator<Entry<UUID, ServiceInfoSnapshot>> iterator = ServiceInfoSnapshotRegistry.this.serviceInfoSnapshots.entrySet().iterator();
+
+            return new Iterator<Entry<UUID, ServiceInfoSnapshot>>() {
+
+                private Entry<UUID, ServiceInfoSnapshot> current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<UUID, ServiceInfoSnapshot> next() {
+                    Entry<UUID, ServiceInfoSnapshot> entry = iterator.next();
+
+                    return this.current = new SimpleEntry<UUID, ServiceInfoSnapshot>(entry) {
+                        @Override
+                        public ServiceInfoSnapshot setValue(ServiceInfoSnapshot value) {
+                            super.setValue(value);
+                            return ServiceInfoSnapshotRegistry.this.put(this.getKey(), value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (this.current == null) {
+                        throw new IllegalStateException();
+                    }
+
+                    ServiceInfoSnapshotRegistry.this.remove(this.current.getKey());
+                    this.current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ServiceInfoSnapshotRegistry.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ServiceInfoSnapshotRegistry.this.clear();
+        }
+    }
+}
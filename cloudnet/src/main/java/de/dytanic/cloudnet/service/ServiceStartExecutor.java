@@ -0,0 +1,131 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the services on a small pool of daemon threads, so that the stages of the node don't wait for the template
+ * copies and the process start of a service. The pending starts are tracked, so that a service which is already
+ * about to be started is neither started twice nor counted as missing by the service launch.
+ */
+public final class ServiceStartExecutor implements AutoCloseable {
+
+    public static final int DEFAULT_THREAD_COUNT = Math.max(1, Integer.getInteger("cloudnet.service.start.threads", 2));
+
+    //Map<Service UniqueId, Start>
+    private final Map<UUID, ServiceStart> pendingStarts = Maps.newConcurrentHashMap();
+
+    private final ScheduledExecutorService executorService;
+
+    public ServiceStartExecutor() {
+        this(DEFAULT_THREAD_COUNT);
+    }
+
+    public ServiceStartExecutor(int threadCount) {
+        AtomicInteger threadId = new AtomicInteger();
+
+        this.executorService = Executors.newScheduledThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "ServiceStart-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the service asynchronously
+     *
+     * @return false, if a start of the service is already pending
+     */
+    public boolean submit(ICloudService cloudService) {
+        Validate.checkNotNull(cloudService);
+
+        ServiceStart serviceStart = new ServiceStart(cloudService);
+
+        if (this.pendingStarts.putIfAbsent(cloudService.getServiceId().getUniqueId(), serviceStart) != null) {
+            return false;
+        }
+
+        this.execute(serviceStart, 0);
+        return true;
+    }
+
+    /**
+     * Starts the service again after the delay, even if the start of the service is currently running. This is used
+     * by a start, which couldn't be completed because of missing resources of the node.
+     */
+    public void retry(ICloudService cloudService, long delayMillis) {
+        Validate.checkNotNull(cloudService);
+
+        ServiceStart serviceStart = new ServiceStart(cloudService);
+        this.pendingStarts.put(cloudService.getServiceId().getUniqueId(), serviceStart);
+
+        this.execute(serviceStart, delayMillis);
+    }
+
+    public boolean isPending(ICloudService cloudService) {
+        return this.pendingStarts.containsKey(cloudService.getServiceId().getUniqueId());
+    }
+
+    /**
+     * @param taskName the name of the task, case insensitive
+     * @return the amount of pending starts of the services of the task
+     */
+    public int getPendingCount(String taskName) {
+        int count = 0;
+
+        for (ServiceStart serviceStart : this.pendingStarts.values()) {
+            if (serviceStart.cloudService.getServiceId().getTaskName().equalsIgnoreCase(taskName)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public int getPendingCount() {
+        return this.pendingStarts.size();
+    }
+
+    private void execute(ServiceStart serviceStart, long delayMillis) {
+        try {
+            this.executorService.schedule(serviceStart, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException exception) {
+            this.pendingStarts.remove(serviceStart.cloudService.getServiceId().getUniqueId(), serviceStart);
+            throw exception;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.executorService.shutdownNow();
+        this.pendingStarts.clear();
+    }
+
+    private final class ServiceStart implements Runnable {
+
+        private final ICloudService cloudService;
+
+        private ServiceStart(ICloudService cloudService) {
+            this.cloudService = cloudService;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.cloudService.start();
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            } finally {
+                //a retry, which was requested while the service was starting, replaces this start and stays pending
+                ServiceStartExecutor.this.pendingStarts.remove(this.cloudService.getServiceId().getUniqueId(), this);
+            }
+        }
+    }
+}
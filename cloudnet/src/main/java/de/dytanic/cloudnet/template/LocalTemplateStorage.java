@@ -3,6 +3,7 @@ package de.dytanic.cloudnet.template;
 import de.dytanic.cloudnet.common.Validate;
 import de.dytanic.cloudnet.common.collection.Iterables;
 import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 
 import java.io.File;
@@ -20,8 +21,20 @@ public final class LocalTemplateStorage implements ITemplateStorage {
 
     public static final String LOCAL_TEMPLATE_STORAGE = "local";
 
+    /**
+     * The files of the templates, which match the pattern, are hard linked into the service directories instead
+     * of copied. Only files, which aren't written in place by the services, should match the pattern, because
+     * a change of a linked file changes the file in the template as well.
+     */
+    private static final String LINKED_FILES_PATTERN = System.getProperty("cloudnet.template.linkedFiles", "*.jar");
+
     private final File storageDirectory;
 
+    private final PathMatcher linkedFilesMatcher = FileSystems.getDefault().getPathMatcher("glob:" + LINKED_FILES_PATTERN);
+
+    //the hard links are disabled, if the file system doesn't support them or the service directories are on another file system
+    private volatile boolean hardLinks = Boolean.parseBoolean(System.getProperty("cloudnet.template.hardLinks", "true"));
+
     public LocalTemplateStorage(File storageDirectory) {
         this.storageDirectory = storageDirectory;
         this.storageDirectory.mkdirs();
@@ -107,7 +120,11 @@ public final class LocalTemplateStorage implements ITemplateStorage {
         boolean value = true;
 
         try {
-            FileUtils.copyFilesToDirectory(templateDirectory, directory, buffer);
+            if (this.hardLinks && templateDirectory.isDirectory()) {
+                this.linkFilesToDirectory(templateDirectory.toPath(), directory.toPath(), buffer);
+            } else {
+                FileUtils.copyFilesToDirectory(templateDirectory, directory, buffer);
+            }
         } catch (IOException e) {
             e.printStackTrace();
             value = false;
@@ -116,6 +133,41 @@ public final class LocalTemplateStorage implements ITemplateStorage {
         return value;
     }
 
+    private void linkFilesToDirectory(Path from, Path to, byte[] buffer) throws IOException {
+        Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(to.resolve(from.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path target = to.resolve(from.relativize(file).toString());
+
+                if (!hardLinks || !linkedFilesMatcher.matches(file.getFileName()) || !link(file, target)) {
+                    FileUtils.copy(file, target, buffer);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private boolean link(Path file, Path target) {
+        try {
+            Files.deleteIfExists(target);
+            Files.createLink(target, file);
+
+            return true;
+        } catch (IOException | UnsupportedOperationException exception) {
+            this.hardLinks = false;
+            System.err.println(LanguageManager.getMessage("template-storage-hard-links-unsupported").replace("%error%", String.valueOf(exception.getMessage())));
+
+            return false;
+        }
+    }
+
     @Override
     public boolean copy(ServiceTemplate template, Path directory) {
         Validate.checkNotNull(template);
@@ -144,7 +144,9 @@ public final class TemplateStorageUtil {
                 break;
             }
 
-            if (storage.shouldSyncInCluster()) {
+            if (storage instanceof LocalTemplateStorage) {
+                CloudNet.getInstance().deployTemplateInCluster(serviceTemplate);
+            } else if (storage.shouldSyncInCluster()) {
                 CloudNet.getInstance().deployTemplateInCluster(serviceTemplate, storage.toZipByteArray(serviceTemplate));
             }
             return true;
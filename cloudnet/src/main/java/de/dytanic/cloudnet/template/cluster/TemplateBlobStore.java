@@ -0,0 +1,154 @@
+package de.dytanic.cloudnet.template.cluster;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A local store of file contents addressed by their SHA-256 hash. The files of received templates are added to
+ * the store, so that a file with the same content in another template or in a later version of a template can be
+ * taken from the local disk instead of being transferred again. The blobs are copies and not links of the template
+ * files, because the template files can be overwritten in place. The least recently used blobs are removed, if the
+ * store exceeds its maximum size.
+ */
+public final class TemplateBlobStore {
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    public TemplateBlobStore(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    public boolean contains(String hash) {
+        return isValidHash(hash) && Files.exists(this.resolve(hash));
+    }
+
+    /**
+     * Creates the target file with the content of the blob
+     *
+     * @return true, if the blob exists and the file was created
+     */
+    public boolean copyTo(String hash, Path target) {
+        if (!this.contains(hash)) {
+            return false;
+        }
+
+        Path blob = this.resolve(hash);
+
+        try {
+            Files.createDirectories(target.getParent());
+            Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+
+            return true;
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Adds the content of the given file to the store, if the store doesn't contain the hash yet
+     */
+    public void store(String hash, Path file) {
+        if (!isValidHash(hash) || this.maxSize <= 0) {
+            return;
+        }
+
+        Path blob = this.resolve(hash);
+
+        try {
+            if (Files.exists(blob)) {
+                Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+                return;
+            }
+
+            Files.createDirectories(blob.getParent());
+
+            Path tempFile = blob.resolveSibling(hash + ".tmp");
+
+            Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, blob, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Removes the least recently used blobs, until the store doesn't exceed the maximum size anymore
+     */
+    public void trim() {
+        if (!Files.isDirectory(this.directory)) {
+            return;
+        }
+
+        List<Path> blobs = new ArrayList<>();
+        long[] size = new long[1];
+
+        try {
+            Files.walkFileTree(this.directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    blobs.add(file);
+                    size[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            if (size[0] <= this.maxSize) {
+                return;
+            }
+
+            blobs.sort(Comparator.comparingLong(TemplateBlobStore::lastModified));
+
+            for (Path blob : blobs) {
+                if (size[0] <= this.maxSize) {
+                    break;
+                }
+
+                long blobSize = Files.size(blob);
+
+                if (Files.deleteIfExists(blob)) {
+                    size[0] -= blobSize;
+                }
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    public long getMaxSize() {
+        return this.maxSize;
+    }
+
+    private Path resolve(String hash) {
+        return this.directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException exception) {
+            return 0;
+        }
+    }
+
+    private static boolean isValidHash(String hash) {
+        return hash != null && hash.length() == 64 && hash.matches("[0-9a-f]+");
+    }
+}
@@ -0,0 +1,154 @@
+package de.dytanic.cloudnet.template.cluster;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A file of a template, which is transferred to another node, with the relative path in the template and the
+ * SHA-256 hash of the content
+ */
+public final class TemplateFile {
+
+    public static final Type TYPE = new TypeToken<List<TemplateFile>>() {
+    }.getType();
+
+    public static final Type STRING_LIST_TYPE = new TypeToken<List<String>>() {
+    }.getType();
+
+    private final String path;
+
+    private final long size;
+
+    private final String hash;
+
+    public TemplateFile(String path, long size, String hash) {
+        this.path = path;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * Lists all files of the given directory with their hashes, the paths are separated by "/"
+     */
+    public static List<TemplateFile> listFiles(Path directory) throws IOException {
+        return listFiles(directory, null);
+    }
+
+    /**
+     * Lists all files of the given directory, the hashes of unchanged files are taken from the given cache
+     */
+    public static List<TemplateFile> listFiles(Path directory, TemplateFileHashCache hashCache) throws IOException {
+        List<TemplateFile> files = new ArrayList<>();
+
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                files.add(new TemplateFile(toRelativePath(directory, file), attrs.size(), hashCache != null ? hashCache.hash(file, attrs) : hash(file)));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return files;
+    }
+
+    /**
+     * Lists the relative paths of all directories in the given directory, which don't contain any files
+     */
+    public static List<String> listEmptyDirectories(Path directory) throws IOException {
+        List<String> directories = new ArrayList<>();
+
+        if (!Files.isDirectory(directory)) {
+            return directories;
+        }
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(directory)) {
+                    try (Stream<Path> stream = Files.list(dir)) {
+                        if (!stream.findAny().isPresent()) {
+                            directories.add(toRelativePath(directory, dir));
+                        }
+                    }
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return directories;
+    }
+
+    public static String hash(Path file) throws IOException {
+        MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IOException(exception);
+        }
+
+        byte[] buffer = new byte[32768];
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int len;
+            while ((len = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, len);
+            }
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (byte b : messageDigest.digest()) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Resolves the relative path against the directory and ensures, that the result is located in the directory
+     */
+    public static Path resolve(Path directory, String path) throws IOException {
+        Path resolved = directory.resolve(path).normalize();
+
+        if (!resolved.startsWith(directory.normalize()) || resolved.equals(directory.normalize())) {
+            throw new IOException("Invalid template file path " + path);
+        }
+
+        return resolved;
+    }
+
+    private static String toRelativePath(Path directory, Path file) {
+        return directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public String getHash() {
+        return this.hash;
+    }
+}
@@ -0,0 +1,69 @@
+package de.dytanic.cloudnet.template.cluster;
+
+import de.dytanic.cloudnet.common.collection.Maps;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+/**
+ * Caches the SHA-256 hashes of template files by their size and last modification time, so that the manifest
+ * of an unchanged template doesn't have to read all files again
+ */
+public final class TemplateFileHashCache {
+
+    private static final int MAX_ENTRIES = Integer.getInteger("cloudnet.template.hashCache.maxEntries", 65536);
+
+    //Map<absolute path, CachedHash>
+    private final Map<Path, CachedHash> hashes = Maps.newConcurrentHashMap();
+
+    public String hash(Path file) throws IOException {
+        return this.hash(file, Files.readAttributes(file, BasicFileAttributes.class));
+    }
+
+    public String hash(Path file, BasicFileAttributes attributes) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        FileTime lastModified = attributes.lastModifiedTime();
+
+        CachedHash cachedHash = this.hashes.get(key);
+
+        if (cachedHash != null && cachedHash.size == attributes.size() && cachedHash.lastModified.equals(lastModified)) {
+            return cachedHash.hash;
+        }
+
+        String hash = TemplateFile.hash(file);
+
+        if (this.hashes.size() >= MAX_ENTRIES) {
+            this.hashes.clear();
+        }
+
+        this.hashes.put(key, new CachedHash(attributes.size(), lastModified, hash));
+        return hash;
+    }
+
+    public void invalidate(Path file) {
+        this.hashes.remove(file.toAbsolutePath().normalize());
+    }
+
+    public int size() {
+        return this.hashes.size();
+    }
+
+    private static final class CachedHash {
+
+        private final long size;
+
+        private final FileTime lastModified;
+
+        private final String hash;
+
+        private CachedHash(long size, FileTime lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package de.dytanic.cloudnet.template.cluster;
+
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.network.packet.PacketServerTemplateTransfer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Receives the files of a template, which are streamed by the {@link TemplateTransferSender} of another node.
+ * Only the files of the manifest, which aren't in the template with the same hash yet, are requested from the sender.
+ * Files, whose content is known by the {@link TemplateBlobStore}, are taken from the local disk.
+ * The files are written into a temporary directory of the transfer first and moved into the template, after all
+ * files have been received and verified. A transfer, which was interrupted, is resumed at the end of the files
+ * in the temporary directory.
+ * <p>
+ * The chunks of a transfer may be handled by several threads and in another order than they have been sent, so the
+ * chunks of a transfer are written one after another and the files are only verified at the end of the transfer.
+ */
+public final class TemplateTransferReceiver {
+
+    public static final String COMMAND_RESUME = "template_transfer_resume", COMMAND_ACK = "template_transfer_ack",
+            COMMAND_COMPLETE = "template_transfer_complete";
+
+    private final Map<UUID, IncomingTransfer> transfers = Maps.newConcurrentHashMap();
+
+    private final Path transferDirectory;
+
+    private final Supplier<Path> storageDirectorySupplier;
+
+    private final TemplateBlobStore blobStore;
+
+    private final TemplateFileHashCache hashCache = new TemplateFileHashCache();
+
+    /**
+     * @param transferDirectory        the directory, which contains the temporary directories of the transfers
+     * @param storageDirectorySupplier the supplier of the directory of the local template storage
+     * @param blobStore                the store, which provides the content of already known files
+     */
+    public TemplateTransferReceiver(Path transferDirectory, Supplier<Path> storageDirectorySupplier, TemplateBlobStore blobStore) {
+        this.transferDirectory = transferDirectory;
+        this.storageDirectorySupplier = storageDirectorySupplier;
+        this.blobStore = blobStore;
+    }
+
+    public void handleBegin(INetworkChannel channel, UUID sessionId, JsonDocument header) {
+        String transferId = header.getString("transferId");
+        ServiceTemplate template = header.get("serviceTemplate", ServiceTemplate.class);
+        List<TemplateFile> files = header.get("files", TemplateFile.TYPE);
+
+        if (transferId == null || template == null || files == null || !transferId.matches("[A-Za-z0-9_-]+")) {
+            channel.sendPacket(new PacketServerTemplateTransfer(COMMAND_COMPLETE, sessionId, new JsonDocument("success", false), null));
+            return;
+        }
+
+        IncomingTransfer transfer;
+        JsonDocument offsets = new JsonDocument();
+
+        try {
+            transfer = new IncomingTransfer(
+                    template,
+                    header.getBoolean("preClear"),
+                    files,
+                    header.get("emptyDirectories", TemplateFile.STRING_LIST_TYPE),
+                    this.transferDirectory.resolve(transferId),
+                    TemplateFile.resolve(this.storageDirectorySupplier.get(), template.getTemplatePath())
+            );
+
+            Files.createDirectories(transfer.directory);
+
+            for (TemplateFile file : files) {
+                long offset = transfer.prepareFile(file);
+
+                if (offset > 0) {
+                    offsets.append(file.getPath(), offset);
+                }
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+
+            channel.sendPacket(new PacketServerTemplateTransfer(COMMAND_COMPLETE, sessionId, new JsonDocument("success", false), null));
+            return;
+        }
+
+        this.transfers.put(sessionId, transfer);
+
+        channel.sendPacket(new PacketServerTemplateTransfer(COMMAND_RESUME, sessionId, new JsonDocument("offsets", offsets), null));
+    }
+
+    public void handleChunk(INetworkChannel channel, UUID sessionId, JsonDocument header, byte[] body) {
+        IncomingTransfer transfer = this.transfers.get(sessionId);
+
+        if (transfer != null) {
+            transfer.write(header.getString("path"), header.getLong("offset"), body);
+        }
+
+        channel.sendPacket(new PacketServerTemplateTransfer(COMMAND_ACK, sessionId, new JsonDocument(), null));
+    }
+
+    public void handleEnd(INetworkChannel channel, UUID sessionId) {
+        IncomingTransfer transfer = this.transfers.remove(sessionId);
+        boolean success = false;
+
+        if (transfer != null) {
+            try {
+                success = transfer.complete();
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+        }
+
+        channel.sendPacket(new PacketServerTemplateTransfer(COMMAND_COMPLETE, sessionId, new JsonDocument("success", success), null));
+    }
+
+    public int getTransferCount() {
+        return this.transfers.size();
+    }
+
+    private final class IncomingTransfer {
+
+        private final ServiceTemplate template;
+
+        private final boolean preClear;
+
+        //Map<Path, TemplateFile>
+        private final Map<String, TemplateFile> files = Maps.newHashMap();
+
+        private final Collection<String> emptyDirectories;
+
+        private final Path directory, templateDirectory;
+
+        private final Set<String> completedFiles = Collections.newSetFromMap(Maps.newConcurrentHashMap());
+
+        //the files, which are already in the template with the same content
+        private final Set<String> unchangedFiles = Collections.newSetFromMap(Maps.newConcurrentHashMap());
+
+        private volatile boolean failed;
+
+        private IncomingTransfer(ServiceTemplate template, boolean preClear, List<TemplateFile> files, Collection<String> emptyDirectories,
+                                 Path directory, Path templateDirectory) {
+            this.template = template;
+            this.preClear = preClear;
+            this.emptyDirectories = emptyDirectories;
+            this.directory = directory;
+            this.templateDirectory = templateDirectory;
+
+            for (TemplateFile file : files) {
+                this.files.put(file.getPath(), file);
+            }
+        }
+
+        /**
+         * Checks, if the content of the file is already available in the template, in the blob store or in the
+         * directory of the transfer
+         *
+         * @return the offset, from which the file has to be sent
+         */
+        private long prepareFile(TemplateFile file) throws IOException {
+            Path templateFile = TemplateFile.resolve(this.templateDirectory, file.getPath());
+
+            if (Files.isRegularFile(templateFile) && Files.size(templateFile) == file.getSize() &&
+                    hashCache.hash(templateFile).equals(file.getHash())) {
+                this.unchangedFiles.add(file.getPath());
+                this.completedFiles.add(file.getPath());
+                return file.getSize();
+            }
+
+            Path path = TemplateFile.resolve(this.directory, file.getPath());
+
+            if (Files.exists(path)) {
+                long size = Files.size(path);
+
+                if (size == file.getSize() && TemplateFile.hash(path).equals(file.getHash())) {
+                    this.completedFiles.add(file.getPath());
+                    return size;
+                }
+
+                if (size < file.getSize()) {
+                    return size;
+                }
+
+                Files.delete(path);
+            }
+
+            if (file.getSize() == 0) {
+                Files.createDirectories(path.getParent());
+                Files.createFile(path);
+
+                this.completedFiles.add(file.getPath());
+                return 0;
+            }
+
+            if (blobStore.copyTo(file.getHash(), path)) {
+                if (TemplateFile.hash(path).equals(file.getHash())) {
+                    this.completedFiles.add(file.getPath());
+                    return file.getSize();
+                }
+
+                Files.delete(path);
+            }
+
+            return 0;
+        }
+
+        private synchronized void write(String filePath, long offset, byte[] body) {
+            TemplateFile file = filePath == null ? null : this.files.get(filePath);
+
+            if (file == null || body == null || offset < 0 || offset + body.length > file.getSize()) {
+                this.failed = true;
+                return;
+            }
+
+            try {
+                Path path = TemplateFile.resolve(this.directory, file.getPath());
+                Files.createDirectories(path.getParent());
+
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(path.toFile(), "rw")) {
+                    randomAccessFile.seek(offset);
+                    randomAccessFile.write(body);
+                }
+            } catch (IOException exception) {
+                exception.printStackTrace();
+                this.failed = true;
+            }
+        }
+
+        /**
+         * Verifies the received files at the end of the transfer, when all of their chunks have been written
+         */
+        private void verifyFiles() throws IOException {
+            for (TemplateFile file : this.files.values()) {
+                if (this.completedFiles.contains(file.getPath())) {
+                    continue;
+                }
+
+                Path path = TemplateFile.resolve(this.directory, file.getPath());
+
+                if (Files.exists(path) && Files.size(path) == file.getSize() && TemplateFile.hash(path).equals(file.getHash())) {
+                    this.completedFiles.add(file.getPath());
+                } else {
+                    //the next attempt has to send the whole file again
+                    Files.deleteIfExists(path);
+                    this.failed = true;
+                }
+            }
+        }
+
+        private synchronized boolean complete() throws IOException {
+            this.verifyFiles();
+
+            if (this.failed || !this.completedFiles.containsAll(this.files.keySet())) {
+                return false;
+            }
+
+            Files.createDirectories(this.templateDirectory);
+
+            for (TemplateFile file : this.files.values()) {
+                if (this.unchangedFiles.contains(file.getPath())) {
+                    continue;
+                }
+
+                Path target = TemplateFile.resolve(this.templateDirectory, file.getPath());
+
+                if (Files.isDirectory(target)) {
+                    FileUtils.delete(target.toFile());
+                }
+
+                Files.createDirectories(target.getParent());
+                Files.move(TemplateFile.resolve(this.directory, file.getPath()), target, StandardCopyOption.REPLACE_EXISTING);
+
+                if (file.getSize() > 0) {
+                    blobStore.store(file.getHash(), target);
+                }
+            }
+
+            if (this.emptyDirectories != null) {
+                for (String emptyDirectory : this.emptyDirectories) {
+                    Files.createDirectories(TemplateFile.resolve(this.templateDirectory, emptyDirectory));
+                }
+            }
+
+            if (this.preClear) {
+                this.deleteRemovedFiles();
+            }
+
+            FileUtils.delete(this.directory.toFile());
+            blobStore.trim();
+
+            return true;
+        }
+
+        /**
+         * Deletes all files and directories of the template, which aren't part of the transferred template
+         */
+        private void deleteRemovedFiles() throws IOException {
+            Set<String> directories = Collections.newSetFromMap(Maps.newHashMap());
+
+            if (this.emptyDirectories != null) {
+                directories.addAll(this.emptyDirectories);
+            }
+
+            for (String path : this.files.keySet()) {
+                for (int index = path.indexOf('/'); index != -1; index = path.indexOf('/', index + 1)) {
+                    directories.add(path.substring(0, index));
+                }
+            }
+
+            Path normalizedTemplateDirectory = this.templateDirectory.toAbsolutePath().normalize();
+
+            Files.walkFileTree(normalizedTemplateDirectory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (!files.containsKey(toRelativePath(normalizedTemplateDirectory, file))) {
+                        Files.delete(file);
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    if (!dir.equals(normalizedTemplateDirectory) && !directories.contains(toRelativePath(normalizedTemplateDirectory, dir))) {
+                        Files.delete(dir);
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        private String toRelativePath(Path directory, Path file) {
+            return directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package de.dytanic.cloudnet.template.cluster;
+
+import de.dytanic.cloudnet.cluster.IClusterNodeServer;
+import de.dytanic.cloudnet.common.Validate;
+import de.dytanic.cloudnet.common.collection.Maps;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.encrypt.EncryptTo;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.network.packet.PacketServerTemplateTransfer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streams the files of a local template to other nodes in chunks. The receiver answers the manifest of the transfer
+ * with the offsets of the files, which it already has, so that only changed or missing files are sent.
+ * Only a window of {@link #WINDOW_SIZE} chunks is sent without an acknowledgement of the receiver, so that neither
+ * side has to buffer the whole template. The receiver keeps incomplete files of a transfer, which allows to resume
+ * an interrupted transfer of the same template content from the last received chunks.
+ * <p>
+ * The transfers to a node are dropped, if the node disconnects or if the node hasn't answered for
+ * {@link #TRANSFER_TIMEOUT} milliseconds.
+ */
+public final class TemplateTransferSender {
+
+    public static final String COMMAND_BEGIN = "template_transfer_begin", COMMAND_CHUNK = "template_transfer_chunk",
+            COMMAND_END = "template_transfer_end";
+
+    public static final int CHUNK_SIZE = 262144, WINDOW_SIZE = 8;
+
+    public static final long TRANSFER_TIMEOUT = Long.getLong("cloudnet.template.transfer.timeout", 300000);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Map<UUID, OutgoingTransfer> transfers = Maps.newConcurrentHashMap();
+
+    private final TemplateFileHashCache hashCache = new TemplateFileHashCache();
+
+    /**
+     * Transfers the files of the given directory as the template to all connected nodes
+     *
+     * @param template    the target template on the other nodes
+     * @param directory   the directory, which contains the files of the template
+     * @param nodeServers the target nodes
+     * @param preClear    if the files of the existing template on the other nodes, which aren't in the given directory, should be deleted
+     */
+    public void transfer(ServiceTemplate template, Path directory, Collection<IClusterNodeServer> nodeServers, boolean preClear) throws IOException {
+        Validate.checkNotNull(template);
+        Validate.checkNotNull(directory);
+        Validate.checkNotNull(nodeServers);
+
+        this.removeTimedOutTransfers();
+
+        List<TemplateFile> files = TemplateFile.listFiles(directory, this.hashCache);
+        List<String> emptyDirectories = TemplateFile.listEmptyDirectories(directory);
+
+        String transferId = createTransferId(template, files);
+
+        for (IClusterNodeServer nodeServer : nodeServers) {
+            if (nodeServer.isConnected()) {
+                //a new transfer of the same template replaces the previous one to the same node
+                this.transfers.values().removeIf(transfer -> transfer.nodeServer == nodeServer && transfer.template.equals(template));
+
+                OutgoingTransfer transfer = new OutgoingTransfer(UUID.randomUUID(), transferId, template, directory, files, emptyDirectories, nodeServer, preClear);
+                this.transfers.put(transfer.sessionId, transfer);
+
+                transfer.begin();
+            }
+        }
+    }
+
+    public void handleResume(UUID sessionId, JsonDocument header) {
+        OutgoingTransfer transfer = this.transfers.get(sessionId);
+
+        if (transfer != null) {
+            transfer.resume(header.getDocument("offsets"));
+        }
+    }
+
+    public void handleAck(UUID sessionId) {
+        OutgoingTransfer transfer = this.transfers.get(sessionId);
+
+        if (transfer != null) {
+            transfer.acknowledge();
+        }
+    }
+
+    public void handleComplete(UUID sessionId, boolean success) {
+        OutgoingTransfer transfer = this.transfers.get(sessionId);
+
+        if (transfer == null) {
+            return;
+        }
+
+        if (success || transfer.attempts >= MAX_ATTEMPTS) {
+            this.transfers.remove(sessionId);
+        } else {
+            //the receiver keeps the verified files, the retry resumes with the missing or broken ones
+            transfer.begin();
+        }
+    }
+
+    /**
+     * Drops the transfers to the node, which has been disconnected. The receiver resumes the transfer from the
+     * received files, once the template is transferred again.
+     *
+     * @param nodeUniqueId the unique id of the disconnected node
+     */
+    public void handleNodeDisconnect(String nodeUniqueId) {
+        Validate.checkNotNull(nodeUniqueId);
+
+        this.transfers.values().removeIf(transfer -> transfer.nodeServer.getNodeInfo() != null &&
+                transfer.nodeServer.getNodeInfo().getUniqueId().equalsIgnoreCase(nodeUniqueId));
+    }
+
+    public void removeTimedOutTransfers() {
+        long timeout = System.currentTimeMillis() - TRANSFER_TIMEOUT;
+        this.transfers.values().removeIf(transfer -> transfer.lastActivity < timeout);
+    }
+
+    public int getTransferCount() {
+        return this.transfers.size();
+    }
+
+    private static String createTransferId(ServiceTemplate template, List<TemplateFile> files) {
+        StringBuilder stringBuilder = new StringBuilder(template.getStorage()).append(':').append(template.getTemplatePath());
+
+        for (TemplateFile file : files) {
+            stringBuilder.append(';').append(file.getPath()).append('=').append(file.getHash());
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(EncryptTo.encryptToSHA256(stringBuilder.toString()));
+    }
+
+    private static final class OutgoingTransfer {
+
+        private final UUID sessionId;
+
+        private final String transferId;
+
+        private final ServiceTemplate template;
+
+        private final Path directory;
+
+        private final List<TemplateFile> files;
+
+        private final List<String> emptyDirectories;
+
+        private final IClusterNodeServer nodeServer;
+
+        private final boolean preClear;
+
+        private JsonDocument offsets;
+
+        private int fileIndex, inflightChunks, attempts;
+
+        private long offset;
+
+        private boolean ended;
+
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private OutgoingTransfer(UUID sessionId, String transferId, ServiceTemplate template, Path directory, List<TemplateFile> files,
+                                 List<String> emptyDirectories, IClusterNodeServer nodeServer, boolean preClear) {
+            this.sessionId = sessionId;
+            this.transferId = transferId;
+            this.template = template;
+            this.directory = directory;
+            this.files = files;
+            this.emptyDirectories = emptyDirectories;
+            this.nodeServer = nodeServer;
+            this.preClear = preClear;
+        }
+
+        private synchronized void begin() {
+            this.lastActivity = System.currentTimeMillis();
+            this.attempts++;
+            this.offsets = null;
+            this.ended = false;
+
+            this.nodeServer.saveSendPacket(new PacketServerTemplateTransfer(COMMAND_BEGIN, this.sessionId, new JsonDocument()
+                    .append("transferId", this.transferId)
+                    .append("serviceTemplate", this.template)
+                    .append("preClear", this.preClear)
+                    .append("files", this.files)
+                    .append("emptyDirectories", this.emptyDirectories), null));
+        }
+
+        private synchronized void resume(JsonDocument offsets) {
+            this.lastActivity = System.currentTimeMillis();
+            this.offsets = offsets;
+            this.fileIndex = 0;
+            this.offset = this.offsets.getLong(this.files.isEmpty() ? "" : this.files.get(0).getPath(), 0L);
+            this.inflightChunks = 0;
+
+            this.sendChunks();
+        }
+
+        private synchronized void acknowledge() {
+            this.lastActivity = System.currentTimeMillis();
+
+            if (this.inflightChunks > 0) {
+                this.inflightChunks--;
+            }
+
+            this.sendChunks();
+        }
+
+        private void sendChunks() {
+            if (this.offsets == null || this.ended) {
+                return;
+            }
+
+            while (this.inflightChunks < WINDOW_SIZE && this.fileIndex < this.files.size()) {
+                TemplateFile file = this.files.get(this.fileIndex);
+
+                if (this.offset >= file.getSize()) {
+                    this.nextFile();
+                    continue;
+                }
+
+                byte[] chunk;
+
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(TemplateFile.resolve(this.directory, file.getPath()).toFile(), "r")) {
+                    chunk = new byte[(int) Math.min(CHUNK_SIZE, file.getSize() - this.offset)];
+
+                    randomAccessFile.seek(this.offset);
+                    randomAccessFile.readFully(chunk);
+                } catch (IOException exception) {
+                    exception.printStackTrace();
+
+                    //the receiver detects the incomplete file by its hash
+                    this.nextFile();
+                    continue;
+                }
+
+                long chunkOffset = this.offset;
+
+                this.offset += chunk.length;
+                this.inflightChunks++;
+
+                this.nodeServer.saveSendPacket(new PacketServerTemplateTransfer(COMMAND_CHUNK, this.sessionId, new JsonDocument()
+                        .append("path", file.getPath())
+                        .append("offset", chunkOffset), chunk));
+            }
+
+            if (!this.ended && this.fileIndex >= this.files.size() && this.inflightChunks == 0) {
+                this.ended = true;
+                this.nodeServer.saveSendPacket(new PacketServerTemplateTransfer(COMMAND_END, this.sessionId, new JsonDocument(), null));
+            }
+        }
+
+        private void nextFile() {
+            this.fileIndex++;
+            this.offset = this.fileIndex < this.files.size() ? this.offsets.getLong(this.files.get(this.fileIndex).getPath(), 0L) : 0;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.dytanic.cloudnet.cluster;
+
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.service.ProcessSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ClusterNodeInfoSnapshotPublisherTest {
+
+    private final List<IPacket> packets = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testPublish() {
+        INetworkChannel channel = this.createChannel();
+        ClusterNodeInfoSnapshotPublisher publisher = new ClusterNodeInfoSnapshotPublisher();
+
+        publisher.publish(this.createSnapshot(1000, 1), Collections.singletonList(channel));
+        Assert.assertTrue(this.packets.get(0).getHeader().contains("clusterNodeInfoSnapshot"));
+
+        //the delta contains the creation time of the snapshot, on which it is based
+        publisher.publish(this.createSnapshot(2000, 2), Collections.singletonList(channel));
+        Assert.assertTrue(this.packets.get(1).getHeader().contains("clusterNodeInfoSnapshotDelta"));
+        Assert.assertEquals(1000, this.packets.get(1).getHeader().getLong("baseCreationTime"));
+
+        //a receiver without the base snapshot requests the full snapshot
+        publisher.publishSnapshot(channel);
+        NetworkClusterNodeInfoSnapshot snapshot = this.packets.get(2).getHeader().get("clusterNodeInfoSnapshot", NetworkClusterNodeInfoSnapshot.TYPE);
+        Assert.assertEquals(2000, snapshot.getCreationTime());
+
+        publisher.publish(this.createSnapshot(3000, 3), Collections.singletonList(channel));
+        Assert.assertEquals(2000, this.packets.get(3).getHeader().getLong("baseCreationTime"));
+        Assert.assertEquals(4, this.packets.size());
+    }
+
+    private INetworkChannel createChannel() {
+        return (INetworkChannel) Proxy.newProxyInstance(INetworkChannel.class.getClassLoader(), new Class[]{INetworkChannel.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "sendPacket":
+                    this.packets.add((IPacket) args[0]);
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private NetworkClusterNodeInfoSnapshot createSnapshot(long creationTime, int servicesCount) {
+        return new NetworkClusterNodeInfoSnapshot(
+                creationTime,
+                new NetworkClusterNode("Node-1", new HostAndPort[]{new HostAndPort("127.0.0.1", 1410)}),
+                "1.0",
+                servicesCount,
+                512,
+                1024,
+                4096,
+                new ProcessSnapshot(256, 64, 1024, 5000, 5000, 0, Collections.emptyList(), 3.5, 1234),
+                Collections.emptyList(),
+                12.5
+        );
+    }
+}
@@ -4,11 +4,17 @@ import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
 import de.dytanic.cloudnet.database.IDatabase;
 import de.dytanic.cloudnet.database.IDatabaseHandler;
+import de.dytanic.cloudnet.database.sql.SQLDatabase;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class H2DatabaseProviderTest implements IDatabaseHandler {
@@ -75,6 +81,153 @@ public final class H2DatabaseProviderTest implements IDatabaseHandler {
         databaseProvider.close();
     }
 
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_pool", false, null, 4);
+        Assert.assertTrue(databaseProvider.init());
+
+        IDatabase database = databaseProvider.getDatabase("pooledDatabase");
+        database.clear();
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(database.insert(String.valueOf(i), new JsonDocument("val", i)));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        Collection<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            int key = i % 50;
+
+            futures.add(executorService.submit(() -> database.contains(String.valueOf(key)) && database.get(String.valueOf(key)).getInt("val") == key));
+        }
+
+        for (Future<Boolean> future : futures) {
+            Assert.assertTrue(future.get());
+        }
+
+        executorService.shutdown();
+
+        Assert.assertEquals(50, database.getDocumentsCount());
+        Assert.assertTrue(databaseProvider.deleteDatabase("pooledDatabase"));
+
+        databaseProvider.close();
+    }
+
+    @Test(timeout = 20000)
+    public void testNestedQueries() throws Exception {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_nested", false, null, 1);
+        Assert.assertTrue(databaseProvider.init());
+
+        IDatabase database = databaseProvider.getDatabase("nestedDatabase");
+        database.clear();
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(database.insert(String.valueOf(i), new JsonDocument("val", i)));
+        }
+
+        //a query in the callback of another query reuses the connection of the thread, even with the same statement
+        String query = "SELECT Document FROM nestedDatabase WHERE Name = ?";
+        Integer result = databaseProvider.executeQuery(query, resultSet -> {
+            Assert.assertTrue(resultSet.next());
+            int value = JsonDocument.newDocument(resultSet.getString("Document")).getInt("val");
+
+            int nestedValue = databaseProvider.executeQuery(query, nestedResultSet -> nestedResultSet.next() ?
+                    JsonDocument.newDocument(nestedResultSet.getString("Document")).getInt("val") : -1, "7");
+
+            Assert.assertEquals(1, databaseProvider.executeUpdate("UPDATE nestedDatabase SET Document = ? WHERE Name = ?", new JsonDocument("val", 8).toJson(), "8"));
+            Assert.assertFalse(resultSet.next());
+
+            return value + nestedValue;
+        }, "3");
+
+        Assert.assertEquals(10, (int) result);
+        Assert.assertEquals(10, database.getDocumentsCount());
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("nestedDatabase"));
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testIndexedQueries() throws Exception {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_index", false, null, 2);
+        Assert.assertTrue(databaseProvider.init());
+
+        IDatabase database = databaseProvider.getDatabase("indexedDatabase");
+        database.clear();
+
+        for (int i = 0; i < 100; i++) {
+            database.insert(String.valueOf(i), new JsonDocument("name", i % 10 == 0 ? "Albert" : "Peter").append("val", i));
+        }
+
+        Assert.assertTrue(database.createIndex("name"));
+        Assert.assertTrue(database.getIndexedFields().contains("name"));
+        Assert.assertFalse(databaseProvider.getDatabaseNames().contains(("indexedDatabase" + SQLDatabase.INDEX_TABLE_SUFFIX).toUpperCase()));
+
+        Assert.assertEquals(10, database.get("name", "Albert").size());
+        Assert.assertEquals(1, database.get(new JsonDocument("name", "Albert").append("val", 50)).size());
+
+        Assert.assertTrue(database.update("50", new JsonDocument("name", "Peter").append("val", 50)));
+        Assert.assertTrue(database.delete("60"));
+        Assert.assertEquals(8, database.get("name", "Albert").size());
+
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < SQLDatabase.MAX_INDEX_VALUE_LENGTH; i++) {
+            longName.append('a');
+        }
+
+        database.insert("long1", new JsonDocument("name", longName + "1"));
+        database.insert("long2", new JsonDocument("name", longName + "2"));
+        Assert.assertEquals(1, database.get("name", longName + "2").size());
+
+        //the declaration of the index is loaded by a new instance of the database
+        databaseProvider.close();
+
+        databaseProvider = new H2DatabaseProvider("build/h2database_index", false, null, 2);
+        Assert.assertTrue(databaseProvider.init());
+
+        database = databaseProvider.getDatabase("indexedDatabase");
+        Assert.assertTrue(database.getIndexedFields().contains("name"));
+        Assert.assertEquals(8, database.get("name", "Albert").size());
+
+        database.clear();
+        Assert.assertEquals(0, database.get("name", "Albert").size());
+        Assert.assertTrue(databaseProvider.deleteDatabase("indexedDatabase"));
+
+        databaseProvider.close();
+    }
+
+    @Test
+    public void testIndexTransactions() throws Exception {
+        H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_transaction", false, null, 2);
+        Assert.assertTrue(databaseProvider.init());
+
+        IDatabase database = databaseProvider.getDatabase("transactionDatabase");
+        database.clear();
+
+        Assert.assertTrue(database.createIndex("name"));
+        Assert.assertTrue(database.insert("1", new JsonDocument("name", "Albert")));
+
+        //the updates of a transaction, which has failed, are rolled back together
+        Assert.assertFalse(databaseProvider.executeTransaction(() -> {
+            Assert.assertEquals(1, databaseProvider.executeUpdate("DELETE FROM transactionDatabase WHERE Name = ?", "1"));
+            return databaseProvider.executeTransaction(() -> false);
+        }));
+        Assert.assertTrue(database.contains("1"));
+
+        //a document isn't written without its index values
+        databaseProvider.executeUpdate("DROP TABLE transactionDatabase" + SQLDatabase.INDEX_TABLE_SUFFIX);
+
+        Assert.assertFalse(database.insert("2", new JsonDocument("name", "Peter")));
+        Assert.assertFalse(database.update("1", new JsonDocument("name", "Peter")));
+
+        Assert.assertFalse(database.contains("2"));
+        Assert.assertEquals("Albert", database.get("1").getString("name"));
+
+        Assert.assertTrue(databaseProvider.deleteDatabase("transactionDatabase"));
+        databaseProvider.close();
+    }
+
     @Override
     public void handleInsert(IDatabase database, String key, JsonDocument document) {
         this.resultString = "foobar";
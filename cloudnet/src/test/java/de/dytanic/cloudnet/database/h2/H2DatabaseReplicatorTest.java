@@ -0,0 +1,292 @@
+package de.dytanic.cloudnet.database.h2;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class H2DatabaseReplicatorTest {
+
+    private static final int RETENTION = 64;
+
+    private static final long BATCH_DELAY = 10;
+
+    private final File directory = new File("build/tests/h2Replication");
+
+    private final Queue<Runnable> packets = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService executorA = Executors.newSingleThreadScheduledExecutor(), executorB = Executors.newSingleThreadScheduledExecutor();
+
+    private H2DatabaseProvider providerA, providerB;
+
+    private H2DatabaseReplicator replicatorA, replicatorB;
+
+    private INetworkChannel channelToA, channelToB;
+
+    private volatile boolean connected = true;
+
+    //executed once by the sending node, after it has read the next page of a snapshot
+    private volatile Runnable pageAction;
+
+    private final AtomicInteger snapshotPages = new AtomicInteger(), inflightPages = new AtomicInteger(), maxInflightPages = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.delete(this.directory);
+
+        this.providerA = new H2DatabaseProvider(new File(this.directory, "a/h2").getPath(), false);
+        this.providerB = new H2DatabaseProvider(new File(this.directory, "b/h2").getPath(), false);
+
+        Assert.assertTrue(this.providerA.init());
+        Assert.assertTrue(this.providerB.init());
+
+        this.channelToA = this.createChannel(true);
+        this.channelToB = this.createChannel(false);
+
+        this.replicatorA = new H2DatabaseReplicator(this.providerA, "Node-A", this.channelToB, this.executorA, RETENTION, BATCH_DELAY);
+        this.replicatorB = new H2DatabaseReplicator(this.providerB, "Node-B", this.channelToA, this.executorB, RETENTION, BATCH_DELAY);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.replicatorA.close();
+        this.replicatorB.close();
+        this.providerA.close();
+        this.providerB.close();
+
+        FileUtils.delete(this.directory);
+    }
+
+    @Test
+    public void testReplication() throws Exception {
+        //the entries, which have been written before the start of the replication, are only known by a snapshot
+        H2Database databaseA = this.providerA.getDatabase("replication_test");
+
+        for (int i = 0; i < 600; i++) {
+            databaseA.insert("key-" + i, new JsonDocument("value", i));
+        }
+
+        this.providerA.setReplicator(this.replicatorA);
+        this.providerB.setReplicator(this.replicatorB);
+
+        this.replicatorB.requestSynchronization(this.channelToA, "Node-A");
+        this.deliver();
+
+        Assert.assertEquals(3, this.snapshotPages.get());
+        Assert.assertTrue(this.maxInflightPages.get() <= H2DatabaseReplicator.WINDOW_SIZE);
+        this.assertReplicated();
+
+        //writes of the connected nodes are replicated in batches of operations
+        for (int i = 0; i < 20; i++) {
+            databaseA.update("key-" + i, new JsonDocument("value", -i));
+            databaseA.delete("key-" + (100 + i));
+        }
+
+        databaseA.insert("key-new", new JsonDocument("value", "new"));
+        this.deliver();
+
+        Assert.assertEquals(3, this.snapshotPages.get());
+        Assert.assertEquals(41, this.replicatorB.getReplicatedSequence("Node-A", "replication_test"));
+        this.assertReplicated();
+
+        //a node, which has been disconnected, only requests the missed operations
+        this.connected = false;
+
+        for (int i = 0; i < 30; i++) {
+            databaseA.update("key-" + i, new JsonDocument("value", "offline"));
+        }
+
+        this.providerB.getDatabase("replication_test").delete0("key-599");
+        this.connected = true;
+
+        this.replicatorB.requestSynchronization(this.channelToA, "Node-A");
+        this.deliver();
+
+        Assert.assertEquals(3, this.snapshotPages.get());
+        Assert.assertEquals(71, this.replicatorB.getReplicatedSequence("Node-A", "replication_test"));
+        Assert.assertFalse(this.providerB.getDatabase("replication_test").contains("key-599"));
+
+        this.providerB.getDatabase("replication_test").insert0("key-599", databaseA.get("key-599"));
+        this.assertReplicated();
+
+        //a gap in the sequence of the operations is detected with the next operation
+        this.connected = false;
+        databaseA.delete("key-200");
+        this.deliver();
+
+        this.connected = true;
+        databaseA.delete("key-201");
+        this.deliver();
+
+        Assert.assertEquals(3, this.snapshotPages.get());
+        this.assertReplicated();
+
+        //operations, which aren't retained anymore, are replaced by a snapshot
+        this.connected = false;
+
+        for (int i = 0; i < RETENTION + 1; i++) {
+            databaseA.update("key-" + (300 + i), new JsonDocument("value", "retention"));
+        }
+
+        databaseA.clear();
+        databaseA.insert("key-cleared", new JsonDocument("value", "cleared"));
+        this.connected = true;
+
+        this.replicatorB.requestSynchronization(this.channelToA, "Node-A");
+        this.deliver();
+
+        Assert.assertEquals(4, this.snapshotPages.get());
+        this.assertReplicated();
+        Assert.assertEquals(1, this.providerB.getDatabase("replication_test").getDocumentsCount());
+
+        //the other node replicates its writes in the same way
+        this.providerB.getDatabase("other_test").insert("key", new JsonDocument("value", "b"));
+        this.replicatorA.requestSynchronization(this.channelToB, "Node-B");
+        this.deliver();
+
+        Assert.assertEquals("b", this.providerA.getDatabase("other_test").get("key").getString("value"));
+    }
+
+    @Test
+    public void testReorderedPackets() throws Exception {
+        H2Database databaseA = this.providerA.getDatabase("replication_test");
+
+        for (int i = 0; i < 1300; i++) {
+            databaseA.insert("key-" + i, new JsonDocument("value", i));
+        }
+
+        this.providerA.setReplicator(this.replicatorA);
+        this.providerB.setReplicator(this.replicatorB);
+
+        //the packets of every round are handled in the reversed order, the pages arrive before the begin of the snapshot
+        this.providerB.getDatabase("replication_test").insert0("key-stale", new JsonDocument("value", "stale"));
+
+        //the writes during the snapshot are handled before its begin and the pages, which have been read before them
+        this.pageAction = () -> {
+            databaseA.update("key-0", new JsonDocument("value", "during"));
+            databaseA.delete("key-1");
+            databaseA.update("key-1299", new JsonDocument("value", "during"));
+        };
+
+        this.replicatorB.requestSynchronization(this.channelToA, "Node-A");
+        this.deliver(true);
+
+        Assert.assertEquals(6, this.snapshotPages.get());
+        Assert.assertEquals(0, this.inflightPages.get());
+        Assert.assertTrue(this.maxInflightPages.get() <= H2DatabaseReplicator.WINDOW_SIZE);
+        Assert.assertEquals(3, this.replicatorB.getReplicatedSequence("Node-A", "replication_test"));
+        Assert.assertEquals("during", this.providerB.getDatabase("replication_test").get("key-0").getString("value"));
+        this.assertReplicated();
+
+        //the snapshot of missed operations, which aren't retained anymore, is handled in the same way
+        this.connected = false;
+
+        for (int i = 0; i < RETENTION + 1; i++) {
+            databaseA.update("key-" + i, new JsonDocument("value", "retention"));
+        }
+
+        databaseA.delete("key-5");
+        this.providerB.getDatabase("replication_test").delete0("key-10");
+        this.connected = true;
+
+        this.pageAction = () -> {
+            databaseA.update("key-2", new JsonDocument("value", "during"));
+            databaseA.delete("key-3");
+        };
+
+        this.replicatorB.requestSynchronization(this.channelToA, "Node-A");
+        this.deliver(true);
+
+        Assert.assertEquals(12, this.snapshotPages.get());
+        Assert.assertEquals(0, this.inflightPages.get());
+        Assert.assertEquals(RETENTION + 7, this.replicatorB.getReplicatedSequence("Node-A", "replication_test"));
+        this.assertReplicated();
+    }
+
+    private void assertReplicated() {
+        Assert.assertEquals(this.toStrings(this.providerA.getDatabase("replication_test").entries()), this.toStrings(this.providerB.getDatabase("replication_test").entries()));
+    }
+
+    private Map<String, String> toStrings(Map<String, JsonDocument> entries) {
+        Map<String, String> map = new TreeMap<>();
+
+        for (Map.Entry<String, JsonDocument> entry : entries.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().toString());
+        }
+
+        return map;
+    }
+
+    private void deliver() throws Exception {
+        this.deliver(false);
+    }
+
+    private void deliver(boolean reversed) throws Exception {
+        while (true) {
+            this.executorA.schedule(() -> {
+            }, BATCH_DELAY, TimeUnit.MILLISECONDS).get();
+            this.executorB.schedule(() -> {
+            }, BATCH_DELAY, TimeUnit.MILLISECONDS).get();
+
+            if (this.packets.isEmpty()) {
+                return;
+            }
+
+            Deque<Runnable> round = new ArrayDeque<>();
+
+            while (!this.packets.isEmpty()) {
+                round.add(this.packets.poll());
+            }
+
+            while (!round.isEmpty()) {
+                (reversed ? round.pollLast() : round.pollFirst()).run();
+            }
+        }
+    }
+
+    private INetworkChannel createChannel(boolean toNodeA) {
+        return (INetworkChannel) Proxy.newProxyInstance(INetworkChannel.class.getClassLoader(), new Class[]{INetworkChannel.class}, (proxy, method, args) -> {
+            if (method.getName().equals("sendPacket") && args[0] instanceof IPacket) {
+                IPacket packet = (IPacket) args[0];
+                String command = packet.getHeader().getString("command");
+
+                if (command.equals(H2DatabaseReplicator.COMMAND_SNAPSHOT_PAGE)) {
+                    this.snapshotPages.incrementAndGet();
+                    this.maxInflightPages.accumulateAndGet(this.inflightPages.incrementAndGet(), Math::max);
+
+                    Runnable pageAction = this.pageAction;
+                    this.pageAction = null;
+
+                    if (pageAction != null) {
+                        pageAction.run();
+                    }
+                } else if (command.equals(H2DatabaseReplicator.COMMAND_SNAPSHOT_ACK)) {
+                    this.inflightPages.decrementAndGet();
+                }
+
+                if (this.connected) {
+                    this.packets.add(() -> (toNodeA ? this.replicatorA : this.replicatorB).handle(toNodeA ? this.channelToB : this.channelToA, packet.getHeader()));
+                }
+            }
+
+            return null;
+        });
+    }
+}
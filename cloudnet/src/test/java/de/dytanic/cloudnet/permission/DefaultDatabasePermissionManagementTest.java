@@ -6,9 +6,11 @@ import de.dytanic.cloudnet.driver.permission.IPermissionGroup;
 import de.dytanic.cloudnet.driver.permission.IPermissionManagement;
 import de.dytanic.cloudnet.driver.permission.IPermissionUser;
 import de.dytanic.cloudnet.driver.permission.Permission;
+import de.dytanic.cloudnet.driver.permission.PermissionUser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 public class DefaultDatabasePermissionManagementTest {
@@ -86,4 +88,70 @@ public class DefaultDatabasePermissionManagementTest {
         Assert.assertNull(permissionManagement.getGroup(groupName));
         Assert.assertTrue(permissionUser.checkPassword("1234"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUserCache() throws Exception {
+        AbstractDatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database_cache", false);
+        Assert.assertTrue(databaseProvider.init());
+
+        System.setProperty("cloudnet.permissions.json.path", "build/group_permissions_cache.json");
+
+        DefaultDatabasePermissionManagement permissionManagement = new DefaultDatabasePermissionManagement(() -> databaseProvider);
+        permissionManagement.setUsers(Collections.emptyList());
+
+        IPermissionUser permissionUser = permissionManagement.addUser("Tester", "1234", 0);
+        permissionUser.addGroup("Member");
+        permissionUser.addPermission(new Permission("test.permission", 10, System.currentTimeMillis() + 20));
+        permissionManagement.updateUser(permissionUser);
+
+        permissionManagement.getUserCache().invalidateAll();
+
+        IPermissionUser cachedPermissionUser = permissionManagement.getUser(permissionUser.getUniqueId());
+        Assert.assertNotSame(permissionUser, cachedPermissionUser);
+        Assert.assertEquals(1, permissionManagement.getUserCache().getMisses());
+
+        //every caller gets its own copy, a change isn't visible without an update
+        cachedPermissionUser.addPermission("test.copy");
+
+        Assert.assertNotSame(cachedPermissionUser, permissionManagement.getUser(permissionUser.getUniqueId()));
+        Assert.assertFalse(permissionManagement.getUser(permissionUser.getUniqueId()).isPermissionSet("test.copy"));
+        Assert.assertEquals(2, permissionManagement.getUserCache().getHits());
+
+        Assert.assertEquals(1, permissionManagement.getUsersByGroup("member").size());
+        Assert.assertTrue(permissionManagement.getUsersByGroup("Admin").isEmpty());
+
+        //the expired permission is removed on the next read, but only written to the database with the next flush
+        Thread.sleep(30);
+
+        Assert.assertFalse(permissionManagement.getUser(permissionUser.getUniqueId()).isPermissionSet("test.permission"));
+        Assert.assertEquals(1, permissionManagement.getPendingUserUpdatesCount());
+        Assert.assertEquals(1, this.getStoredUser(permissionManagement, permissionUser).getPermissions().size());
+
+        permissionManagement.flushPendingUserUpdates();
+
+        Assert.assertEquals(0, permissionManagement.getPendingUserUpdatesCount());
+        Assert.assertEquals(0, this.getStoredUser(permissionManagement, permissionUser).getPermissions().size());
+
+        //an expired group of a cached user is removed by getUsersByGroup as well
+        IPermissionUser groupUser = permissionManagement.getUser(permissionUser.getUniqueId());
+        groupUser.addGroup("Guest", System.currentTimeMillis() + 20);
+        permissionManagement.updateUser(groupUser);
+
+        Assert.assertEquals(1, permissionManagement.getUsersByGroup("Guest").size());
+        Thread.sleep(30);
+
+        Assert.assertTrue(permissionManagement.getUsersByGroup("Guest").isEmpty());
+        Assert.assertFalse(permissionManagement.getUser(permissionUser.getUniqueId()).inGroup("Guest"));
+        Assert.assertEquals(1, permissionManagement.getPendingUserUpdatesCount());
+
+        permissionManagement.deleteUser(permissionUser);
+        Assert.assertNull(permissionManagement.getUser(permissionUser.getUniqueId()));
+        Assert.assertTrue(permissionManagement.getUsersByGroup("Member").isEmpty());
+
+        databaseProvider.close();
+    }
+
+    private IPermissionUser getStoredUser(DefaultDatabasePermissionManagement permissionManagement, IPermissionUser permissionUser) {
+        return permissionManagement.getDatabase().get(permissionUser.getUniqueId().toString()).toInstanceOf(PermissionUser.TYPE);
+    }
+}
@@ -0,0 +1,57 @@
+package de.dytanic.cloudnet.permission;
+
+import de.dytanic.cloudnet.driver.permission.IPermissionUser;
+import de.dytanic.cloudnet.driver.permission.Permission;
+import de.dytanic.cloudnet.driver.permission.PermissionUser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class PermissionUserCacheTest {
+
+    @Test
+    public void testEviction() throws Exception {
+        PermissionUserCache cache = new PermissionUserCache(2, 50);
+
+        IPermissionUser first = new PermissionUser(UUID.randomUUID(), "First", null, 0);
+        IPermissionUser second = new PermissionUser(UUID.randomUUID(), "Second", null, 0);
+        IPermissionUser third = new PermissionUser(UUID.randomUUID(), "Third", null, 0);
+
+        cache.put(first);
+        cache.put(second);
+        Assert.assertSame(first, cache.get(first.getUniqueId()));
+
+        //the second user is the least recently used one
+        cache.put(third);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get(second.getUniqueId()));
+        Assert.assertSame(third, cache.get(third.getUniqueId()));
+
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(1, cache.getEvictions());
+
+        Thread.sleep(60);
+
+        Assert.assertNull(cache.get(first.getUniqueId()));
+        Assert.assertNull(cache.peek(third.getUniqueId()));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testTimedOutPermissions() throws Exception {
+        PermissionUserCache cache = new PermissionUserCache(10, 60000);
+
+        IPermissionUser permissionUser = new PermissionUser(UUID.randomUUID(), "Tester", null, 0);
+        permissionUser.addPermission(new Permission("test.permission", 0, System.currentTimeMillis() + 20));
+        permissionUser.addPermission(new Permission("test.permanent", 0));
+        cache.put(permissionUser);
+
+        Assert.assertFalse(cache.hasTimedOutPermissions(permissionUser.getUniqueId()));
+
+        Thread.sleep(30);
+
+        Assert.assertTrue(cache.hasTimedOutPermissions(permissionUser.getUniqueId()));
+    }
+}
@@ -0,0 +1,60 @@
+package de.dytanic.cloudnet.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StageSchedulerTest {
+
+    @Test
+    public void testIndependentStages() throws Exception {
+        CountDownLatch fastRuns = new CountDownLatch(10);
+        CountDownLatch slowStageBlocked = new CountDownLatch(1);
+        CountDownLatch releaseSlowStage = new CountDownLatch(1);
+
+        try (StageScheduler stageScheduler = new StageScheduler()) {
+            ScheduledStage slowStage = stageScheduler.schedule("slow", 5, () -> {
+                slowStageBlocked.countDown();
+
+                try {
+                    releaseSlowStage.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            ScheduledStage fastStage = stageScheduler.schedule("fast", 5, () -> {
+                fastRuns.countDown();
+
+                if (fastRuns.getCount() == 5) {
+                    throw new IllegalStateException("failure of a single run");
+                }
+            });
+
+            Assert.assertTrue(slowStageBlocked.await(5, TimeUnit.SECONDS));
+
+            //the fast stage keeps running, while the slow stage is blocked
+            Assert.assertTrue(fastRuns.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(0, slowStage.getRuns());
+
+            releaseSlowStage.countDown();
+
+            //the runs are counted after the latches have been counted down
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((slowStage.getRuns() == 0 || fastStage.getRuns() < 10) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            Assert.assertTrue(slowStage.getRuns() > 0);
+            Assert.assertTrue(slowStage.getOverruns() >= 1);
+            Assert.assertTrue(slowStage.getMaxMillis() >= 5);
+
+            Assert.assertTrue(fastStage.getRuns() >= 10);
+            Assert.assertEquals(1, fastStage.getFailures());
+            Assert.assertEquals(2, stageScheduler.getStages().size());
+            Assert.assertSame(fastStage, stageScheduler.getStage("fast"));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import de.dytanic.cloudnet.driver.service.ServiceRemoteInclusion;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+public class PreparedServicePoolTest {
+
+    private final Map<UUID, ICloudService> services = new ConcurrentHashMap<>();
+
+    private final AtomicInteger createdServices = new AtomicInteger();
+
+    private ServiceTask serviceTask;
+
+    private ICloudServiceManager cloudServiceManager;
+
+    private PreparedServicePool preparedServicePool;
+
+    @Before
+    public void setUp() {
+        this.serviceTask = new ServiceTask();
+        this.serviceTask.setName("Lobby");
+        this.serviceTask.setPreparedServiceCount(2);
+
+        this.cloudServiceManager = (ICloudServiceManager) Proxy.newProxyInstance(ICloudServiceManager.class.getClassLoader(), new Class[]{ICloudServiceManager.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getServiceTasks":
+                    return Collections.singletonList(this.serviceTask);
+                case "getLocalCloudServices":
+                    return this.services.values().stream()
+                            .filter(cloudService -> cloudService.getServiceId().getTaskName().equals(args[0]))
+                            .collect(Collectors.toList());
+                case "getCloudService":
+                    return this.services.get(args[0]);
+                case "runTask":
+                    this.createdServices.incrementAndGet();
+                    return this.createService();
+                default:
+                    return null;
+            }
+        });
+
+        this.preparedServicePool = new PreparedServicePool();
+    }
+
+    @After
+    public void tearDown() {
+        this.preparedServicePool.close();
+    }
+
+    @Test
+    public void testPool() throws Exception {
+        //the pool is filled up to the prepared service count and the services are prepared in the background
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+        this.awaitPreparations();
+
+        Assert.assertEquals(2, this.createdServices.get());
+        Assert.assertEquals(2, this.preparedServicePool.getPooledServices().size());
+
+        for (ICloudService cloudService : this.services.values()) {
+            Assert.assertTrue(this.preparedServicePool.isPrepared(cloudService));
+            Assert.assertTrue(cloudService.getWaitingTemplates().isEmpty());
+        }
+
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+        Assert.assertEquals(2, this.createdServices.get());
+
+        //the prepared services are handed out before the others and are replaced by the next fill
+        ICloudService definedService = this.createService();
+
+        ICloudService cloudService = this.preparedServicePool.getFreeNonStartedService(this.cloudServiceManager, "Lobby", service -> true);
+        Assert.assertNotEquals(definedService, cloudService);
+        Assert.assertTrue(this.preparedServicePool.isPrepared(cloudService));
+        Assert.assertEquals(1, this.preparedServicePool.getPooledServices().size());
+
+        Assert.assertNull(this.preparedServicePool.getFreeNonStartedService(this.cloudServiceManager, "Lobby", service -> false));
+        Assert.assertNull(this.preparedServicePool.getFreeNonStartedService(this.cloudServiceManager, "Proxy", service -> true));
+
+        this.setLifeCycle(cloudService, ServiceLifeCycle.RUNNING);
+
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+        this.awaitPreparations();
+
+        Assert.assertEquals(2, this.createdServices.get());
+        Assert.assertTrue(this.preparedServicePool.isPrepared(definedService));
+
+        this.services.remove(definedService.getServiceId().getUniqueId());
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+
+        Assert.assertEquals(3, this.createdServices.get());
+        Assert.assertEquals(2, this.preparedServicePool.getPooledServices().size());
+    }
+
+    @Test
+    public void testShrink() throws Exception {
+        this.serviceTask.setPreparedServiceCount(3);
+
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+        this.awaitPreparations();
+
+        ICloudService definedService = this.createService();
+
+        //only the services of the pool, which exceed the lowered count, are deleted
+        this.serviceTask.setPreparedServiceCount(2);
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+
+        Assert.assertEquals(2, this.services.size());
+        Assert.assertEquals(1, this.preparedServicePool.getPooledServices().size());
+        Assert.assertTrue(this.services.containsValue(definedService));
+
+        this.serviceTask.setPreparedServiceCount(0);
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+
+        Assert.assertEquals(Collections.singleton(definedService), new HashSet<>(this.services.values()));
+        Assert.assertTrue(this.preparedServicePool.getPooledServices().isEmpty());
+
+        //the pool of a task, which isn't associated with this node, is empty
+        this.serviceTask.setPreparedServiceCount(2);
+        this.serviceTask.setAssociatedNodes(Collections.singletonList("Node-2"));
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+
+        Assert.assertEquals(3, this.createdServices.get());
+    }
+
+    @Test
+    public void testClose() {
+        this.preparedServicePool.close();
+
+        //the services are still created, but they are prepared on their start
+        this.preparedServicePool.fill(this.cloudServiceManager, "Node-1");
+
+        Assert.assertEquals(2, this.services.size());
+        Assert.assertTrue(this.preparedServicePool.getPreparingServices().isEmpty());
+
+        for (ICloudService cloudService : this.services.values()) {
+            Assert.assertFalse(this.preparedServicePool.isPrepared(cloudService));
+        }
+    }
+
+    private void awaitPreparations() throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+
+        while (!this.preparedServicePool.getPreparingServices().isEmpty()) {
+            Assert.assertTrue(System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    private void setLifeCycle(ICloudService cloudService, ServiceLifeCycle lifeCycle) {
+        ((ServiceState) Proxy.getInvocationHandler(cloudService)).lifeCycle.set(lifeCycle);
+    }
+
+    private ICloudService createService() {
+        ServiceId serviceId = new ServiceId(UUID.randomUUID(), "Node-1", "Lobby", this.services.size() + 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+        ServiceState serviceState = new ServiceState(serviceId);
+
+        ICloudService cloudService = (ICloudService) Proxy.newProxyInstance(ICloudService.class.getClassLoader(), new Class[]{ICloudService.class}, serviceState);
+        this.services.put(serviceId.getUniqueId(), cloudService);
+
+        return cloudService;
+    }
+
+    private final class ServiceState implements InvocationHandler {
+
+        private final ServiceId serviceId;
+
+        private final AtomicReference<ServiceLifeCycle> lifeCycle = new AtomicReference<>(ServiceLifeCycle.DEFINED);
+
+        private final Queue<ServiceRemoteInclusion> waitingIncludes = new ConcurrentLinkedQueue<>();
+
+        private final Queue<ServiceTemplate> waitingTemplates = new ConcurrentLinkedQueue<>(Collections.singletonList(new ServiceTemplate("Lobby", "default", "local")));
+
+        private ServiceState(ServiceId serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getServiceId":
+                    return this.serviceId;
+                case "getLifeCycle":
+                    return this.lifeCycle.get();
+                case "getWaitingIncludes":
+                    return this.waitingIncludes;
+                case "getWaitingTemplates":
+                    return this.waitingTemplates;
+                case "includeInclusions":
+                    this.waitingIncludes.clear();
+                    return null;
+                case "includeTemplates":
+                    this.waitingTemplates.clear();
+                    return null;
+                case "delete":
+                    this.lifeCycle.set(ServiceLifeCycle.DELETED);
+                    services.remove(this.serviceId.getUniqueId());
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceClassDataArchivesTest {
+
+    private final File directory = new File("build/tests/classDataArchives");
+
+    private final AtomicInteger versionResolves = new AtomicInteger(), validations = new AtomicInteger();
+
+    private File wrapperFile, applicationFile;
+
+    private ServiceClassDataArchives classDataArchives;
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.delete(this.directory);
+        new File(this.directory, "service").mkdirs();
+
+        this.wrapperFile = new File(this.directory, "wrapper.jar");
+        this.applicationFile = new File(this.directory, "service/spigot.jar");
+
+        Files.write(this.wrapperFile.toPath(), "wrapper".getBytes(StandardCharsets.UTF_8));
+        Files.write(this.applicationFile.toPath(), "spigot".getBytes(StandardCharsets.UTF_8));
+
+        this.classDataArchives = new ServiceClassDataArchives(new File(this.directory, "cds").toPath(), true, command -> {
+            this.versionResolves.incrementAndGet();
+            return ServiceClassDataArchives.JavaVersion.parse(command.equals("java8") ?
+                    "openjdk version \"1.8.0_212\"\nOpenJDK Runtime Environment (build 1.8.0_212-b04)" :
+                    "openjdk version \"17.0.2\" 2022-01-18\nOpenJDK Runtime Environment (build 17.0.2+8-86)");
+        }, (jvmCommand, classPath, archiveFile) -> {
+            this.validations.incrementAndGet();
+
+            try {
+                return !new String(Files.readAllBytes(archiveFile), StandardCharsets.UTF_8).equals("corrupt");
+            } catch (IOException exception) {
+                return false;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.delete(this.directory);
+    }
+
+    @Test
+    public void testUnsupportedJavaVersion() {
+        ServiceClassDataArchives.Launch launch = this.classDataArchives.prepare("java8", ServiceEnvironmentType.MINECRAFT_SERVER, this.wrapperFile, this.applicationFile);
+        this.classDataArchives.prepare("java8", ServiceEnvironmentType.MINECRAFT_SERVER, this.wrapperFile, this.applicationFile);
+
+        Assert.assertTrue(launch.getJvmArguments().isEmpty());
+        Assert.assertEquals(this.wrapperFile.getAbsolutePath() + File.pathSeparator + this.applicationFile.getAbsolutePath(), launch.getClassPath());
+        Assert.assertEquals(1, this.versionResolves.get());
+    }
+
+    @Test
+    public void testArchiveLifecycle() throws Exception {
+        //the first service generates the archive, the others are started as usual meanwhile
+        ServiceClassDataArchives.Launch generatingLaunch = this.prepare();
+        ServiceClassDataArchives.Launch concurrentLaunch = this.prepare();
+
+        Assert.assertNotNull(generatingLaunch.getGeneratedArchiveFile());
+        Assert.assertEquals("-XX:ArchiveClassesAtExit=" + generatingLaunch.getGeneratedArchiveFile().toAbsolutePath(), generatingLaunch.getJvmArguments().get(0));
+        Assert.assertFalse(generatingLaunch.getClassPath().contains(this.applicationFile.getAbsolutePath()));
+        Assert.assertTrue(concurrentLaunch.getJvmArguments().isEmpty());
+
+        //a process, which has been killed, doesn't write an archive
+        generatingLaunch.complete(-1);
+        generatingLaunch = this.prepare();
+        Assert.assertNotNull(generatingLaunch.getGeneratedArchiveFile());
+
+        //an archive, which has been truncated by a killed process, is deleted and generated again
+        Files.write(generatingLaunch.getGeneratedArchiveFile(), "truncated".getBytes(StandardCharsets.UTF_8));
+        generatingLaunch.complete(143);
+
+        Assert.assertFalse(Files.exists(generatingLaunch.getGeneratedArchiveFile()));
+        Assert.assertEquals(0, this.validations.get());
+
+        //an archive, which isn't accepted by the jvm, is deleted as well
+        generatingLaunch = this.prepare();
+        Files.write(generatingLaunch.getGeneratedArchiveFile(), "corrupt".getBytes(StandardCharsets.UTF_8));
+        generatingLaunch.complete(0);
+
+        Assert.assertFalse(Files.exists(generatingLaunch.getGeneratedArchiveFile()));
+        Assert.assertEquals(1, this.validations.get());
+
+        generatingLaunch = this.prepare();
+        Assert.assertNotNull(generatingLaunch.getGeneratedArchiveFile());
+
+        Files.write(generatingLaunch.getGeneratedArchiveFile(), "archive".getBytes(StandardCharsets.UTF_8));
+        generatingLaunch.complete(0);
+
+        ServiceClassDataArchives.Launch archiveLaunch = this.prepare();
+        Path archiveFile = generatingLaunch.getGeneratedArchiveFile().resolveSibling(ServiceClassDataArchives.ARCHIVE_FILE_NAME);
+
+        Assert.assertNull(archiveLaunch.getGeneratedArchiveFile());
+        Assert.assertTrue(archiveLaunch.getJvmArguments().contains("-XX:SharedArchiveFile=" + archiveFile.toAbsolutePath()));
+        Assert.assertEquals(generatingLaunch.getClassPath(), archiveLaunch.getClassPath());
+
+        for (String classPathEntry : archiveLaunch.getClassPath().split(File.pathSeparator)) {
+            Assert.assertTrue(new File(classPathEntry).exists());
+        }
+
+        //a changed jar leads to a new archive, the archive of the previous jar may still be used by another template
+        Files.write(this.applicationFile.toPath(), "spigot-update".getBytes(StandardCharsets.UTF_8));
+
+        ServiceClassDataArchives.Launch updateLaunch = this.prepare();
+        Assert.assertNotNull(updateLaunch.getGeneratedArchiveFile());
+        Assert.assertNotEquals(archiveLaunch.getClassPath(), updateLaunch.getClassPath());
+
+        Files.write(updateLaunch.getGeneratedArchiveFile(), "archive".getBytes(StandardCharsets.UTF_8));
+        updateLaunch.complete(0);
+
+        Assert.assertTrue(Files.exists(archiveFile));
+        Assert.assertTrue(this.prepare().getJvmArguments().get(1).startsWith("-XX:SharedArchiveFile="));
+
+        //the archives, which haven't been used for the timeout, are deleted with the next new archive
+        Files.setLastModifiedTime(archiveFile.getParent(), FileTime.fromMillis(System.currentTimeMillis() - ServiceClassDataArchives.UNUSED_ARCHIVE_TIMEOUT - 1000));
+        Files.write(this.applicationFile.toPath(), "spigot-update-2".getBytes(StandardCharsets.UTF_8));
+
+        updateLaunch = this.prepare();
+        Files.write(updateLaunch.getGeneratedArchiveFile(), "archive".getBytes(StandardCharsets.UTF_8));
+        updateLaunch.complete(0);
+
+        Assert.assertFalse(Files.exists(archiveFile));
+        Assert.assertEquals(2, Files.list(archiveFile.getParent().getParent()).count());
+
+        //the archives are separated by the environments
+        Assert.assertNotNull(this.classDataArchives.prepare("java17", ServiceEnvironmentType.BUNGEECORD, this.wrapperFile, this.applicationFile).getGeneratedArchiveFile());
+    }
+
+    private ServiceClassDataArchives.Launch prepare() {
+        return this.classDataArchives.prepare("java17", ServiceEnvironmentType.MINECRAFT_SERVER, this.wrapperFile, this.applicationFile);
+    }
+}
@@ -0,0 +1,90 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ServiceConsoleLogForwarderTest {
+
+    private final List<Pair<String, IPacket>> packets = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testSubscriptions() {
+        UUID localServiceId = UUID.randomUUID();
+        IServiceConsoleLogCache logCache = new DefaultServiceConsoleLogCache(null, 16);
+
+        ICloudService localService = (ICloudService) Proxy.newProxyInstance(ICloudService.class.getClassLoader(), new Class[]{ICloudService.class},
+                (proxy, method, args) -> method.getName().equals("getServiceConsoleLogCache") ? logCache : null);
+        Map<UUID, ICloudService> localServices = Collections.singletonMap(localServiceId, localService);
+
+        ServiceConsoleLogForwarder forwarder = new ServiceConsoleLogForwarder(() -> localServices, (nodeUniqueId, packet) -> this.packets.add(new Pair<>(nodeUniqueId, packet)), () -> "Node-1");
+
+        //the subscriptions of this node are only sent for the first consumer and after the last consumer
+        ServiceInfoSnapshot remoteService = this.createServiceInfoSnapshot("Node-2");
+
+        forwarder.subscribe(remoteService);
+        forwarder.setScreenEnabled(remoteService, true);
+
+        Assert.assertEquals(1, this.packets.size());
+        Assert.assertEquals("Node-2", this.packets.get(0).getFirst());
+        Assert.assertTrue(this.packets.get(0).getSecond().getHeader().getBoolean("subscribe"));
+        Assert.assertEquals("Node-1", this.packets.get(0).getSecond().getHeader().getString("nodeUniqueId"));
+
+        forwarder.unsubscribe(remoteService);
+        Assert.assertTrue(forwarder.isSubscribed(remoteService.getServiceId().getUniqueId()));
+
+        //the subscriptions are sent again, after the node has been connected again
+        forwarder.handleNodeConnect("Node-2");
+        forwarder.handleNodeConnect("Node-3");
+
+        Assert.assertEquals(2, this.packets.size());
+        Assert.assertTrue(this.packets.get(1).getSecond().getHeader().getBoolean("subscribe"));
+
+        forwarder.setScreenEnabled(remoteService, false);
+
+        Assert.assertFalse(forwarder.isSubscribed(remoteService.getServiceId().getUniqueId()));
+        Assert.assertEquals(3, this.packets.size());
+        Assert.assertFalse(this.packets.get(2).getSecond().getHeader().getBoolean("subscribe"));
+
+        //the subscriptions of other nodes to the local services are removed, if the node disconnects
+        forwarder.handleSubscription(localServiceId, "Node-2", true);
+        forwarder.handleSubscription(localServiceId, "Node-3", true);
+        forwarder.handleSubscription(UUID.randomUUID(), "Node-3", true);
+
+        Assert.assertEquals(2, logCache.getSubscribedNodes().size());
+
+        forwarder.handleSubscription(localServiceId, "Node-3", false);
+        Assert.assertEquals(Collections.singletonList("Node-2"), new ArrayList<>(logCache.getSubscribedNodes()));
+
+        forwarder.handleNodeDisconnect("Node-2");
+        Assert.assertTrue(logCache.getSubscribedNodes().isEmpty());
+    }
+
+    private ServiceInfoSnapshot createServiceInfoSnapshot(String nodeUniqueId) {
+        ServiceId serviceId = new ServiceId(UUID.randomUUID(), nodeUniqueId, "Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+
+        return new ServiceInfoSnapshot(
+                System.currentTimeMillis(),
+                serviceId,
+                null,
+                false,
+                ServiceLifeCycle.RUNNING,
+                null,
+                new ServiceConfiguration(serviceId, "java", false, false, new String[0], null, null, null, null, 0)
+        );
+    }
+}
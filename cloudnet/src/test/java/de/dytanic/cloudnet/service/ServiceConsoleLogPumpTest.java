@@ -0,0 +1,82 @@
+package de.dytanic.cloudnet.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ServiceConsoleLogPumpTest {
+
+    @Test
+    public void testLineFraming() throws Exception {
+        ServiceConsoleLogPump logPump = new ServiceConsoleLogPump(1);
+
+        List<String> receivedLines = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finishedLines = new CountDownLatch(4);
+
+        InputStream inputStream = new ByteArrayInputStream("Starting server\r\n\nDone (1.5s)!\rÜberprüfung\n   \nlast line without line break".getBytes(StandardCharsets.UTF_8));
+
+        logPump.register(new TerminatedProcess(), inputStream, text -> {
+            receivedLines.add(text);
+            finishedLines.countDown();
+        });
+
+        Assert.assertTrue(finishedLines.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("Starting server", "Done (1.5s)!", "Überprüfung", "last line without line break"), receivedLines);
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (logPump.getStreamCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(0, logPump.getStreamCount());
+
+        logPump.close();
+    }
+
+    private static final class TerminatedProcess extends Process {
+
+        @Override
+        public OutputStream getOutputStream() {
+            return null;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return null;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return null;
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isAlive() {
+            return false;
+        }
+    }
+}
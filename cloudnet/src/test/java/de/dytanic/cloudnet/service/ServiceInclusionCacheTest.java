@@ -0,0 +1,115 @@
+package de.dytanic.cloudnet.service;
+
+import com.sun.net.httpserver.HttpServer;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceInclusionCacheTest {
+
+    private static final byte[] CONTENT = "inclusion content".getBytes(StandardCharsets.UTF_8);
+
+    private static final String ETAG = "\"v1\"";
+
+    private final Path directory = Paths.get("build/tests/serviceInclusionCache");
+
+    private final AtomicInteger downloads = new AtomicInteger(), notModified = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer httpServer;
+
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.delete(this.directory.toFile());
+
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.httpServer.createContext("/plugin.jar", exchange -> {
+            try {
+                this.release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                exception.printStackTrace();
+            }
+
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                this.notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+
+            this.downloads.incrementAndGet();
+
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.sendResponseHeaders(200, CONTENT.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(CONTENT);
+            }
+        });
+        this.httpServer.start();
+
+        this.url = "http://127.0.0.1:" + this.httpServer.getAddress().getPort() + "/plugin.jar";
+    }
+
+    @After
+    public void tearDown() {
+        this.httpServer.stop(0);
+        FileUtils.delete(this.directory.toFile());
+    }
+
+    @Test
+    public void testConcurrentFetch() throws Exception {
+        try (ServiceInclusionCache cache = new ServiceInclusionCache(this.directory.resolve("cache"), Long.MAX_VALUE, 4, "*.jar")) {
+            CompletableFuture<Path> first = cache.fetch(this.url, Collections.emptyMap(), null);
+            CompletableFuture<Path> second = cache.fetch(this.url, Collections.emptyMap(), null);
+
+            this.release.countDown();
+
+            Assert.assertEquals(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, this.downloads.get());
+
+            //the cached file is used without a request until the revalidation interval is over
+            Path cachedFile = cache.fetch(this.url, Collections.emptyMap(), null).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(1, this.downloads.get());
+
+            Path destination = this.directory.resolve("service/plugins/plugin.jar");
+            cache.deliver(cachedFile, destination);
+
+            Assert.assertArrayEquals(CONTENT, Files.readAllBytes(destination));
+        }
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        this.release.countDown();
+
+        try (ServiceInclusionCache cache = new ServiceInclusionCache(this.directory.resolve("cache"), 0, 1, null)) {
+            Path cachedFile = cache.fetch(this.url, Collections.emptyMap(), null).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(cachedFile, cache.fetch(this.url, Collections.emptyMap(), null).get(10, TimeUnit.SECONDS));
+
+            Assert.assertEquals(1, this.downloads.get());
+            Assert.assertEquals(1, this.notModified.get());
+            Assert.assertArrayEquals(CONTENT, Files.readAllBytes(cachedFile));
+
+            //a cancelled request of an uncached url doesn't return a file
+            Assert.assertNull(cache.fetch(this.url + "?other", Collections.emptyMap(), connection -> false).get(10, TimeUnit.SECONDS));
+        }
+    }
+}
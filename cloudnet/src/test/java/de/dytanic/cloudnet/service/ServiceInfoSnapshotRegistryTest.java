@@ -0,0 +1,84 @@
+package de.dytanic.cloudnet.service;
+
+import de.dytanic.cloudnet.driver.service.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+public class ServiceInfoSnapshotRegistryTest {
+
+    @Test
+    public void testIndexes() {
+        ServiceInfoSnapshotRegistry registry = new ServiceInfoSnapshotRegistry();
+
+        ServiceInfoSnapshot lobby1 = this.createServiceInfoSnapshot("Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER, ServiceLifeCycle.RUNNING, "Global", "Lobbies");
+        ServiceInfoSnapshot lobby2 = this.createServiceInfoSnapshot("Lobby", 2, ServiceEnvironmentType.MINECRAFT_SERVER, ServiceLifeCycle.PREPARED, "Global", "Lobbies");
+        ServiceInfoSnapshot proxy1 = this.createServiceInfoSnapshot("Proxy", 1, ServiceEnvironmentType.BUNGEECORD, ServiceLifeCycle.RUNNING, "Global");
+
+        for (ServiceInfoSnapshot serviceInfoSnapshot : new ServiceInfoSnapshot[]{lobby1, lobby2, proxy1}) {
+            registry.put(serviceInfoSnapshot.getServiceId().getUniqueId(), serviceInfoSnapshot);
+        }
+
+        Assert.assertEquals(3, registry.size());
+        Assert.assertEquals(2, registry.getByTask("lobby").size());
+        Assert.assertEquals(1, registry.getByTask("Lobby", ServiceLifeCycle.RUNNING).size());
+        Assert.assertEquals(2, registry.getByTask("Lobby", ServiceLifeCycle.RUNNING, ServiceLifeCycle.PREPARED).size());
+        Assert.assertEquals(3, registry.getByGroup("Global").size());
+        Assert.assertEquals(2, registry.getByGroup("Lobbies").size());
+        Assert.assertEquals(1, registry.getByEnvironment(ServiceEnvironmentType.BUNGEECORD).size());
+        Assert.assertEquals(2, registry.getByLifeCycle(ServiceLifeCycle.RUNNING).size());
+
+        //an update replaces the index entries of the previous snapshot
+        ServiceInfoSnapshot startedLobby2 = this.createServiceInfoSnapshot(lobby2.getServiceId(), ServiceLifeCycle.RUNNING, "Global");
+        registry.put(startedLobby2.getServiceId().getUniqueId(), startedLobby2);
+
+        Assert.assertEquals(3, registry.size());
+        Assert.assertEquals(2, registry.getByTask("Lobby", ServiceLifeCycle.RUNNING).size());
+        Assert.assertTrue(registry.getByTask("Lobby", ServiceLifeCycle.PREPARED).isEmpty());
+        Assert.assertEquals(1, registry.getByGroup("Lobbies").size());
+        Assert.assertEquals(3, registry.getByLifeCycle(ServiceLifeCycle.RUNNING).size());
+
+        registry.remove(lobby1.getServiceId().getUniqueId());
+
+        Assert.assertEquals(1, registry.getByTask("Lobby").size());
+        Assert.assertTrue(registry.getByGroup("Lobbies").isEmpty());
+        Assert.assertEquals(2, registry.getByLifeCycle(ServiceLifeCycle.RUNNING).size());
+
+        //removals through the views of the map keep the indexes up to date
+        Iterator<Map.Entry<UUID, ServiceInfoSnapshot>> iterator = registry.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().getServiceId().getTaskName().equals("Proxy")) {
+                iterator.remove();
+            }
+        }
+
+        Assert.assertEquals(1, registry.size());
+        Assert.assertTrue(registry.getByEnvironment(ServiceEnvironmentType.BUNGEECORD).isEmpty());
+        Assert.assertEquals(1, registry.getByGroup("Global").size());
+
+        registry.values().clear();
+
+        Assert.assertTrue(registry.isEmpty());
+        Assert.assertTrue(registry.getByTask("Lobby").isEmpty());
+        Assert.assertTrue(registry.getByLifeCycle(ServiceLifeCycle.RUNNING).isEmpty());
+    }
+
+    private ServiceInfoSnapshot createServiceInfoSnapshot(String task, int taskServiceId, ServiceEnvironmentType environment, ServiceLifeCycle lifeCycle, String... groups) {
+        return this.createServiceInfoSnapshot(new ServiceId(UUID.randomUUID(), "Node-1", task, taskServiceId, environment), lifeCycle, groups);
+    }
+
+    private ServiceInfoSnapshot createServiceInfoSnapshot(ServiceId serviceId, ServiceLifeCycle lifeCycle, String... groups) {
+        return new ServiceInfoSnapshot(
+                System.currentTimeMillis(),
+                serviceId,
+                null,
+                false,
+                lifeCycle,
+                null,
+                new ServiceConfiguration(serviceId, "java", false, false, groups, null, null, null, null, 0)
+        );
+    }
+}
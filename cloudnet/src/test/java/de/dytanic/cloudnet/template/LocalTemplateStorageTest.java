@@ -9,6 +9,7 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 public final class LocalTemplateStorageTest {
 
@@ -31,8 +32,15 @@ public final class LocalTemplateStorageTest {
         storage.deploy(new File(directory, "Test/default"), new ServiceTemplate("Lobby", "fun", "local"));
         Assert.assertTrue(new File(directory, "Lobby/fun/plugins/test_file.yml").exists());
 
+        Files.write(new File(directory, "Test/default/plugins/test.jar").toPath(), new byte[]{1, 2, 3});
+
         storage.copy(new ServiceTemplate("Test", "default", "local"), new File(directory, "Test/copied"));
         Assert.assertTrue(new File(directory, "Test/copied/plugins/test_file.yml").exists());
+        Assert.assertFalse(Files.isSameFile(new File(directory, "Test/default/plugins/test_file.yml").toPath(), new File(directory, "Test/copied/plugins/test_file.yml").toPath()));
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(new File(directory, "Test/copied/plugins/test.jar").toPath()));
+
+        storage.deploy(new File(directory, "Test/copied"), new ServiceTemplate("Test", "default", "local"), pathname -> true);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(new File(directory, "Test/default/plugins/test.jar").toPath()));
 
         FileUtils.delete(directory);
         Assert.assertFalse(directory.exists());
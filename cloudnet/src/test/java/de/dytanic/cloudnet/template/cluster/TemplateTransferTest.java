@@ -0,0 +1,253 @@
+package de.dytanic.cloudnet.template.cluster;
+
+import de.dytanic.cloudnet.cluster.IClusterNodeServer;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TemplateTransferTest {
+
+    private final Path directory = Paths.get("build/tests/templateTransfer");
+
+    private final Path source = this.directory.resolve("source"), storage = this.directory.resolve("storage");
+
+    private final Queue<Runnable> packets = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger sentChunks = new AtomicInteger();
+
+    private TemplateTransferSender sender;
+
+    private TemplateTransferReceiver receiver;
+
+    private IClusterNodeServer nodeServer;
+
+    private int maxQueuedPackets;
+
+    //handles the queued packets out of order on several threads, if set
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        FileUtils.delete(this.directory.toFile());
+
+        this.sender = new TemplateTransferSender();
+        this.receiver = new TemplateTransferReceiver(
+                this.directory.resolve("transfers"),
+                () -> this.storage,
+                new TemplateBlobStore(this.directory.resolve("blobs"), Long.MAX_VALUE)
+        );
+
+        INetworkChannel channel = (INetworkChannel) Proxy.newProxyInstance(INetworkChannel.class.getClassLoader(), new Class[]{INetworkChannel.class}, (proxy, method, args) -> {
+            if (method.getName().equals("sendPacket")) {
+                IPacket packet = (IPacket) args[0];
+                UUID sessionId = packet.getHeader().get("sessionId", UUID.class);
+
+                this.packets.add(() -> {
+                    switch (packet.getHeader().getString("command")) {
+                        case TemplateTransferReceiver.COMMAND_RESUME:
+                            this.sender.handleResume(sessionId, packet.getHeader());
+                            break;
+                        case TemplateTransferReceiver.COMMAND_ACK:
+                            this.sender.handleAck(sessionId);
+                            break;
+                        case TemplateTransferReceiver.COMMAND_COMPLETE:
+                            this.sender.handleComplete(sessionId, packet.getHeader().getBoolean("success"));
+                            break;
+                    }
+                });
+            }
+            return null;
+        });
+
+        this.nodeServer = (IClusterNodeServer) Proxy.newProxyInstance(IClusterNodeServer.class.getClassLoader(), new Class[]{IClusterNodeServer.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isConnected":
+                    return true;
+                case "getNodeInfo":
+                    return new NetworkClusterNode("Node-2", new HostAndPort[0]);
+                case "saveSendPacket": {
+                    IPacket packet = (IPacket) args[0];
+                    UUID sessionId = packet.getHeader().get("sessionId", UUID.class);
+
+                    this.packets.add(() -> {
+                        switch (packet.getHeader().getString("command")) {
+                            case TemplateTransferSender.COMMAND_BEGIN:
+                                this.receiver.handleBegin(channel, sessionId, packet.getHeader());
+                                break;
+                            case TemplateTransferSender.COMMAND_CHUNK:
+                                this.sentChunks.incrementAndGet();
+                                this.receiver.handleChunk(channel, sessionId, packet.getHeader(), packet.getBody());
+                                break;
+                            case TemplateTransferSender.COMMAND_END:
+                                this.receiver.handleEnd(channel, sessionId);
+                                break;
+                        }
+                    });
+                    return null;
+                }
+                default:
+                    return method.getName().equals("hashCode") ? System.identityHashCode(proxy) : null;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+
+        FileUtils.delete(this.directory.toFile());
+    }
+
+    @Test
+    public void testTransfer() throws Exception {
+        byte[] bigFile = this.createSourceFiles();
+
+        Files.createDirectories(this.storage.resolve("Test/default"));
+        Files.write(this.storage.resolve("Test/default/old.txt"), new byte[]{1, 2, 3});
+
+        this.transfer(new ServiceTemplate("Test", "default", "local"));
+
+        Assert.assertTrue(this.maxQueuedPackets <= TemplateTransferSender.WINDOW_SIZE);
+        Assert.assertEquals(0, this.sender.getTransferCount());
+        Assert.assertEquals(0, this.receiver.getTransferCount());
+
+        Path template = this.storage.resolve("Test/default");
+
+        Assert.assertArrayEquals(bigFile, Files.readAllBytes(template.resolve("plugins/big.jar")));
+        Assert.assertEquals("server-port=25565", new String(Files.readAllBytes(template.resolve("server.properties")), StandardCharsets.UTF_8));
+        Assert.assertTrue(Files.exists(template.resolve("empty.txt")));
+        Assert.assertTrue(Files.isDirectory(template.resolve("plugins/empty")));
+        Assert.assertFalse(Files.exists(template.resolve("old.txt")));
+    }
+
+    @Test
+    public void testIncrementalTransfer() throws Exception {
+        byte[] bigFile = this.createSourceFiles();
+
+        this.transfer(new ServiceTemplate("Test", "default", "local"));
+        Assert.assertTrue(this.sentChunks.get() > 1);
+
+        Files.write(this.source.resolve("server.properties"), "server-port=25566".getBytes(StandardCharsets.UTF_8));
+        Files.write(this.storage.resolve("Test/default/plugins/removed.jar"), new byte[]{1, 2, 3});
+
+        this.transfer(new ServiceTemplate("Test", "default", "local"));
+
+        //only the changed config file is sent again
+        Assert.assertEquals(1, this.sentChunks.get());
+
+        Path template = this.storage.resolve("Test/default");
+
+        Assert.assertEquals("server-port=25566", new String(Files.readAllBytes(template.resolve("server.properties")), StandardCharsets.UTF_8));
+        Assert.assertArrayEquals(bigFile, Files.readAllBytes(template.resolve("plugins/big.jar")));
+        Assert.assertFalse(Files.exists(template.resolve("plugins/removed.jar")));
+
+        //the content of another template is taken from the blob store
+        this.transfer(new ServiceTemplate("Lobby", "default", "local"));
+
+        Assert.assertEquals(0, this.sentChunks.get());
+        Assert.assertArrayEquals(bigFile, Files.readAllBytes(this.storage.resolve("Lobby/default/plugins/big.jar")));
+    }
+
+    @Test
+    public void testConcurrentTransfer() throws Exception {
+        this.executorService = Executors.newFixedThreadPool(4);
+
+        this.createSourceFiles();
+
+        //the last chunk of the file is sent within a window with the previous chunks
+        byte[] bigFile = new byte[TemplateTransferSender.CHUNK_SIZE * (TemplateTransferSender.WINDOW_SIZE + 3) + 123];
+        new Random(42).nextBytes(bigFile);
+        Files.write(this.source.resolve("plugins/big.jar"), bigFile);
+
+        this.transfer(new ServiceTemplate("Test", "default", "local"));
+
+        //the chunks of a window are written out of order, the file is verified after all chunks have been written
+        Assert.assertEquals(TemplateTransferSender.WINDOW_SIZE + 5, this.sentChunks.get());
+        Assert.assertEquals(0, this.receiver.getTransferCount());
+        Assert.assertArrayEquals(bigFile, Files.readAllBytes(this.storage.resolve("Test/default/plugins/big.jar")));
+    }
+
+    @Test
+    public void testNodeDisconnect() throws Exception {
+        this.createSourceFiles();
+        this.sender.transfer(new ServiceTemplate("Test", "default", "local"), this.source, Collections.singletonList(this.nodeServer), true);
+
+        Assert.assertEquals(1, this.sender.getTransferCount());
+
+        this.sender.handleNodeDisconnect("Node-3");
+        Assert.assertEquals(1, this.sender.getTransferCount());
+
+        this.sender.handleNodeDisconnect("Node-2");
+        Assert.assertEquals(0, this.sender.getTransferCount());
+    }
+
+    private byte[] createSourceFiles() throws Exception {
+        byte[] bigFile = new byte[TemplateTransferSender.CHUNK_SIZE * TemplateTransferSender.WINDOW_SIZE * 2 + 12345];
+        new Random(42).nextBytes(bigFile);
+
+        Files.createDirectories(this.source.resolve("plugins/empty"));
+        Files.write(this.source.resolve("plugins/big.jar"), bigFile);
+        Files.write(this.source.resolve("server.properties"), "server-port=25565".getBytes(StandardCharsets.UTF_8));
+        Files.write(this.source.resolve("empty.txt"), new byte[0]);
+
+        return bigFile;
+    }
+
+    private void transfer(ServiceTemplate template) throws Exception {
+        this.sentChunks.set(0);
+        this.maxQueuedPackets = 0;
+
+        this.sender.transfer(template, this.source, Collections.singletonList(this.nodeServer), true);
+
+        while (!this.packets.isEmpty()) {
+            this.maxQueuedPackets = Math.max(this.maxQueuedPackets, this.packets.size());
+
+            if (this.executorService == null) {
+                this.packets.poll().run();
+                continue;
+            }
+
+            List<Callable<Void>> batch = new ArrayList<>();
+
+            for (Runnable packet; (packet = this.packets.poll()) != null; ) {
+                batch.add(0, Executors.callable(packet, null));
+            }
+
+            //the last queued packet is handled first, the others are handled concurrently afterwards
+            this.executorService.submit(batch.remove(0)).get();
+
+            for (Future<Void> future : this.executorService.invokeAll(batch)) {
+                future.get();
+            }
+        }
+
+        Assert.assertEquals(0, this.sender.getTransferCount());
+    }
+}